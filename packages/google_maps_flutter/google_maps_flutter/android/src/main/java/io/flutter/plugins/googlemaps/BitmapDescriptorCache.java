@@ -0,0 +1,145 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.util.LruCache;
+import com.google.android.gms.maps.model.BitmapDescriptor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache of the BitmapDescriptors created from their JSON-like representation.
+ *
+ * <p>Descriptors are keyed by content, so markers sharing the same icon bytes or asset only decode
+ * it once. Entries are weighed by the size of their icon bytes, with a minimum of {@link
+ * #MIN_ENTRY_BYTES}, and the least recently used ones are evicted once {@code maxBytes} is
+ * exceeded. Icons registered by id are kept until they are unregistered or the cache is cleared.
+ *
+ * <p>One cache is owned by each plugin instance and cleared when it is detached from its engine.
+ * Each map uses a {@link #createMapScope map scope} of it, sharing the decoded descriptors but
+ * holding its own registered icons, so maps can't unregister each other's icons.
+ */
+final class BitmapDescriptorCache {
+
+  static final int DEFAULT_MAX_BYTES = 4 * 1024 * 1024;
+
+  /** Weight of a descriptor without icon bytes, such as an asset or a default marker. */
+  static final int MIN_ENTRY_BYTES = 1024;
+
+  private final LruCache<Object, BitmapDescriptor> descriptors;
+  private final Map<String, BitmapDescriptor> registeredIcons = new HashMap<>();
+
+  BitmapDescriptorCache(int maxBytes) {
+    this(
+        new LruCache<Object, BitmapDescriptor>(maxBytes) {
+          @Override
+          protected int sizeOf(Object key, BitmapDescriptor descriptor) {
+            return Math.max(MIN_ENTRY_BYTES, byteCount(key));
+          }
+        });
+  }
+
+  private BitmapDescriptorCache(LruCache<Object, BitmapDescriptor> descriptors) {
+    this.descriptors = descriptors;
+  }
+
+  /**
+   * Returns a cache sharing the decoded descriptors of this one, with no registered icons of its
+   * own yet.
+   */
+  BitmapDescriptorCache createMapScope() {
+    return new BitmapDescriptorCache(descriptors);
+  }
+
+  synchronized BitmapDescriptor get(Object key) {
+    return descriptors.get(key);
+  }
+
+  synchronized void put(Object key, BitmapDescriptor descriptor) {
+    descriptors.put(key, descriptor);
+  }
+
+  synchronized int size() {
+    return descriptors.size();
+  }
+
+  /** Drops the cached descriptors and the registered icons. */
+  synchronized void clear() {
+    descriptors.evictAll();
+    registeredIcons.clear();
+  }
+
+  /** Drops the registered icons, keeping the shared decoded descriptors. */
+  synchronized void clearRegisteredIcons() {
+    registeredIcons.clear();
+  }
+
+  synchronized void registerIcon(String iconId, BitmapDescriptor descriptor) {
+    registeredIcons.put(iconId, descriptor);
+  }
+
+  synchronized void unregisterIcon(String iconId) {
+    registeredIcons.remove(iconId);
+  }
+
+  synchronized BitmapDescriptor getRegisteredIcon(String iconId) {
+    return registeredIcons.get(iconId);
+  }
+
+  /**
+   * Returns a key for the JSON-like descriptor {@code data} that compares byte arrays by content.
+   */
+  static Object toKey(List<?> data) {
+    final List<Object> key = new ArrayList<>(data.size());
+    for (Object item : data) {
+      key.add(item instanceof byte[] ? new BytesKey((byte[]) item) : item);
+    }
+    return key;
+  }
+
+  /** Returns the number of icon bytes held by a key returned by {@link #toKey}. */
+  static int byteCount(Object key) {
+    if (!(key instanceof List)) {
+      return 0;
+    }
+    int byteCount = 0;
+    for (Object item : (List<?>) key) {
+      if (item instanceof BytesKey) {
+        byteCount += ((BytesKey) item).bytes.length;
+      }
+    }
+    return byteCount;
+  }
+
+  private static final class BytesKey {
+    private final byte[] bytes;
+    private final int hashCode;
+
+    BytesKey(byte[] bytes) {
+      this.bytes = bytes;
+      this.hashCode = Arrays.hashCode(bytes);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof BytesKey)) {
+        return false;
+      }
+      BytesKey other = (BytesKey) o;
+      return hashCode == other.hashCode && Arrays.equals(bytes, other.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
@@ -0,0 +1,125 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import androidx.annotation.Nullable;
+import com.google.android.gms.maps.model.CameraPosition;
+
+/**
+ * Bounds the rate of camera move events, coalescing the positions reported in between so that the
+ * latest one is always delivered.
+ *
+ * <p>By default every position is delivered immediately.
+ */
+class CameraMoveThrottler {
+
+  /** Receiver of the throttled camera positions. */
+  interface Listener {
+    void onCameraMove(CameraPosition position);
+  }
+
+  private static final double WORLD_SIZE_PIXELS = 256;
+
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final Listener listener;
+  private final Runnable sendPendingRunnable =
+      new Runnable() {
+        @Override
+        public void run() {
+          scheduled = false;
+          sendPending();
+        }
+      };
+  private long minIntervalMillis = 0;
+  private double minPositionDelta = 0;
+  @Nullable private CameraPosition lastSentPosition;
+  @Nullable private CameraPosition pendingPosition;
+  private long lastSentMillis;
+  private boolean scheduled = false;
+
+  CameraMoveThrottler(Listener listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * Sets the maximum number of positions delivered per second, and the minimum distance the camera
+   * target must move, in logical pixels, for a position to be delivered. Zero disables either limit.
+   */
+  void setThrottle(int maxEventsPerSecond, double minPositionDelta) {
+    this.minIntervalMillis = maxEventsPerSecond > 0 ? 1000 / maxEventsPerSecond : 0;
+    this.minPositionDelta = minPositionDelta;
+  }
+
+  void onCameraMove(CameraPosition position) {
+    pendingPosition = position;
+    if (!hasMovedEnough(position)) {
+      // Kept pending so that the final position is still delivered by flush().
+      return;
+    }
+    final long nextSendMillis = lastSentMillis + minIntervalMillis;
+    if (lastSentPosition == null || SystemClock.uptimeMillis() >= nextSendMillis) {
+      cancelScheduledSend();
+      sendPending();
+    } else if (!scheduled) {
+      scheduled = true;
+      handler.postAtTime(sendPendingRunnable, nextSendMillis);
+    }
+  }
+
+  /** Immediately delivers the last position if it was not delivered yet. */
+  void flush() {
+    cancelScheduledSend();
+    if (pendingPosition != null && !pendingPosition.equals(lastSentPosition)) {
+      sendPending();
+    }
+    pendingPosition = null;
+  }
+
+  /** Drops any pending position and forgets the last delivered one. */
+  void reset() {
+    cancelScheduledSend();
+    pendingPosition = null;
+    lastSentPosition = null;
+  }
+
+  private void cancelScheduledSend() {
+    if (scheduled) {
+      handler.removeCallbacks(sendPendingRunnable);
+      scheduled = false;
+    }
+  }
+
+  private void sendPending() {
+    if (pendingPosition == null) {
+      return;
+    }
+    lastSentPosition = pendingPosition;
+    lastSentMillis = SystemClock.uptimeMillis();
+    pendingPosition = null;
+    listener.onCameraMove(lastSentPosition);
+  }
+
+  private boolean hasMovedEnough(CameraPosition position) {
+    if (minPositionDelta <= 0 || lastSentPosition == null) {
+      return true;
+    }
+    if (position.zoom != lastSentPosition.zoom
+        || position.bearing != lastSentPosition.bearing
+        || position.tilt != lastSentPosition.tilt) {
+      return true;
+    }
+    // Distance in logical pixels at the current zoom level, ignoring the Mercator scale.
+    final double pixelsPerDegree = WORLD_SIZE_PIXELS * Math.pow(2, position.zoom) / 360;
+    final double latitudeDelta = position.target.latitude - lastSentPosition.target.latitude;
+    double longitudeDelta = Math.abs(position.target.longitude - lastSentPosition.target.longitude);
+    if (longitudeDelta > 180) {
+      longitudeDelta = 360 - longitudeDelta;
+    }
+    return Math.hypot(latitudeDelta, longitudeDelta) * pixelsPerDegree >= minPositionDelta;
+  }
+}
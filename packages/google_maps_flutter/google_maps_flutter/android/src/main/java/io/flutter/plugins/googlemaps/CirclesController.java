@@ -4,9 +4,11 @@
 
 package io.flutter.plugins.googlemaps;
 
+import androidx.annotation.Nullable;
 import com.google.android.gms.maps.GoogleMap;
 import com.google.android.gms.maps.model.Circle;
 import com.google.android.gms.maps.model.CircleOptions;
+import com.google.android.gms.maps.model.LatLngBounds;
 import io.flutter.plugin.common.MethodChannel;
 import java.util.HashMap;
 import java.util.List;
@@ -19,6 +21,8 @@ class CirclesController {
   private final MethodChannel methodChannel;
   private final float density;
   private GoogleMap googleMap;
+  @Nullable private ViewportCuller viewportCuller;
+  private final ShapeOptionsDiffer optionsDiffer = new ShapeOptionsDiffer("circleId");
 
   CirclesController(MethodChannel methodChannel, float density) {
     this.circleIdToController = new HashMap<>();
@@ -31,10 +35,57 @@ class CirclesController {
     this.googleMap = googleMap;
   }
 
+  /** Only materializes the circles near the visible region when enabled. */
+  void setViewportCullingEnabled(boolean viewportCullingEnabled) {
+    if (!viewportCullingEnabled) {
+      viewportCuller = null;
+      return;
+    }
+    viewportCuller =
+        new ViewportCuller(
+            new ViewportCuller.ShapeSink() {
+              @Override
+              public void addShape(Object circleOptions) {
+                addCircle(circleOptions);
+              }
+
+              @Override
+              public void changeShape(Object circleOptions) {
+                changeCircle(circleOptions);
+              }
+
+              @Override
+              public void removeShape(String circleId) {
+                removeCircle(circleId);
+              }
+            },
+            Convert::toCircleBounds);
+  }
+
+  /** Returns the number of circles added to the map. */
+  int getCount() {
+    return circleIdToController.size();
+  }
+
+  /** Returns the number of circles, including the ones not added to the map due to culling. */
+  int getTotalCount() {
+    return viewportCuller != null ? viewportCuller.getShapeCount() : circleIdToController.size();
+  }
+
+  void onVisibleRegionChanged(LatLngBounds visibleBounds) {
+    if (viewportCuller != null) {
+      viewportCuller.onVisibleRegionChanged(visibleBounds);
+    }
+  }
+
   void addCircles(List<Object> circlesToAdd) {
     if (circlesToAdd != null) {
       for (Object circleToAdd : circlesToAdd) {
-        addCircle(circleToAdd);
+        if (viewportCuller != null && circleToAdd != null) {
+          viewportCuller.add(getCircleId(circleToAdd), circleToAdd);
+        } else {
+          addCircle(circleToAdd);
+        }
       }
     }
   }
@@ -42,7 +93,11 @@ class CirclesController {
   void changeCircles(List<Object> circlesToChange) {
     if (circlesToChange != null) {
       for (Object circleToChange : circlesToChange) {
-        changeCircle(circleToChange);
+        if (viewportCuller != null && circleToChange != null) {
+          viewportCuller.change(getCircleId(circleToChange), circleToChange);
+        } else {
+          changeCircle(circleToChange);
+        }
       }
     }
   }
@@ -56,10 +111,10 @@ class CirclesController {
         continue;
       }
       String circleId = (String) rawCircleId;
-      final CircleController circleController = circleIdToController.remove(circleId);
-      if (circleController != null) {
-        circleController.remove();
-        googleMapsCircleIdToDartCircleId.remove(circleController.getGoogleMapsCircleId());
+      if (viewportCuller != null) {
+        viewportCuller.remove(circleId);
+      } else {
+        removeCircle(circleId);
       }
     }
   }
@@ -83,6 +138,7 @@ class CirclesController {
     }
     CircleBuilder circleBuilder = new CircleBuilder(density);
     String circleId = Convert.interpretCircleOptions(circle, circleBuilder);
+    optionsDiffer.put(circleId, circle);
     CircleOptions options = circleBuilder.build();
     addCircle(circleId, options, circleBuilder.consumeTapEvents());
   }
@@ -101,7 +157,19 @@ class CirclesController {
     String circleId = getCircleId(circle);
     CircleController circleController = circleIdToController.get(circleId);
     if (circleController != null) {
-      Convert.interpretCircleOptions(circle, circleController);
+      final Map<Object, Object> changedOptions = optionsDiffer.diff(circleId, circle);
+      if (changedOptions != null) {
+        Convert.interpretCircleOptions(changedOptions, circleController);
+      }
+    }
+  }
+
+  private void removeCircle(String circleId) {
+    final CircleController circleController = circleIdToController.remove(circleId);
+    if (circleController != null) {
+      circleController.remove();
+      optionsDiffer.remove(circleId);
+      googleMapsCircleIdToDartCircleId.remove(circleController.getGoogleMapsCircleId());
     }
   }
 
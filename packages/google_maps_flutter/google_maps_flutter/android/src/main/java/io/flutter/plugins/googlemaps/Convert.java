@@ -34,10 +34,47 @@ import java.util.Map;
 /** Conversions between JSON-like values and GoogleMaps data types. */
 class Convert {
 
+  private static final double EARTH_RADIUS_METERS = 6371009;
+
+  /**
+   * Decodes the icon once and keeps it available in {@code bitmapDescriptorCache} as {@code
+   * ["fromRegisteredIcon", iconId]}.
+   */
+  static void registerIcon(BitmapDescriptorCache bitmapDescriptorCache, String iconId, Object o) {
+    if (iconId == null) {
+      throw new IllegalArgumentException("iconId was null");
+    }
+    bitmapDescriptorCache.registerIcon(iconId, toBitmapDescriptor(o, bitmapDescriptorCache));
+  }
+
+  static void unregisterIcon(BitmapDescriptorCache bitmapDescriptorCache, String iconId) {
+    bitmapDescriptorCache.unregisterIcon(iconId);
+  }
+
+  private static BitmapDescriptor toBitmapDescriptor(
+      Object o, BitmapDescriptorCache bitmapDescriptorCache) {
+    final List<?> data = toList(o);
+    if ("fromRegisteredIcon".equals(data.get(0))) {
+      final BitmapDescriptor registeredIcon =
+          bitmapDescriptorCache.getRegisteredIcon(toString(data.get(1)));
+      if (registeredIcon == null) {
+        throw new IllegalArgumentException("No icon registered with id " + data.get(1));
+      }
+      return registeredIcon;
+    }
+    final Object key = BitmapDescriptorCache.toKey(data);
+    BitmapDescriptor descriptor = bitmapDescriptorCache.get(key);
+    if (descriptor == null) {
+      descriptor = createBitmapDescriptor(o);
+      bitmapDescriptorCache.put(key, descriptor);
+    }
+    return descriptor;
+  }
+
   // TODO(hamdikahloun): FlutterMain has been deprecated and should be replaced with FlutterLoader
   //  when it's available in Stable channel: https://github.com/flutter/flutter/issues/70923.
   @SuppressWarnings("deprecation")
-  private static BitmapDescriptor toBitmapDescriptor(Object o) {
+  private static BitmapDescriptor createBitmapDescriptor(Object o) {
     final List<?> data = toList(o);
     switch (toString(data.get(0))) {
       case "defaultMarker":
@@ -238,6 +275,32 @@ class Convert {
     return data;
   }
 
+  /** Converts a packed array or a list of numbers to a double array. */
+  static double[] toDoubleArray(Object o) {
+    if (o instanceof double[]) {
+      return (double[]) o;
+    }
+    final List<?> data = toList(o);
+    final double[] values = new double[data.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = toDouble(data.get(i));
+    }
+    return values;
+  }
+
+  /** Converts a packed array or a list of numbers to an int array. */
+  static int[] toIntArray(Object o) {
+    if (o instanceof int[]) {
+      return (int[]) o;
+    }
+    final List<?> data = toList(o);
+    final int[] values = new int[data.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = toInt(data.get(i));
+    }
+    return values;
+  }
+
   private static LatLngBounds toLatLngBounds(Object o) {
     if (o == null) {
       return null;
@@ -344,6 +407,19 @@ class Convert {
     if (trackCameraPosition != null) {
       sink.setTrackCameraPosition(toBoolean(trackCameraPosition));
     }
+    final Object cameraMoveThrottle = data.get("cameraMoveThrottle");
+    if (cameraMoveThrottle != null) {
+      final List<?> throttleData = toList(cameraMoveThrottle);
+      sink.setCameraMoveThrottle(toInt(throttleData.get(0)), toDouble(throttleData.get(1)));
+    }
+    final Object markerDragCoalescingEnabled = data.get("markerDragCoalescingEnabled");
+    if (markerDragCoalescingEnabled != null) {
+      sink.setMarkerDragCoalescingEnabled(toBoolean(markerDragCoalescingEnabled));
+    }
+    final Object performanceTracingEnabled = data.get("performanceTracingEnabled");
+    if (performanceTracingEnabled != null) {
+      sink.setPerformanceTracingEnabled(toBoolean(performanceTracingEnabled));
+    }
     final Object zoomGesturesEnabled = data.get("zoomGesturesEnabled");
     if (zoomGesturesEnabled != null) {
       sink.setZoomGesturesEnabled(toBoolean(zoomGesturesEnabled));
@@ -376,10 +452,15 @@ class Convert {
     if (buildingsEnabled != null) {
       sink.setBuildingsEnabled(toBoolean(buildingsEnabled));
     }
+    final Object viewportCullingEnabled = data.get("viewportCullingEnabled");
+    if (viewportCullingEnabled != null) {
+      sink.setViewportCullingEnabled(toBoolean(viewportCullingEnabled));
+    }
   }
 
   /** Returns the dartMarkerId of the interpreted marker. */
-  static String interpretMarkerOptions(Object o, MarkerOptionsSink sink) {
+  static String interpretMarkerOptions(
+      Object o, MarkerOptionsSink sink, BitmapDescriptorCache bitmapDescriptorCache) {
     final Map<?, ?> data = toMap(o);
     final Object alpha = data.get("alpha");
     if (alpha != null) {
@@ -404,7 +485,7 @@ class Convert {
     }
     final Object icon = data.get("icon");
     if (icon != null) {
-      sink.setIcon(toBitmapDescriptor(icon));
+      sink.setIcon(toBitmapDescriptor(icon, bitmapDescriptorCache));
     }
 
     final Object infoWindow = data.get("infoWindow");
@@ -496,7 +577,8 @@ class Convert {
     }
   }
 
-  static String interpretPolylineOptions(Object o, PolylineOptionsSink sink) {
+  static String interpretPolylineOptions(
+      Object o, PolylineOptionsSink sink, BitmapDescriptorCache bitmapDescriptorCache) {
     final Map<?, ?> data = toMap(o);
     final Object consumeTapEvents = data.get("consumeTapEvents");
     if (consumeTapEvents != null) {
@@ -508,7 +590,7 @@ class Convert {
     }
     final Object endCap = data.get("endCap");
     if (endCap != null) {
-      sink.setEndCap(toCap(endCap));
+      sink.setEndCap(toCap(endCap, bitmapDescriptorCache));
     }
     final Object geodesic = data.get("geodesic");
     if (geodesic != null) {
@@ -520,7 +602,7 @@ class Convert {
     }
     final Object startCap = data.get("startCap");
     if (startCap != null) {
-      sink.setStartCap(toCap(startCap));
+      sink.setStartCap(toCap(startCap, bitmapDescriptorCache));
     }
     final Object visible = data.get("visible");
     if (visible != null) {
@@ -534,6 +616,10 @@ class Convert {
     if (zIndex != null) {
       sink.setZIndex(toFloat(zIndex));
     }
+    final Object simplificationTolerance = data.get("simplificationTolerance");
+    if (simplificationTolerance != null) {
+      sink.setSimplificationTolerance(toFloat(simplificationTolerance));
+    }
     final Object points = data.get("points");
     if (points != null) {
       sink.setPoints(toPoints(points));
@@ -592,17 +678,147 @@ class Convert {
     }
   }
 
+  /**
+   * Converts a list of [latitude, longitude] pairs, a packed array of interleaved latitudes and
+   * longitudes, or an encoded polyline string to a list of LatLng.
+   */
   private static List<LatLng> toPoints(Object o) {
+    if (o instanceof double[]) {
+      return toPoints((double[]) o);
+    }
+    if (o instanceof String) {
+      return toPoints(decodePolyline((String) o));
+    }
     final List<?> data = toList(o);
     final List<LatLng> points = new ArrayList<>(data.size());
 
     for (Object rawPoint : data) {
       final List<?> point = toList(rawPoint);
-      points.add(new LatLng(toFloat(point.get(0)), toFloat(point.get(1))));
+      points.add(new LatLng(toDouble(point.get(0)), toDouble(point.get(1))));
     }
     return points;
   }
 
+  private static List<LatLng> toPoints(double[] data) {
+    if (data.length % 2 != 0) {
+      throw new IllegalArgumentException(
+          "Packed points should have an even number of values, got: " + data.length);
+    }
+    final List<LatLng> points = new ArrayList<>(data.length / 2);
+    for (int i = 0; i < data.length; i += 2) {
+      points.add(new LatLng(data[i], data[i + 1]));
+    }
+    return points;
+  }
+
+  /**
+   * Replaces the encoded polyline string of the raw shape options by its packed form, so it is only
+   * decoded once however many times the options are interpreted.
+   */
+  @SuppressWarnings("unchecked")
+  static void decodeEncodedPoints(Object o) {
+    final Map<Object, Object> data = (Map<Object, Object>) toMap(o);
+    final Object points = data.get("points");
+    if (points instanceof String) {
+      data.put("points", decodePolyline((String) points));
+    }
+  }
+
+  /**
+   * Decodes a string in the Encoded Polyline Algorithm Format with a precision of 1e5 to packed
+   * interleaved latitudes and longitudes.
+   */
+  static double[] decodePolyline(String encoded) {
+    final int length = encoded.length();
+    // Every value takes at least one character.
+    final double[] packed = new double[length];
+    int count = 0;
+    int index = 0;
+    int latitude = 0;
+    int longitude = 0;
+    while (index < length) {
+      final int[] values = new int[2];
+      for (int component = 0; component < 2; component++) {
+        int result = 0;
+        int shift = 0;
+        int b;
+        do {
+          if (index >= length) {
+            throw new IllegalArgumentException("Truncated encoded polyline: " + encoded);
+          }
+          b = encoded.charAt(index++) - 63;
+          result |= (b & 0x1f) << shift;
+          shift += 5;
+        } while (b >= 0x20);
+        values[component] = (result & 1) != 0 ? ~(result >> 1) : (result >> 1);
+      }
+      latitude += values[0];
+      longitude += values[1];
+      packed[count++] = latitude * 1e-5;
+      packed[count++] = longitude * 1e-5;
+    }
+    return Arrays.copyOf(packed, count);
+  }
+
+  /** Returns the {south, west, north, east} bounds of a marker, or null if it has no position. */
+  static double[] toMarkerBounds(Object o) {
+    final Object position = toMap(o).get("position");
+    if (position == null) {
+      return null;
+    }
+    final List<?> point = toList(position);
+    final double latitude = toDouble(point.get(0));
+    final double longitude = toDouble(point.get(1));
+    return new double[] {latitude, longitude, latitude, longitude};
+  }
+
+  /** Returns the bounds of the points of a polyline or polygon, or null if it has no points. */
+  static double[] toPointsBounds(Object o) {
+    final Object points = toMap(o).get("points");
+    if (points == null) {
+      return null;
+    }
+    final List<LatLng> latLngs = toPoints(points);
+    if (latLngs.isEmpty()) {
+      return null;
+    }
+    final double[] bounds = {
+      Double.POSITIVE_INFINITY,
+      Double.POSITIVE_INFINITY,
+      Double.NEGATIVE_INFINITY,
+      Double.NEGATIVE_INFINITY
+    };
+    for (LatLng latLng : latLngs) {
+      bounds[0] = Math.min(bounds[0], latLng.latitude);
+      bounds[1] = Math.min(bounds[1], latLng.longitude);
+      bounds[2] = Math.max(bounds[2], latLng.latitude);
+      bounds[3] = Math.max(bounds[3], latLng.longitude);
+    }
+    return bounds;
+  }
+
+  /** Returns the bounds of a circle, or null if it has no center. */
+  static double[] toCircleBounds(Object o) {
+    final Map<?, ?> data = toMap(o);
+    final Object center = data.get("center");
+    if (center == null) {
+      return null;
+    }
+    final LatLng latLng = toLatLng(center);
+    final Object radius = data.get("radius");
+    final double latitudeDelta =
+        radius == null ? 0 : Math.toDegrees(toDouble(radius) / EARTH_RADIUS_METERS);
+    final double cosLatitude = Math.cos(Math.toRadians(latLng.latitude));
+    final double longitudeDelta =
+        cosLatitude < 1e-6 ? 180 : Math.min(180, latitudeDelta / cosLatitude);
+    return new double[] {
+      Math.max(-90, latLng.latitude - latitudeDelta),
+      Math.max(-180, latLng.longitude - longitudeDelta),
+      Math.min(90, latLng.latitude + latitudeDelta),
+      Math.min(180, latLng.longitude + longitudeDelta)
+    };
+  }
+
   private static List<List<LatLng>> toHoles(Object o) {
     final List<?> data = toList(o);
     final List<List<LatLng>> holes = new ArrayList<>(data.size());
@@ -642,7 +858,7 @@ class Convert {
     return pattern;
   }
 
-  private static Cap toCap(Object o) {
+  private static Cap toCap(Object o, BitmapDescriptorCache bitmapDescriptorCache) {
     final List<?> data = toList(o);
     switch (toString(data.get(0))) {
       case "buttCap":
@@ -653,9 +869,10 @@ class Convert {
         return new SquareCap();
       case "customCap":
         if (data.size() == 2) {
-          return new CustomCap(toBitmapDescriptor(data.get(1)));
+          return new CustomCap(toBitmapDescriptor(data.get(1), bitmapDescriptorCache));
         } else {
-          return new CustomCap(toBitmapDescriptor(data.get(1)), toFloat(data.get(2)));
+          return new CustomCap(
+              toBitmapDescriptor(data.get(1), bitmapDescriptorCache), toFloat(data.get(2)));
         }
       default:
         throw new IllegalArgumentException("Cannot interpret " + o + " as Cap");
@@ -679,6 +896,10 @@ class Convert {
     if (visible != null) {
       sink.setVisible(toBoolean(visible));
     }
+    final Object heatmap = data.get("heatmap");
+    if (heatmap != null) {
+      interpretHeatmapOptions(heatmap, sink);
+    }
     final String tileOverlayId = (String) data.get("tileOverlayId");
     if (tileOverlayId == null) {
       throw new IllegalArgumentException("tileOverlayId was null");
@@ -687,6 +908,43 @@ class Convert {
     }
   }
 
+  private static void interpretHeatmapOptions(Object o, TileOverlaySink sink) {
+    final Map<?, ?> data = toMap(o);
+    final Object weightedPoints = data.get("data");
+    if (weightedPoints != null) {
+      sink.setHeatmapData(toDoubleArray(weightedPoints));
+    }
+    final Object radius = data.get("radius");
+    if (radius != null) {
+      sink.setHeatmapRadius(toInt(radius));
+    }
+    final Object maxIntensity = data.get("maxIntensity");
+    if (maxIntensity != null) {
+      sink.setHeatmapMaxIntensity(toDouble(maxIntensity));
+    }
+    final Object gradient = data.get("gradient");
+    if (gradient != null) {
+      final Map<?, ?> gradientData = toMap(gradient);
+      sink.setHeatmapGradient(
+          toIntArray(gradientData.get("colors")), toDoubleArray(gradientData.get("startPoints")));
+    }
+  }
+
+  static SnapshotEncoder toSnapshotEncoder(Object o) {
+    if (o == null) {
+      return new SnapshotEncoder("png", 100, 1, null);
+    }
+    final Map<?, ?> data = toMap(o);
+    final Object format = data.get("format");
+    final Object quality = data.get("quality");
+    final Object scale = data.get("scale");
+    return new SnapshotEncoder(
+        format == null ? "png" : toString(format),
+        quality == null ? 100 : toInt(quality),
+        scale == null ? 1 : toFloat(scale),
+        toString(data.get("filePath")));
+  }
+
   static Tile interpretTile(Map<String, ?> data) {
     int width = toInt(data.get("width"));
     int height = toInt(data.get("height"));
@@ -6,6 +6,7 @@ package io.flutter.plugins.googlemaps;
 
 import android.content.Context;
 import android.graphics.Rect;
+import androidx.annotation.Nullable;
 import com.google.android.gms.maps.GoogleMapOptions;
 import com.google.android.gms.maps.model.CameraPosition;
 import com.google.android.gms.maps.model.LatLngBounds;
@@ -16,11 +17,16 @@ import java.util.Map;
 class GoogleMapBuilder implements GoogleMapOptionsSink {
   private final GoogleMapOptions options = new GoogleMapOptions();
   private boolean trackCameraPosition = false;
+  private int cameraMoveMaxEventsPerSecond = 0;
+  private double cameraMoveMinPositionDelta = 0;
+  private boolean markerDragCoalescingEnabled = false;
+  private boolean performanceTracingEnabled = false;
   private boolean myLocationEnabled = false;
   private boolean myLocationButtonEnabled = false;
   private boolean indoorEnabled = true;
   private boolean trafficEnabled = false;
   private boolean buildingsEnabled = true;
+  private boolean viewportCullingEnabled = false;
   private Object initialMarkers;
   private Object initialPolygons;
   private Object initialPolylines;
@@ -33,8 +39,31 @@ class GoogleMapBuilder implements GoogleMapOptionsSink {
       Context context,
       BinaryMessenger binaryMessenger,
       LifecycleProvider lifecycleProvider) {
+    return build(
+        id,
+        context,
+        binaryMessenger,
+        lifecycleProvider,
+        null,
+        new BitmapDescriptorCache(BitmapDescriptorCache.DEFAULT_MAX_BYTES));
+  }
+
+  GoogleMapController build(
+      int id,
+      Context context,
+      BinaryMessenger binaryMessenger,
+      LifecycleProvider lifecycleProvider,
+      @Nullable MapViewPool mapViewPool,
+      BitmapDescriptorCache bitmapDescriptorCache) {
     final GoogleMapController controller =
-        new GoogleMapController(id, context, binaryMessenger, lifecycleProvider, options);
+        new GoogleMapController(
+            id,
+            context,
+            binaryMessenger,
+            lifecycleProvider,
+            options,
+            mapViewPool,
+            bitmapDescriptorCache);
     controller.init();
     controller.setMyLocationEnabled(myLocationEnabled);
     controller.setMyLocationButtonEnabled(myLocationButtonEnabled);
@@ -42,6 +71,10 @@ class GoogleMapBuilder implements GoogleMapOptionsSink {
     controller.setTrafficEnabled(trafficEnabled);
     controller.setBuildingsEnabled(buildingsEnabled);
     controller.setTrackCameraPosition(trackCameraPosition);
+    controller.setCameraMoveThrottle(cameraMoveMaxEventsPerSecond, cameraMoveMinPositionDelta);
+    controller.setMarkerDragCoalescingEnabled(markerDragCoalescingEnabled);
+    controller.setPerformanceTracingEnabled(performanceTracingEnabled);
+    controller.setViewportCullingEnabled(viewportCullingEnabled);
     controller.setInitialMarkers(initialMarkers);
     controller.setInitialPolygons(initialPolygons);
     controller.setInitialPolylines(initialPolylines);
@@ -95,6 +128,22 @@ class GoogleMapBuilder implements GoogleMapOptionsSink {
     this.trackCameraPosition = trackCameraPosition;
   }
 
+  @Override
+  public void setCameraMoveThrottle(int maxEventsPerSecond, double minPositionDelta) {
+    this.cameraMoveMaxEventsPerSecond = maxEventsPerSecond;
+    this.cameraMoveMinPositionDelta = minPositionDelta;
+  }
+
+  @Override
+  public void setMarkerDragCoalescingEnabled(boolean markerDragCoalescingEnabled) {
+    this.markerDragCoalescingEnabled = markerDragCoalescingEnabled;
+  }
+
+  @Override
+  public void setPerformanceTracingEnabled(boolean performanceTracingEnabled) {
+    this.performanceTracingEnabled = performanceTracingEnabled;
+  }
+
   @Override
   public void setRotateGesturesEnabled(boolean rotateGesturesEnabled) {
     options.rotateGesturesEnabled(rotateGesturesEnabled);
@@ -135,6 +184,11 @@ class GoogleMapBuilder implements GoogleMapOptionsSink {
     this.buildingsEnabled = buildingsEnabled;
   }
 
+  @Override
+  public void setViewportCullingEnabled(boolean viewportCullingEnabled) {
+    this.viewportCullingEnabled = viewportCullingEnabled;
+  }
+
   @Override
   public void setMyLocationEnabled(boolean myLocationEnabled) {
     this.myLocationEnabled = myLocationEnabled;
@@ -11,6 +11,7 @@ import android.content.pm.PackageManager;
 import android.graphics.Bitmap;
 import android.graphics.Point;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.util.Log;
 import android.view.View;
 import androidx.annotation.NonNull;
@@ -19,11 +20,13 @@ import androidx.lifecycle.DefaultLifecycleObserver;
 import androidx.lifecycle.Lifecycle;
 import androidx.lifecycle.LifecycleOwner;
 import com.google.android.gms.maps.CameraUpdate;
+import com.google.android.gms.maps.CameraUpdateFactory;
 import com.google.android.gms.maps.GoogleMap;
 import com.google.android.gms.maps.GoogleMap.SnapshotReadyCallback;
 import com.google.android.gms.maps.GoogleMapOptions;
 import com.google.android.gms.maps.MapView;
 import com.google.android.gms.maps.OnMapReadyCallback;
+import com.google.android.gms.maps.Projection;
 import com.google.android.gms.maps.model.CameraPosition;
 import com.google.android.gms.maps.model.Circle;
 import com.google.android.gms.maps.model.LatLng;
@@ -37,12 +40,13 @@ import io.flutter.plugin.common.BinaryMessenger;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugin.platform.PlatformView;
-import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /** Controller of a single GoogleMaps MapView instance. */
 final class GoogleMapController
@@ -59,6 +63,13 @@ final class GoogleMapController
   private final MethodChannel methodChannel;
   private final GoogleMapOptions options;
   @Nullable private MapView mapView;
+  @Nullable private final MapViewPool mapViewPool;
+  private final BitmapDescriptorCache bitmapDescriptorCache;
+  // Encodes the snapshots of this map, shut down when the map is disposed.
+  private final ExecutorService snapshotExecutor = Executors.newSingleThreadExecutor();
+  private final ExecutorService heatmapExecutor = Executors.newSingleThreadExecutor();
+  // Whether mapView was acquired from mapViewPool, in which case it is already created.
+  private final boolean mapViewFromPool;
   @Nullable private GoogleMap googleMap;
   private boolean trackCameraPosition = false;
   private boolean myLocationEnabled = false;
@@ -67,6 +78,7 @@ final class GoogleMapController
   private boolean indoorEnabled = true;
   private boolean trafficEnabled = false;
   private boolean buildingsEnabled = true;
+  private boolean viewportCullingEnabled = false;
   private boolean disposed = false;
   private final float density;
   private MethodChannel.Result mapReadyResult;
@@ -77,6 +89,9 @@ final class GoogleMapController
   private final PolylinesController polylinesController;
   private final CirclesController circlesController;
   private final TileOverlaysController tileOverlaysController;
+  private final CameraMoveThrottler cameraMoveThrottler;
+  private final Map<String, Object> cameraMoveArguments = new HashMap<>(2);
+  private final MapPerformanceStats performanceStats = new MapPerformanceStats();
   private List<Object> initialMarkers;
   private List<Object> initialPolygons;
   private List<Object> initialPolylines;
@@ -89,19 +104,57 @@ final class GoogleMapController
       BinaryMessenger binaryMessenger,
       LifecycleProvider lifecycleProvider,
       GoogleMapOptions options) {
+    this(
+        id,
+        context,
+        binaryMessenger,
+        lifecycleProvider,
+        options,
+        null,
+        new BitmapDescriptorCache(BitmapDescriptorCache.DEFAULT_MAX_BYTES));
+  }
+
+  GoogleMapController(
+      int id,
+      Context context,
+      BinaryMessenger binaryMessenger,
+      LifecycleProvider lifecycleProvider,
+      GoogleMapOptions options,
+      @Nullable MapViewPool mapViewPool,
+      BitmapDescriptorCache bitmapDescriptorCache) {
     this.id = id;
     this.context = context;
     this.options = options;
-    this.mapView = new MapView(context, options);
+    this.mapViewPool = mapViewPool;
+    // Registered icons belong to this map, decoded icons are shared with the other maps.
+    this.bitmapDescriptorCache = bitmapDescriptorCache.createMapScope();
+    // Lite mode can only be set when the MapView is created.
+    MapView pooledMapView =
+        mapViewPool != null && !Boolean.TRUE.equals(options.getLiteMode())
+            ? mapViewPool.acquire()
+            : null;
+    this.mapViewFromPool = pooledMapView != null;
+    this.mapView = mapViewFromPool ? pooledMapView : new MapView(context, options);
     this.density = context.getResources().getDisplayMetrics().density;
-    methodChannel = new MethodChannel(binaryMessenger, "plugins.flutter.io/google_maps_" + id);
+    methodChannel =
+        new MapPerformanceStats.EventCountingMethodChannel(
+            binaryMessenger, "plugins.flutter.io/google_maps_" + id, performanceStats);
     methodChannel.setMethodCallHandler(this);
     this.lifecycleProvider = lifecycleProvider;
-    this.markersController = new MarkersController(methodChannel);
+    this.markersController = new MarkersController(methodChannel, this.bitmapDescriptorCache);
     this.polygonsController = new PolygonsController(methodChannel, density);
-    this.polylinesController = new PolylinesController(methodChannel, density);
+    this.polylinesController =
+        new PolylinesController(methodChannel, density, this.bitmapDescriptorCache);
     this.circlesController = new CirclesController(methodChannel, density);
-    this.tileOverlaysController = new TileOverlaysController(methodChannel);
+    this.tileOverlaysController =
+        new TileOverlaysController(methodChannel, heatmapExecutor, performanceStats);
+    this.cameraMoveThrottler =
+        new CameraMoveThrottler(
+            position -> {
+              // The arguments are encoded synchronously, so the map can be reused.
+              cameraMoveArguments.put("position", Convert.cameraPositionToJson(position));
+              methodChannel.invokeMethod("camera#onMove", cameraMoveArguments);
+            });
   }
 
   @Override
@@ -129,6 +182,15 @@ final class GoogleMapController
   @Override
   public void onMapReady(GoogleMap googleMap) {
     this.googleMap = googleMap;
+    if (mapViewFromPool) {
+      // Applies the options a new MapView would have been created with to the pooled one.
+      googleMap.moveCamera(
+          CameraUpdateFactory.newCameraPosition(
+              options.getCamera() != null
+                  ? options.getCamera()
+                  : MapViewPool.DEFAULT_CAMERA_POSITION));
+      MapViewPool.applyOptions(googleMap, options);
+    }
     this.googleMap.setIndoorEnabled(this.indoorEnabled);
     this.googleMap.setTrafficEnabled(this.trafficEnabled);
     this.googleMap.setBuildingsEnabled(this.buildingsEnabled);
@@ -153,6 +215,20 @@ final class GoogleMapController
 
   @Override
   public void onMethodCall(MethodCall call, MethodChannel.Result result) {
+    final boolean traced =
+        performanceStats.isTracingEnabled()
+            && performanceStats.beginTrace("GoogleMap " + call.method);
+    final long startNanos = SystemClock.elapsedRealtimeNanos();
+    try {
+      handleMethodCall(call, result);
+    } finally {
+      performanceStats.recordMethodCall(
+          call.method, SystemClock.elapsedRealtimeNanos() - startNanos);
+      MapPerformanceStats.endTrace(traced);
+    }
+  }
+
+  private void handleMethodCall(MethodCall call, MethodChannel.Result result) {
     switch (call.method) {
       case "map#waitForMap":
         if (googleMap != null) {
@@ -206,19 +282,84 @@ final class GoogleMapController
           }
           break;
         }
+      case "map#getScreenCoordinates":
+        {
+          if (googleMap != null) {
+            final double[] latLngs = Convert.toDoubleArray(call.arguments);
+            if (latLngs.length % 2 != 0) {
+              result.error(
+                  "Invalid coordinates",
+                  "getScreenCoordinates expects interleaved latitudes and longitudes",
+                  null);
+              break;
+            }
+            final Projection projection = googleMap.getProjection();
+            final int[] screenLocations = new int[latLngs.length];
+            for (int i = 0; i < latLngs.length; i += 2) {
+              Point screenLocation =
+                  projection.toScreenLocation(new LatLng(latLngs[i], latLngs[i + 1]));
+              screenLocations[i] = screenLocation.x;
+              screenLocations[i + 1] = screenLocation.y;
+            }
+            result.success(screenLocations);
+          } else {
+            result.error(
+                "GoogleMap uninitialized",
+                "getScreenCoordinates called prior to map initialization",
+                null);
+          }
+          break;
+        }
+      case "map#getPerformanceStats":
+        {
+          result.success(getPerformanceStats());
+          break;
+        }
+      case "map#getLatLngs":
+        {
+          if (googleMap != null) {
+            final int[] points = Convert.toIntArray(call.arguments);
+            if (points.length % 2 != 0) {
+              result.error(
+                  "Invalid coordinates", "getLatLngs expects interleaved x and y values", null);
+              break;
+            }
+            final Projection projection = googleMap.getProjection();
+            final double[] latLngs = new double[points.length];
+            final Point point = new Point();
+            for (int i = 0; i < points.length; i += 2) {
+              point.set(points[i], points[i + 1]);
+              LatLng latLng = projection.fromScreenLocation(point);
+              latLngs[i] = latLng.latitude;
+              latLngs[i + 1] = latLng.longitude;
+            }
+            result.success(latLngs);
+          } else {
+            result.error(
+                "GoogleMap uninitialized", "getLatLngs called prior to map initialization", null);
+          }
+          break;
+        }
       case "map#takeSnapshot":
         {
           if (googleMap != null) {
             final MethodChannel.Result _result = result;
+            final SnapshotEncoder encoder;
+            try {
+              encoder = Convert.toSnapshotEncoder(call.arguments);
+            } catch (IllegalArgumentException e) {
+              result.error("Invalid snapshot options", e.getMessage(), null);
+              break;
+            }
             googleMap.snapshot(
                 new SnapshotReadyCallback() {
                   @Override
                   public void onSnapshotReady(Bitmap bitmap) {
-                    ByteArrayOutputStream stream = new ByteArrayOutputStream();
-                    bitmap.compress(Bitmap.CompressFormat.PNG, 100, stream);
-                    byte[] byteArray = stream.toByteArray();
-                    bitmap.recycle();
-                    _result.success(byteArray);
+                    if (bitmap == null) {
+                      _result.error("Snapshot failed", "takeSnapshot", null);
+                      return;
+                    }
+                    encoder.encode(snapshotExecutor, bitmap, _result);
                   }
                 });
           } else {
@@ -271,6 +412,19 @@ final class GoogleMapController
           markersController.isInfoWindowShown((String) markerId, result);
           break;
         }
+      case "icons#register":
+        {
+          Convert.registerIcon(
+              bitmapDescriptorCache, call.argument("iconId"), call.argument("icon"));
+          result.success(null);
+          break;
+        }
+      case "icons#unregister":
+        {
+          Convert.unregisterIcon(bitmapDescriptorCache, call.argument("iconId"));
+          result.success(null);
+          break;
+        }
       case "polygons#update":
         {
           List<Object> polygonsToAdd = call.argument("polygonsToAdd");
@@ -446,18 +600,32 @@ final class GoogleMapController
     markersController.onInfoWindowTap(marker.getId());
   }
 
+  @Override
+  public void onInfoWindowClose(Marker marker) {
+    markersController.onInfoWindowClose(marker.getId());
+  }
+
   @Override
   public void onCameraMove() {
     if (!trackCameraPosition) {
       return;
     }
-    final Map<String, Object> arguments = new HashMap<>(2);
-    arguments.put("position", Convert.cameraPositionToJson(googleMap.getCameraPosition()));
-    methodChannel.invokeMethod("camera#onMove", arguments);
+    cameraMoveThrottler.onCameraMove(googleMap.getCameraPosition());
   }
 
   @Override
   public void onCameraIdle() {
+    polylinesController.onZoomChanged(googleMap.getCameraPosition().zoom);
+    if (viewportCullingEnabled) {
+      LatLngBounds visibleBounds = googleMap.getProjection().getVisibleRegion().latLngBounds;
+      markersController.onVisibleRegionChanged(visibleBounds);
+      polygonsController.onVisibleRegionChanged(visibleBounds);
+      polylinesController.onVisibleRegionChanged(visibleBounds);
+      circlesController.onVisibleRegionChanged(visibleBounds);
+    }
+    if (trackCameraPosition) {
+      cameraMoveThrottler.flush();
+    }
     methodChannel.invokeMethod("camera#onIdle", Collections.singletonMap("map", id));
   }
 
@@ -503,14 +671,54 @@ final class GoogleMapController
     }
     disposed = true;
     methodChannel.setMethodCallHandler(null);
+    cameraMoveThrottler.reset();
+    markersController.clearPendingDrags();
     setGoogleMapListener(null);
     destroyMapViewIfNecessary();
+    snapshotExecutor.shutdown();
+    heatmapExecutor.shutdown();
+    bitmapDescriptorCache.clearRegisteredIcons();
     Lifecycle lifecycle = lifecycleProvider.getLifecycle();
     if (lifecycle != null) {
       lifecycle.removeObserver(this);
     }
   }
 
+  private Map<String, Object> getPerformanceStats() {
+    final Map<String, Object> objects = new HashMap<>();
+    objects.put(
+        "markers",
+        objectCountsToJson(markersController.getCount(), markersController.getTotalCount()));
+    objects.put(
+        "polygons",
+        objectCountsToJson(polygonsController.getCount(), polygonsController.getTotalCount()));
+    objects.put(
+        "polylines",
+        objectCountsToJson(polylinesController.getCount(), polylinesController.getTotalCount()));
+    objects.put(
+        "circles",
+        objectCountsToJson(circlesController.getCount(), circlesController.getTotalCount()));
+    objects.put(
+        "tileOverlays",
+        objectCountsToJson(
+            tileOverlaysController.getVisibleCount(), tileOverlaysController.getCount()));
+    final Map<String, Object> data = performanceStats.toJson();
+    data.put("objects", objects);
+    return data;
+  }
+
+  /**
+   * @param count number of objects added to the map, or of visible tile overlays.
+   * @param totalCount number of objects known to the controller, including the culled or hidden
+   *     ones.
+   */
+  private static Map<String, Object> objectCountsToJson(int count, int totalCount) {
+    final Map<String, Object> data = new HashMap<>(2);
+    data.put("count", count);
+    data.put("totalCount", totalCount);
+    return data;
+  }
+
   private void setGoogleMapListener(@Nullable GoogleMapListener listener) {
     if (googleMap == null) {
       Log.v(TAG, "Controller was disposed before GoogleMap was ready.");
@@ -526,6 +734,7 @@ final class GoogleMapController
     googleMap.setOnCircleClickListener(listener);
     googleMap.setOnMapClickListener(listener);
     googleMap.setOnMapLongClickListener(listener);
+    googleMap.setOnInfoWindowCloseListener(listener);
   }
 
   // @Override
@@ -546,7 +755,7 @@ final class GoogleMapController
 
   @Override
   public void onCreate(@NonNull LifecycleOwner owner) {
-    if (disposed) {
+    if (disposed || mapViewFromPool) {
       return;
     }
     mapView.onCreate(null);
@@ -595,7 +804,7 @@ final class GoogleMapController
 
   @Override
   public void onRestoreInstanceState(Bundle bundle) {
-    if (disposed) {
+    if (disposed || mapViewFromPool) {
       return;
     }
     mapView.onCreate(bundle);
@@ -634,6 +843,24 @@ final class GoogleMapController
   @Override
   public void setTrackCameraPosition(boolean trackCameraPosition) {
     this.trackCameraPosition = trackCameraPosition;
+    if (!trackCameraPosition) {
+      cameraMoveThrottler.reset();
+    }
+  }
+
+  @Override
+  public void setCameraMoveThrottle(int maxEventsPerSecond, double minPositionDelta) {
+    cameraMoveThrottler.setThrottle(maxEventsPerSecond, minPositionDelta);
+  }
+
+  @Override
+  public void setPerformanceTracingEnabled(boolean performanceTracingEnabled) {
+    performanceStats.setTracingEnabled(performanceTracingEnabled);
+  }
+
+  @Override
+  public void setMarkerDragCoalescingEnabled(boolean markerDragCoalescingEnabled) {
+    markersController.setMarkerDragCoalescingEnabled(markerDragCoalescingEnabled);
   }
 
   @Override
@@ -817,7 +1044,9 @@ final class GoogleMapController
     if (mapView == null) {
       return;
     }
-    mapView.onDestroy();
+    if (!mapViewFromPool || !mapViewPool.release(mapView, googleMap)) {
+      mapView.onDestroy();
+    }
     mapView = null;
   }
 
@@ -836,4 +1065,17 @@ final class GoogleMapController
   public void setBuildingsEnabled(boolean buildingsEnabled) {
     this.buildingsEnabled = buildingsEnabled;
   }
+
+  /** This call will have no effect on already created map */
+  @Override
+  public void setViewportCullingEnabled(boolean viewportCullingEnabled) {
+    if (googleMap != null || this.viewportCullingEnabled == viewportCullingEnabled) {
+      return;
+    }
+    this.viewportCullingEnabled = viewportCullingEnabled;
+    markersController.setViewportCullingEnabled(viewportCullingEnabled);
+    polygonsController.setViewportCullingEnabled(viewportCullingEnabled);
+    polylinesController.setViewportCullingEnabled(viewportCullingEnabled);
+    circlesController.setViewportCullingEnabled(viewportCullingEnabled);
+  }
 }
@@ -5,6 +5,7 @@
 package io.flutter.plugins.googlemaps;
 
 import android.content.Context;
+import androidx.annotation.Nullable;
 import com.google.android.gms.maps.model.CameraPosition;
 import io.flutter.plugin.common.BinaryMessenger;
 import io.flutter.plugin.common.StandardMessageCodec;
@@ -17,11 +18,27 @@ public class GoogleMapFactory extends PlatformViewFactory {
 
   private final BinaryMessenger binaryMessenger;
   private final LifecycleProvider lifecycleProvider;
+  @Nullable private final MapViewPool mapViewPool;
+  private final BitmapDescriptorCache bitmapDescriptorCache;
 
   GoogleMapFactory(BinaryMessenger binaryMessenger, LifecycleProvider lifecycleProvider) {
+    this(
+        binaryMessenger,
+        lifecycleProvider,
+        null,
+        new BitmapDescriptorCache(BitmapDescriptorCache.DEFAULT_MAX_BYTES));
+  }
+
+  GoogleMapFactory(
+      BinaryMessenger binaryMessenger,
+      LifecycleProvider lifecycleProvider,
+      @Nullable MapViewPool mapViewPool,
+      BitmapDescriptorCache bitmapDescriptorCache) {
     super(StandardMessageCodec.INSTANCE);
     this.binaryMessenger = binaryMessenger;
     this.lifecycleProvider = lifecycleProvider;
+    this.mapViewPool = mapViewPool;
+    this.bitmapDescriptorCache = bitmapDescriptorCache;
   }
 
   @SuppressWarnings("unchecked")
@@ -50,6 +67,7 @@ public class GoogleMapFactory extends PlatformViewFactory {
     if (params.containsKey("tileOverlaysToAdd")) {
       builder.setInitialTileOverlays((List<Map<String, ?>>) params.get("tileOverlaysToAdd"));
     }
-    return builder.build(id, context, binaryMessenger, lifecycleProvider);
+    return builder.build(
+        id, context, binaryMessenger, lifecycleProvider, mapViewPool, bitmapDescriptorCache);
   }
 }
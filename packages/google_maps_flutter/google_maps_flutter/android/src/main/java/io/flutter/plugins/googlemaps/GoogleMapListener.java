@@ -11,6 +11,7 @@ interface GoogleMapListener
         GoogleMap.OnCameraMoveListener,
         GoogleMap.OnCameraMoveStartedListener,
         GoogleMap.OnInfoWindowClickListener,
+        GoogleMap.OnInfoWindowCloseListener,
         GoogleMap.OnMarkerClickListener,
         GoogleMap.OnPolygonClickListener,
         GoogleMap.OnPolylineClickListener,
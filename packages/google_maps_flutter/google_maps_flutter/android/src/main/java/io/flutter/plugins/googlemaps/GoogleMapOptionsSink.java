@@ -30,6 +30,12 @@ interface GoogleMapOptionsSink {
 
   void setTrackCameraPosition(boolean trackCameraPosition);
 
+  void setCameraMoveThrottle(int maxEventsPerSecond, double minPositionDelta);
+
+  void setMarkerDragCoalescingEnabled(boolean markerDragCoalescingEnabled);
+
+  void setPerformanceTracingEnabled(boolean performanceTracingEnabled);
+
   void setZoomGesturesEnabled(boolean zoomGesturesEnabled);
 
   void setLiteModeEnabled(boolean liteModeEnabled);
@@ -46,6 +52,8 @@ interface GoogleMapOptionsSink {
 
   void setBuildingsEnabled(boolean buildingsEnabled);
 
+  void setViewportCullingEnabled(boolean viewportCullingEnabled);
+
   void setInitialMarkers(Object initialMarkers);
 
   void setInitialPolygons(Object initialPolygons);
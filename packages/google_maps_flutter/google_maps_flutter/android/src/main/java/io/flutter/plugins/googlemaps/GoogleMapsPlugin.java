@@ -6,7 +6,11 @@ package io.flutter.plugins.googlemaps;
 
 import android.app.Activity;
 import android.app.Application.ActivityLifecycleCallbacks;
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageManager;
 import android.os.Bundle;
+import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.lifecycle.Lifecycle;
@@ -27,8 +31,16 @@ import io.flutter.embedding.engine.plugins.lifecycle.FlutterLifecycleAdapter;
 public class GoogleMapsPlugin implements FlutterPlugin, ActivityAware {
 
   @Nullable private Lifecycle lifecycle;
+  @Nullable private MapViewPool mapViewPool;
+  // Shared by the maps of this engine, so they decode common icons once.
+  private final BitmapDescriptorCache bitmapDescriptorCache =
+      new BitmapDescriptorCache(BitmapDescriptorCache.DEFAULT_MAX_BYTES);
 
+  private static final String TAG = "GoogleMapsPlugin";
   private static final String VIEW_TYPE = "plugins.flutter.io/google_maps";
+  // Number of MapViews to create ahead of time and reuse across map platform views.
+  private static final String MAP_VIEW_POOL_SIZE_KEY =
+      "io.flutter.plugins.googlemaps.MapViewPoolSize";
 
   @SuppressWarnings("deprecation")
   public static void registerWith(
@@ -67,6 +79,11 @@ public class GoogleMapsPlugin implements FlutterPlugin, ActivityAware {
 
   @Override
   public void onAttachedToEngine(FlutterPluginBinding binding) {
+    final int mapViewPoolSize = getMapViewPoolSize(binding.getApplicationContext());
+    if (mapViewPoolSize > 0) {
+      mapViewPool = new MapViewPool(binding.getApplicationContext(), mapViewPoolSize);
+      mapViewPool.prewarm();
+    }
     binding
         .getPlatformViewRegistry()
         .registerViewFactory(
@@ -79,11 +96,36 @@ public class GoogleMapsPlugin implements FlutterPlugin, ActivityAware {
                   public Lifecycle getLifecycle() {
                     return lifecycle;
                   }
-                }));
+                },
+                mapViewPool,
+                bitmapDescriptorCache));
   }
 
   @Override
-  public void onDetachedFromEngine(FlutterPluginBinding binding) {}
+  public void onDetachedFromEngine(FlutterPluginBinding binding) {
+    if (mapViewPool != null) {
+      mapViewPool.dispose();
+      mapViewPool = null;
+    }
+    bitmapDescriptorCache.clear();
+  }
+
+  /** Reads the MapView pool size from the application's manifest meta-data, defaulting to 0. */
+  private static int getMapViewPoolSize(Context context) {
+    try {
+      ApplicationInfo applicationInfo =
+          context
+              .getPackageManager()
+              .getApplicationInfo(context.getPackageName(), PackageManager.GET_META_DATA);
+      if (applicationInfo.metaData == null) {
+        return 0;
+      }
+      return applicationInfo.metaData.getInt(MAP_VIEW_POOL_SIZE_KEY, 0);
+    } catch (PackageManager.NameNotFoundException e) {
+      Log.e(TAG, "Unable to read the application meta-data", e);
+      return 0;
+    }
+  }
 
   // ActivityAware
 
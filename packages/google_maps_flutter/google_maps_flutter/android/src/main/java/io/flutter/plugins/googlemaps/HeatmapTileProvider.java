@@ -0,0 +1,470 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.graphics.Bitmap;
+import android.os.SystemClock;
+import android.util.Log;
+import android.util.LruCache;
+import androidx.annotation.Nullable;
+import com.google.android.gms.maps.model.Tile;
+import com.google.android.gms.maps.model.TileProvider;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Renders a heatmap of weighted points as map tiles.
+ *
+ * <p>Points are given as a packed array of latitude, longitude and weight triples and are indexed
+ * on the executor of the map. Tiles are rendered on the Maps SDK tile threads, by blurring the
+ * point weights with a Gaussian kernel and mapping the resulting intensities to a color gradient,
+ * and are kept in a memory cache until the heatmap options change.
+ */
+class HeatmapTileProvider implements TileProvider {
+
+  private static final String TAG = "HeatmapTileProvider";
+
+  static final int TILE_SIZE = 256;
+  static final int DEFAULT_RADIUS = 20;
+  static final int MAX_RADIUS = 50;
+  static final int COLOR_MAP_SIZE = 1000;
+  private static final int[] DEFAULT_GRADIENT_COLORS = {0xff66e100, 0xffff0000};
+  private static final double[] DEFAULT_GRADIENT_START_POINTS = {0.2, 1};
+  private static final int TILE_CACHE_BYTES = 8 * 1024 * 1024;
+
+  private final LruCache<Long, Tile> tileCache =
+      new LruCache<Long, Tile>(TILE_CACHE_BYTES) {
+        @Override
+        protected int sizeOf(Long key, Tile tile) {
+          return tile.data == null ? 1 : tile.data.length;
+        }
+      };
+  private final Map<Integer, Double> zoomToMaxIntensity = new HashMap<>();
+  private final Executor indexExecutor;
+  @Nullable private final MapPerformanceStats performanceStats;
+
+  // Guarded by this.
+  private Future<WeightedPointIndex> index = completedIndex(WeightedPointIndex.EMPTY);
+  private long dataFingerprint = ShapeOptionsDiffer.fingerprint(new double[0]);
+  private int radius = DEFAULT_RADIUS;
+  private double[] kernel = createKernel(DEFAULT_RADIUS);
+  private double maxIntensity = 0;
+  private int[] colorMap = createColorMap(DEFAULT_GRADIENT_COLORS, DEFAULT_GRADIENT_START_POINTS);
+  private int generation = 0;
+
+  HeatmapTileProvider(Executor indexExecutor) {
+    this(indexExecutor, null);
+  }
+
+  HeatmapTileProvider(Executor indexExecutor, @Nullable MapPerformanceStats performanceStats) {
+    this.indexExecutor = indexExecutor;
+    this.performanceStats = performanceStats;
+  }
+
+  // Setters return whether the option changed, in which case rendered tiles are outdated.
+
+  /** @param weightedPoints packed latitude, longitude and weight triples. */
+  synchronized boolean setData(final double[] weightedPoints) {
+    if (weightedPoints.length % 3 != 0) {
+      throw new IllegalArgumentException(
+          "Heatmap data must hold latitude, longitude and weight triples, got "
+              + weightedPoints.length
+              + " values");
+    }
+    final long fingerprint = ShapeOptionsDiffer.fingerprint(weightedPoints);
+    if (fingerprint == dataFingerprint) {
+      return false;
+    }
+    dataFingerprint = fingerprint;
+    index.cancel(false);
+    final FutureTask<WeightedPointIndex> indexTask =
+        new FutureTask<>(() -> new WeightedPointIndex(weightedPoints));
+    index = indexTask;
+    indexExecutor.execute(indexTask);
+    invalidate();
+    return true;
+  }
+
+  /** @param radius blur radius in logical pixels. */
+  synchronized boolean setRadius(int radius) {
+    if (radius < 1 || radius > MAX_RADIUS) {
+      throw new IllegalArgumentException(
+          "Heatmap radius must be in [1, " + MAX_RADIUS + "], got: " + radius);
+    }
+    if (radius == this.radius) {
+      return false;
+    }
+    this.radius = radius;
+    this.kernel = createKernel(radius);
+    invalidate();
+    return true;
+  }
+
+  /** @param maxIntensity intensity of the last gradient color, or 0 to compute it per zoom. */
+  synchronized boolean setMaxIntensity(double maxIntensity) {
+    if (maxIntensity == this.maxIntensity) {
+      return false;
+    }
+    this.maxIntensity = maxIntensity;
+    invalidate();
+    return true;
+  }
+
+  synchronized boolean setGradient(int[] colors, double[] startPoints) {
+    final int[] colorMap = createColorMap(colors, startPoints);
+    if (Arrays.equals(colorMap, this.colorMap)) {
+      return false;
+    }
+    this.colorMap = colorMap;
+    invalidate();
+    return true;
+  }
+
+  private void invalidate() {
+    generation++;
+    zoomToMaxIntensity.clear();
+    tileCache.evictAll();
+  }
+
+  @Override
+  public Tile getTile(int x, int y, int zoom) {
+    final long key = ((long) zoom << 58) | ((long) x << 29) | y;
+    final Tile cached = tileCache.get(key);
+    if (cached != null) {
+      if (performanceStats != null) {
+        performanceStats.recordTileRequest(true, 0);
+      }
+      return cached;
+    }
+    if (performanceStats == null) {
+      return renderTile(key, x, y, zoom);
+    }
+    final boolean traced = performanceStats.beginTrace("GoogleMap heatmap tile");
+    final long startNanos = SystemClock.elapsedRealtimeNanos();
+    try {
+      return renderTile(key, x, y, zoom);
+    } finally {
+      performanceStats.recordTileRequest(false, SystemClock.elapsedRealtimeNanos() - startNanos);
+      MapPerformanceStats.endTrace(traced);
+    }
+  }
+
+  private Tile renderTile(long key, int x, int y, int zoom) {
+    final Future<WeightedPointIndex> index;
+    final int radius;
+    final double[] kernel;
+    final int[] colorMap;
+    final int generation;
+    double maxIntensity;
+    synchronized (this) {
+      index = this.index;
+      radius = this.radius;
+      kernel = this.kernel;
+      colorMap = this.colorMap;
+      generation = this.generation;
+      maxIntensity = this.maxIntensity;
+    }
+    final WeightedPointIndex pointIndex;
+    try {
+      pointIndex = index.get();
+    } catch (InterruptedException | ExecutionException e) {
+      Log.e(TAG, "Unable to index the heatmap data", e);
+      return TileProvider.NO_TILE;
+    } catch (CancellationException e) {
+      // The data was replaced while indexing; the tile cache was cleared too.
+      return TileProvider.NO_TILE;
+    }
+    final double[] intensity = computeIntensity(pointIndex, x, y, zoom, radius, kernel);
+    if (intensity == null) {
+      return cacheTile(key, TileProvider.NO_TILE, generation);
+    }
+    if (maxIntensity <= 0) {
+      maxIntensity = getMaxIntensity(pointIndex, zoom, radius, generation);
+    }
+    return cacheTile(key, toTile(intensity, colorMap, maxIntensity), generation);
+  }
+
+  private Tile cacheTile(long key, Tile tile, int generation) {
+    synchronized (this) {
+      // Tiles rendered with stale options are returned but not cached.
+      if (generation == this.generation) {
+        tileCache.put(key, tile);
+      }
+    }
+    return tile;
+  }
+
+  private double getMaxIntensity(WeightedPointIndex index, int zoom, int radius, int generation) {
+    synchronized (this) {
+      final Double maxIntensity = zoomToMaxIntensity.get(zoom);
+      if (maxIntensity != null) {
+        return maxIntensity;
+      }
+    }
+    final double maxIntensity = index.getMaxCellWeight(radius / (TILE_SIZE * Math.pow(2, zoom)));
+    synchronized (this) {
+      if (generation == this.generation) {
+        zoomToMaxIntensity.put(zoom, maxIntensity);
+      }
+    }
+    return maxIntensity;
+  }
+
+  /**
+   * Returns the blurred weights of the {@link #TILE_SIZE} square pixels of a tile, row by row, or
+   * null if no point is close enough to the tile to affect it.
+   */
+  @Nullable
+  static double[] computeIntensity(
+      WeightedPointIndex index, int x, int y, int zoom, int radius, double[] kernel) {
+    final double tileSpan = 1 / Math.pow(2, zoom);
+    final double pixelSpan = tileSpan / TILE_SIZE;
+    final int gridSize = TILE_SIZE + 2 * radius;
+    final double minX = x * tileSpan - radius * pixelSpan;
+    final double minY = y * tileSpan - radius * pixelSpan;
+    final double maxX = minX + gridSize * pixelSpan;
+    final double maxY = minY + gridSize * pixelSpan;
+
+    final double[] weights = new double[gridSize * gridSize];
+    final boolean[] nonEmptyRows = new boolean[gridSize];
+    int count = 0;
+    // Tiles at the antimeridian also see the points on the other side of it.
+    for (int shift = -1; shift <= 1; shift++) {
+      final double shiftedMinX = minX - shift;
+      final double shiftedMaxX = maxX - shift;
+      if (shiftedMaxX <= 0 || shiftedMinX >= 1) {
+        continue;
+      }
+      final int[] cellRange = index.cellRange(shiftedMinX, minY, shiftedMaxX, maxY);
+      for (int cellY = cellRange[1]; cellY <= cellRange[3]; cellY++) {
+        for (int cellX = cellRange[0]; cellX <= cellRange[2]; cellX++) {
+          final int cell = cellY * WeightedPointIndex.GRID_SIZE + cellX;
+          for (int i = index.cellStarts[cell]; i < index.cellStarts[cell + 1]; i++) {
+            final int pixelX = (int) Math.floor((index.xs[i] - shiftedMinX) / pixelSpan);
+            final int pixelY = (int) Math.floor((index.ys[i] - minY) / pixelSpan);
+            if (pixelX < 0 || pixelX >= gridSize || pixelY < 0 || pixelY >= gridSize) {
+              continue;
+            }
+            weights[pixelY * gridSize + pixelX] += index.weights[i];
+            nonEmptyRows[pixelY] = true;
+            count++;
+          }
+        }
+      }
+    }
+    if (count == 0) {
+      return null;
+    }
+
+    // The Gaussian kernel is separable: blur rows, then columns.
+    final double[] rowBlurred = new double[gridSize * TILE_SIZE];
+    for (int row = 0; row < gridSize; row++) {
+      if (!nonEmptyRows[row]) {
+        continue;
+      }
+      final int rowOffset = row * gridSize;
+      for (int column = 0; column < gridSize; column++) {
+        final double weight = weights[rowOffset + column];
+        if (weight == 0) {
+          continue;
+        }
+        // Spreads the weight over the output columns it reaches.
+        final int from = Math.max(0, column - 2 * radius);
+        final int to = Math.min(TILE_SIZE - 1, column);
+        for (int output = from; output <= to; output++) {
+          rowBlurred[row * TILE_SIZE + output] += weight * kernel[column - output];
+        }
+      }
+    }
+    final double[] intensity = new double[TILE_SIZE * TILE_SIZE];
+    boolean nonZero = false;
+    for (int row = 0; row < gridSize; row++) {
+      if (!nonEmptyRows[row]) {
+        continue;
+      }
+      final int from = Math.max(0, row - 2 * radius);
+      final int to = Math.min(TILE_SIZE - 1, row);
+      for (int output = from; output <= to; output++) {
+        final double factor = kernel[row - output];
+        final int outputOffset = output * TILE_SIZE;
+        final int inputOffset = row * TILE_SIZE;
+        for (int column = 0; column < TILE_SIZE; column++) {
+          final double value = rowBlurred[inputOffset + column];
+          if (value != 0) {
+            intensity[outputOffset + column] += value * factor;
+            nonZero = true;
+          }
+        }
+      }
+    }
+    return nonZero ? intensity : null;
+  }
+
+  private static Tile toTile(double[] intensity, int[] colorMap, double maxIntensity) {
+    final int[] pixels = new int[TILE_SIZE * TILE_SIZE];
+    final double scale = (colorMap.length - 1) / maxIntensity;
+    for (int i = 0; i < pixels.length; i++) {
+      final double value = intensity[i];
+      if (value > 0) {
+        pixels[i] = colorMap[(int) Math.min(colorMap.length - 1, value * scale)];
+      }
+    }
+    final Bitmap bitmap =
+        Bitmap.createBitmap(pixels, TILE_SIZE, TILE_SIZE, Bitmap.Config.ARGB_8888);
+    final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    bitmap.compress(Bitmap.CompressFormat.PNG, 100, stream);
+    bitmap.recycle();
+    return new Tile(TILE_SIZE, TILE_SIZE, stream.toByteArray());
+  }
+
+  private static Future<WeightedPointIndex> completedIndex(WeightedPointIndex index) {
+    final FutureTask<WeightedPointIndex> task = new FutureTask<>(() -> index);
+    task.run();
+    return task;
+  }
+
+  /** Returns the Gaussian weights for offsets -radius to radius, with a deviation of radius / 3. */
+  static double[] createKernel(int radius) {
+    final double[] kernel = new double[2 * radius + 1];
+    final double sigma = radius / 3.0;
+    for (int i = -radius; i <= radius; i++) {
+      kernel[i + radius] = Math.exp(-i * i / (2 * sigma * sigma));
+    }
+    return kernel;
+  }
+
+  /**
+   * Returns {@link #COLOR_MAP_SIZE} ARGB colors for intensities from 0 to the max intensity.
+   *
+   * <p>Colors are interpolated between the gradient colors, and fade in from transparent below the
+   * first start point.
+   */
+  static int[] createColorMap(int[] colors, double[] startPoints) {
+    if (colors.length == 0 || colors.length != startPoints.length) {
+      throw new IllegalArgumentException(
+          "Heatmap gradients need as many colors as start points, and at least one");
+    }
+    for (int i = 0; i < startPoints.length; i++) {
+      if (startPoints[i] <= 0
+          || startPoints[i] > 1
+          || (i > 0 && startPoints[i] <= startPoints[i - 1])) {
+        throw new IllegalArgumentException(
+            "Heatmap gradient start points must be increasing and in (0, 1]");
+      }
+    }
+    final int[] colorMap = new int[COLOR_MAP_SIZE];
+    int stop = 0;
+    for (int i = 0; i < COLOR_MAP_SIZE; i++) {
+      final double fraction = (double) i / (COLOR_MAP_SIZE - 1);
+      while (stop < startPoints.length && fraction > startPoints[stop]) {
+        stop++;
+      }
+      if (stop == 0) {
+        colorMap[i] = interpolateColor(colors[0] & 0xffffff, colors[0], fraction / startPoints[0]);
+      } else if (stop == startPoints.length) {
+        colorMap[i] = colors[colors.length - 1];
+      } else {
+        colorMap[i] =
+            interpolateColor(
+                colors[stop - 1],
+                colors[stop],
+                (fraction - startPoints[stop - 1]) / (startPoints[stop] - startPoints[stop - 1]));
+      }
+    }
+    return colorMap;
+  }
+
+  private static int interpolateColor(int from, int to, double ratio) {
+    int color = 0;
+    for (int shift = 0; shift < 32; shift += 8) {
+      final int fromChannel = (from >>> shift) & 0xff;
+      final int toChannel = (to >>> shift) & 0xff;
+      color |= ((int) Math.round(fromChannel + (toChannel - fromChannel) * ratio)) << shift;
+    }
+    return color;
+  }
+
+  /**
+   * Uniform grid of weighted points in normalized Web Mercator coordinates, where the world spans
+   * [0, 1] on both axes.
+   */
+  static final class WeightedPointIndex {
+
+    static final int GRID_SIZE = 256;
+    static final WeightedPointIndex EMPTY = new WeightedPointIndex(new double[0]);
+
+    final double[] xs;
+    final double[] ys;
+    final double[] weights;
+    /** Points of cell {@code c} are at indices {@code cellStarts[c]} to {@code cellStarts[c+1]}. */
+    final int[] cellStarts = new int[GRID_SIZE * GRID_SIZE + 1];
+
+    WeightedPointIndex(double[] weightedPoints) {
+      final int count = weightedPoints.length / 3;
+      final double[] projectedXs = new double[count];
+      final double[] projectedYs = new double[count];
+      final int[] cells = new int[count];
+      for (int i = 0; i < count; i++) {
+        final double latitude = weightedPoints[3 * i];
+        final double longitude = weightedPoints[3 * i + 1];
+        projectedXs[i] = (longitude + 180) / 360;
+        final double sinLatitude =
+            Math.min(0.9999, Math.max(-0.9999, Math.sin(Math.toRadians(latitude))));
+        projectedYs[i] = 0.5 - Math.log((1 + sinLatitude) / (1 - sinLatitude)) / (4 * Math.PI);
+        cells[i] = toCell(projectedYs[i]) * GRID_SIZE + toCell(projectedXs[i]);
+        cellStarts[cells[i] + 1]++;
+      }
+      for (int cell = 0; cell < GRID_SIZE * GRID_SIZE; cell++) {
+        cellStarts[cell + 1] += cellStarts[cell];
+      }
+      // Counting sort of the points by cell.
+      xs = new double[count];
+      ys = new double[count];
+      weights = new double[count];
+      final int[] next = new int[GRID_SIZE * GRID_SIZE];
+      System.arraycopy(cellStarts, 0, next, 0, next.length);
+      for (int i = 0; i < count; i++) {
+        final int position = next[cells[i]]++;
+        xs[position] = projectedXs[i];
+        ys[position] = projectedYs[i];
+        weights[position] = weightedPoints[3 * i + 2];
+      }
+    }
+
+    int size() {
+      return xs.length;
+    }
+
+    /** Returns the first and last cell columns and rows overlapping the given rectangle. */
+    int[] cellRange(double minX, double minY, double maxX, double maxY) {
+      return new int[] {toCell(minX), toCell(minY), toCell(maxX), toCell(maxY)};
+    }
+
+    /** Returns the largest sum of weights in a square of {@code cellSize} normalized units. */
+    double getMaxCellWeight(double cellSize) {
+      final Map<Long, Double> cellToWeight = new HashMap<>();
+      double maxWeight = 0;
+      for (int i = 0; i < xs.length; i++) {
+        final long cell = ((long) (xs[i] / cellSize) << 32) | (long) (ys[i] / cellSize);
+        final Double previous = cellToWeight.get(cell);
+        final double weight = previous == null ? weights[i] : previous + weights[i];
+        cellToWeight.put(cell, weight);
+        maxWeight = Math.max(maxWeight, weight);
+      }
+      return maxWeight > 0 ? maxWeight : 1;
+    }
+
+    private static int toCell(double coordinate) {
+      return Math.min(GRID_SIZE - 1, Math.max(0, (int) (coordinate * GRID_SIZE)));
+    }
+  }
+}
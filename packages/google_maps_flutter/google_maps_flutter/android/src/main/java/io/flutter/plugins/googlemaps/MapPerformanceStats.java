@@ -0,0 +1,142 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.os.Trace;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.flutter.plugin.common.BinaryMessenger;
+import io.flutter.plugin.common.MethodChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cumulative counters of the work done by a map: method calls handled, events sent to Dart and
+ * tiles requested. Reported by map#getPerformanceStats.
+ *
+ * <p>When tracing is enabled, method calls and tile requests are also recorded as {@link Trace}
+ * sections. Methods are thread safe, tiles being requested on the Maps SDK tile threads.
+ */
+class MapPerformanceStats {
+
+  // Trace section names are limited to 127 characters.
+  private static final int MAX_SECTION_NAME_LENGTH = 127;
+
+  private static final class Timing {
+    long count;
+    long totalNanos;
+    long maxNanos;
+
+    void record(long nanos) {
+      count++;
+      totalNanos += nanos;
+      maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    Map<String, Object> toJson() {
+      final Map<String, Object> data = new HashMap<>();
+      data.put("count", count);
+      data.put("totalMicros", totalNanos / 1000);
+      data.put("maxMicros", maxNanos / 1000);
+      return data;
+    }
+  }
+
+  private final Map<String, Timing> methodToTiming = new HashMap<>();
+  private final Map<String, Long> methodToEventCount = new HashMap<>();
+  private final Timing tileTiming = new Timing();
+  private long tileCacheHits;
+  private volatile boolean tracingEnabled = false;
+
+  void setTracingEnabled(boolean tracingEnabled) {
+    this.tracingEnabled = tracingEnabled;
+  }
+
+  /** Returns whether trace sections are emitted, so callers can skip building their names. */
+  boolean isTracingEnabled() {
+    return tracingEnabled;
+  }
+
+  /**
+   * Begins a trace section if tracing is enabled.
+   *
+   * @return whether a section was begun and must be ended with {@link #endTrace(boolean)}.
+   */
+  boolean beginTrace(String sectionName) {
+    if (!tracingEnabled) {
+      return false;
+    }
+    Trace.beginSection(
+        sectionName.length() > MAX_SECTION_NAME_LENGTH
+            ? sectionName.substring(0, MAX_SECTION_NAME_LENGTH)
+            : sectionName);
+    return true;
+  }
+
+  static void endTrace(boolean traced) {
+    if (traced) {
+      Trace.endSection();
+    }
+  }
+
+  synchronized void recordMethodCall(String method, long nanos) {
+    Timing timing = methodToTiming.get(method);
+    if (timing == null) {
+      timing = new Timing();
+      methodToTiming.put(method, timing);
+    }
+    timing.record(nanos);
+  }
+
+  synchronized void recordEvent(String method) {
+    final Long count = methodToEventCount.get(method);
+    methodToEventCount.put(method, count == null ? 1 : count + 1);
+  }
+
+  /** @param nanos time spent fetching or rendering the tile, excluding cache hits. */
+  synchronized void recordTileRequest(boolean cacheHit, long nanos) {
+    tileTiming.record(nanos);
+    if (cacheHit) {
+      tileCacheHits++;
+    }
+  }
+
+  synchronized Map<String, Object> toJson() {
+    final Map<String, Object> methodCalls = new HashMap<>();
+    for (Map.Entry<String, Timing> entry : methodToTiming.entrySet()) {
+      methodCalls.put(entry.getKey(), entry.getValue().toJson());
+    }
+    final Map<String, Object> tiles = tileTiming.toJson();
+    tiles.put("cacheHits", tileCacheHits);
+    tiles.put(
+        "cacheHitRatio", tileTiming.count == 0 ? 0.0 : (double) tileCacheHits / tileTiming.count);
+
+    final Map<String, Object> data = new HashMap<>();
+    data.put("methodCalls", methodCalls);
+    data.put("events", new HashMap<>(methodToEventCount));
+    data.put("tiles", tiles);
+    return data;
+  }
+
+  /** Method channel counting the events sent to Dart in {@link MapPerformanceStats}. */
+  static class EventCountingMethodChannel extends MethodChannel {
+
+    private final MapPerformanceStats stats;
+
+    EventCountingMethodChannel(
+        BinaryMessenger messenger, String name, MapPerformanceStats stats) {
+      super(messenger, name);
+      this.stats = stats;
+    }
+
+    // invokeMethod(String, Object) delegates to this method.
+    @Override
+    public void invokeMethod(
+        @NonNull String method, @Nullable Object arguments, @Nullable Result callback) {
+      stats.recordEvent(method);
+      super.invokeMethod(method, arguments, callback);
+    }
+  }
+}
@@ -0,0 +1,228 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.annotation.SuppressLint;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.util.Log;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.android.gms.maps.GoogleMap;
+import com.google.android.gms.maps.GoogleMapOptions;
+import com.google.android.gms.maps.MapView;
+import com.google.android.gms.maps.MapsInitializer;
+import com.google.android.gms.maps.UiSettings;
+import com.google.android.gms.maps.model.CameraPosition;
+import com.google.android.gms.maps.model.LatLng;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Pool of created, detached MapViews that are handed to new map platform views instead of building
+ * a MapView and loading its GoogleMap from scratch.
+ *
+ * <p>Pooled MapViews are created with the application context and default options, and are kept
+ * in the created and stopped state while they are not in use. The pool is refilled when the main
+ * thread is idle after a MapView is acquired, and emptied when the system asks to trim memory. All
+ * methods must be called on the main thread.
+ */
+class MapViewPool implements ComponentCallbacks2 {
+
+  private static final String TAG = "MapViewPool";
+
+  /** Camera of a GoogleMap created without a camera option. */
+  static final CameraPosition DEFAULT_CAMERA_POSITION =
+      new CameraPosition(new LatLng(0, 0), 0, 0, 0);
+
+  private final Context context;
+  private final int maxSize;
+  private final Deque<MapView> mapViews = new ArrayDeque<>();
+  private boolean fillScheduled = false;
+  private boolean disposed = false;
+
+  private final MessageQueue.IdleHandler fillHandler =
+      new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() {
+          // Creates one MapView per idle pass to avoid long frames.
+          fillScheduled = fillOne();
+          return fillScheduled;
+        }
+      };
+
+  MapViewPool(Context context, int maxSize) {
+    this.context = context.getApplicationContext();
+    this.maxSize = maxSize;
+    this.context.registerComponentCallbacks(this);
+  }
+
+  /** Initializes the Maps SDK and fills the pool the next time the main thread is idle. */
+  void prewarm() {
+    scheduleFill();
+  }
+
+  /** Returns a pooled MapView, or null if the pool is empty, and schedules a refill. */
+  @Nullable
+  MapView acquire() {
+    final MapView mapView = mapViews.poll();
+    scheduleFill();
+    return mapView;
+  }
+
+  /**
+   * Resets {@code mapView} and keeps it for reuse.
+   *
+   * @return false if the pool is full or disposed, in which case the caller must destroy it.
+   */
+  boolean release(MapView mapView, @Nullable GoogleMap googleMap) {
+    if (disposed || mapViews.size() >= maxSize || googleMap == null) {
+      return false;
+    }
+    reset(googleMap);
+    final ViewParent parent = mapView.getParent();
+    if (parent instanceof ViewGroup) {
+      ((ViewGroup) parent).removeView(mapView);
+    }
+    mapView.onPause();
+    mapView.onStop();
+    mapViews.push(mapView);
+    return true;
+  }
+
+  /** Returns the number of MapViews ready to be acquired. */
+  int size() {
+    return mapViews.size();
+  }
+
+  /** Destroys every pooled MapView; the pool is no longer usable afterwards. */
+  void dispose() {
+    disposed = true;
+    context.unregisterComponentCallbacks(this);
+    clear();
+  }
+
+  @Override
+  public void onTrimMemory(int level) {
+    // Pooled MapViews are only a head start, so they are dropped as soon as the app is in the
+    // background or memory runs low while it is in the foreground.
+    if (level >= TRIM_MEMORY_RUNNING_LOW) {
+      clear();
+    }
+  }
+
+  @Override
+  public void onLowMemory() {
+    clear();
+  }
+
+  @Override
+  public void onConfigurationChanged(@NonNull Configuration configuration) {}
+
+  /**
+   * Adds one MapView to the pool if it is not full.
+   *
+   * @return whether the pool still needs more MapViews.
+   */
+  boolean fillOne() {
+    if (disposed) {
+      return false;
+    }
+    if (mapViews.size() < maxSize) {
+      mapViews.push(createMapView());
+    }
+    return mapViews.size() < maxSize;
+  }
+
+  MapView createMapView() {
+    MapsInitializer.initialize(context);
+    final MapView mapView = new MapView(context, new GoogleMapOptions());
+    mapView.onCreate(null);
+    // Loads the GoogleMap so that getMapAsync returns quickly once the view is acquired.
+    mapView.getMapAsync(googleMap -> {});
+    return mapView;
+  }
+
+  private void scheduleFill() {
+    if (disposed || fillScheduled || mapViews.size() >= maxSize) {
+      return;
+    }
+    fillScheduled = true;
+    Looper.myQueue().addIdleHandler(fillHandler);
+  }
+
+  private void clear() {
+    while (!mapViews.isEmpty()) {
+      mapViews.pop().onDestroy();
+    }
+  }
+
+  /**
+   * Applies every option of {@code options} that can change after the map is created, or its
+   * default when the option is not set, except for the camera.
+   */
+  static void applyOptions(GoogleMap googleMap, GoogleMapOptions options) {
+    googleMap.setMapType(options.getMapType());
+    googleMap.setLatLngBoundsForCameraTarget(options.getLatLngBoundsForCameraTarget());
+    googleMap.resetMinMaxZoomPreference();
+    if (options.getMinZoomPreference() != null) {
+      googleMap.setMinZoomPreference(options.getMinZoomPreference());
+    }
+    if (options.getMaxZoomPreference() != null) {
+      googleMap.setMaxZoomPreference(options.getMaxZoomPreference());
+    }
+    final UiSettings uiSettings = googleMap.getUiSettings();
+    uiSettings.setCompassEnabled(isEnabled(options.getCompassEnabled()));
+    uiSettings.setMapToolbarEnabled(isEnabled(options.getMapToolbarEnabled()));
+    uiSettings.setRotateGesturesEnabled(isEnabled(options.getRotateGesturesEnabled()));
+    uiSettings.setScrollGesturesEnabled(isEnabled(options.getScrollGesturesEnabled()));
+    uiSettings.setScrollGesturesEnabledDuringRotateOrZoom(
+        isEnabled(options.getScrollGesturesEnabledDuringRotateOrZoom()));
+    uiSettings.setTiltGesturesEnabled(isEnabled(options.getTiltGesturesEnabled()));
+    uiSettings.setZoomGesturesEnabled(isEnabled(options.getZoomGesturesEnabled()));
+    uiSettings.setZoomControlsEnabled(isEnabled(options.getZoomControlsEnabled()));
+  }
+
+  /** Returns whether a UI option is enabled; they all default to true. */
+  private static boolean isEnabled(@Nullable Boolean option) {
+    return !Boolean.FALSE.equals(option);
+  }
+
+  @SuppressLint("MissingPermission")
+  private static void reset(GoogleMap googleMap) {
+    googleMap.clear();
+    googleMap.setOnInfoWindowClickListener(null);
+    googleMap.setOnInfoWindowCloseListener(null);
+    googleMap.setOnCameraMoveStartedListener(null);
+    googleMap.setOnCameraMoveListener(null);
+    googleMap.setOnCameraIdleListener(null);
+    googleMap.setOnMarkerClickListener(null);
+    googleMap.setOnMarkerDragListener(null);
+    googleMap.setOnPolygonClickListener(null);
+    googleMap.setOnPolylineClickListener(null);
+    googleMap.setOnCircleClickListener(null);
+    googleMap.setOnMapClickListener(null);
+    googleMap.setOnMapLongClickListener(null);
+    googleMap.setMapStyle(null);
+    googleMap.setPadding(0, 0, 0, 0);
+    googleMap.setTrafficEnabled(false);
+    googleMap.setIndoorEnabled(true);
+    googleMap.setBuildingsEnabled(true);
+    applyOptions(googleMap, new GoogleMapOptions());
+    final UiSettings uiSettings = googleMap.getUiSettings();
+    uiSettings.setMyLocationButtonEnabled(true);
+    uiSettings.setIndoorLevelPickerEnabled(true);
+    try {
+      googleMap.setMyLocationEnabled(false);
+    } catch (SecurityException e) {
+      Log.w(TAG, "Unable to disable the MyLocation layer of a pooled map", e);
+    }
+  }
+}
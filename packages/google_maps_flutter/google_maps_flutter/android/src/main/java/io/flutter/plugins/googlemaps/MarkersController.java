@@ -4,12 +4,18 @@
 
 package io.flutter.plugins.googlemaps;
 
+import android.view.Choreographer;
+import androidx.annotation.Nullable;
 import com.google.android.gms.maps.GoogleMap;
 import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.maps.model.LatLngBounds;
 import com.google.android.gms.maps.model.Marker;
 import com.google.android.gms.maps.model.MarkerOptions;
 import io.flutter.plugin.common.MethodChannel;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -18,22 +24,111 @@ class MarkersController {
   private final Map<String, MarkerController> markerIdToController;
   private final Map<String, String> googleMapsMarkerIdToDartMarkerId;
   private final MethodChannel methodChannel;
+  private final BitmapDescriptorCache bitmapDescriptorCache;
   private GoogleMap googleMap;
+  @Nullable private ViewportCuller viewportCuller;
 
-  MarkersController(MethodChannel methodChannel) {
+  private boolean markerDragCoalescingEnabled = false;
+  // Latest drag position of each marker, sent on the next frame.
+  private final Map<String, LatLng> markerIdToPendingDragPosition = new LinkedHashMap<>();
+  private final Choreographer.FrameCallback sendPendingDragsCallback =
+      new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+          dragFrameScheduled = false;
+          sendPendingDrags();
+        }
+      };
+  private boolean dragFrameScheduled = false;
+  // Reused for every marker#onDrag event, as the method codec encodes the arguments synchronously.
+  private final Map<String, Object> dragArguments = new HashMap<>(2);
+  private final List<Double> dragPosition = new ArrayList<>(2);
+
+  MarkersController(MethodChannel methodChannel, BitmapDescriptorCache bitmapDescriptorCache) {
     this.markerIdToController = new HashMap<>();
     this.googleMapsMarkerIdToDartMarkerId = new HashMap<>();
     this.methodChannel = methodChannel;
+    this.bitmapDescriptorCache = bitmapDescriptorCache;
   }
 
   void setGoogleMap(GoogleMap googleMap) {
     this.googleMap = googleMap;
   }
 
+  /**
+   * When enabled, drag events are sent at most once per frame for each marker, with the latest
+   * position.
+   */
+  void setMarkerDragCoalescingEnabled(boolean markerDragCoalescingEnabled) {
+    this.markerDragCoalescingEnabled = markerDragCoalescingEnabled;
+    if (!markerDragCoalescingEnabled) {
+      flushPendingDrags();
+    }
+  }
+
+  /** Immediately sends the coalesced drag events that were not sent yet. */
+  void flushPendingDrags() {
+    cancelDragFrame();
+    sendPendingDrags();
+  }
+
+  /** Drops the coalesced drag events that were not sent yet. */
+  void clearPendingDrags() {
+    cancelDragFrame();
+    markerIdToPendingDragPosition.clear();
+  }
+
+  /** Only materializes the markers near the visible region when enabled. */
+  void setViewportCullingEnabled(boolean viewportCullingEnabled) {
+    if (!viewportCullingEnabled) {
+      viewportCuller = null;
+      return;
+    }
+    viewportCuller =
+        new ViewportCuller(
+            new ViewportCuller.ShapeSink() {
+              @Override
+              public void addShape(Object markerOptions) {
+                addMarker(markerOptions);
+              }
+
+              @Override
+              public void changeShape(Object markerOptions) {
+                changeMarker(markerOptions);
+              }
+
+              @Override
+              public void removeShape(String markerId) {
+                removeMarker(markerId);
+              }
+            },
+            Convert::toMarkerBounds);
+  }
+
+  /** Returns the number of markers added to the map. */
+  int getCount() {
+    return markerIdToController.size();
+  }
+
+  /** Returns the number of markers, including the ones not added to the map due to culling. */
+  int getTotalCount() {
+    return viewportCuller != null ? viewportCuller.getShapeCount() : markerIdToController.size();
+  }
+
+  void onVisibleRegionChanged(LatLngBounds visibleBounds) {
+    if (viewportCuller != null) {
+      viewportCuller.onVisibleRegionChanged(visibleBounds);
+    }
+  }
+
   void addMarkers(List<Object> markersToAdd) {
     if (markersToAdd != null) {
       for (Object markerToAdd : markersToAdd) {
-        addMarker(markerToAdd);
+        if (viewportCuller != null && markerToAdd != null) {
+          viewportCuller.add(getMarkerId(markerToAdd), markerToAdd);
+        } else {
+          addMarker(markerToAdd);
+        }
       }
     }
   }
@@ -41,7 +136,11 @@ class MarkersController {
   void changeMarkers(List<Object> markersToChange) {
     if (markersToChange != null) {
       for (Object markerToChange : markersToChange) {
-        changeMarker(markerToChange);
+        if (viewportCuller != null && markerToChange != null) {
+          viewportCuller.change(getMarkerId(markerToChange), markerToChange);
+        } else {
+          changeMarker(markerToChange);
+        }
       }
     }
   }
@@ -55,15 +154,19 @@ class MarkersController {
         continue;
       }
       String markerId = (String) rawMarkerId;
-      final MarkerController markerController = markerIdToController.remove(markerId);
-      if (markerController != null) {
-        markerController.remove();
-        googleMapsMarkerIdToDartMarkerId.remove(markerController.getGoogleMapsMarkerId());
+      if (viewportCuller != null) {
+        viewportCuller.remove(markerId);
+      } else {
+        removeMarker(markerId);
       }
     }
   }
 
   void showMarkerInfoWindow(String markerId, MethodChannel.Result result) {
+    if (viewportCuller != null) {
+      // A culled marker is added back, and kept while its info window is shown.
+      viewportCuller.pin(markerId);
+    }
     MarkerController markerController = markerIdToController.get(markerId);
     if (markerController != null) {
       markerController.showInfoWindow();
@@ -74,10 +177,15 @@ class MarkersController {
   }
 
   void hideMarkerInfoWindow(String markerId, MethodChannel.Result result) {
+    if (viewportCuller != null) {
+      viewportCuller.unpin(markerId);
+    }
     MarkerController markerController = markerIdToController.get(markerId);
     if (markerController != null) {
       markerController.hideInfoWindow();
       result.success(null);
+    } else if (isCulled(markerId)) {
+      result.success(null);
     } else {
       result.error("Invalid markerId", "hideInfoWindow called with invalid markerId", null);
     }
@@ -87,6 +195,8 @@ class MarkersController {
     MarkerController markerController = markerIdToController.get(markerId);
     if (markerController != null) {
       result.success(markerController.isInfoWindowShown());
+    } else if (isCulled(markerId)) {
+      result.success(false);
     } else {
       result.error("Invalid markerId", "isInfoWindowShown called with invalid markerId", null);
     }
@@ -110,6 +220,7 @@ class MarkersController {
     if (markerId == null) {
       return;
     }
+    flushPendingDrags();
     final Map<String, Object> data = new HashMap<>();
     data.put("markerId", markerId);
     data.put("position", Convert.latLngToJson(latLng));
@@ -121,10 +232,41 @@ class MarkersController {
     if (markerId == null) {
       return;
     }
-    final Map<String, Object> data = new HashMap<>();
-    data.put("markerId", markerId);
-    data.put("position", Convert.latLngToJson(latLng));
-    methodChannel.invokeMethod("marker#onDrag", data);
+    if (!markerDragCoalescingEnabled) {
+      sendDrag(markerId, latLng);
+      return;
+    }
+    markerIdToPendingDragPosition.put(markerId, latLng);
+    if (!dragFrameScheduled) {
+      dragFrameScheduled = true;
+      Choreographer.getInstance().postFrameCallback(sendPendingDragsCallback);
+    }
+  }
+
+  private void cancelDragFrame() {
+    if (dragFrameScheduled) {
+      Choreographer.getInstance().removeFrameCallback(sendPendingDragsCallback);
+      dragFrameScheduled = false;
+    }
+  }
+
+  private void sendPendingDrags() {
+    final Iterator<Map.Entry<String, LatLng>> iterator =
+        markerIdToPendingDragPosition.entrySet().iterator();
+    while (iterator.hasNext()) {
+      final Map.Entry<String, LatLng> entry = iterator.next();
+      iterator.remove();
+      sendDrag(entry.getKey(), entry.getValue());
+    }
+  }
+
+  private void sendDrag(String markerId, LatLng latLng) {
+    dragPosition.clear();
+    dragPosition.add(latLng.latitude);
+    dragPosition.add(latLng.longitude);
+    dragArguments.put("markerId", markerId);
+    dragArguments.put("position", dragPosition);
+    methodChannel.invokeMethod("marker#onDrag", dragArguments);
   }
 
   void onMarkerDragEnd(String googleMarkerId, LatLng latLng) {
@@ -132,6 +274,11 @@ class MarkersController {
     if (markerId == null) {
       return;
     }
+    // The last drag position is delivered before the drag ends.
+    flushPendingDrags();
+    if (viewportCuller != null) {
+      updateCulledMarkerPosition(markerId, latLng);
+    }
     final Map<String, Object> data = new HashMap<>();
     data.put("markerId", markerId);
     data.put("position", Convert.latLngToJson(latLng));
@@ -146,12 +293,20 @@ class MarkersController {
     methodChannel.invokeMethod("infoWindow#onTap", Convert.markerIdToJson(markerId));
   }
 
+  void onInfoWindowClose(String googleMarkerId) {
+    String markerId = googleMapsMarkerIdToDartMarkerId.get(googleMarkerId);
+    if (markerId != null && viewportCuller != null) {
+      // The marker may be culled again once its info window is closed by the user.
+      viewportCuller.unpin(markerId);
+    }
+  }
+
   private void addMarker(Object marker) {
     if (marker == null) {
       return;
     }
     MarkerBuilder markerBuilder = new MarkerBuilder();
-    String markerId = Convert.interpretMarkerOptions(marker, markerBuilder);
+    String markerId = Convert.interpretMarkerOptions(marker, markerBuilder, bitmapDescriptorCache);
     MarkerOptions options = markerBuilder.build();
     addMarker(markerId, options, markerBuilder.consumeTapEvents());
   }
@@ -170,8 +325,40 @@ class MarkersController {
     String markerId = getMarkerId(marker);
     MarkerController markerController = markerIdToController.get(markerId);
     if (markerController != null) {
-      Convert.interpretMarkerOptions(marker, markerController);
+      Convert.interpretMarkerOptions(marker, markerController, bitmapDescriptorCache);
+    }
+  }
+
+  private void removeMarker(String markerId) {
+    final MarkerController markerController = markerIdToController.remove(markerId);
+    markerIdToPendingDragPosition.remove(markerId);
+    if (markerController != null) {
+      markerController.remove();
+      googleMapsMarkerIdToDartMarkerId.remove(markerController.getGoogleMapsMarkerId());
+    }
+  }
+
+  /** Returns whether the marker is known but not added to the map due to culling. */
+  private boolean isCulled(String markerId) {
+    return viewportCuller != null
+        && viewportCuller.contains(markerId)
+        && !viewportCuller.isMaterialized(markerId);
+  }
+
+  /**
+   * Stores the position a marker was dragged to, so culling doesn't add it back at its previous
+   * position.
+   */
+  @SuppressWarnings("unchecked")
+  private void updateCulledMarkerPosition(String markerId, LatLng latLng) {
+    final Object markerOptions = viewportCuller.getOptions(markerId);
+    if (markerOptions == null) {
+      return;
     }
+    final Map<String, Object> draggedMarkerOptions =
+        new HashMap<>((Map<String, Object>) markerOptions);
+    draggedMarkerOptions.put("position", Convert.latLngToJson(latLng));
+    viewportCuller.replaceOptions(markerId, draggedMarkerOptions);
   }
 
   @SuppressWarnings("unchecked")
@@ -4,7 +4,9 @@
 
 package io.flutter.plugins.googlemaps;
 
+import androidx.annotation.Nullable;
 import com.google.android.gms.maps.GoogleMap;
+import com.google.android.gms.maps.model.LatLngBounds;
 import com.google.android.gms.maps.model.Polygon;
 import com.google.android.gms.maps.model.PolygonOptions;
 import io.flutter.plugin.common.MethodChannel;
@@ -19,6 +21,8 @@ class PolygonsController {
   private final MethodChannel methodChannel;
   private final float density;
   private GoogleMap googleMap;
+  @Nullable private ViewportCuller viewportCuller;
+  private final ShapeOptionsDiffer optionsDiffer = new ShapeOptionsDiffer("polygonId");
 
   PolygonsController(MethodChannel methodChannel, float density) {
     this.polygonIdToController = new HashMap<>();
@@ -31,10 +35,59 @@ class PolygonsController {
     this.googleMap = googleMap;
   }
 
+  /** Only materializes the polygons near the visible region when enabled. */
+  void setViewportCullingEnabled(boolean viewportCullingEnabled) {
+    if (!viewportCullingEnabled) {
+      viewportCuller = null;
+      return;
+    }
+    viewportCuller =
+        new ViewportCuller(
+            new ViewportCuller.ShapeSink() {
+              @Override
+              public void addShape(Object polygonOptions) {
+                addPolygon(polygonOptions);
+              }
+
+              @Override
+              public void changeShape(Object polygonOptions) {
+                changePolygon(polygonOptions);
+              }
+
+              @Override
+              public void removeShape(String polygonId) {
+                removePolygon(polygonId);
+              }
+            },
+            Convert::toPointsBounds);
+  }
+
+  /** Returns the number of polygons added to the map. */
+  int getCount() {
+    return polygonIdToController.size();
+  }
+
+  /** Returns the number of polygons, including the ones not added to the map due to culling. */
+  int getTotalCount() {
+    return viewportCuller != null ? viewportCuller.getShapeCount() : polygonIdToController.size();
+  }
+
+  void onVisibleRegionChanged(LatLngBounds visibleBounds) {
+    if (viewportCuller != null) {
+      viewportCuller.onVisibleRegionChanged(visibleBounds);
+    }
+  }
+
   void addPolygons(List<Object> polygonsToAdd) {
     if (polygonsToAdd != null) {
       for (Object polygonToAdd : polygonsToAdd) {
-        addPolygon(polygonToAdd);
+        if (viewportCuller != null && polygonToAdd != null) {
+          // Decoded once for both the culling bounds and the polygon options.
+          Convert.decodeEncodedPoints(polygonToAdd);
+          viewportCuller.add(getPolygonId(polygonToAdd), polygonToAdd);
+        } else {
+          addPolygon(polygonToAdd);
+        }
       }
     }
   }
@@ -42,7 +95,12 @@ class PolygonsController {
   void changePolygons(List<Object> polygonsToChange) {
     if (polygonsToChange != null) {
       for (Object polygonToChange : polygonsToChange) {
-        changePolygon(polygonToChange);
+        if (viewportCuller != null && polygonToChange != null) {
+          Convert.decodeEncodedPoints(polygonToChange);
+          viewportCuller.change(getPolygonId(polygonToChange), polygonToChange);
+        } else {
+          changePolygon(polygonToChange);
+        }
       }
     }
   }
@@ -56,10 +114,10 @@ class PolygonsController {
         continue;
       }
       String polygonId = (String) rawPolygonId;
-      final PolygonController polygonController = polygonIdToController.remove(polygonId);
-      if (polygonController != null) {
-        polygonController.remove();
-        googleMapsPolygonIdToDartPolygonId.remove(polygonController.getGoogleMapsPolygonId());
+      if (viewportCuller != null) {
+        viewportCuller.remove(polygonId);
+      } else {
+        removePolygon(polygonId);
       }
     }
   }
@@ -83,6 +141,7 @@ class PolygonsController {
     }
     PolygonBuilder polygonBuilder = new PolygonBuilder(density);
     String polygonId = Convert.interpretPolygonOptions(polygon, polygonBuilder);
+    optionsDiffer.put(polygonId, polygon);
     PolygonOptions options = polygonBuilder.build();
     addPolygon(polygonId, options, polygonBuilder.consumeTapEvents());
   }
@@ -102,7 +161,19 @@ class PolygonsController {
     String polygonId = getPolygonId(polygon);
     PolygonController polygonController = polygonIdToController.get(polygonId);
     if (polygonController != null) {
-      Convert.interpretPolygonOptions(polygon, polygonController);
+      final Map<Object, Object> changedOptions = optionsDiffer.diff(polygonId, polygon);
+      if (changedOptions != null) {
+        Convert.interpretPolygonOptions(changedOptions, polygonController);
+      }
+    }
+  }
+
+  private void removePolygon(String polygonId) {
+    final PolygonController polygonController = polygonIdToController.remove(polygonId);
+    if (polygonController != null) {
+      polygonController.remove();
+      optionsDiffer.remove(polygonId);
+      googleMapsPolygonIdToDartPolygonId.remove(polygonController.getGoogleMapsPolygonId());
     }
   }
 
@@ -4,6 +4,7 @@
 
 package io.flutter.plugins.googlemaps;
 
+import androidx.annotation.Nullable;
 import com.google.android.gms.maps.model.Cap;
 import com.google.android.gms.maps.model.LatLng;
 import com.google.android.gms.maps.model.PatternItem;
@@ -14,16 +15,38 @@ class PolylineBuilder implements PolylineOptionsSink {
   private final PolylineOptions polylineOptions;
   private boolean consumeTapEvents;
   private final float density;
+  private final float zoom;
+  private float simplificationTolerance;
+  @Nullable private List<LatLng> points;
+  @Nullable private PolylineSimplifier simplifier;
 
   PolylineBuilder(float density) {
+    this(density, 0);
+  }
+
+  /** @param zoom the current zoom level, used to simplify the points when requested. */
+  PolylineBuilder(float density, float zoom) {
     this.polylineOptions = new PolylineOptions();
     this.density = density;
+    this.zoom = zoom;
   }
 
   PolylineOptions build() {
+    if (points != null) {
+      simplifier = PolylineSimplifier.create(points, simplificationTolerance);
+      polylineOptions.addAll(
+          simplifier != null ? simplifier.simplify(PolylineSimplifier.toZoomBucket(zoom)) : points);
+      points = null;
+    }
     return polylineOptions;
   }
 
+  /** Returns the simplifier of the built points, or null if they are not simplified. */
+  @Nullable
+  PolylineSimplifier simplifier() {
+    return simplifier;
+  }
+
   boolean consumeTapEvents() {
     return consumeTapEvents;
   }
@@ -50,7 +73,12 @@ class PolylineBuilder implements PolylineOptionsSink {
 
   @Override
   public void setPoints(List<LatLng> points) {
-    polylineOptions.addAll(points);
+    this.points = points;
+  }
+
+  @Override
+  public void setSimplificationTolerance(float simplificationTolerance) {
+    this.simplificationTolerance = simplificationTolerance;
   }
 
   @Override
@@ -4,6 +4,7 @@
 
 package io.flutter.plugins.googlemaps;
 
+import androidx.annotation.Nullable;
 import com.google.android.gms.maps.model.Cap;
 import com.google.android.gms.maps.model.LatLng;
 import com.google.android.gms.maps.model.PatternItem;
@@ -16,12 +17,32 @@ class PolylineController implements PolylineOptionsSink {
   private final String googleMapsPolylineId;
   private boolean consumeTapEvents;
   private final float density;
+  @Nullable private PolylineSimplifier simplifier;
+  private int zoomBucket;
+  // Set through the sink and drawn together by applyPendingPoints.
+  @Nullable private List<LatLng> pendingPoints;
+  private float pendingSimplificationTolerance = Float.NaN;
 
   PolylineController(Polyline polyline, boolean consumeTapEvents, float density) {
+    this(polyline, consumeTapEvents, density, null, 0);
+  }
+
+  /**
+   * @param simplifier the simplifier the polyline points were built with, if any.
+   * @param zoom the zoom level the polyline points were built for.
+   */
+  PolylineController(
+      Polyline polyline,
+      boolean consumeTapEvents,
+      float density,
+      @Nullable PolylineSimplifier simplifier,
+      float zoom) {
     this.polyline = polyline;
     this.consumeTapEvents = consumeTapEvents;
     this.density = density;
     this.googleMapsPolylineId = polyline.getId();
+    this.simplifier = simplifier;
+    this.zoomBucket = PolylineSimplifier.toZoomBucket(zoom);
   }
 
   void remove() {
@@ -61,7 +82,47 @@ class PolylineController implements PolylineOptionsSink {
 
   @Override
   public void setPoints(List<LatLng> points) {
-    polyline.setPoints(points);
+    pendingPoints = points;
+  }
+
+  @Override
+  public void setSimplificationTolerance(float simplificationTolerance) {
+    pendingSimplificationTolerance = simplificationTolerance;
+  }
+
+  /**
+   * Draws the points and simplification tolerance set since the last call, so that changing both
+   * only simplifies the points once.
+   */
+  void applyPendingPoints() {
+    final float currentTolerance = simplifier != null ? simplifier.getTolerance() : 0;
+    final float tolerance =
+        Float.isNaN(pendingSimplificationTolerance)
+            ? currentTolerance
+            : pendingSimplificationTolerance;
+    List<LatLng> points = pendingPoints;
+    pendingPoints = null;
+    pendingSimplificationTolerance = Float.NaN;
+    if (points == null) {
+      if (tolerance == currentTolerance) {
+        return;
+      }
+      points = simplifier != null ? simplifier.getPoints() : polyline.getPoints();
+    }
+    simplifier = PolylineSimplifier.create(points, tolerance);
+    polyline.setPoints(simplifier != null ? simplifier.simplify(zoomBucket) : points);
+  }
+
+  /** Redraws the simplified points when the zoom level crosses an integral value. */
+  void onZoomChanged(float zoom) {
+    final int bucket = PolylineSimplifier.toZoomBucket(zoom);
+    if (bucket == zoomBucket) {
+      return;
+    }
+    zoomBucket = bucket;
+    if (simplifier != null) {
+      polyline.setPoints(simplifier.simplify(bucket));
+    }
   }
 
   @Override
@@ -0,0 +1,146 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import androidx.annotation.Nullable;
+import com.google.android.gms.maps.model.LatLng;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Douglas-Peucker simplification of a polyline for a given zoom level.
+ *
+ * <p>Points are projected to Web Mercator so that the tolerance, expressed in logical pixels, is the
+ * same everywhere on the map. Results are cached per integral zoom level.
+ */
+final class PolylineSimplifier {
+
+  private static final double WORLD_SIZE_PIXELS = 256;
+
+  private final List<LatLng> points;
+  private final double[] xs;
+  private final double[] ys;
+  private final float tolerance;
+  private final Map<Integer, List<LatLng>> zoomBucketToPoints = new HashMap<>();
+
+  /** @param tolerance maximum deviation of the simplified polyline, in logical pixels. */
+  PolylineSimplifier(List<LatLng> points, float tolerance) {
+    this.points = points;
+    this.tolerance = tolerance;
+    this.xs = new double[points.size()];
+    this.ys = new double[points.size()];
+    for (int i = 0; i < points.size(); i++) {
+      final LatLng point = points.get(i);
+      // Normalized Web Mercator coordinates in [0, 1].
+      xs[i] = (point.longitude + 180) / 360;
+      final double sinLatitude =
+          Math.min(0.9999, Math.max(-0.9999, Math.sin(Math.toRadians(point.latitude))));
+      ys[i] = 0.5 - Math.log((1 + sinLatitude) / (1 - sinLatitude)) / (4 * Math.PI);
+    }
+  }
+
+  /**
+   * Returns a simplifier of {@code points}, or null if {@code tolerance} disables simplification.
+   */
+  @Nullable
+  static PolylineSimplifier create(List<LatLng> points, float tolerance) {
+    return tolerance > 0 ? new PolylineSimplifier(points, tolerance) : null;
+  }
+
+  List<LatLng> getPoints() {
+    return points;
+  }
+
+  float getTolerance() {
+    return tolerance;
+  }
+
+  static int toZoomBucket(float zoom) {
+    return (int) Math.floor(zoom);
+  }
+
+  /** Returns the points to draw at the given zoom bucket. */
+  List<LatLng> simplify(int zoomBucket) {
+    List<LatLng> simplified = zoomBucketToPoints.get(zoomBucket);
+    if (simplified == null) {
+      simplified = computeSimplification(zoomBucket);
+      zoomBucketToPoints.put(zoomBucket, simplified);
+    }
+    return simplified;
+  }
+
+  private List<LatLng> computeSimplification(int zoomBucket) {
+    final int count = points.size();
+    if (count <= 2) {
+      return points;
+    }
+    final double normalizedTolerance = tolerance / (WORLD_SIZE_PIXELS * Math.pow(2, zoomBucket));
+    final double squaredTolerance = normalizedTolerance * normalizedTolerance;
+    final boolean[] kept = new boolean[count];
+    kept[0] = true;
+    kept[count - 1] = true;
+    int keptCount = 2;
+
+    // Iterative to avoid overflowing the stack on very long traces.
+    final int[] stack = new int[2 * count];
+    int stackSize = 0;
+    stack[stackSize++] = 0;
+    stack[stackSize++] = count - 1;
+    while (stackSize > 0) {
+      final int last = stack[--stackSize];
+      final int first = stack[--stackSize];
+      double maxSquaredDistance = 0;
+      int farthest = -1;
+      for (int i = first + 1; i < last; i++) {
+        final double squaredDistance = squaredSegmentDistance(i, first, last);
+        if (squaredDistance > maxSquaredDistance) {
+          maxSquaredDistance = squaredDistance;
+          farthest = i;
+        }
+      }
+      if (farthest != -1 && maxSquaredDistance > squaredTolerance) {
+        kept[farthest] = true;
+        keptCount++;
+        stack[stackSize++] = first;
+        stack[stackSize++] = farthest;
+        stack[stackSize++] = farthest;
+        stack[stackSize++] = last;
+      }
+    }
+
+    if (keptCount == count) {
+      return points;
+    }
+    final List<LatLng> simplified = new ArrayList<>(keptCount);
+    for (int i = 0; i < count; i++) {
+      if (kept[i]) {
+        simplified.add(points.get(i));
+      }
+    }
+    return simplified;
+  }
+
+  private double squaredSegmentDistance(int point, int start, int end) {
+    double x = xs[start];
+    double y = ys[start];
+    double dx = xs[end] - x;
+    double dy = ys[end] - y;
+    if (dx != 0 || dy != 0) {
+      final double t = ((xs[point] - x) * dx + (ys[point] - y) * dy) / (dx * dx + dy * dy);
+      if (t > 1) {
+        x = xs[end];
+        y = ys[end];
+      } else if (t > 0) {
+        x += dx * t;
+        y += dy * t;
+      }
+    }
+    dx = xs[point] - x;
+    dy = ys[point] - y;
+    return dx * dx + dy * dy;
+  }
+}
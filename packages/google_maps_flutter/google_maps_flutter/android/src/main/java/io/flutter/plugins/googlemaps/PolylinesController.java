@@ -4,7 +4,10 @@
 
 package io.flutter.plugins.googlemaps;
 
+import androidx.annotation.Nullable;
 import com.google.android.gms.maps.GoogleMap;
+import com.google.android.gms.maps.model.CameraPosition;
+import com.google.android.gms.maps.model.LatLngBounds;
 import com.google.android.gms.maps.model.Polyline;
 import com.google.android.gms.maps.model.PolylineOptions;
 import io.flutter.plugin.common.MethodChannel;
@@ -18,23 +21,85 @@ class PolylinesController {
   private final Map<String, String> googleMapsPolylineIdToDartPolylineId;
   private final MethodChannel methodChannel;
   private GoogleMap googleMap;
+  @Nullable private ViewportCuller viewportCuller;
+  private final ShapeOptionsDiffer optionsDiffer = new ShapeOptionsDiffer("polylineId");
   private final float density;
+  private final BitmapDescriptorCache bitmapDescriptorCache;
+  private float zoom = Float.NaN;
 
-  PolylinesController(MethodChannel methodChannel, float density) {
+  PolylinesController(
+      MethodChannel methodChannel, float density, BitmapDescriptorCache bitmapDescriptorCache) {
     this.polylineIdToController = new HashMap<>();
     this.googleMapsPolylineIdToDartPolylineId = new HashMap<>();
     this.methodChannel = methodChannel;
     this.density = density;
+    this.bitmapDescriptorCache = bitmapDescriptorCache;
   }
 
   void setGoogleMap(GoogleMap googleMap) {
     this.googleMap = googleMap;
   }
 
+  /** Only materializes the polylines near the visible region when enabled. */
+  void setViewportCullingEnabled(boolean viewportCullingEnabled) {
+    if (!viewportCullingEnabled) {
+      viewportCuller = null;
+      return;
+    }
+    viewportCuller =
+        new ViewportCuller(
+            new ViewportCuller.ShapeSink() {
+              @Override
+              public void addShape(Object polylineOptions) {
+                addPolyline(polylineOptions);
+              }
+
+              @Override
+              public void changeShape(Object polylineOptions) {
+                changePolyline(polylineOptions);
+              }
+
+              @Override
+              public void removeShape(String polylineId) {
+                removePolyline(polylineId);
+              }
+            },
+            Convert::toPointsBounds);
+  }
+
+  void onZoomChanged(float zoom) {
+    this.zoom = zoom;
+    for (PolylineController polylineController : polylineIdToController.values()) {
+      polylineController.onZoomChanged(zoom);
+    }
+  }
+
+  /** Returns the number of polylines added to the map. */
+  int getCount() {
+    return polylineIdToController.size();
+  }
+
+  /** Returns the number of polylines, including the ones not added to the map due to culling. */
+  int getTotalCount() {
+    return viewportCuller != null ? viewportCuller.getShapeCount() : polylineIdToController.size();
+  }
+
+  void onVisibleRegionChanged(LatLngBounds visibleBounds) {
+    if (viewportCuller != null) {
+      viewportCuller.onVisibleRegionChanged(visibleBounds);
+    }
+  }
+
   void addPolylines(List<Object> polylinesToAdd) {
     if (polylinesToAdd != null) {
       for (Object polylineToAdd : polylinesToAdd) {
-        addPolyline(polylineToAdd);
+        if (viewportCuller != null && polylineToAdd != null) {
+          // Decoded once for both the culling bounds and the polyline options.
+          Convert.decodeEncodedPoints(polylineToAdd);
+          viewportCuller.add(getPolylineId(polylineToAdd), polylineToAdd);
+        } else {
+          addPolyline(polylineToAdd);
+        }
       }
     }
   }
@@ -42,7 +107,12 @@ class PolylinesController {
   void changePolylines(List<Object> polylinesToChange) {
     if (polylinesToChange != null) {
       for (Object polylineToChange : polylinesToChange) {
-        changePolyline(polylineToChange);
+        if (viewportCuller != null && polylineToChange != null) {
+          Convert.decodeEncodedPoints(polylineToChange);
+          viewportCuller.change(getPolylineId(polylineToChange), polylineToChange);
+        } else {
+          changePolyline(polylineToChange);
+        }
       }
     }
   }
@@ -56,10 +126,10 @@ class PolylinesController {
         continue;
       }
       String polylineId = (String) rawPolylineId;
-      final PolylineController polylineController = polylineIdToController.remove(polylineId);
-      if (polylineController != null) {
-        polylineController.remove();
-        googleMapsPolylineIdToDartPolylineId.remove(polylineController.getGoogleMapsPolylineId());
+      if (viewportCuller != null) {
+        viewportCuller.remove(polylineId);
+      } else {
+        removePolyline(polylineId);
       }
     }
   }
@@ -81,16 +151,29 @@ class PolylinesController {
     if (polyline == null) {
       return;
     }
-    PolylineBuilder polylineBuilder = new PolylineBuilder(density);
-    String polylineId = Convert.interpretPolylineOptions(polyline, polylineBuilder);
+    final float zoom = getZoom();
+    PolylineBuilder polylineBuilder = new PolylineBuilder(density, zoom);
+    String polylineId =
+        Convert.interpretPolylineOptions(polyline, polylineBuilder, bitmapDescriptorCache);
+    optionsDiffer.put(polylineId, polyline);
     PolylineOptions options = polylineBuilder.build();
-    addPolyline(polylineId, options, polylineBuilder.consumeTapEvents());
+    addPolyline(
+        polylineId,
+        options,
+        polylineBuilder.consumeTapEvents(),
+        polylineBuilder.simplifier(),
+        zoom);
   }
 
   private void addPolyline(
-      String polylineId, PolylineOptions polylineOptions, boolean consumeTapEvents) {
+      String polylineId,
+      PolylineOptions polylineOptions,
+      boolean consumeTapEvents,
+      @Nullable PolylineSimplifier simplifier,
+      float zoom) {
     final Polyline polyline = googleMap.addPolyline(polylineOptions);
-    PolylineController controller = new PolylineController(polyline, consumeTapEvents, density);
+    PolylineController controller =
+        new PolylineController(polyline, consumeTapEvents, density, simplifier, zoom);
     polylineIdToController.put(polylineId, controller);
     googleMapsPolylineIdToDartPolylineId.put(polyline.getId(), polylineId);
   }
@@ -102,8 +185,29 @@ class PolylinesController {
     String polylineId = getPolylineId(polyline);
     PolylineController polylineController = polylineIdToController.get(polylineId);
     if (polylineController != null) {
-      Convert.interpretPolylineOptions(polyline, polylineController);
+      final Map<Object, Object> changedOptions = optionsDiffer.diff(polylineId, polyline);
+      if (changedOptions != null) {
+        Convert.interpretPolylineOptions(changedOptions, polylineController, bitmapDescriptorCache);
+        polylineController.applyPendingPoints();
+      }
+    }
+  }
+
+  private void removePolyline(String polylineId) {
+    final PolylineController polylineController = polylineIdToController.remove(polylineId);
+    if (polylineController != null) {
+      polylineController.remove();
+      optionsDiffer.remove(polylineId);
+      googleMapsPolylineIdToDartPolylineId.remove(polylineController.getGoogleMapsPolylineId());
+    }
+  }
+
+  private float getZoom() {
+    if (Float.isNaN(zoom)) {
+      final CameraPosition cameraPosition = googleMap.getCameraPosition();
+      return cameraPosition != null ? cameraPosition.zoom : 0;
     }
+    return zoom;
   }
 
   @SuppressWarnings("unchecked")
@@ -0,0 +1,158 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import androidx.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * R-tree of shape bounds keyed by the Dart shape id.
+ *
+ * <p>Bounds are {@code {south, west, north, east}} arrays in degrees. The tree is bulk loaded with
+ * the Sort-Tile-Recursive algorithm the first time it is searched after a modification, which keeps
+ * updates cheap while shapes are being streamed in from Dart.
+ */
+final class ShapeIndex {
+
+  private static final int NODE_CAPACITY = 16;
+
+  private static final Comparator<Node> BY_CENTER_LONGITUDE =
+      new Comparator<Node>() {
+        @Override
+        public int compare(Node a, Node b) {
+          return Double.compare(a.west + a.east, b.west + b.east);
+        }
+      };
+
+  private static final Comparator<Node> BY_CENTER_LATITUDE =
+      new Comparator<Node>() {
+        @Override
+        public int compare(Node a, Node b) {
+          return Double.compare(a.south + a.north, b.south + b.north);
+        }
+      };
+
+  private final Map<String, double[]> idToBounds = new HashMap<>();
+  // Rebuilt lazily; null when the index was modified since the last search.
+  @Nullable private Node root;
+
+  void put(String id, double[] bounds) {
+    idToBounds.put(id, bounds);
+    root = null;
+  }
+
+  void remove(String id) {
+    if (idToBounds.remove(id) != null) {
+      root = null;
+    }
+  }
+
+  void clear() {
+    idToBounds.clear();
+    root = null;
+  }
+
+  int size() {
+    return idToBounds.size();
+  }
+
+  /** Adds to {@code out} the id of every shape whose bounds intersect the given rectangle. */
+  void search(double south, double west, double north, double east, Collection<String> out) {
+    if (idToBounds.isEmpty()) {
+      return;
+    }
+    if (root == null) {
+      root = build();
+    }
+    search(root, south, west, north, east, out);
+  }
+
+  private static void search(
+      Node node, double south, double west, double north, double east, Collection<String> out) {
+    if (!node.intersects(south, west, north, east)) {
+      return;
+    }
+    if (node.id != null) {
+      out.add(node.id);
+      return;
+    }
+    for (Node child : node.children) {
+      search(child, south, west, north, east, out);
+    }
+  }
+
+  private Node build() {
+    List<Node> level = new ArrayList<>(idToBounds.size());
+    for (Map.Entry<String, double[]> entry : idToBounds.entrySet()) {
+      level.add(new Node(entry.getKey(), entry.getValue()));
+    }
+    do {
+      level = pack(level);
+    } while (level.size() > 1);
+    return level.get(0);
+  }
+
+  /** Groups one level of the tree into parent nodes of at most {@link #NODE_CAPACITY} children. */
+  private static List<Node> pack(List<Node> nodes) {
+    final int parentCount = (nodes.size() + NODE_CAPACITY - 1) / NODE_CAPACITY;
+    final int sliceCount = (int) Math.ceil(Math.sqrt(parentCount));
+    final int sliceSize = sliceCount * NODE_CAPACITY;
+    final List<Node> parents = new ArrayList<>(parentCount);
+    Collections.sort(nodes, BY_CENTER_LONGITUDE);
+    for (int sliceStart = 0; sliceStart < nodes.size(); sliceStart += sliceSize) {
+      List<Node> slice = nodes.subList(sliceStart, Math.min(sliceStart + sliceSize, nodes.size()));
+      Collections.sort(slice, BY_CENTER_LATITUDE);
+      for (int start = 0; start < slice.size(); start += NODE_CAPACITY) {
+        parents.add(
+            new Node(
+                new ArrayList<>(slice.subList(start, Math.min(start + NODE_CAPACITY, slice.size())))));
+      }
+    }
+    return parents;
+  }
+
+  private static final class Node {
+    @Nullable final String id;
+    @Nullable final List<Node> children;
+    double south;
+    double west;
+    double north;
+    double east;
+
+    Node(String id, double[] bounds) {
+      this.id = id;
+      this.children = null;
+      this.south = bounds[0];
+      this.west = bounds[1];
+      this.north = bounds[2];
+      this.east = bounds[3];
+    }
+
+    Node(List<Node> children) {
+      this.id = null;
+      this.children = children;
+      this.south = Double.POSITIVE_INFINITY;
+      this.west = Double.POSITIVE_INFINITY;
+      this.north = Double.NEGATIVE_INFINITY;
+      this.east = Double.NEGATIVE_INFINITY;
+      for (Node child : children) {
+        south = Math.min(south, child.south);
+        west = Math.min(west, child.west);
+        north = Math.max(north, child.north);
+        east = Math.max(east, child.east);
+      }
+    }
+
+    boolean intersects(double south, double west, double north, double east) {
+      return this.south <= north && this.north >= south && this.west <= east && this.east >= west;
+    }
+  }
+}
@@ -0,0 +1,146 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import androidx.annotation.Nullable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers a fingerprint of every option last applied to each shape so that changes only
+ * re-apply the options that actually differ.
+ *
+ * <p>Fingerprints are 64-bit hashes of the JSON-like values, so large point lists are neither
+ * retained nor converted again when they did not change.
+ */
+class ShapeOptionsDiffer {
+
+  private static final long PRIME = 0x100000001b3L;
+
+  private final String shapeIdKey;
+  private final Map<String, Map<Object, Long>> shapeIdToFingerprints = new HashMap<>();
+
+  /** @param shapeIdKey the options key holding the shape id, e.g. "polygonId". */
+  ShapeOptionsDiffer(String shapeIdKey) {
+    this.shapeIdKey = shapeIdKey;
+  }
+
+  /** Records the options a shape was created with. */
+  void put(String shapeId, Object shapeOptions) {
+    final Map<?, ?> options = (Map<?, ?>) shapeOptions;
+    final Map<Object, Long> fingerprints = new HashMap<>(options.size());
+    for (Map.Entry<?, ?> entry : options.entrySet()) {
+      fingerprints.put(entry.getKey(), fingerprint(entry.getValue()));
+    }
+    shapeIdToFingerprints.put(shapeId, fingerprints);
+  }
+
+  /**
+   * Returns the options that differ from the ones last recorded for the shape, together with its id,
+   * or null if none changed. The new options are recorded.
+   */
+  @Nullable
+  Map<Object, Object> diff(String shapeId, Object shapeOptions) {
+    final Map<?, ?> options = (Map<?, ?>) shapeOptions;
+    final Map<Object, Long> fingerprints = shapeIdToFingerprints.get(shapeId);
+    if (fingerprints == null) {
+      put(shapeId, shapeOptions);
+      return new HashMap<Object, Object>(options);
+    }
+    Map<Object, Object> changes = null;
+    for (Map.Entry<?, ?> entry : options.entrySet()) {
+      final Long fingerprint = fingerprint(entry.getValue());
+      final Long previous = fingerprints.put(entry.getKey(), fingerprint);
+      if (!fingerprint.equals(previous)) {
+        if (changes == null) {
+          changes = new HashMap<>();
+          changes.put(shapeIdKey, shapeId);
+        }
+        changes.put(entry.getKey(), entry.getValue());
+      }
+    }
+    return changes;
+  }
+
+  void remove(String shapeId) {
+    shapeIdToFingerprints.remove(shapeId);
+  }
+
+  /** Returns a 64-bit FNV-style hash of a value decoded by the StandardMessageCodec. */
+  static long fingerprint(@Nullable Object value) {
+    return fingerprint(0xcbf29ce484222325L, value);
+  }
+
+  private static long fingerprint(long hash, @Nullable Object value) {
+    if (value == null) {
+      return mix(hash, 0);
+    }
+    if (value instanceof List) {
+      final List<?> list = (List<?>) value;
+      hash = mix(hash, 1 + list.size());
+      for (Object item : list) {
+        hash = fingerprint(hash, item);
+      }
+      return hash;
+    }
+    if (value instanceof Map) {
+      // Order independent, like Map.equals.
+      long entriesHash = 0;
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        entriesHash += fingerprint(fingerprint(entry.getKey()), entry.getValue());
+      }
+      return mix(mix(hash, 2), entriesHash);
+    }
+    if (value instanceof Number) {
+      return mix(mix(hash, 3), Double.doubleToLongBits(((Number) value).doubleValue()));
+    }
+    if (value instanceof double[]) {
+      final double[] array = (double[]) value;
+      hash = mix(hash, 4 + array.length);
+      for (double item : array) {
+        hash = mix(hash, Double.doubleToLongBits(item));
+      }
+      return hash;
+    }
+    if (value instanceof byte[]) {
+      final byte[] array = (byte[]) value;
+      hash = mix(hash, 5 + array.length);
+      for (byte item : array) {
+        hash = mix(hash, item);
+      }
+      return hash;
+    }
+    if (value instanceof int[]) {
+      final int[] array = (int[]) value;
+      hash = mix(hash, 6 + array.length);
+      for (int item : array) {
+        hash = mix(hash, item);
+      }
+      return hash;
+    }
+    if (value instanceof long[]) {
+      final long[] array = (long[]) value;
+      hash = mix(hash, 7 + array.length);
+      for (long item : array) {
+        hash = mix(hash, item);
+      }
+      return hash;
+    }
+    if (value instanceof String) {
+      final String string = (String) value;
+      hash = mix(hash, 8 + string.length());
+      for (int i = 0; i < string.length(); i++) {
+        hash = mix(hash, string.charAt(i));
+      }
+      return hash;
+    }
+    return mix(mix(hash, 9), value.hashCode());
+  }
+
+  private static long mix(long hash, long value) {
+    return (hash ^ value) * PRIME;
+  }
+}
@@ -0,0 +1,135 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.graphics.Bitmap;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.annotation.Nullable;
+import io.flutter.plugin.common.MethodChannel;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Encodes map snapshots on a background executor and replies with either the encoded bytes or the
+ * path of the file they were written to.
+ */
+class SnapshotEncoder {
+
+  private static final String TAG = "SnapshotEncoder";
+
+  private final String format;
+  private final int quality;
+  private final float scale;
+  @Nullable private final String filePath;
+  private final Handler handler = new Handler(Looper.getMainLooper());
+
+  /**
+   * @param format one of "png", "jpeg" or "webp".
+   * @param quality compression quality from 0 to 100, ignored for "png".
+   * @param scale factor in (0, 1] applied to the snapshot size before encoding.
+   * @param filePath file to write the encoded image to, or null to reply with the bytes.
+   */
+  SnapshotEncoder(String format, int quality, float scale, @Nullable String filePath) {
+    if (scale <= 0 || scale > 1) {
+      throw new IllegalArgumentException("scale must be in (0, 1], got: " + scale);
+    }
+    if (quality < 0 || quality > 100) {
+      throw new IllegalArgumentException("quality must be in [0, 100], got: " + quality);
+    }
+    this.format = format;
+    this.quality = quality;
+    this.scale = scale;
+    this.filePath = filePath;
+    // Fail fast on the calling thread for unknown formats.
+    toCompressFormat(format);
+  }
+
+  /**
+   * Encodes {@code bitmap} on {@code executor} and replies to {@code result} on the main thread. The
+   * bitmap is recycled afterwards.
+   */
+  void encode(Executor executor, final Bitmap bitmap, final MethodChannel.Result result) {
+    try {
+      executor.execute(
+          () -> {
+            try {
+              final Object encoded = encode(bitmap);
+              handler.post(() -> result.success(encoded));
+            } catch (IOException | RuntimeException e) {
+              Log.e(TAG, "Unable to encode the snapshot", e);
+              handler.post(() -> result.error("Snapshot encoding failed", e.getMessage(), null));
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      // The map was disposed while the snapshot was being taken.
+      bitmap.recycle();
+      result.error("Snapshot encoding failed", "The map was disposed", null);
+    }
+  }
+
+  Object encode(Bitmap bitmap) throws IOException {
+    Bitmap source = bitmap;
+    try {
+      if (scale < 1) {
+        source =
+            Bitmap.createScaledBitmap(
+                bitmap,
+                Math.max(1, Math.round(bitmap.getWidth() * scale)),
+                Math.max(1, Math.round(bitmap.getHeight() * scale)),
+                true);
+      }
+      if (filePath == null) {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        compress(source, stream);
+        return stream.toByteArray();
+      }
+      final File file = new File(filePath);
+      final File parent = file.getParentFile();
+      if (parent != null && !parent.exists() && !parent.mkdirs()) {
+        throw new IOException("Unable to create directory " + parent);
+      }
+      try (OutputStream stream = new FileOutputStream(file)) {
+        compress(source, stream);
+      }
+      return filePath;
+    } finally {
+      if (source != bitmap) {
+        source.recycle();
+      }
+      bitmap.recycle();
+    }
+  }
+
+  private void compress(Bitmap bitmap, OutputStream stream) throws IOException {
+    if (!bitmap.compress(toCompressFormat(format), quality, stream)) {
+      throw new IOException("Bitmap.compress failed for format " + format);
+    }
+  }
+
+  @SuppressWarnings("deprecation")
+  private static Bitmap.CompressFormat toCompressFormat(String format) {
+    switch (format) {
+      case "png":
+        return Bitmap.CompressFormat.PNG;
+      case "jpeg":
+        return Bitmap.CompressFormat.JPEG;
+      case "webp":
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+          return Bitmap.CompressFormat.WEBP_LOSSY;
+        }
+        return Bitmap.CompressFormat.WEBP;
+      default:
+        throw new IllegalArgumentException("Cannot interpret " + format + " as a snapshot format");
+    }
+  }
+}
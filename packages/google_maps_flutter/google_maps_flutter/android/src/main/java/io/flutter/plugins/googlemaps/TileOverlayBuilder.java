@@ -4,21 +4,41 @@
 
 package io.flutter.plugins.googlemaps;
 
+import androidx.annotation.Nullable;
 import com.google.android.gms.maps.model.TileOverlayOptions;
 import com.google.android.gms.maps.model.TileProvider;
+import java.util.concurrent.Executor;
 
 class TileOverlayBuilder implements TileOverlaySink {
 
   private final TileOverlayOptions tileOverlayOptions;
+  private final Executor heatmapExecutor;
+  @Nullable private final MapPerformanceStats performanceStats;
+  @Nullable private HeatmapTileProvider heatmapTileProvider;
 
-  TileOverlayBuilder() {
+  TileOverlayBuilder(Executor heatmapExecutor, @Nullable MapPerformanceStats performanceStats) {
     this.tileOverlayOptions = new TileOverlayOptions();
+    this.heatmapExecutor = heatmapExecutor;
+    this.performanceStats = performanceStats;
   }
 
   TileOverlayOptions build() {
     return tileOverlayOptions;
   }
 
+  /** Returns the heatmap tile provider, or null if no heatmap option was set. */
+  @Nullable
+  HeatmapTileProvider heatmapTileProvider() {
+    return heatmapTileProvider;
+  }
+
+  private HeatmapTileProvider heatmap() {
+    if (heatmapTileProvider == null) {
+      heatmapTileProvider = new HeatmapTileProvider(heatmapExecutor, performanceStats);
+    }
+    return heatmapTileProvider;
+  }
+
   @Override
   public void setFadeIn(boolean fadeIn) {
     tileOverlayOptions.fadeIn(fadeIn);
@@ -43,4 +63,24 @@ class TileOverlayBuilder implements TileOverlaySink {
   public void setTileProvider(TileProvider tileProvider) {
     tileOverlayOptions.tileProvider(tileProvider);
   }
+
+  @Override
+  public void setHeatmapData(double[] weightedPoints) {
+    heatmap().setData(weightedPoints);
+  }
+
+  @Override
+  public void setHeatmapRadius(int radius) {
+    heatmap().setRadius(radius);
+  }
+
+  @Override
+  public void setHeatmapMaxIntensity(double maxIntensity) {
+    heatmap().setMaxIntensity(maxIntensity);
+  }
+
+  @Override
+  public void setHeatmapGradient(int[] colors, double[] startPoints) {
+    heatmap().setGradient(colors, startPoints);
+  }
 }
@@ -4,6 +4,7 @@
 
 package io.flutter.plugins.googlemaps;
 
+import androidx.annotation.Nullable;
 import com.google.android.gms.maps.model.TileOverlay;
 import com.google.android.gms.maps.model.TileProvider;
 import java.util.HashMap;
@@ -12,15 +13,25 @@ import java.util.Map;
 class TileOverlayController implements TileOverlaySink {
 
   private final TileOverlay tileOverlay;
+  @Nullable private final HeatmapTileProvider heatmapTileProvider;
 
   TileOverlayController(TileOverlay tileOverlay) {
+    this(tileOverlay, null);
+  }
+
+  TileOverlayController(TileOverlay tileOverlay, @Nullable HeatmapTileProvider heatmapTileProvider) {
     this.tileOverlay = tileOverlay;
+    this.heatmapTileProvider = heatmapTileProvider;
   }
 
   void remove() {
     tileOverlay.remove();
   }
 
+  boolean isVisible() {
+    return tileOverlay.isVisible();
+  }
+
   void clearTileCache() {
     tileOverlay.clearTileCache();
   }
@@ -59,4 +70,34 @@ class TileOverlayController implements TileOverlaySink {
   public void setTileProvider(TileProvider tileProvider) {
     // You can not change tile provider after creation
   }
+
+  // Heatmap options can only be changed on heatmap overlays.
+
+  @Override
+  public void setHeatmapData(double[] weightedPoints) {
+    if (heatmapTileProvider != null && heatmapTileProvider.setData(weightedPoints)) {
+      tileOverlay.clearTileCache();
+    }
+  }
+
+  @Override
+  public void setHeatmapRadius(int radius) {
+    if (heatmapTileProvider != null && heatmapTileProvider.setRadius(radius)) {
+      tileOverlay.clearTileCache();
+    }
+  }
+
+  @Override
+  public void setHeatmapMaxIntensity(double maxIntensity) {
+    if (heatmapTileProvider != null && heatmapTileProvider.setMaxIntensity(maxIntensity)) {
+      tileOverlay.clearTileCache();
+    }
+  }
+
+  @Override
+  public void setHeatmapGradient(int[] colors, double[] startPoints) {
+    if (heatmapTileProvider != null && heatmapTileProvider.setGradient(colors, startPoints)) {
+      tileOverlay.clearTileCache();
+    }
+  }
 }
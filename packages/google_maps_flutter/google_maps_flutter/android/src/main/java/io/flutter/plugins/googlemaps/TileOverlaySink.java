@@ -17,4 +17,12 @@ interface TileOverlaySink {
   void setVisible(boolean visible);
 
   void setTileProvider(TileProvider tileProvider);
+
+  void setHeatmapData(double[] weightedPoints);
+
+  void setHeatmapRadius(int radius);
+
+  void setHeatmapMaxIntensity(double maxIntensity);
+
+  void setHeatmapGradient(int[] colors, double[] startPoints);
 }
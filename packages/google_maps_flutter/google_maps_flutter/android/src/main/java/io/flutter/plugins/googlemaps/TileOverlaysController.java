@@ -4,6 +4,7 @@
 
 package io.flutter.plugins.googlemaps;
 
+import androidx.annotation.Nullable;
 import com.google.android.gms.maps.GoogleMap;
 import com.google.android.gms.maps.model.TileOverlay;
 import com.google.android.gms.maps.model.TileOverlayOptions;
@@ -11,16 +12,40 @@ import io.flutter.plugin.common.MethodChannel;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 class TileOverlaysController {
 
   private final Map<String, TileOverlayController> tileOverlayIdToController;
   private final MethodChannel methodChannel;
+  private final Executor heatmapExecutor;
+  @Nullable private final MapPerformanceStats performanceStats;
   private GoogleMap googleMap;
 
-  TileOverlaysController(MethodChannel methodChannel) {
+  /** @param heatmapExecutor executor indexing the data of heatmap tile overlays. */
+  TileOverlaysController(
+      MethodChannel methodChannel,
+      Executor heatmapExecutor,
+      @Nullable MapPerformanceStats performanceStats) {
     this.tileOverlayIdToController = new HashMap<>();
     this.methodChannel = methodChannel;
+    this.heatmapExecutor = heatmapExecutor;
+    this.performanceStats = performanceStats;
+  }
+
+  int getCount() {
+    return tileOverlayIdToController.size();
+  }
+
+  /** Returns the number of tile overlays that are visible, and so request tiles. */
+  int getVisibleCount() {
+    int count = 0;
+    for (TileOverlayController tileOverlayController : tileOverlayIdToController.values()) {
+      if (tileOverlayController.isVisible()) {
+        count++;
+      }
+    }
+    return count;
   }
 
   void setGoogleMap(GoogleMap googleMap) {
@@ -82,15 +107,23 @@ class TileOverlaysController {
     if (tileOverlayOptions == null) {
       return;
     }
-    TileOverlayBuilder tileOverlayOptionsBuilder = new TileOverlayBuilder();
+    TileOverlayBuilder tileOverlayOptionsBuilder =
+        new TileOverlayBuilder(heatmapExecutor, performanceStats);
     String tileOverlayId =
         Convert.interpretTileOverlayOptions(tileOverlayOptions, tileOverlayOptionsBuilder);
-    TileProviderController tileProviderController =
-        new TileProviderController(methodChannel, tileOverlayId);
-    tileOverlayOptionsBuilder.setTileProvider(tileProviderController);
+    HeatmapTileProvider heatmapTileProvider = tileOverlayOptionsBuilder.heatmapTileProvider();
+    if (heatmapTileProvider != null) {
+      // Heatmaps are rendered natively instead of requesting tiles from Dart.
+      tileOverlayOptionsBuilder.setTileProvider(heatmapTileProvider);
+    } else {
+      TileProviderController tileProviderController =
+          new TileProviderController(methodChannel, tileOverlayId, performanceStats);
+      tileOverlayOptionsBuilder.setTileProvider(tileProviderController);
+    }
     TileOverlayOptions options = tileOverlayOptionsBuilder.build();
     TileOverlay tileOverlay = googleMap.addTileOverlay(options);
-    TileOverlayController tileOverlayController = new TileOverlayController(tileOverlay);
+    TileOverlayController tileOverlayController =
+        new TileOverlayController(tileOverlay, heatmapTileProvider);
     tileOverlayIdToController.put(tileOverlayId, tileOverlayController);
   }
 
@@ -6,8 +6,10 @@ package io.flutter.plugins.googlemaps;
 
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import com.google.android.gms.maps.model.Tile;
 import com.google.android.gms.maps.model.TileProvider;
 import io.flutter.plugin.common.MethodChannel;
@@ -21,16 +23,31 @@ class TileProviderController implements TileProvider {
   private final String tileOverlayId;
   private final MethodChannel methodChannel;
   private final Handler handler = new Handler(Looper.getMainLooper());
+  @Nullable private final MapPerformanceStats performanceStats;
 
-  TileProviderController(MethodChannel methodChannel, String tileOverlayId) {
+  TileProviderController(
+      MethodChannel methodChannel,
+      String tileOverlayId,
+      @Nullable MapPerformanceStats performanceStats) {
     this.tileOverlayId = tileOverlayId;
     this.methodChannel = methodChannel;
+    this.performanceStats = performanceStats;
   }
 
   @Override
   public Tile getTile(final int x, final int y, final int zoom) {
     Worker worker = new Worker(x, y, zoom);
-    return worker.getTile();
+    if (performanceStats == null) {
+      return worker.getTile();
+    }
+    final boolean traced = performanceStats.beginTrace("GoogleMap tile");
+    final long startNanos = SystemClock.elapsedRealtimeNanos();
+    try {
+      return worker.getTile();
+    } finally {
+      performanceStats.recordTileRequest(false, SystemClock.elapsedRealtimeNanos() - startNanos);
+      MapPerformanceStats.endTrace(traced);
+    }
   }
 
   private final class Worker implements MethodChannel.Result {
@@ -0,0 +1,239 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import androidx.annotation.Nullable;
+import com.google.android.gms.maps.model.LatLngBounds;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Holds the options of every shape of one kind and only materializes, through a {@link ShapeSink},
+ * the shapes that intersect the visible region of the map.
+ *
+ * <p>Shapes without geometry are always materialized. Nothing is materialized until the first
+ * visible region is known.
+ */
+class ViewportCuller {
+
+  /** Fraction of the visible span added on every side of the visible region. */
+  private static final double VISIBLE_REGION_MARGIN = 0.5;
+
+  /** Receiver of the shapes entering and leaving the visible region. */
+  interface ShapeSink {
+    void addShape(Object shapeOptions);
+
+    void changeShape(Object shapeOptions);
+
+    void removeShape(String shapeId);
+  }
+
+  /** Computes the {@code {south, west, north, east}} bounds of raw shape options. */
+  interface BoundsFunction {
+    @Nullable
+    double[] getBounds(Object shapeOptions);
+  }
+
+  private final ShapeSink sink;
+  private final BoundsFunction boundsFunction;
+  private final Map<String, Object> shapeIdToOptions = new HashMap<>();
+  private final Set<String> unboundedShapeIds = new HashSet<>();
+  private final Set<String> materializedShapeIds = new HashSet<>();
+  // Shapes kept on the map wherever the camera is, such as markers showing their info window.
+  private final Set<String> pinnedShapeIds = new HashSet<>();
+  private final ShapeIndex index = new ShapeIndex();
+  // Visible region including the margin, in {south, west, north, east} order.
+  @Nullable private double[] region;
+
+  ViewportCuller(ShapeSink sink, BoundsFunction boundsFunction) {
+    this.sink = sink;
+    this.boundsFunction = boundsFunction;
+  }
+
+  void add(String shapeId, Object shapeOptions) {
+    shapeIdToOptions.put(shapeId, shapeOptions);
+    if (updateIndex(shapeId, shapeOptions) && materializedShapeIds.add(shapeId)) {
+      sink.addShape(shapeOptions);
+    }
+  }
+
+  void change(String shapeId, Object shapeOptions) {
+    if (!shapeIdToOptions.containsKey(shapeId)) {
+      return;
+    }
+    shapeIdToOptions.put(shapeId, shapeOptions);
+    boolean visible = updateIndex(shapeId, shapeOptions);
+    if (materializedShapeIds.contains(shapeId)) {
+      // Shapes moving out of the region are kept until the camera settles again.
+      sink.changeShape(shapeOptions);
+    } else if (visible) {
+      materializedShapeIds.add(shapeId);
+      sink.addShape(shapeOptions);
+    }
+  }
+
+  void remove(String shapeId) {
+    if (shapeIdToOptions.remove(shapeId) == null) {
+      return;
+    }
+    index.remove(shapeId);
+    unboundedShapeIds.remove(shapeId);
+    pinnedShapeIds.remove(shapeId);
+    if (materializedShapeIds.remove(shapeId)) {
+      sink.removeShape(shapeId);
+    }
+  }
+
+  /**
+   * Replaces the stored options of a shape that the map already changed itself, such as a dragged
+   * marker, without passing them to the sink.
+   */
+  void replaceOptions(String shapeId, Object shapeOptions) {
+    if (!shapeIdToOptions.containsKey(shapeId)) {
+      return;
+    }
+    shapeIdToOptions.put(shapeId, shapeOptions);
+    updateIndex(shapeId, shapeOptions);
+  }
+
+  /** Adds a known shape to the map even if it is outside the visible region. */
+  void materialize(String shapeId) {
+    final Object shapeOptions = shapeIdToOptions.get(shapeId);
+    if (shapeOptions != null && materializedShapeIds.add(shapeId)) {
+      sink.addShape(shapeOptions);
+    }
+  }
+
+  /**
+   * Adds a known shape to the map and keeps it there until {@link #unpin} is called, even when the
+   * camera moves away from it.
+   */
+  void pin(String shapeId) {
+    if (shapeIdToOptions.containsKey(shapeId)) {
+      pinnedShapeIds.add(shapeId);
+      materialize(shapeId);
+    }
+  }
+
+  /** Lets a pinned shape be removed again by the next visible region change. */
+  void unpin(String shapeId) {
+    pinnedShapeIds.remove(shapeId);
+  }
+
+  boolean isPinned(String shapeId) {
+    return pinnedShapeIds.contains(shapeId);
+  }
+
+  @Nullable
+  Object getOptions(String shapeId) {
+    return shapeIdToOptions.get(shapeId);
+  }
+
+  boolean contains(String shapeId) {
+    return shapeIdToOptions.containsKey(shapeId);
+  }
+
+  boolean isMaterialized(String shapeId) {
+    return materializedShapeIds.contains(shapeId);
+  }
+
+  int getShapeCount() {
+    return shapeIdToOptions.size();
+  }
+
+  /** Materializes the shapes intersecting {@code visibleBounds} and removes all the others. */
+  void onVisibleRegionChanged(LatLngBounds visibleBounds) {
+    region = expand(visibleBounds);
+    final Set<String> visibleShapeIds = new HashSet<>(unboundedShapeIds);
+    visibleShapeIds.addAll(pinnedShapeIds);
+    searchRegion(visibleShapeIds);
+
+    final List<String> hiddenShapeIds = new ArrayList<>();
+    for (String shapeId : materializedShapeIds) {
+      if (!visibleShapeIds.contains(shapeId)) {
+        hiddenShapeIds.add(shapeId);
+      }
+    }
+    for (String shapeId : hiddenShapeIds) {
+      materializedShapeIds.remove(shapeId);
+      sink.removeShape(shapeId);
+    }
+    for (String shapeId : visibleShapeIds) {
+      if (materializedShapeIds.add(shapeId)) {
+        sink.addShape(shapeIdToOptions.get(shapeId));
+      }
+    }
+  }
+
+  /** Indexes the shape and returns whether it currently belongs on the map. */
+  private boolean updateIndex(String shapeId, Object shapeOptions) {
+    final double[] bounds = boundsFunction.getBounds(shapeOptions);
+    if (bounds == null) {
+      index.remove(shapeId);
+      unboundedShapeIds.add(shapeId);
+      return region != null;
+    }
+    unboundedShapeIds.remove(shapeId);
+    index.put(shapeId, bounds);
+    return region != null && intersectsRegion(bounds);
+  }
+
+  private void searchRegion(Set<String> out) {
+    if (region[1] <= region[3]) {
+      index.search(region[0], region[1], region[2], region[3], out);
+    } else {
+      // The region crosses the antimeridian.
+      index.search(region[0], region[1], region[2], 180, out);
+      index.search(region[0], -180, region[2], region[3], out);
+    }
+  }
+
+  private boolean intersectsRegion(double[] bounds) {
+    if (bounds[0] > region[2] || bounds[2] < region[0]) {
+      return false;
+    }
+    if (region[1] <= region[3]) {
+      return bounds[1] <= region[3] && bounds[3] >= region[1];
+    }
+    return bounds[3] >= region[1] || bounds[1] <= region[3];
+  }
+
+  private static double[] expand(LatLngBounds bounds) {
+    final double south = bounds.southwest.latitude;
+    final double north = bounds.northeast.latitude;
+    final double west = bounds.southwest.longitude;
+    double east = bounds.northeast.longitude;
+    if (east < west) {
+      east += 360;
+    }
+    final double latitudeMargin = (north - south) * VISIBLE_REGION_MARGIN;
+    final double longitudeMargin = (east - west) * VISIBLE_REGION_MARGIN;
+    if (east - west + 2 * longitudeMargin >= 360) {
+      return new double[] {
+        Math.max(-90, south - latitudeMargin), -180, Math.min(90, north + latitudeMargin), 180
+      };
+    }
+    return new double[] {
+      Math.max(-90, south - latitudeMargin),
+      wrapLongitude(west - longitudeMargin),
+      Math.min(90, north + latitudeMargin),
+      wrapLongitude(east + longitudeMargin)
+    };
+  }
+
+  private static double wrapLongitude(double longitude) {
+    if (longitude > 180) {
+      return longitude - 360;
+    }
+    if (longitude < -180) {
+      return longitude + 360;
+    }
+    return longitude;
+  }
+}
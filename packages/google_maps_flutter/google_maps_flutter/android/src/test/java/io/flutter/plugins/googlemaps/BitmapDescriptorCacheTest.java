@@ -0,0 +1,118 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+import android.os.Build;
+import com.google.android.gms.maps.model.BitmapDescriptor;
+import java.util.Arrays;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.P)
+public class BitmapDescriptorCacheTest {
+
+  private static Object bytesKey(int size, int fill) {
+    final byte[] bytes = new byte[size];
+    Arrays.fill(bytes, (byte) fill);
+    return BitmapDescriptorCache.toKey(Arrays.asList("fromBytes", bytes));
+  }
+
+  @Test
+  public void toKey_ComparesBytesByContent() {
+    final Object first = BitmapDescriptorCache.toKey(Arrays.asList("fromBytes", new byte[] {1, 2}));
+    final Object second =
+        BitmapDescriptorCache.toKey(Arrays.asList("fromBytes", new byte[] {1, 2}));
+    final Object other = BitmapDescriptorCache.toKey(Arrays.asList("fromBytes", new byte[] {2, 1}));
+
+    assertEquals(first, second);
+    assertEquals(first.hashCode(), second.hashCode());
+    assertNotEquals(first, other);
+  }
+
+  @Test
+  public void byteCount_CountsIconBytes() {
+    assertEquals(4096, BitmapDescriptorCache.byteCount(bytesKey(4096, 1)));
+    assertEquals(
+        0, BitmapDescriptorCache.byteCount(BitmapDescriptorCache.toKey(Arrays.asList("fromAsset"))));
+  }
+
+  @Test
+  public void put_EvictsLeastRecentlyUsedOnceMaxBytesIsExceeded() {
+    final BitmapDescriptorCache cache = new BitmapDescriptorCache(10000);
+    final Object a = bytesKey(4000, 1);
+    final Object b = bytesKey(4000, 2);
+    final Object c = bytesKey(4000, 3);
+    final BitmapDescriptor descriptorA = mock(BitmapDescriptor.class);
+    final BitmapDescriptor descriptorC = mock(BitmapDescriptor.class);
+
+    cache.put(a, descriptorA);
+    cache.put(b, mock(BitmapDescriptor.class));
+    cache.get(a);
+    cache.put(c, descriptorC);
+
+    assertEquals(2, cache.size());
+    assertSame(descriptorA, cache.get(a));
+    assertNull(cache.get(b));
+    assertSame(descriptorC, cache.get(c));
+  }
+
+  @Test
+  public void put_WeighsEntriesWithoutBytesAtTheMinimum() {
+    final BitmapDescriptorCache cache =
+        new BitmapDescriptorCache(2 * BitmapDescriptorCache.MIN_ENTRY_BYTES);
+
+    cache.put("a", mock(BitmapDescriptor.class));
+    cache.put("b", mock(BitmapDescriptor.class));
+    cache.put("c", mock(BitmapDescriptor.class));
+
+    assertEquals(2, cache.size());
+    assertNull(cache.get("a"));
+  }
+
+  @Test
+  public void clear_ReleasesRegisteredIcons() {
+    final BitmapDescriptorCache cache =
+        new BitmapDescriptorCache(BitmapDescriptorCache.DEFAULT_MAX_BYTES);
+    cache.put("a", mock(BitmapDescriptor.class));
+    cache.registerIcon("icon", mock(BitmapDescriptor.class));
+
+    cache.clear();
+
+    assertEquals(0, cache.size());
+    assertNull(cache.getRegisteredIcon("icon"));
+  }
+
+  @Test
+  public void createMapScope_SharesDescriptorsButNotRegisteredIcons() {
+    final BitmapDescriptorCache cache =
+        new BitmapDescriptorCache(BitmapDescriptorCache.DEFAULT_MAX_BYTES);
+    final BitmapDescriptorCache firstMap = cache.createMapScope();
+    final BitmapDescriptorCache secondMap = cache.createMapScope();
+    final BitmapDescriptor descriptor = mock(BitmapDescriptor.class);
+    final BitmapDescriptor icon = mock(BitmapDescriptor.class);
+
+    firstMap.put("a", descriptor);
+    firstMap.registerIcon("icon", icon);
+    secondMap.registerIcon("icon", icon);
+    secondMap.unregisterIcon("icon");
+
+    assertSame(descriptor, secondMap.get("a"));
+    assertSame(icon, firstMap.getRegisteredIcon("icon"));
+    assertNull(secondMap.getRegisteredIcon("icon"));
+
+    firstMap.clearRegisteredIcons();
+    assertNull(firstMap.getRegisteredIcon("icon"));
+    assertSame(descriptor, cache.get("a"));
+  }
+}
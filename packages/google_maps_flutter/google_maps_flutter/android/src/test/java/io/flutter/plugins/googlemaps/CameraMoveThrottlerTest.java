@@ -0,0 +1,73 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import android.os.Build;
+import com.google.android.gms.maps.model.CameraPosition;
+import com.google.android.gms.maps.model.LatLng;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.P)
+public class CameraMoveThrottlerTest {
+
+  private static CameraPosition position(double latitude) {
+    return new CameraPosition(new LatLng(latitude, 0), 10, 0, 0);
+  }
+
+  @Test
+  public void onCameraMove_DeliversEveryPositionByDefault() {
+    final CameraMoveThrottler.Listener listener = mock(CameraMoveThrottler.Listener.class);
+    final CameraMoveThrottler throttler = new CameraMoveThrottler(listener);
+
+    throttler.onCameraMove(position(1));
+    throttler.onCameraMove(position(2));
+
+    verify(listener).onCameraMove(position(1));
+    verify(listener).onCameraMove(position(2));
+  }
+
+  @Test
+  public void onCameraMove_CoalescesPositionsWithinInterval() {
+    final CameraMoveThrottler.Listener listener = mock(CameraMoveThrottler.Listener.class);
+    final CameraMoveThrottler throttler = new CameraMoveThrottler(listener);
+    throttler.setThrottle(10, 0);
+
+    throttler.onCameraMove(position(1));
+    throttler.onCameraMove(position(2));
+    throttler.onCameraMove(position(3));
+    verify(listener).onCameraMove(position(1));
+    verify(listener, never()).onCameraMove(position(3));
+
+    ShadowLooper.idleMainLooper(100, TimeUnit.MILLISECONDS);
+    verify(listener, never()).onCameraMove(position(2));
+    verify(listener).onCameraMove(position(3));
+  }
+
+  @Test
+  public void flush_DeliversPositionBelowMinimumDelta() {
+    final CameraMoveThrottler.Listener listener = mock(CameraMoveThrottler.Listener.class);
+    final CameraMoveThrottler throttler = new CameraMoveThrottler(listener);
+    throttler.setThrottle(0, 10);
+
+    throttler.onCameraMove(position(1));
+    throttler.onCameraMove(position(1.000001));
+    verify(listener, times(1)).onCameraMove(position(1));
+    verify(listener, never()).onCameraMove(position(1.000001));
+
+    throttler.flush();
+    verify(listener).onCameraMove(position(1.000001));
+  }
+}
@@ -4,18 +4,35 @@
 
 package io.flutter.plugins.googlemaps;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Point;
 import android.os.Build;
 import androidx.activity.ComponentActivity;
 import androidx.test.core.app.ApplicationProvider;
 import com.google.android.gms.maps.GoogleMap;
+import com.google.android.gms.maps.Projection;
+import com.google.android.gms.maps.model.LatLng;
 import io.flutter.plugin.common.BinaryMessenger;
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+import java.util.Arrays;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.robolectric.Robolectric;
@@ -58,4 +75,68 @@ public class GoogleMapControllerTest {
     googleMapController.onDestroy(activity);
     assertNull(googleMapController.getView());
   }
+
+  @Test
+  public void SnapshotReadyAfterDisposeRepliesWithError() {
+    googleMapController.onMapReady(mockGoogleMap);
+    final MethodChannel.Result result = mock(MethodChannel.Result.class);
+    googleMapController.onMethodCall(new MethodCall("map#takeSnapshot", null), result);
+    final ArgumentCaptor<GoogleMap.SnapshotReadyCallback> callback =
+        ArgumentCaptor.forClass(GoogleMap.SnapshotReadyCallback.class);
+    verify(mockGoogleMap).snapshot(callback.capture());
+
+    googleMapController.dispose();
+    final Bitmap bitmap = Bitmap.createBitmap(4, 4, Bitmap.Config.ARGB_8888);
+    callback.getValue().onSnapshotReady(bitmap);
+
+    verify(result).error(eq("Snapshot encoding failed"), anyString(), isNull());
+    assertTrue(bitmap.isRecycled());
+  }
+
+  @Test
+  public void GetScreenCoordinatesProjectsPackedLatLngs() {
+    googleMapController.onMapReady(mockGoogleMap);
+    final Projection projection = mock(Projection.class);
+    when(mockGoogleMap.getProjection()).thenReturn(projection);
+    when(projection.toScreenLocation(new LatLng(1, 2))).thenReturn(new Point(10, 20));
+    when(projection.toScreenLocation(new LatLng(3, 4))).thenReturn(new Point(30, 40));
+    final MethodChannel.Result result = mock(MethodChannel.Result.class);
+
+    googleMapController.onMethodCall(
+        new MethodCall("map#getScreenCoordinates", new double[] {1, 2, 3, 4}), result);
+
+    final ArgumentCaptor<Object> screenLocations = ArgumentCaptor.forClass(Object.class);
+    verify(result).success(screenLocations.capture());
+    assertArrayEquals(new int[] {10, 20, 30, 40}, (int[]) screenLocations.getValue());
+    verify(mockGoogleMap, times(1)).getProjection();
+  }
+
+  @Test
+  public void GetLatLngsAcceptsPlainLists() {
+    googleMapController.onMapReady(mockGoogleMap);
+    final Projection projection = mock(Projection.class);
+    when(mockGoogleMap.getProjection()).thenReturn(projection);
+    when(projection.fromScreenLocation(any(Point.class))).thenReturn(new LatLng(1, 2));
+    final MethodChannel.Result result = mock(MethodChannel.Result.class);
+
+    googleMapController.onMethodCall(
+        new MethodCall("map#getLatLngs", Arrays.asList(10, 20, 30, 40)), result);
+
+    final ArgumentCaptor<Object> latLngs = ArgumentCaptor.forClass(Object.class);
+    verify(result).success(latLngs.capture());
+    assertArrayEquals(new double[] {1, 2, 1, 2}, (double[]) latLngs.getValue(), 0);
+    verify(projection, times(2)).fromScreenLocation(any(Point.class));
+  }
+
+  @Test
+  public void BatchProjectionRejectsOddCoordinateCounts() {
+    googleMapController.onMapReady(mockGoogleMap);
+    final MethodChannel.Result result = mock(MethodChannel.Result.class);
+
+    googleMapController.onMethodCall(
+        new MethodCall("map#getScreenCoordinates", new double[] {1, 2, 3}), result);
+    googleMapController.onMethodCall(new MethodCall("map#getLatLngs", new int[] {10}), result);
+
+    verify(result, times(2)).error(eq("Invalid coordinates"), anyString(), isNull());
+  }
 }
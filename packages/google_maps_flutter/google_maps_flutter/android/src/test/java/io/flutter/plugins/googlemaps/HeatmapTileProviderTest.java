@@ -0,0 +1,112 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import android.os.Build;
+import com.google.android.gms.maps.model.TileProvider;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.P)
+public class HeatmapTileProviderTest {
+
+  private static final int RADIUS = 10;
+  private static final double[] KERNEL = HeatmapTileProvider.createKernel(RADIUS);
+
+  @Test
+  public void computeIntensity_PeaksAtThePointPixel() {
+    final HeatmapTileProvider.WeightedPointIndex index =
+        new HeatmapTileProvider.WeightedPointIndex(new double[] {0, 0, 3});
+
+    // At zoom 2, (0, 0) is the top left corner of tile (2, 2).
+    final double[] intensity = HeatmapTileProvider.computeIntensity(index, 2, 2, 2, RADIUS, KERNEL);
+
+    assertNotNull(intensity);
+    assertEquals(3, intensity[0], 1e-9);
+    assertTrue(intensity[1] < intensity[0]);
+    assertEquals(0, intensity[(RADIUS + 1) * HeatmapTileProvider.TILE_SIZE], 0);
+  }
+
+  @Test
+  public void computeIntensity_ReturnsNullForTilesFarFromPoints() {
+    final HeatmapTileProvider.WeightedPointIndex index =
+        new HeatmapTileProvider.WeightedPointIndex(new double[] {0, 0, 1});
+
+    assertNull(HeatmapTileProvider.computeIntensity(index, 0, 0, 3, RADIUS, KERNEL));
+  }
+
+  @Test
+  public void computeIntensity_WrapsAroundTheAntimeridian() {
+    final HeatmapTileProvider.WeightedPointIndex index =
+        new HeatmapTileProvider.WeightedPointIndex(new double[] {0, 179.99, 1});
+
+    assertNotNull(HeatmapTileProvider.computeIntensity(index, 0, 2, 2, RADIUS, KERNEL));
+  }
+
+  @Test
+  public void createColorMap_FadesInAndEndsWithTheLastColor() {
+    final int[] colorMap =
+        HeatmapTileProvider.createColorMap(
+            new int[] {0xff00ff00, 0xffff0000}, new double[] {0.5, 1});
+
+    assertEquals(HeatmapTileProvider.COLOR_MAP_SIZE, colorMap.length);
+    assertEquals(0, colorMap[0] >>> 24);
+    assertEquals(0xffff0000, colorMap[colorMap.length - 1]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void createColorMap_RejectsDecreasingStartPoints() {
+    HeatmapTileProvider.createColorMap(new int[] {0xff00ff00, 0xffff0000}, new double[] {1, 0.5});
+  }
+
+  @Test
+  public void getMaxCellWeight_SumsNearbyPoints() {
+    final HeatmapTileProvider.WeightedPointIndex index =
+        new HeatmapTileProvider.WeightedPointIndex(
+            new double[] {10, 10, 1, 10, 10, 2, -40, -40, 2.5});
+
+    assertEquals(3, index.getMaxCellWeight(0.01), 1e-9);
+  }
+
+  @Test
+  public void setData_ReturnsFalseForUnchangedData() {
+    final HeatmapTileProvider provider = new HeatmapTileProvider(Runnable::run);
+
+    assertTrue(provider.setData(new double[] {0, 0, 1}));
+    assertFalse(provider.setData(new double[] {0, 0, 1}));
+    assertTrue(provider.setData(new double[] {0, 0, 2}));
+  }
+
+  @Test
+  public void getTile_CachesRenderedTiles() {
+    final HeatmapTileProvider provider = new HeatmapTileProvider(Runnable::run);
+    provider.setData(new double[] {0, 0, 1});
+
+    assertSame(TileProvider.NO_TILE, provider.getTile(0, 0, 3));
+    assertSame(provider.getTile(2, 2, 2), provider.getTile(2, 2, 2));
+  }
+
+  @Test
+  public void getTile_RendersAgainAfterOptionsChange() {
+    final HeatmapTileProvider provider = new HeatmapTileProvider(Runnable::run);
+    provider.setData(new double[] {0, 0, 1});
+    final Object tile = provider.getTile(2, 2, 2);
+
+    provider.setRadius(RADIUS);
+
+    assertNotSame(tile, provider.getTile(2, 2, 2));
+  }
+}
@@ -0,0 +1,69 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.mock;
+
+import io.flutter.plugin.common.BinaryMessenger;
+import java.util.Map;
+import org.junit.Test;
+
+public class MapPerformanceStatsTest {
+
+  @Test
+  public void beginTrace_DoesNothingWhileTracingIsDisabled() {
+    final MapPerformanceStats stats = new MapPerformanceStats();
+
+    assertFalse(stats.isTracingEnabled());
+    assertFalse(stats.beginTrace("GoogleMap markers#update"));
+  }
+
+  @Test
+  public void toJson_AccumulatesMethodCallTimings() {
+    final MapPerformanceStats stats = new MapPerformanceStats();
+    stats.recordMethodCall("markers#update", 3000);
+    stats.recordMethodCall("markers#update", 5000);
+
+    final Map<?, ?> methodCalls = (Map<?, ?>) stats.toJson().get("methodCalls");
+    final Map<?, ?> timing = (Map<?, ?>) methodCalls.get("markers#update");
+
+    assertEquals(2L, timing.get("count"));
+    assertEquals(8L, timing.get("totalMicros"));
+    assertEquals(5L, timing.get("maxMicros"));
+  }
+
+  @Test
+  public void toJson_ReportsTileCacheHitRatio() {
+    final MapPerformanceStats stats = new MapPerformanceStats();
+    stats.recordTileRequest(true, 0);
+    stats.recordTileRequest(false, 2000);
+    stats.recordTileRequest(true, 0);
+    stats.recordTileRequest(true, 0);
+
+    final Map<?, ?> tiles = (Map<?, ?>) stats.toJson().get("tiles");
+
+    assertEquals(4L, tiles.get("count"));
+    assertEquals(3L, tiles.get("cacheHits"));
+    assertEquals(0.75, (double) tiles.get("cacheHitRatio"), 0);
+  }
+
+  @Test
+  public void eventCountingMethodChannel_CountsEventsPerMethod() {
+    final MapPerformanceStats stats = new MapPerformanceStats();
+    final MapPerformanceStats.EventCountingMethodChannel methodChannel =
+        new MapPerformanceStats.EventCountingMethodChannel(
+            mock(BinaryMessenger.class), "no-name", stats);
+
+    methodChannel.invokeMethod("camera#onMove", null);
+    methodChannel.invokeMethod("camera#onMove", null);
+    methodChannel.invokeMethod("camera#onIdle", null);
+
+    final Map<?, ?> events = (Map<?, ?>) stats.toJson().get("events");
+    assertEquals(2L, events.get("camera#onMove"));
+    assertEquals(1L, events.get("camera#onIdle"));
+  }
+}
@@ -0,0 +1,140 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.os.Build;
+import androidx.test.core.app.ApplicationProvider;
+import com.google.android.gms.maps.GoogleMap;
+import com.google.android.gms.maps.GoogleMapOptions;
+import com.google.android.gms.maps.MapView;
+import com.google.android.gms.maps.UiSettings;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.P)
+public class MapViewPoolTest {
+
+  private MapViewPool pool;
+  private GoogleMap googleMap;
+  private UiSettings uiSettings;
+
+  @Before
+  public void before() {
+    final Context context = ApplicationProvider.getApplicationContext();
+    pool =
+        new MapViewPool(context, 2) {
+          @Override
+          MapView createMapView() {
+            return mock(MapView.class);
+          }
+        };
+    googleMap = mock(GoogleMap.class);
+    uiSettings = mock(UiSettings.class);
+    when(googleMap.getUiSettings()).thenReturn(uiSettings);
+  }
+
+  @Test
+  public void fillOne_FillsUpToTheMaxSize() {
+    assertTrue(pool.fillOne());
+    assertFalse(pool.fillOne());
+    assertFalse(pool.fillOne());
+    assertEquals(2, pool.size());
+  }
+
+  @Test
+  public void acquire_ReturnsPooledMapViews() {
+    pool.fillOne();
+    pool.fillOne();
+
+    final MapView mapView = pool.acquire();
+
+    assertEquals(1, pool.size());
+    verify(mapView, never()).onDestroy();
+    pool.acquire();
+    assertNull(pool.acquire());
+  }
+
+  @Test
+  public void release_ResetsAndKeepsTheMapView() {
+    final MapView mapView = mock(MapView.class);
+
+    assertTrue(pool.release(mapView, googleMap));
+
+    verify(googleMap).clear();
+    verify(googleMap).setMapType(new GoogleMapOptions().getMapType());
+    verify(googleMap).setLatLngBoundsForCameraTarget(null);
+    verify(uiSettings).setCompassEnabled(true);
+    verify(uiSettings).setZoomControlsEnabled(true);
+    verify(uiSettings).setMyLocationButtonEnabled(true);
+    verify(mapView).onStop();
+    assertSame(mapView, pool.acquire());
+  }
+
+  @Test
+  public void release_RejectsMapViewsOnceFull() {
+    pool.fillOne();
+    pool.fillOne();
+    final MapView mapView = mock(MapView.class);
+
+    assertFalse(pool.release(mapView, googleMap));
+    verify(googleMap, never()).clear();
+  }
+
+  @Test
+  public void onTrimMemory_DestroysPooledMapViews() {
+    pool.fillOne();
+    final MapView mapView = pool.acquire();
+    pool.release(mapView, googleMap);
+
+    pool.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN);
+    assertEquals(1, pool.size());
+
+    pool.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_BACKGROUND);
+    assertEquals(0, pool.size());
+    verify(mapView).onDestroy();
+  }
+
+  @Test
+  public void dispose_DestroysPooledMapViewsAndStopsFilling() {
+    pool.fillOne();
+    final MapView mapView = pool.acquire();
+    pool.release(mapView, googleMap);
+
+    pool.dispose();
+
+    verify(mapView).onDestroy();
+    assertFalse(pool.fillOne());
+    assertFalse(pool.release(mock(MapView.class), googleMap));
+    assertEquals(0, pool.size());
+  }
+
+  @Test
+  public void applyOptions_AppliesTheCreationOptions() {
+    final GoogleMapOptions options =
+        new GoogleMapOptions().mapType(GoogleMap.MAP_TYPE_SATELLITE).compassEnabled(false);
+
+    MapViewPool.applyOptions(googleMap, options);
+
+    verify(googleMap).setMapType(GoogleMap.MAP_TYPE_SATELLITE);
+    verify(uiSettings).setCompassEnabled(false);
+    verify(uiSettings).setRotateGesturesEnabled(true);
+  }
+}
@@ -0,0 +1,106 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+
+import android.os.Build;
+import com.google.android.gms.maps.GoogleMap;
+import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.maps.model.Marker;
+import com.google.android.gms.maps.model.MarkerOptions;
+import io.flutter.plugin.common.BinaryMessenger;
+import io.flutter.plugin.common.MethodChannel;
+import io.flutter.plugin.common.MethodCodec;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+/** Drag coalescing schedules frame callbacks on the Choreographer, so it runs under Robolectric. */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.P)
+public class MarkersControllerDragCoalescingTest {
+
+  @Test
+  public void controller_OnMarkerDragCoalescesPerFrame() {
+    final MethodChannel methodChannel =
+        spy(new MethodChannel(mock(BinaryMessenger.class), "no-name", mock(MethodCodec.class)));
+    final MarkersController controller =
+        new MarkersController(
+            methodChannel, new BitmapDescriptorCache(BitmapDescriptorCache.DEFAULT_MAX_BYTES));
+    controller.setMarkerDragCoalescingEnabled(true);
+    final GoogleMap googleMap = mock(GoogleMap.class);
+    controller.setGoogleMap(googleMap);
+
+    final Marker marker = mock(Marker.class);
+
+    final String googleMarkerId = "abc123";
+
+    when(marker.getId()).thenReturn(googleMarkerId);
+    when(googleMap.addMarker(any(MarkerOptions.class))).thenReturn(marker);
+
+    final Map<String, String> markerOptions = new HashMap();
+    markerOptions.put("markerId", googleMarkerId);
+
+    final List<Object> markers = Arrays.<Object>asList(markerOptions);
+    controller.addMarkers(markers);
+    controller.onMarkerDrag(googleMarkerId, new LatLng(1.1, 2.2));
+    controller.onMarkerDrag(googleMarkerId, new LatLng(3.3, 4.4));
+
+    Mockito.verify(methodChannel, never()).invokeMethod(anyString(), any());
+
+    ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+
+    final Map<String, Object> data = new HashMap<>();
+    data.put("markerId", googleMarkerId);
+    data.put("position", Arrays.asList(3.3, 4.4));
+    Mockito.verify(methodChannel, times(1)).invokeMethod(eq("marker#onDrag"), any());
+    Mockito.verify(methodChannel).invokeMethod("marker#onDrag", data);
+  }
+
+  @Test
+  public void controller_OnMarkerDragEndFlushesPendingDrag() {
+    final MethodChannel methodChannel =
+        spy(new MethodChannel(mock(BinaryMessenger.class), "no-name", mock(MethodCodec.class)));
+    final MarkersController controller =
+        new MarkersController(
+            methodChannel, new BitmapDescriptorCache(BitmapDescriptorCache.DEFAULT_MAX_BYTES));
+    controller.setMarkerDragCoalescingEnabled(true);
+    final GoogleMap googleMap = mock(GoogleMap.class);
+    controller.setGoogleMap(googleMap);
+
+    final Marker marker = mock(Marker.class);
+
+    final String googleMarkerId = "abc123";
+
+    when(marker.getId()).thenReturn(googleMarkerId);
+    when(googleMap.addMarker(any(MarkerOptions.class))).thenReturn(marker);
+
+    final Map<String, String> markerOptions = new HashMap();
+    markerOptions.put("markerId", googleMarkerId);
+
+    final List<Object> markers = Arrays.<Object>asList(markerOptions);
+    controller.addMarkers(markers);
+    controller.onMarkerDrag(googleMarkerId, new LatLng(1.1, 2.2));
+    controller.onMarkerDragEnd(googleMarkerId, new LatLng(1.1, 2.2));
+
+    Mockito.verify(methodChannel, times(1)).invokeMethod(eq("marker#onDrag"), any());
+    Mockito.verify(methodChannel, times(1)).invokeMethod(eq("marker#onDragEnd"), any());
+  }
+}
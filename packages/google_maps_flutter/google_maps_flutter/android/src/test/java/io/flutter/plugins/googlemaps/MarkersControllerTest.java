@@ -6,11 +6,14 @@ package io.flutter.plugins.googlemaps;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 
 import com.google.android.gms.maps.GoogleMap;
 import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.maps.model.LatLngBounds;
 import com.google.android.gms.maps.model.Marker;
 import com.google.android.gms.maps.model.MarkerOptions;
 import io.flutter.plugin.common.BinaryMessenger;
@@ -30,7 +33,9 @@ public class MarkersControllerTest {
   public void controller_OnMarkerDragStart() {
     final MethodChannel methodChannel =
         spy(new MethodChannel(mock(BinaryMessenger.class), "no-name", mock(MethodCodec.class)));
-    final MarkersController controller = new MarkersController(methodChannel);
+    final MarkersController controller =
+        new MarkersController(
+            methodChannel, new BitmapDescriptorCache(BitmapDescriptorCache.DEFAULT_MAX_BYTES));
     final GoogleMap googleMap = mock(GoogleMap.class);
     controller.setGoogleMap(googleMap);
 
@@ -63,7 +68,9 @@ public class MarkersControllerTest {
   public void controller_OnMarkerDragEnd() {
     final MethodChannel methodChannel =
         spy(new MethodChannel(mock(BinaryMessenger.class), "no-name", mock(MethodCodec.class)));
-    final MarkersController controller = new MarkersController(methodChannel);
+    final MarkersController controller =
+        new MarkersController(
+            methodChannel, new BitmapDescriptorCache(BitmapDescriptorCache.DEFAULT_MAX_BYTES));
     final GoogleMap googleMap = mock(GoogleMap.class);
     controller.setGoogleMap(googleMap);
 
@@ -96,7 +103,9 @@ public class MarkersControllerTest {
   public void controller_OnMarkerDrag() {
     final MethodChannel methodChannel =
         spy(new MethodChannel(mock(BinaryMessenger.class), "no-name", mock(MethodCodec.class)));
-    final MarkersController controller = new MarkersController(methodChannel);
+    final MarkersController controller =
+        new MarkersController(
+            methodChannel, new BitmapDescriptorCache(BitmapDescriptorCache.DEFAULT_MAX_BYTES));
     final GoogleMap googleMap = mock(GoogleMap.class);
     controller.setGoogleMap(googleMap);
 
@@ -124,4 +133,78 @@ public class MarkersControllerTest {
     data.put("position", points);
     Mockito.verify(methodChannel).invokeMethod("marker#onDrag", data);
   }
+
+  @Test
+  public void controller_OnMarkerDragEndUpdatesCulledPosition() {
+    final MethodChannel methodChannel =
+        spy(new MethodChannel(mock(BinaryMessenger.class), "no-name", mock(MethodCodec.class)));
+    final MarkersController controller =
+        new MarkersController(
+            methodChannel, new BitmapDescriptorCache(BitmapDescriptorCache.DEFAULT_MAX_BYTES));
+    controller.setViewportCullingEnabled(true);
+    final GoogleMap googleMap = mock(GoogleMap.class);
+    controller.setGoogleMap(googleMap);
+
+    final Marker marker = mock(Marker.class);
+    final String googleMarkerId = "abc123";
+    when(marker.getId()).thenReturn(googleMarkerId);
+    when(googleMap.addMarker(any(MarkerOptions.class))).thenReturn(marker);
+
+    final Map<String, Object> markerOptions = new HashMap<>();
+    markerOptions.put("markerId", googleMarkerId);
+    markerOptions.put("position", Arrays.asList(1.0, 1.0));
+    controller.addMarkers(Arrays.<Object>asList(markerOptions));
+    controller.onVisibleRegionChanged(new LatLngBounds(new LatLng(0, 0), new LatLng(2, 2)));
+
+    controller.onMarkerDragEnd(googleMarkerId, new LatLng(60, 100));
+    controller.onVisibleRegionChanged(new LatLngBounds(new LatLng(59, 99), new LatLng(61, 101)));
+
+    Mockito.verify(googleMap, times(1)).addMarker(any(MarkerOptions.class));
+    Mockito.verify(marker, never()).remove();
+  }
+
+  @Test
+  public void controller_InfoWindowOfCulledMarker() {
+    final MethodChannel methodChannel =
+        spy(new MethodChannel(mock(BinaryMessenger.class), "no-name", mock(MethodCodec.class)));
+    final MarkersController controller =
+        new MarkersController(
+            methodChannel, new BitmapDescriptorCache(BitmapDescriptorCache.DEFAULT_MAX_BYTES));
+    controller.setViewportCullingEnabled(true);
+    final GoogleMap googleMap = mock(GoogleMap.class);
+    controller.setGoogleMap(googleMap);
+
+    final Marker marker = mock(Marker.class);
+    final String googleMarkerId = "abc123";
+    when(marker.getId()).thenReturn(googleMarkerId);
+    when(googleMap.addMarker(any(MarkerOptions.class))).thenReturn(marker);
+
+    final Map<String, Object> markerOptions = new HashMap<>();
+    markerOptions.put("markerId", googleMarkerId);
+    markerOptions.put("position", Arrays.asList(60.0, 100.0));
+    controller.addMarkers(Arrays.<Object>asList(markerOptions));
+    controller.onVisibleRegionChanged(new LatLngBounds(new LatLng(0, 0), new LatLng(2, 2)));
+
+    final MethodChannel.Result isShownResult = mock(MethodChannel.Result.class);
+    controller.isInfoWindowShown(googleMarkerId, isShownResult);
+    Mockito.verify(isShownResult).success(false);
+
+    final MethodChannel.Result hideResult = mock(MethodChannel.Result.class);
+    controller.hideMarkerInfoWindow(googleMarkerId, hideResult);
+    Mockito.verify(hideResult).success(null);
+
+    final MethodChannel.Result showResult = mock(MethodChannel.Result.class);
+    controller.showMarkerInfoWindow(googleMarkerId, showResult);
+    Mockito.verify(googleMap).addMarker(any(MarkerOptions.class));
+    Mockito.verify(marker).showInfoWindow();
+    Mockito.verify(showResult).success(null);
+
+    // The marker showing its info window is not culled again.
+    controller.onVisibleRegionChanged(new LatLngBounds(new LatLng(0, 0), new LatLng(2, 2)));
+    Mockito.verify(marker, never()).remove();
+
+    controller.hideMarkerInfoWindow(googleMarkerId, mock(MethodChannel.Result.class));
+    controller.onVisibleRegionChanged(new LatLngBounds(new LatLng(0, 0), new LatLng(2, 2)));
+    Mockito.verify(marker).remove();
+  }
 }
@@ -4,16 +4,32 @@
 
 package io.flutter.plugins.googlemaps;
 
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 
 import com.google.android.gms.internal.maps.zzz;
+import com.google.android.gms.maps.model.LatLng;
 import com.google.android.gms.maps.model.Polyline;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 public class PolylineControllerTest {
 
+  private static List<LatLng> collinearPoints() {
+    final List<LatLng> points = new ArrayList<>();
+    for (int i = 0; i <= 100; i++) {
+      points.add(new LatLng(0, i * 0.01));
+    }
+    return points;
+  }
+
   @Test
   public void controller_SetsStrokeDensity() {
     final zzz z = mock(zzz.class);
@@ -26,4 +42,39 @@ public class PolylineControllerTest {
 
     Mockito.verify(polyline).setWidth(density * strokeWidth);
   }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void controller_SimplifiesNewPointsAndToleranceOnce() {
+    final zzz z = mock(zzz.class);
+    final Polyline polyline = spy(new Polyline(z));
+    final PolylineController controller = new PolylineController(polyline, false, 1);
+    final List<LatLng> points = collinearPoints();
+
+    controller.setSimplificationTolerance(1);
+    controller.setPoints(points);
+    verify(polyline, never()).setPoints(anyList());
+    controller.applyPendingPoints();
+
+    final ArgumentCaptor<List<LatLng>> drawn = ArgumentCaptor.forClass(List.class);
+    verify(polyline).setPoints(drawn.capture());
+    assertEquals(2, drawn.getValue().size());
+  }
+
+  @Test
+  public void controller_AppliesToleranceToTheCurrentPoints() {
+    final zzz z = mock(zzz.class);
+    final Polyline polyline = spy(new Polyline(z));
+    final List<LatLng> points = collinearPoints();
+    final PolylineController controller =
+        new PolylineController(polyline, false, 1, new PolylineSimplifier(points, 1), 0);
+
+    controller.setSimplificationTolerance(1);
+    controller.applyPendingPoints();
+    verify(polyline, never()).setPoints(anyList());
+
+    controller.setSimplificationTolerance(0);
+    controller.applyPendingPoints();
+    verify(polyline).setPoints(points);
+  }
 }
@@ -0,0 +1,44 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import com.google.android.gms.maps.model.LatLng;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class PolylineSimplifierTest {
+
+  @Test
+  public void simplify_CollapsesCollinearPoints() {
+    final List<LatLng> points = new ArrayList<>();
+    for (int i = 0; i <= 1000; i++) {
+      points.add(new LatLng(0, i * 0.001));
+    }
+    final PolylineSimplifier simplifier = new PolylineSimplifier(points, 1);
+
+    final List<LatLng> simplified = simplifier.simplify(15);
+
+    assertEquals(2, simplified.size());
+    assertEquals(points.get(0), simplified.get(0));
+    assertEquals(points.get(1000), simplified.get(1));
+  }
+
+  @Test
+  public void simplify_KeepsMoreDetailAtHigherZoom() {
+    final List<LatLng> points = new ArrayList<>();
+    for (int i = 0; i <= 100; i++) {
+      points.add(new LatLng((i % 2) * 0.0001, i * 0.001));
+    }
+    final PolylineSimplifier simplifier = new PolylineSimplifier(points, 1);
+
+    assertEquals(2, simplifier.simplify(5).size());
+    assertEquals(points.size(), simplifier.simplify(20).size());
+    assertSame(simplifier.simplify(5), simplifier.simplify(5));
+  }
+}
@@ -0,0 +1,48 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+
+public class ShapeIndexTest {
+
+  @Test
+  public void search_ReturnsIntersectingShapesOnly() {
+    final ShapeIndex index = new ShapeIndex();
+    for (int i = 0; i < 1000; i++) {
+      final double latitude = (i % 40) - 20;
+      final double longitude = (i / 40) - 12;
+      index.put("point_" + i, new double[] {latitude, longitude, latitude, longitude});
+    }
+    index.put("line", new double[] {-50, -50, 50, -40});
+
+    final Set<String> found = new HashSet<>();
+    index.search(0, 0, 1.5, 1.5, found);
+
+    assertEquals(4, found.size());
+    assertTrue(found.contains("point_" + (12 * 40 + 20)));
+    assertTrue(found.contains("point_" + (13 * 40 + 21)));
+  }
+
+  @Test
+  public void search_ReflectsRemovals() {
+    final ShapeIndex index = new ShapeIndex();
+    index.put("a", new double[] {0, 0, 1, 1});
+    index.put("b", new double[] {0, 0, 1, 1});
+    index.remove("a");
+
+    final Set<String> found = new HashSet<>();
+    index.search(-1, -1, 2, 2, found);
+
+    assertEquals(1, found.size());
+    assertTrue(found.contains("b"));
+    assertEquals(1, index.size());
+  }
+}
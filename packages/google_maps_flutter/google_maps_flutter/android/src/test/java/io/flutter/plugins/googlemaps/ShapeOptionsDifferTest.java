@@ -0,0 +1,89 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class ShapeOptionsDifferTest {
+
+  private static Map<String, Object> polygon(int fillColor, List<?> points) {
+    final Map<String, Object> polygon = new HashMap<>();
+    polygon.put("polygonId", "polygon_1");
+    polygon.put("fillColor", fillColor);
+    polygon.put("visible", true);
+    polygon.put("points", points);
+    return polygon;
+  }
+
+  @Test
+  public void diff_ReturnsNullWhenNothingChanged() {
+    final ShapeOptionsDiffer differ = new ShapeOptionsDiffer("polygonId");
+    differ.put("polygon_1", polygon(1, Arrays.asList(Arrays.asList(1.0, 2.0))));
+
+    assertNull(differ.diff("polygon_1", polygon(1, Arrays.asList(Arrays.asList(1.0, 2.0)))));
+  }
+
+  @Test
+  public void diff_ReturnsChangedFieldsAndId() {
+    final ShapeOptionsDiffer differ = new ShapeOptionsDiffer("polygonId");
+    final List<?> points = Arrays.asList(Arrays.asList(1.0, 2.0), Arrays.asList(3.0, 4.0));
+    differ.put("polygon_1", polygon(1, points));
+
+    final Map<Object, Object> changes = differ.diff("polygon_1", polygon(2, points));
+
+    final Map<Object, Object> expected = new HashMap<>();
+    expected.put("polygonId", "polygon_1");
+    expected.put("fillColor", 2);
+    assertEquals(expected, changes);
+  }
+
+  @Test
+  public void diff_DetectsPointChanges() {
+    final ShapeOptionsDiffer differ = new ShapeOptionsDiffer("polygonId");
+    differ.put("polygon_1", polygon(1, Arrays.asList(Arrays.asList(1.0, 2.0))));
+
+    final Map<Object, Object> changes =
+        differ.diff("polygon_1", polygon(1, Arrays.asList(Arrays.asList(2.0, 1.0))));
+
+    assertEquals(2, changes.size());
+    assertEquals(Arrays.asList(Arrays.asList(2.0, 1.0)), changes.get("points"));
+  }
+
+  @Test
+  public void diff_RecordsTheNewOptions() {
+    final ShapeOptionsDiffer differ = new ShapeOptionsDiffer("polygonId");
+    differ.put("polygon_1", polygon(1, Arrays.asList()));
+    differ.diff("polygon_1", polygon(2, Arrays.asList()));
+
+    assertNull(differ.diff("polygon_1", polygon(2, Arrays.asList())));
+  }
+
+  @Test
+  public void diff_ReturnsAllOptionsForUnknownShapes() {
+    final ShapeOptionsDiffer differ = new ShapeOptionsDiffer("polygonId");
+    differ.put("polygon_1", polygon(1, Arrays.asList()));
+    differ.remove("polygon_1");
+
+    assertEquals(polygon(1, Arrays.asList()), differ.diff("polygon_1", polygon(1, Arrays.asList())));
+  }
+
+  @Test
+  public void fingerprint_ComparesPackedPointsByValue() {
+    assertEquals(
+        ShapeOptionsDiffer.fingerprint(new double[] {1, 2, 3, 4}),
+        ShapeOptionsDiffer.fingerprint(new double[] {1, 2, 3, 4}));
+    assertNotEquals(
+        ShapeOptionsDiffer.fingerprint(new double[] {1, 2, 3, 4}),
+        ShapeOptionsDiffer.fingerprint(new double[] {1, 2, 4, 3}));
+  }
+}
@@ -0,0 +1,93 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.graphics.Bitmap;
+import android.os.Build;
+import android.os.Looper;
+import io.flutter.plugin.common.MethodChannel;
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.P)
+public class SnapshotEncoderTest {
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private static Bitmap createBitmap() {
+    return Bitmap.createBitmap(8, 8, Bitmap.Config.ARGB_8888);
+  }
+
+  @Test
+  public void constructor_RejectsInvalidOptions() {
+    assertRejected("png", 100, 0);
+    assertRejected("png", 100, 1.5f);
+    assertRejected("jpeg", 101, 1);
+    assertRejected("gif", 100, 1);
+  }
+
+  private static void assertRejected(String format, int quality, float scale) {
+    try {
+      new SnapshotEncoder(format, quality, scale, null);
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  @Test
+  public void encode_RepliesWithBytesOnTheMainThread() {
+    final SnapshotEncoder encoder = new SnapshotEncoder("jpeg", 80, 0.5f, null);
+    final MethodChannel.Result result = mock(MethodChannel.Result.class);
+    final Bitmap bitmap = createBitmap();
+
+    encoder.encode(Runnable::run, bitmap, result);
+    shadowOf(Looper.getMainLooper()).idle();
+
+    verify(result).success(any(byte[].class));
+    assertTrue(bitmap.isRecycled());
+  }
+
+  @Test
+  public void encode_WritesTheFileWhenAPathIsSet() throws Exception {
+    final File file = new File(temporaryFolder.getRoot(), "snapshots/map.png");
+    final SnapshotEncoder encoder = new SnapshotEncoder("png", 100, 1, file.getPath());
+
+    assertEquals(file.getPath(), encoder.encode(createBitmap()));
+    assertTrue(file.length() > 0);
+  }
+
+  @Test
+  public void encode_RepliesWithErrorOnceTheExecutorIsShutDown() {
+    final SnapshotEncoder encoder = new SnapshotEncoder("png", 100, 1, null);
+    final MethodChannel.Result result = mock(MethodChannel.Result.class);
+    final Bitmap bitmap = createBitmap();
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    executor.shutdown();
+
+    encoder.encode(executor, bitmap, result);
+
+    verify(result).error(eq("Snapshot encoding failed"), anyString(), isNull());
+    assertTrue(bitmap.isRecycled());
+  }
+}
@@ -0,0 +1,117 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.maps.model.LatLngBounds;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class ViewportCullerTest {
+
+  private static Map<String, Object> marker(String markerId, double latitude, double longitude) {
+    final Map<String, Object> marker = new HashMap<>();
+    marker.put("markerId", markerId);
+    marker.put("position", Arrays.asList(latitude, longitude));
+    return marker;
+  }
+
+  @Test
+  public void onVisibleRegionChanged_MaterializesVisibleShapesOnly() {
+    final ViewportCuller.ShapeSink sink = mock(ViewportCuller.ShapeSink.class);
+    final ViewportCuller culler = new ViewportCuller(sink, Convert::toMarkerBounds);
+    final Map<String, Object> near = marker("near", 1, 1);
+    final Map<String, Object> far = marker("far", 60, 100);
+
+    culler.add("near", near);
+    culler.add("far", far);
+    verify(sink, never()).addShape(any());
+
+    culler.onVisibleRegionChanged(new LatLngBounds(new LatLng(0, 0), new LatLng(2, 2)));
+    verify(sink).addShape(near);
+    verify(sink, never()).addShape(far);
+
+    culler.onVisibleRegionChanged(new LatLngBounds(new LatLng(59, 99), new LatLng(61, 101)));
+    verify(sink).removeShape("near");
+    verify(sink).addShape(far);
+  }
+
+  @Test
+  public void replaceOptions_ReindexesWithoutChangingTheShape() {
+    final ViewportCuller.ShapeSink sink = mock(ViewportCuller.ShapeSink.class);
+    final ViewportCuller culler = new ViewportCuller(sink, Convert::toMarkerBounds);
+    final Map<String, Object> marker = marker("marker", 1, 1);
+    culler.add("marker", marker);
+    culler.onVisibleRegionChanged(new LatLngBounds(new LatLng(0, 0), new LatLng(2, 2)));
+
+    final Map<String, Object> dragged = marker("marker", 60, 100);
+    culler.replaceOptions("marker", dragged);
+    verify(sink, never()).changeShape(any());
+
+    culler.onVisibleRegionChanged(new LatLngBounds(new LatLng(59, 99), new LatLng(61, 101)));
+    verify(sink, never()).removeShape("marker");
+    assertEquals(dragged, culler.getOptions("marker"));
+  }
+
+  @Test
+  public void materialize_AddsCulledShape() {
+    final ViewportCuller.ShapeSink sink = mock(ViewportCuller.ShapeSink.class);
+    final ViewportCuller culler = new ViewportCuller(sink, Convert::toMarkerBounds);
+    final Map<String, Object> far = marker("far", 60, 100);
+    culler.add("far", far);
+    culler.onVisibleRegionChanged(new LatLngBounds(new LatLng(0, 0), new LatLng(2, 2)));
+    assertFalse(culler.isMaterialized("far"));
+
+    culler.materialize("far");
+    culler.materialize("far");
+    verify(sink).addShape(far);
+    assertTrue(culler.isMaterialized("far"));
+  }
+
+  @Test
+  public void pin_KeepsShapeUntilUnpinned() {
+    final ViewportCuller.ShapeSink sink = mock(ViewportCuller.ShapeSink.class);
+    final ViewportCuller culler = new ViewportCuller(sink, Convert::toMarkerBounds);
+    final Map<String, Object> far = marker("far", 60, 100);
+    culler.add("far", far);
+    culler.onVisibleRegionChanged(new LatLngBounds(new LatLng(0, 0), new LatLng(2, 2)));
+
+    culler.pin("far");
+    verify(sink).addShape(far);
+    culler.onVisibleRegionChanged(new LatLngBounds(new LatLng(0, 0), new LatLng(2, 2)));
+    verify(sink, never()).removeShape("far");
+    assertTrue(culler.isPinned("far"));
+
+    culler.unpin("far");
+    culler.onVisibleRegionChanged(new LatLngBounds(new LatLng(0, 0), new LatLng(2, 2)));
+    verify(sink).removeShape("far");
+    assertFalse(culler.isMaterialized("far"));
+  }
+
+  @Test
+  public void onVisibleRegionChanged_HandlesAntimeridian() {
+    final ViewportCuller.ShapeSink sink = mock(ViewportCuller.ShapeSink.class);
+    final ViewportCuller culler = new ViewportCuller(sink, Convert::toMarkerBounds);
+    final Map<String, Object> east = marker("east", 0, 179.5);
+    final Map<String, Object> west = marker("west", 0, -179.5);
+
+    culler.add("east", east);
+    culler.add("west", west);
+    culler.onVisibleRegionChanged(new LatLngBounds(new LatLng(-1, 179), new LatLng(1, -179)));
+
+    verify(sink).addShape(east);
+    verify(sink).addShape(west);
+  }
+}
@@ -27,6 +27,8 @@ export 'package:google_maps_flutter_platform_interface/google_maps_flutter_platf
         Cap,
         Circle,
         CircleId,
+        Heatmap,
+        HeatmapGradient,
         InfoWindow,
         JointType,
         LatLng,
@@ -42,6 +44,8 @@ export 'package:google_maps_flutter_platform_interface/google_maps_flutter_platf
         Polyline,
         PolylineId,
         ScreenCoordinate,
+        SnapshotFormat,
+        SnapshotOptions,
         Tile,
         TileOverlayId,
         TileOverlay,
@@ -238,6 +238,37 @@ class GoogleMapController {
         .getLatLng(screenCoordinate, mapId: mapId);
   }
 
+  /// Returns the screen coordinates of many points at once, which is much
+  /// faster than calling [getScreenCoordinate] for each of them.
+  ///
+  /// [latLngs] holds interleaved latitudes and longitudes, and the result holds
+  /// the interleaved x and y of each point. Only supported on Android.
+  Future<Int32List> getScreenCoordinates(Float64List latLngs) {
+    return GoogleMapsFlutterPlatform.instance
+        .getScreenCoordinates(latLngs, mapId: mapId);
+  }
+
+  /// Returns the geographic coordinates of many screen locations at once,
+  /// which is much faster than calling [getLatLng] for each of them.
+  ///
+  /// [screenCoordinates] holds interleaved x and y values, and the result holds
+  /// the interleaved latitude and longitude of each location. Only supported on
+  /// Android.
+  Future<Float64List> getLatLngs(Int32List screenCoordinates) {
+    return GoogleMapsFlutterPlatform.instance
+        .getLatLngs(screenCoordinates, mapId: mapId);
+  }
+
+  /// Returns counters of the work done by the map since it was created: the
+  /// timings of its platform method calls and tile requests, the number of
+  /// events it sent, and how many of its objects are on the map.
+  ///
+  /// Set [GoogleMap.performanceTracingEnabled] to also record the method calls
+  /// and tile requests in system traces. Only supported on Android.
+  Future<Map<String, dynamic>> getPerformanceStats() {
+    return GoogleMapsFlutterPlatform.instance.getPerformanceStats(mapId: mapId);
+  }
+
   /// Programmatically show the Info Window for a [Marker].
   ///
   /// The `markerId` must match one of the markers on the map.
@@ -286,8 +317,45 @@ class GoogleMapController {
   }
 
   /// Returns the image bytes of the map
-  Future<Uint8List?> takeSnapshot() {
-    return GoogleMapsFlutterPlatform.instance.takeSnapshot(mapId: mapId);
+  ///
+  /// When [options] is set, the snapshot is encoded with the given format,
+  /// quality and scale. Options are only supported on Android.
+  Future<Uint8List?> takeSnapshot({SnapshotOptions? options}) {
+    if (options == null) {
+      return GoogleMapsFlutterPlatform.instance.takeSnapshot(mapId: mapId);
+    }
+    return GoogleMapsFlutterPlatform.instance
+        .takeSnapshotWithOptions(options, mapId: mapId);
+  }
+
+  /// Writes a snapshot of the map to the file at [filePath] and returns its
+  /// path, without sending the image bytes to Dart.
+  ///
+  /// Only supported on Android.
+  Future<String?> saveSnapshot(
+    String filePath, {
+    SnapshotOptions options = const SnapshotOptions(),
+  }) {
+    return GoogleMapsFlutterPlatform.instance
+        .saveSnapshot(filePath, options: options, mapId: mapId);
+  }
+
+  /// Sends [icon] to the platform once, so that the markers of this map can
+  /// use it as `BitmapDescriptor.fromRegisteredIcon(iconId)`.
+  ///
+  /// The icon is kept until it is unregistered or the map is disposed, and
+  /// isn't visible to other maps. Only supported on Android.
+  Future<void> registerIcon(String iconId, BitmapDescriptor icon) {
+    return GoogleMapsFlutterPlatform.instance
+        .registerIcon(iconId, icon, mapId: mapId);
+  }
+
+  /// Releases the icon registered as [iconId] with [registerIcon].
+  ///
+  /// Markers already showing the icon keep it.
+  Future<void> unregisterIcon(String iconId) {
+    return GoogleMapsFlutterPlatform.instance
+        .unregisterIcon(iconId, mapId: mapId);
   }
 
   /// Disposes of the platform resources
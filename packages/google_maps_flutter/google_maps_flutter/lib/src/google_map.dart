@@ -109,6 +109,11 @@ class GoogleMap extends StatefulWidget {
     this.indoorViewEnabled = false,
     this.trafficEnabled = false,
     this.buildingsEnabled = true,
+    this.viewportCullingEnabled = false,
+    this.cameraMoveMaxEventsPerSecond = 0,
+    this.cameraMoveMinPositionDelta = 0,
+    this.markerDragCoalescingEnabled = false,
+    this.performanceTracingEnabled = false,
     this.markers = const <Marker>{},
     this.polygons = const <Polygon>{},
     this.polylines = const <Polyline>{},
@@ -268,6 +273,38 @@ class GoogleMap extends StatefulWidget {
   /// Enables or disables showing 3D buildings where available
   final bool buildingsEnabled;
 
+  /// True if only the markers, polylines, polygons and circles near the
+  /// visible region should be added to the map. Android only.
+  ///
+  /// The shapes are added and removed as the camera becomes idle, which keeps
+  /// maps with many shapes responsive. Only applied when the map is created.
+  final bool viewportCullingEnabled;
+
+  /// The maximum number of [onCameraMove] calls per second. Android only.
+  ///
+  /// Camera moves that arrive sooner are coalesced, and the last position is
+  /// always delivered before [onCameraIdle]. 0 means no limit.
+  final int cameraMoveMaxEventsPerSecond;
+
+  /// The distance, in logical pixels, the camera target must move before
+  /// [onCameraMove] is called again. Android only.
+  ///
+  /// 0 means every move is reported.
+  final double cameraMoveMinPositionDelta;
+
+  /// True if [Marker.onDrag] should be called at most once per frame for each
+  /// marker. Android only.
+  ///
+  /// The last position of a drag is always delivered before
+  /// [Marker.onDragEnd].
+  final bool markerDragCoalescingEnabled;
+
+  /// True if the platform method calls and tile requests of the map should be
+  /// recorded as system trace sections. Android only.
+  ///
+  /// See also [GoogleMapController.getPerformanceStats].
+  final bool performanceTracingEnabled;
+
   /// Which gestures should be consumed by the map.
   ///
   /// It is possible for other gesture recognizers to be competing with the map on pointer
@@ -545,6 +582,11 @@ class _GoogleMapOptions {
         indoorViewEnabled = map.indoorViewEnabled,
         trafficEnabled = map.trafficEnabled,
         buildingsEnabled = map.buildingsEnabled,
+        viewportCullingEnabled = map.viewportCullingEnabled,
+        cameraMoveMaxEventsPerSecond = map.cameraMoveMaxEventsPerSecond,
+        cameraMoveMinPositionDelta = map.cameraMoveMinPositionDelta,
+        markerDragCoalescingEnabled = map.markerDragCoalescingEnabled,
+        performanceTracingEnabled = map.performanceTracingEnabled,
         assert(!map.liteModeEnabled || Platform.isAndroid);
 
   final bool compassEnabled;
@@ -583,6 +625,16 @@ class _GoogleMapOptions {
 
   final bool buildingsEnabled;
 
+  final bool viewportCullingEnabled;
+
+  final int cameraMoveMaxEventsPerSecond;
+
+  final double cameraMoveMinPositionDelta;
+
+  final bool markerDragCoalescingEnabled;
+
+  final bool performanceTracingEnabled;
+
   Map<String, dynamic> toMap() {
     return <String, dynamic>{
       'compassEnabled': compassEnabled,
@@ -608,6 +660,13 @@ class _GoogleMapOptions {
       'indoorEnabled': indoorViewEnabled,
       'trafficEnabled': trafficEnabled,
       'buildingsEnabled': buildingsEnabled,
+      'viewportCullingEnabled': viewportCullingEnabled,
+      'cameraMoveThrottle': <Object>[
+        cameraMoveMaxEventsPerSecond,
+        cameraMoveMinPositionDelta,
+      ],
+      'markerDragCoalescingEnabled': markerDragCoalescingEnabled,
+      'performanceTracingEnabled': performanceTracingEnabled,
     };
   }
 
@@ -57,6 +57,14 @@ class FakePlatformGoogleMap {
 
   bool? buildingsEnabled;
 
+  bool? viewportCullingEnabled;
+
+  List<dynamic>? cameraMoveThrottle;
+
+  bool? markerDragCoalescingEnabled;
+
+  bool? performanceTracingEnabled;
+
   bool? myLocationButtonEnabled;
 
   List<dynamic>? padding;
@@ -436,6 +444,20 @@ class FakePlatformGoogleMap {
     if (options.containsKey('buildingsEnabled')) {
       buildingsEnabled = options['buildingsEnabled'] as bool?;
     }
+    if (options.containsKey('viewportCullingEnabled')) {
+      viewportCullingEnabled = options['viewportCullingEnabled'] as bool?;
+    }
+    if (options.containsKey('cameraMoveThrottle')) {
+      cameraMoveThrottle = options['cameraMoveThrottle'] as List<dynamic>?;
+    }
+    if (options.containsKey('markerDragCoalescingEnabled')) {
+      markerDragCoalescingEnabled =
+          options['markerDragCoalescingEnabled'] as bool?;
+    }
+    if (options.containsKey('performanceTracingEnabled')) {
+      performanceTracingEnabled =
+          options['performanceTracingEnabled'] as bool?;
+    }
     if (options.containsKey('padding')) {
       padding = options['padding'] as List<dynamic>?;
     }
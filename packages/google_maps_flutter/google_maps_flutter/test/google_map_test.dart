@@ -589,6 +589,119 @@ void main() {
     expect(platformGoogleMap.buildingsEnabled, true);
   });
 
+  testWidgets('Can enable viewport culling', (WidgetTester tester) async {
+    await tester.pumpWidget(
+      const Directionality(
+        textDirection: TextDirection.ltr,
+        child: GoogleMap(
+          initialCameraPosition: CameraPosition(target: LatLng(10.0, 15.0)),
+        ),
+      ),
+    );
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView!;
+
+    expect(platformGoogleMap.viewportCullingEnabled, false);
+
+    await tester.pumpWidget(
+      const Directionality(
+        textDirection: TextDirection.ltr,
+        child: GoogleMap(
+          initialCameraPosition: CameraPosition(target: LatLng(10.0, 15.0)),
+          viewportCullingEnabled: true,
+        ),
+      ),
+    );
+
+    expect(platformGoogleMap.viewportCullingEnabled, true);
+  });
+
+  testWidgets('Can update cameraMoveThrottle', (WidgetTester tester) async {
+    await tester.pumpWidget(
+      const Directionality(
+        textDirection: TextDirection.ltr,
+        child: GoogleMap(
+          initialCameraPosition: CameraPosition(target: LatLng(10.0, 15.0)),
+        ),
+      ),
+    );
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView!;
+
+    expect(platformGoogleMap.cameraMoveThrottle, <Object>[0, 0.0]);
+
+    await tester.pumpWidget(
+      const Directionality(
+        textDirection: TextDirection.ltr,
+        child: GoogleMap(
+          initialCameraPosition: CameraPosition(target: LatLng(10.0, 15.0)),
+          cameraMoveMaxEventsPerSecond: 10,
+          cameraMoveMinPositionDelta: 2.5,
+        ),
+      ),
+    );
+
+    expect(platformGoogleMap.cameraMoveThrottle, <Object>[10, 2.5]);
+  });
+
+  testWidgets('Can enable marker drag coalescing', (WidgetTester tester) async {
+    await tester.pumpWidget(
+      const Directionality(
+        textDirection: TextDirection.ltr,
+        child: GoogleMap(
+          initialCameraPosition: CameraPosition(target: LatLng(10.0, 15.0)),
+        ),
+      ),
+    );
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView!;
+
+    expect(platformGoogleMap.markerDragCoalescingEnabled, false);
+
+    await tester.pumpWidget(
+      const Directionality(
+        textDirection: TextDirection.ltr,
+        child: GoogleMap(
+          initialCameraPosition: CameraPosition(target: LatLng(10.0, 15.0)),
+          markerDragCoalescingEnabled: true,
+        ),
+      ),
+    );
+
+    expect(platformGoogleMap.markerDragCoalescingEnabled, true);
+  });
+
+  testWidgets('Can enable performance tracing', (WidgetTester tester) async {
+    await tester.pumpWidget(
+      const Directionality(
+        textDirection: TextDirection.ltr,
+        child: GoogleMap(
+          initialCameraPosition: CameraPosition(target: LatLng(10.0, 15.0)),
+        ),
+      ),
+    );
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView!;
+
+    expect(platformGoogleMap.performanceTracingEnabled, false);
+
+    await tester.pumpWidget(
+      const Directionality(
+        textDirection: TextDirection.ltr,
+        child: GoogleMap(
+          initialCameraPosition: CameraPosition(target: LatLng(10.0, 15.0)),
+          performanceTracingEnabled: true,
+        ),
+      ),
+    );
+
+    expect(platformGoogleMap.performanceTracingEnabled, true);
+  });
+
   testWidgets(
     'Default Android widget is AndroidView',
     (WidgetTester tester) async {
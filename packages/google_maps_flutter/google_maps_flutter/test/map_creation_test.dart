@@ -68,6 +68,48 @@ void main() {
 
     expect(platform.disposed, true);
   });
+
+  testWidgets('Registers icons on the platform of the map', (
+    WidgetTester tester,
+  ) async {
+    final Completer<GoogleMapController> controllerCompleter =
+        Completer<GoogleMapController>();
+    await tester.pumpWidget(GoogleMap(
+      initialCameraPosition: const CameraPosition(
+        target: LatLng(43.3608, -5.8702),
+      ),
+      onMapCreated: controllerCompleter.complete,
+    ));
+    final GoogleMapController controller = await controllerCompleter.future;
+
+    await controller.registerIcon('pin', BitmapDescriptor.defaultMarker);
+    expect(platform.registeredIcons['pin'], BitmapDescriptor.defaultMarker);
+
+    await controller.unregisterIcon('pin');
+    expect(platform.registeredIcons, isEmpty);
+  });
+
+  testWidgets('Passes snapshot options to the platform', (
+    WidgetTester tester,
+  ) async {
+    final Completer<GoogleMapController> controllerCompleter =
+        Completer<GoogleMapController>();
+    await tester.pumpWidget(GoogleMap(
+      initialCameraPosition: const CameraPosition(
+        target: LatLng(43.3608, -5.8702),
+      ),
+      onMapCreated: controllerCompleter.complete,
+    ));
+    final GoogleMapController controller = await controllerCompleter.future;
+    const SnapshotOptions options =
+        SnapshotOptions(format: SnapshotFormat.jpeg, quality: 80, scale: 0.5);
+
+    await controller.takeSnapshot(options: options);
+    await controller.saveSnapshot('/tmp/map.jpg', options: options);
+
+    expect(platform.snapshotOptions, <SnapshotOptions>[options, options]);
+    expect(platform.snapshotFilePath, '/tmp/map.jpg');
+  });
 }
 
 // A dummy implementation of the platform interface for tests.
@@ -80,6 +122,15 @@ class TestGoogleMapsFlutterPlatform extends GoogleMapsFlutterPlatform {
   // Whether `dispose` has been called.
   bool disposed = false;
 
+  // The icons registered with `registerIcon`, by id.
+  Map<String, BitmapDescriptor> registeredIcons = <String, BitmapDescriptor>{};
+
+  // The options passed to `takeSnapshotWithOptions` and `saveSnapshot`.
+  List<SnapshotOptions> snapshotOptions = <SnapshotOptions>[];
+
+  // The file path passed to the last `saveSnapshot` call.
+  String? snapshotFilePath;
+
   // Stream controller to inject events for testing.
   final StreamController<MapEvent<dynamic>> mapEventStreamController =
       StreamController<MapEvent<dynamic>>.broadcast();
@@ -205,6 +256,43 @@ class TestGoogleMapsFlutterPlatform extends GoogleMapsFlutterPlatform {
     return null;
   }
 
+  @override
+  Future<Uint8List?> takeSnapshotWithOptions(
+    SnapshotOptions options, {
+    required int mapId,
+  }) async {
+    snapshotOptions.add(options);
+    return null;
+  }
+
+  @override
+  Future<String?> saveSnapshot(
+    String filePath, {
+    SnapshotOptions options = const SnapshotOptions(),
+    required int mapId,
+  }) async {
+    snapshotOptions.add(options);
+    snapshotFilePath = filePath;
+    return filePath;
+  }
+
+  @override
+  Future<void> registerIcon(
+    String iconId,
+    BitmapDescriptor icon, {
+    required int mapId,
+  }) async {
+    registeredIcons[iconId] = icon;
+  }
+
+  @override
+  Future<void> unregisterIcon(
+    String iconId, {
+    required int mapId,
+  }) async {
+    registeredIcons.remove(iconId);
+  }
+
   @override
   Stream<CameraMoveStartedEvent> onCameraMoveStarted({required int mapId}) {
     return mapEventStreamController.stream.whereType<CameraMoveStartedEvent>();
@@ -422,6 +422,32 @@ class MethodChannelGoogleMapsFlutter extends GoogleMapsFlutterPlatform {
     return LatLng(latLng[0], latLng[1]);
   }
 
+  @override
+  Future<Int32List> getScreenCoordinates(
+    Float64List latLngs, {
+    required int mapId,
+  }) async {
+    return (await channel(mapId)
+        .invokeMethod<Int32List>('map#getScreenCoordinates', latLngs))!;
+  }
+
+  @override
+  Future<Float64List> getLatLngs(
+    Int32List screenCoordinates, {
+    required int mapId,
+  }) async {
+    return (await channel(mapId)
+        .invokeMethod<Float64List>('map#getLatLngs', screenCoordinates))!;
+  }
+
+  @override
+  Future<Map<String, dynamic>> getPerformanceStats({
+    required int mapId,
+  }) async {
+    return (await channel(mapId)
+        .invokeMapMethod<String, dynamic>('map#getPerformanceStats'))!;
+  }
+
   @override
   Future<void> showMarkerInfoWindow(
     MarkerId markerId, {
@@ -466,6 +492,49 @@ class MethodChannelGoogleMapsFlutter extends GoogleMapsFlutterPlatform {
     return channel(mapId).invokeMethod<Uint8List>('map#takeSnapshot');
   }
 
+  @override
+  Future<Uint8List?> takeSnapshotWithOptions(
+    SnapshotOptions options, {
+    required int mapId,
+  }) {
+    return channel(mapId)
+        .invokeMethod<Uint8List>('map#takeSnapshot', options.toJson());
+  }
+
+  @override
+  Future<String?> saveSnapshot(
+    String filePath, {
+    SnapshotOptions options = const SnapshotOptions(),
+    required int mapId,
+  }) {
+    return channel(mapId).invokeMethod<String>(
+      'map#takeSnapshot',
+      <String, Object>{
+        ...options.toJson(),
+        'filePath': filePath,
+      },
+    );
+  }
+
+  @override
+  Future<void> registerIcon(
+    String iconId,
+    BitmapDescriptor icon, {
+    required int mapId,
+  }) {
+    return channel(mapId).invokeMethod<void>('icons#register',
+        <String, Object>{'iconId': iconId, 'icon': icon.toJson()});
+  }
+
+  @override
+  Future<void> unregisterIcon(
+    String iconId, {
+    required int mapId,
+  }) {
+    return channel(mapId).invokeMethod<void>(
+        'icons#unregister', <String, String>{'iconId': iconId});
+  }
+
   /// Set [GoogleMapsFlutterPlatform] to use [AndroidViewSurface] to build the Google Maps widget.
   ///
   /// This implementation uses hybrid composition to render the Google Maps
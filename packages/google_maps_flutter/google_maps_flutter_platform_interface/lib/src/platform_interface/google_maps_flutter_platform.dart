@@ -212,6 +212,44 @@ abstract class GoogleMapsFlutterPlatform extends PlatformInterface {
     throw UnimplementedError('getLatLng() has not been implemented.');
   }
 
+  /// Returns the screen coordinates of many points at once.
+  ///
+  /// [latLngs] holds interleaved latitudes and longitudes, and the result holds
+  /// the interleaved x and y of each point, in the same units as
+  /// [getScreenCoordinate].
+  Future<Int32List> getScreenCoordinates(
+    Float64List latLngs, {
+    required int mapId,
+  }) {
+    throw UnimplementedError(
+        'getScreenCoordinates() has not been implemented.');
+  }
+
+  /// Returns the geographic coordinates of many screen locations at once.
+  ///
+  /// [screenCoordinates] holds interleaved x and y values, in the same units as
+  /// [getLatLng], and the result holds the interleaved latitude and longitude
+  /// of each location.
+  Future<Float64List> getLatLngs(
+    Int32List screenCoordinates, {
+    required int mapId,
+  }) {
+    throw UnimplementedError('getLatLngs() has not been implemented.');
+  }
+
+  /// Returns counters of the work done by the map since it was created.
+  ///
+  /// The result maps `methodCalls` to the count, `totalMicros` and `maxMicros`
+  /// of each platform method, `events` to the number of each event sent,
+  /// `tiles` to the same timings and the `cacheHits` and `cacheHitRatio` of
+  /// tile requests, and `objects` to the `count` and `totalCount` of
+  /// `markers`, `polygons`, `polylines`, `circles` and `tileOverlays`.
+  Future<Map<String, dynamic>> getPerformanceStats({
+    required int mapId,
+  }) {
+    throw UnimplementedError('getPerformanceStats() has not been implemented.');
+  }
+
   /// Programmatically show the Info Window for a [Marker].
   ///
   /// The `markerId` must match one of the markers on the map.
@@ -275,6 +313,54 @@ abstract class GoogleMapsFlutterPlatform extends PlatformInterface {
     throw UnimplementedError('takeSnapshot() has not been implemented.');
   }
 
+  /// Returns the image bytes of the map, encoded according to [options].
+  ///
+  /// Returns null if a snapshot cannot be created.
+  Future<Uint8List?> takeSnapshotWithOptions(
+    SnapshotOptions options, {
+    required int mapId,
+  }) {
+    throw UnimplementedError(
+        'takeSnapshotWithOptions() has not been implemented.');
+  }
+
+  /// Writes a snapshot of the map, encoded according to [options], to the
+  /// file at [filePath] instead of sending the image bytes back.
+  ///
+  /// Returns the path of the written file, or null if a snapshot cannot be
+  /// created.
+  Future<String?> saveSnapshot(
+    String filePath, {
+    SnapshotOptions options = const SnapshotOptions(),
+    required int mapId,
+  }) {
+    throw UnimplementedError('saveSnapshot() has not been implemented.');
+  }
+
+  /// Sends [icon] to the platform once, so that markers of the map can refer
+  /// to it with [BitmapDescriptor.fromRegisteredIcon] and [iconId].
+  ///
+  /// Registering another icon with the same [iconId] replaces it for the
+  /// markers added or changed afterwards. Registered icons belong to the map
+  /// and are released when it is disposed.
+  Future<void> registerIcon(
+    String iconId,
+    BitmapDescriptor icon, {
+    required int mapId,
+  }) {
+    throw UnimplementedError('registerIcon() has not been implemented.');
+  }
+
+  /// Releases the icon registered as [iconId] with [registerIcon].
+  ///
+  /// Markers already showing the icon keep it.
+  Future<void> unregisterIcon(
+    String iconId, {
+    required int mapId,
+  }) {
+    throw UnimplementedError('unregisterIcon() has not been implemented.');
+  }
+
   // The following are the 11 possible streams of data from the native side
   // into the plugin
 
@@ -22,12 +22,14 @@ class BitmapDescriptor {
   static const String _fromAsset = 'fromAsset';
   static const String _fromAssetImage = 'fromAssetImage';
   static const String _fromBytes = 'fromBytes';
+  static const String _fromRegisteredIcon = 'fromRegisteredIcon';
 
   static const Set<String> _validTypes = {
     _defaultMarker,
     _fromAsset,
     _fromAssetImage,
     _fromBytes,
+    _fromRegisteredIcon,
   };
 
   /// Convenience hue value representing red.
@@ -117,6 +119,15 @@ class BitmapDescriptor {
     return BitmapDescriptor._(<Object>[_fromBytes, byteData]);
   }
 
+  /// Creates a BitmapDescriptor that refers to the icon registered as [iconId]
+  /// on the same map with `registerIcon`.
+  ///
+  /// The icon is only sent to the platform once, however many markers use it.
+  /// Only supported on Android.
+  static BitmapDescriptor fromRegisteredIcon(String iconId) {
+    return BitmapDescriptor._(<Object>[_fromRegisteredIcon, iconId]);
+  }
+
   /// The inverse of .toJson.
   // This is needed in Web to re-hydrate BitmapDescriptors that have been
   // transformed to JSON for transport.
@@ -147,6 +158,11 @@ class BitmapDescriptor {
           assert((jsonList[2] as String).isNotEmpty);
         }
         break;
+      case _fromRegisteredIcon:
+        assert(jsonList.length == 2);
+        assert(jsonList[1] != null && jsonList[1] is String);
+        assert((jsonList[1] as String).isNotEmpty);
+        break;
       case _fromAssetImage:
         assert(jsonList.length <= 4);
         assert(jsonList[1] != null && jsonList[1] is String);
@@ -0,0 +1,107 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'dart:typed_data';
+import 'dart:ui' show hashValues, hashList;
+
+import 'package:flutter/foundation.dart' show immutable, listEquals;
+import 'package:flutter/material.dart' show Color;
+
+/// The colors of a [Heatmap], from its lowest to its highest intensity.
+@immutable
+class HeatmapGradient {
+  /// Creates a gradient through [colors], where each color is reached at the
+  /// fraction of the maximum intensity given by the matching [startPoints].
+  ///
+  /// Start points must be increasing and in (0, 1].
+  const HeatmapGradient({
+    required this.colors,
+    required this.startPoints,
+  }) : assert(colors.length == startPoints.length);
+
+  /// The colors of the gradient.
+  final List<Color> colors;
+
+  /// The fraction of the maximum intensity at which each color is reached.
+  final List<double> startPoints;
+
+  /// Converts this object to something serializable in JSON.
+  Object toJson() {
+    return <String, Object>{
+      'colors': colors.map((Color color) => color.value).toList(),
+      'startPoints': startPoints,
+    };
+  }
+
+  @override
+  bool operator ==(Object other) {
+    if (identical(this, other)) return true;
+    return other is HeatmapGradient &&
+        listEquals(colors, other.colors) &&
+        listEquals(startPoints, other.startPoints);
+  }
+
+  @override
+  int get hashCode => hashValues(hashList(colors), hashList(startPoints));
+}
+
+/// Weighted points drawn as a heatmap by a [TileOverlay], instead of tiles
+/// from a [TileProvider]. Android only.
+///
+/// The tiles are rendered on the platform, so large data sets don't need to
+/// be sent again for every tile.
+@immutable
+class Heatmap {
+  /// Creates a heatmap of [data].
+  const Heatmap({
+    required this.data,
+    this.radius = 20,
+    this.maxIntensity = 0,
+    this.gradient = defaultGradient,
+  }) : assert(radius >= 1 && radius <= 50);
+
+  /// The points of the heatmap as interleaved latitude, longitude and weight
+  /// triples.
+  final Float64List data;
+
+  /// The radius, in logical pixels, over which the weight of each point is
+  /// spread. Must be in [1, 50].
+  final int radius;
+
+  /// The intensity drawn with the last color of the [gradient], or 0 to use
+  /// the highest intensity at the current zoom level.
+  final double maxIntensity;
+
+  /// The colors of the heatmap.
+  final HeatmapGradient gradient;
+
+  /// The green to red gradient used when no [gradient] is given.
+  static const HeatmapGradient defaultGradient = HeatmapGradient(
+    colors: <Color>[Color(0xff66e100), Color(0xffff0000)],
+    startPoints: <double>[0.2, 1.0],
+  );
+
+  /// Converts this object to something serializable in JSON.
+  Object toJson() {
+    return <String, Object>{
+      'data': data,
+      'radius': radius,
+      'maxIntensity': maxIntensity,
+      'gradient': gradient.toJson(),
+    };
+  }
+
+  @override
+  bool operator ==(Object other) {
+    if (identical(this, other)) return true;
+    return other is Heatmap &&
+        listEquals(data, other.data) &&
+        radius == other.radius &&
+        maxIntensity == other.maxIntensity &&
+        gradient == other.gradient;
+  }
+
+  @override
+  int get hashCode => hashValues(data.length, radius, maxIntensity, gradient);
+}
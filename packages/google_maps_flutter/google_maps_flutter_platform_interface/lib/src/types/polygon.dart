@@ -2,6 +2,8 @@
 // Use of this source code is governed by a BSD-style license that can be
 // found in the LICENSE file.
 
+import 'dart:typed_data';
+
 import 'package:collection/collection.dart';
 import 'package:flutter/foundation.dart'
     show immutable, listEquals, VoidCallback;
@@ -28,13 +30,15 @@ class Polygon implements MapsObject {
     this.fillColor = Colors.black,
     this.geodesic = false,
     this.points = const <LatLng>[],
+    this.encodedPoints,
+    this.packedPoints,
     this.holes = const <List<LatLng>>[],
     this.strokeColor = Colors.black,
     this.strokeWidth = 10,
     this.visible = true,
     this.zIndex = 0,
     this.onTap,
-  });
+  }) : assert(encodedPoints == null || packedPoints == null);
 
   /// Uniquely identifies a [Polygon].
   final PolygonId polygonId;
@@ -63,6 +67,18 @@ class Polygon implements MapsObject {
   /// default; to form a closed polygon, the start and end points must be the same.
   final List<LatLng> points;
 
+  /// The vertices of the polygon as a string in the Encoded Polyline Algorithm
+  /// Format, used instead of [points] when set. Android only.
+  ///
+  /// Long polygons are sent and decoded faster in this form.
+  final String? encodedPoints;
+
+  /// The vertices of the polygon as interleaved latitudes and longitudes, used
+  /// instead of [points] when set. Android only.
+  ///
+  /// Long polygons are sent faster in this form than as a list of [LatLng].
+  final Float64List? packedPoints;
+
   /// To create an empty area within a polygon, you need to use holes.
   /// To create the hole, the coordinates defining the hole path must be inside the polygon.
   ///
@@ -100,6 +116,8 @@ class Polygon implements MapsObject {
     Color? fillColorParam,
     bool? geodesicParam,
     List<LatLng>? pointsParam,
+    String? encodedPointsParam,
+    Float64List? packedPointsParam,
     List<List<LatLng>>? holesParam,
     Color? strokeColorParam,
     int? strokeWidthParam,
@@ -113,6 +131,8 @@ class Polygon implements MapsObject {
       fillColor: fillColorParam ?? fillColor,
       geodesic: geodesicParam ?? geodesic,
       points: pointsParam ?? points,
+      encodedPoints: encodedPointsParam ?? encodedPoints,
+      packedPoints: packedPointsParam ?? packedPoints,
       holes: holesParam ?? holes,
       strokeColor: strokeColorParam ?? strokeColor,
       strokeWidth: strokeWidthParam ?? strokeWidth,
@@ -124,7 +144,11 @@ class Polygon implements MapsObject {
 
   /// Creates a new [Polygon] object whose values are the same as this instance.
   Polygon clone() {
-    return copyWith(pointsParam: List<LatLng>.of(points));
+    return copyWith(
+      pointsParam: List<LatLng>.of(points),
+      packedPointsParam:
+          packedPoints == null ? null : Float64List.fromList(packedPoints!),
+    );
   }
 
   /// Converts this object to something serializable in JSON.
@@ -146,7 +170,11 @@ class Polygon implements MapsObject {
     addIfPresent('visible', visible);
     addIfPresent('zIndex', zIndex);
 
-    if (points != null) {
+    if (encodedPoints != null) {
+      json['points'] = encodedPoints!;
+    } else if (packedPoints != null) {
+      json['points'] = packedPoints!;
+    } else if (points != null) {
       json['points'] = _pointsToJson();
     }
 
@@ -167,6 +195,8 @@ class Polygon implements MapsObject {
         fillColor == typedOther.fillColor &&
         geodesic == typedOther.geodesic &&
         listEquals(points, typedOther.points) &&
+        encodedPoints == typedOther.encodedPoints &&
+        listEquals(packedPoints, typedOther.packedPoints) &&
         const DeepCollectionEquality().equals(holes, typedOther.holes) &&
         visible == typedOther.visible &&
         strokeColor == typedOther.strokeColor &&
@@ -2,6 +2,8 @@
 // Use of this source code is governed by a BSD-style license that can be
 // found in the LICENSE file.
 
+import 'dart:typed_data';
+
 import 'package:flutter/foundation.dart'
     show immutable, listEquals, VoidCallback;
 import 'package:flutter/material.dart' show Color, Colors;
@@ -31,13 +33,16 @@ class Polyline implements MapsObject {
     this.geodesic = false,
     this.jointType = JointType.mitered,
     this.points = const <LatLng>[],
+    this.encodedPoints,
+    this.packedPoints,
     this.patterns = const <PatternItem>[],
     this.startCap = Cap.buttCap,
     this.visible = true,
     this.width = 10,
     this.zIndex = 0,
+    this.simplificationTolerance = 0,
     this.onTap,
-  });
+  }) : assert(encodedPoints == null || packedPoints == null);
 
   /// Uniquely identifies a [Polyline].
   final PolylineId polylineId;
@@ -82,6 +87,18 @@ class Polyline implements MapsObject {
   /// default; to form a closed polyline, the start and end points must be the same.
   final List<LatLng> points;
 
+  /// The vertices of the polyline as a string in the Encoded Polyline Algorithm
+  /// Format, used instead of [points] when set. Android only.
+  ///
+  /// Long polylines are sent and decoded faster in this form.
+  final String? encodedPoints;
+
+  /// The vertices of the polyline as interleaved latitudes and longitudes, used
+  /// instead of [points] when set. Android only.
+  ///
+  /// Long polylines are sent faster in this form than as a list of [LatLng].
+  final Float64List? packedPoints;
+
   /// The cap at the start vertex of the polyline.
   ///
   /// The default start cap is ButtCap.
@@ -112,6 +129,13 @@ class Polyline implements MapsObject {
   /// earlier, and thus appearing to be closer to the surface of the Earth.
   final int zIndex;
 
+  /// The maximum distance, in logical pixels, between the drawn polyline and
+  /// its [points] when it is simplified for the current zoom level. Android
+  /// only.
+  ///
+  /// 0 draws every point.
+  final double simplificationTolerance;
+
   /// Callbacks to receive tap events for polyline placed on this map.
   final VoidCallback? onTap;
 
@@ -125,10 +149,13 @@ class Polyline implements MapsObject {
     JointType? jointTypeParam,
     List<PatternItem>? patternsParam,
     List<LatLng>? pointsParam,
+    String? encodedPointsParam,
+    Float64List? packedPointsParam,
     Cap? startCapParam,
     bool? visibleParam,
     int? widthParam,
     int? zIndexParam,
+    double? simplificationToleranceParam,
     VoidCallback? onTapParam,
   }) {
     return Polyline(
@@ -140,11 +167,15 @@ class Polyline implements MapsObject {
       jointType: jointTypeParam ?? jointType,
       patterns: patternsParam ?? patterns,
       points: pointsParam ?? points,
+      encodedPoints: encodedPointsParam ?? encodedPoints,
+      packedPoints: packedPointsParam ?? packedPoints,
       startCap: startCapParam ?? startCap,
       visible: visibleParam ?? visible,
       width: widthParam ?? width,
       onTap: onTapParam ?? onTap,
       zIndex: zIndexParam ?? zIndex,
+      simplificationTolerance:
+          simplificationToleranceParam ?? simplificationTolerance,
     );
   }
 
@@ -154,6 +185,8 @@ class Polyline implements MapsObject {
     return copyWith(
       patternsParam: List<PatternItem>.of(patterns),
       pointsParam: List<LatLng>.of(points),
+      packedPointsParam:
+          packedPoints == null ? null : Float64List.fromList(packedPoints!),
     );
   }
 
@@ -177,8 +210,13 @@ class Polyline implements MapsObject {
     addIfPresent('visible', visible);
     addIfPresent('width', width);
     addIfPresent('zIndex', zIndex);
+    addIfPresent('simplificationTolerance', simplificationTolerance);
 
-    if (points != null) {
+    if (encodedPoints != null) {
+      json['points'] = encodedPoints!;
+    } else if (packedPoints != null) {
+      json['points'] = packedPoints!;
+    } else if (points != null) {
       json['points'] = _pointsToJson();
     }
 
@@ -201,11 +239,14 @@ class Polyline implements MapsObject {
         jointType == typedOther.jointType &&
         listEquals(patterns, typedOther.patterns) &&
         listEquals(points, typedOther.points) &&
+        encodedPoints == typedOther.encodedPoints &&
+        listEquals(packedPoints, typedOther.packedPoints) &&
         startCap == typedOther.startCap &&
         endCap == typedOther.endCap &&
         visible == typedOther.visible &&
         width == typedOther.width &&
-        zIndex == typedOther.zIndex;
+        zIndex == typedOther.zIndex &&
+        simplificationTolerance == typedOther.simplificationTolerance;
   }
 
   @override
@@ -0,0 +1,73 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'dart:ui' show hashValues;
+
+import 'package:flutter/foundation.dart' show immutable;
+
+/// Image formats a map snapshot can be encoded as.
+enum SnapshotFormat {
+  /// Lossless PNG, which ignores [SnapshotOptions.quality].
+  png,
+
+  /// Lossy JPEG.
+  jpeg,
+
+  /// Lossy WebP.
+  webp,
+}
+
+/// How a map snapshot is encoded.
+@immutable
+class SnapshotOptions {
+  /// Creates the options of a map snapshot.
+  const SnapshotOptions({
+    this.format = SnapshotFormat.png,
+    this.quality = 100,
+    this.scale = 1.0,
+  })  : assert(quality >= 0 && quality <= 100),
+        assert(scale > 0 && scale <= 1);
+
+  /// The image format of the snapshot.
+  final SnapshotFormat format;
+
+  /// The compression quality, from 0 to 100.
+  ///
+  /// Ignored for [SnapshotFormat.png].
+  final int quality;
+
+  /// The factor, in (0, 1], applied to the size of the snapshot before it is
+  /// encoded.
+  final double scale;
+
+  /// Converts this object to something serializable in JSON.
+  Map<String, Object> toJson() {
+    return <String, Object>{
+      'format': _formatNames[format]!,
+      'quality': quality,
+      'scale': scale,
+    };
+  }
+
+  static const Map<SnapshotFormat, String> _formatNames =
+      <SnapshotFormat, String>{
+    SnapshotFormat.png: 'png',
+    SnapshotFormat.jpeg: 'jpeg',
+    SnapshotFormat.webp: 'webp',
+  };
+
+  @override
+  String toString() => '$runtimeType($format, $quality, $scale)';
+
+  @override
+  bool operator ==(Object o) {
+    return o is SnapshotOptions &&
+        o.format == format &&
+        o.quality == quality &&
+        o.scale == scale;
+  }
+
+  @override
+  int get hashCode => hashValues(format, quality, scale);
+}
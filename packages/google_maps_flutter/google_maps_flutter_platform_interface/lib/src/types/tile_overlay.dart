@@ -54,6 +54,7 @@ class TileOverlay implements MapsObject {
     this.zIndex = 0,
     this.visible = true,
     this.tileSize = 256,
+    this.heatmap,
   }) : assert(transparency >= 0.0 && transparency <= 1.0);
 
   /// Uniquely identifies a [TileOverlay].
@@ -87,6 +88,10 @@ class TileOverlay implements MapsObject {
   /// would give on a non-retina device.
   final int tileSize;
 
+  /// The weighted points to draw as a heatmap instead of requesting tiles from
+  /// [tileProvider]. Android only.
+  final Heatmap? heatmap;
+
   /// Creates a new [TileOverlay] object whose values are the same as this instance,
   /// unless overwritten by the specified parameters.
   TileOverlay copyWith({
@@ -96,6 +101,7 @@ class TileOverlay implements MapsObject {
     int? zIndexParam,
     bool? visibleParam,
     int? tileSizeParam,
+    Heatmap? heatmapParam,
   }) {
     return TileOverlay(
       tileOverlayId: tileOverlayId,
@@ -105,6 +111,7 @@ class TileOverlay implements MapsObject {
       zIndex: zIndexParam ?? zIndex,
       visible: visibleParam ?? visible,
       tileSize: tileSizeParam ?? tileSize,
+      heatmap: heatmapParam ?? heatmap,
     );
   }
 
@@ -126,6 +133,7 @@ class TileOverlay implements MapsObject {
     addIfPresent('zIndex', zIndex);
     addIfPresent('visible', visible);
     addIfPresent('tileSize', tileSize);
+    addIfPresent('heatmap', heatmap?.toJson());
 
     return json;
   }
@@ -142,7 +150,8 @@ class TileOverlay implements MapsObject {
         transparency == other.transparency &&
         zIndex == other.zIndex &&
         visible == other.visible &&
-        tileSize == other.tileSize;
+        tileSize == other.tileSize &&
+        heatmap == other.heatmap;
   }
 
   @override
@@ -9,6 +9,7 @@ export 'camera.dart';
 export 'cap.dart';
 export 'circle_updates.dart';
 export 'circle.dart';
+export 'heatmap.dart';
 export 'joint_type.dart';
 export 'location.dart';
 export 'maps_object_updates.dart';
@@ -21,6 +22,7 @@ export 'polygon.dart';
 export 'polyline_updates.dart';
 export 'polyline.dart';
 export 'screen_coordinate.dart';
+export 'snapshot.dart';
 export 'tile.dart';
 export 'tile_overlay.dart';
 export 'tile_provider.dart';
@@ -9,6 +9,7 @@ import 'package:google_maps_flutter_platform_interface/src/events/map_event.dart
 import 'package:google_maps_flutter_platform_interface/src/method_channel/method_channel_google_maps_flutter.dart';
 import 'package:google_maps_flutter_platform_interface/google_maps_flutter_platform_interface.dart';
 import 'dart:async';
+import 'dart:typed_data';
 
 import 'package:async/async.dart';
 
@@ -66,6 +67,8 @@ void main() {
             return 2.5;
           case 'map#takeSnapshot':
             return null;
+          case 'map#getPerformanceStats':
+            return <String, dynamic>{};
         }
       });
 
@@ -73,12 +76,99 @@ void main() {
       await maps.isMarkerInfoWindowShown(MarkerId(''), mapId: mapId);
       await maps.getZoomLevel(mapId: mapId);
       await maps.takeSnapshot(mapId: mapId);
+      await maps.getPerformanceStats(mapId: mapId);
       // Check that all the invokeMethod calls happened.
       expect(log, <String>[
         'map#getLatLng',
         'markers#isInfoWindowShown',
         'map#getZoomLevel',
         'map#takeSnapshot',
+        'map#getPerformanceStats',
+      ]);
+    });
+    test('takeSnapshotWithOptions and saveSnapshot send the options',
+        () async {
+      const int mapId = 0;
+      final MethodChannelGoogleMapsFlutter maps =
+          MethodChannelGoogleMapsFlutter();
+      final List<dynamic> arguments = <dynamic>[];
+      configureMockMap(maps, mapId: mapId,
+          handler: (MethodCall methodCall) async {
+        arguments.add(methodCall.arguments);
+        return null;
+      });
+
+      await maps.takeSnapshotWithOptions(
+          const SnapshotOptions(format: SnapshotFormat.jpeg, quality: 80),
+          mapId: mapId);
+      await maps.saveSnapshot('/tmp/map.webp',
+          options: const SnapshotOptions(
+              format: SnapshotFormat.webp, scale: 0.5),
+          mapId: mapId);
+
+      expect(log, <String>['map#takeSnapshot', 'map#takeSnapshot']);
+      expect(arguments, <dynamic>[
+        <String, dynamic>{'format': 'jpeg', 'quality': 80, 'scale': 1.0},
+        <String, dynamic>{
+          'format': 'webp',
+          'quality': 100,
+          'scale': 0.5,
+          'filePath': '/tmp/map.webp',
+        },
+      ]);
+    });
+    test('getScreenCoordinates and getLatLngs send packed coordinates',
+        () async {
+      const int mapId = 0;
+      final MethodChannelGoogleMapsFlutter maps =
+          MethodChannelGoogleMapsFlutter();
+      final List<dynamic> arguments = <dynamic>[];
+      configureMockMap(maps, mapId: mapId,
+          handler: (MethodCall methodCall) async {
+        arguments.add(methodCall.arguments);
+        switch (methodCall.method) {
+          case 'map#getScreenCoordinates':
+            return Int32List.fromList(<int>[10, 20]);
+          case 'map#getLatLngs':
+            return Float64List.fromList(<double>[1.0, 2.0]);
+        }
+      });
+
+      final Int32List screenCoordinates = await maps.getScreenCoordinates(
+          Float64List.fromList(<double>[1.0, 2.0]),
+          mapId: mapId);
+      final Float64List latLngs = await maps
+          .getLatLngs(Int32List.fromList(<int>[10, 20]), mapId: mapId);
+
+      expect(log, <String>['map#getScreenCoordinates', 'map#getLatLngs']);
+      expect(arguments, <dynamic>[
+        <double>[1.0, 2.0],
+        <int>[10, 20],
+      ]);
+      expect(screenCoordinates, <int>[10, 20]);
+      expect(latLngs, <double>[1.0, 2.0]);
+    });
+    test('registerIcon and unregisterIcon send the icon id', () async {
+      const int mapId = 0;
+      final MethodChannelGoogleMapsFlutter maps =
+          MethodChannelGoogleMapsFlutter();
+      final List<dynamic> arguments = <dynamic>[];
+      configureMockMap(maps, mapId: mapId,
+          handler: (MethodCall methodCall) async {
+        arguments.add(methodCall.arguments);
+      });
+
+      await maps.registerIcon('pin', BitmapDescriptor.defaultMarker,
+          mapId: mapId);
+      await maps.unregisterIcon('pin', mapId: mapId);
+
+      expect(log, <String>['icons#register', 'icons#unregister']);
+      expect(arguments, <dynamic>[
+        <String, dynamic>{
+          'iconId': 'pin',
+          'icon': <dynamic>['defaultMarker'],
+        },
+        <String, dynamic>{'iconId': 'pin'},
       ]);
     });
     test('markers send drag event to correct streams', () async {
@@ -60,6 +60,22 @@ void main() {
           }, throwsAssertionError);
         });
       });
+      group('fromRegisteredIcon', () {
+        test('iconId is passed', () {
+          expect(BitmapDescriptor.fromJson(['fromRegisteredIcon', 'pin']),
+              isA<BitmapDescriptor>());
+          expect(BitmapDescriptor.fromRegisteredIcon('pin').toJson(),
+              ['fromRegisteredIcon', 'pin']);
+        });
+        test('iconId cannot be null or empty', () {
+          expect(() {
+            BitmapDescriptor.fromJson(['fromRegisteredIcon', null]);
+          }, throwsAssertionError);
+          expect(() {
+            BitmapDescriptor.fromJson(['fromRegisteredIcon', '']);
+          }, throwsAssertionError);
+        });
+      });
       group('fromBytes', () {
         test('with bytes', () {
           expect(
@@ -0,0 +1,84 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'dart:typed_data';
+
+import 'package:flutter_test/flutter_test.dart';
+import 'package:google_maps_flutter_platform_interface/google_maps_flutter_platform_interface.dart';
+
+void main() {
+  TestWidgetsFlutterBinding.ensureInitialized();
+
+  group('polyline tests', () {
+    test('toJson sends points as pairs by default', () async {
+      const Polyline polyline = Polyline(
+        polylineId: PolylineId('polyline'),
+        points: <LatLng>[LatLng(1.0, 2.0), LatLng(3.0, 4.0)],
+      );
+      final Map<String, Object> json =
+          polyline.toJson() as Map<String, Object>;
+      expect(json['points'], <Object>[
+        <double>[1.0, 2.0],
+        <double>[3.0, 4.0],
+      ]);
+      expect(json['simplificationTolerance'], 0);
+    });
+
+    test('toJson sends encoded points and simplification tolerance', () async {
+      const Polyline polyline = Polyline(
+        polylineId: PolylineId('polyline'),
+        encodedPoints: '_p~iF~ps|U_ulLnnqC',
+        simplificationTolerance: 2.5,
+      );
+      final Map<String, Object> json =
+          polyline.toJson() as Map<String, Object>;
+      expect(json['points'], '_p~iF~ps|U_ulLnnqC');
+      expect(json['simplificationTolerance'], 2.5);
+    });
+
+    test('toJson sends packed points', () async {
+      final Float64List packedPoints =
+          Float64List.fromList(<double>[1.0, 2.0, 3.0, 4.0]);
+      final Polyline polyline = Polyline(
+        polylineId: const PolylineId('polyline'),
+        packedPoints: packedPoints,
+      );
+      final Map<String, Object> json =
+          polyline.toJson() as Map<String, Object>;
+      expect(json['points'], packedPoints);
+    });
+
+    test('clone copies packed points', () async {
+      final Polyline polyline = Polyline(
+        polylineId: const PolylineId('polyline'),
+        packedPoints: Float64List.fromList(<double>[1.0, 2.0]),
+      );
+      final Polyline clone = polyline.clone();
+      expect(clone, polyline);
+      expect(identical(clone.packedPoints, polyline.packedPoints), isFalse);
+    });
+  });
+
+  group('polygon tests', () {
+    test('toJson sends encoded points', () async {
+      const Polygon polygon = Polygon(
+        polygonId: PolygonId('polygon'),
+        encodedPoints: '_p~iF~ps|U_ulLnnqC',
+      );
+      final Map<String, Object> json = polygon.toJson() as Map<String, Object>;
+      expect(json['points'], '_p~iF~ps|U_ulLnnqC');
+    });
+
+    test('toJson sends packed points', () async {
+      final Float64List packedPoints =
+          Float64List.fromList(<double>[1.0, 2.0, 3.0, 4.0]);
+      final Polygon polygon = Polygon(
+        polygonId: const PolygonId('polygon'),
+        packedPoints: packedPoints,
+      );
+      final Map<String, Object> json = polygon.toJson() as Map<String, Object>;
+      expect(json['points'], packedPoints);
+    });
+  });
+}
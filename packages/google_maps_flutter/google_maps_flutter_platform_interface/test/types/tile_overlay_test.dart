@@ -2,7 +2,8 @@
 // Use of this source code is governed by a BSD-style license that can be
 // found in the LICENSE file.
 
-import 'dart:ui' show hashValues;
+import 'dart:typed_data';
+import 'dart:ui' show Color, hashValues;
 
 import 'package:flutter_test/flutter_test.dart';
 import 'package:google_maps_flutter_platform_interface/google_maps_flutter_platform_interface.dart';
@@ -53,6 +54,31 @@ void main() {
       });
     });
 
+    test('toJson includes the heatmap', () async {
+      final Float64List data = Float64List.fromList(<double>[1.0, 2.0, 3.0]);
+      final TileOverlay tileOverlay = TileOverlay(
+          tileOverlayId: const TileOverlayId('id'),
+          heatmap: Heatmap(
+            data: data,
+            radius: 10,
+            gradient: const HeatmapGradient(
+              colors: <Color>[Color(0xff0000ff)],
+              startPoints: <double>[1.0],
+            ),
+          ));
+      final Map<String, Object> json =
+          tileOverlay.toJson() as Map<String, Object>;
+      expect(json['heatmap'], <String, Object>{
+        'data': data,
+        'radius': 10,
+        'maxIntensity': 0,
+        'gradient': <String, Object>{
+          'colors': <int>[0xff0000ff],
+          'startPoints': <double>[1.0],
+        },
+      });
+    });
+
     test('invalid transparency throws', () async {
       expect(
           () => TileOverlay(
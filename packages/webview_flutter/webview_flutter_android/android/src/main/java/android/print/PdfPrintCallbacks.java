@@ -0,0 +1,45 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package android.print;
+
+/**
+ * Print result callbacks that can be implemented outside of this package.
+ *
+ * <p>The constructors of {@link PrintDocumentAdapter.LayoutResultCallback} and {@link
+ * PrintDocumentAdapter.WriteResultCallback} are package-private, so a {@link PrintDocumentAdapter}
+ * can only be driven without the print framework by subclasses declared in {@code android.print}.
+ */
+public final class PdfPrintCallbacks {
+    private PdfPrintCallbacks() {
+    }
+
+    /**
+     * Receives the outcome of {@link PrintDocumentAdapter#onLayout}.
+     */
+    public abstract static class LayoutCallback extends PrintDocumentAdapter.LayoutResultCallback {
+        @Override
+        public abstract void onLayoutFinished(PrintDocumentInfo info, boolean changed);
+
+        @Override
+        public abstract void onLayoutFailed(CharSequence error);
+
+        @Override
+        public abstract void onLayoutCancelled();
+    }
+
+    /**
+     * Receives the outcome of {@link PrintDocumentAdapter#onWrite}.
+     */
+    public abstract static class WriteCallback extends PrintDocumentAdapter.WriteResultCallback {
+        @Override
+        public abstract void onWriteFinished(PageRange[] pages);
+
+        @Override
+        public abstract void onWriteFailed(CharSequence error);
+
+        @Override
+        public abstract void onWriteCancelled();
+    }
+}
@@ -0,0 +1,77 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import org.json.JSONObject;
+
+import io.flutter.plugin.common.BinaryMessenger;
+import io.flutter.plugins.webviewflutter.GeneratedAndroidWebView.CustomFlutterApi;
+
+/**
+ * Flutter Api implementation sending the events of the custom actions to Dart.
+ *
+ * <p>Events are JSON objects with an {@code event} name, and may be sent from any thread.
+ */
+public class CustomFlutterApiImpl extends CustomFlutterApi {
+    private final InstanceManager instanceManager;
+    private final Handler mainHandler;
+
+    /**
+     * Creates a Flutter api that sends messages to Dart.
+     *
+     * @param binaryMessenger handles sending messages to Dart
+     * @param instanceManager maintains instances stored to communicate with Dart objects
+     */
+    public CustomFlutterApiImpl(BinaryMessenger binaryMessenger, InstanceManager instanceManager) {
+        super(binaryMessenger);
+        this.instanceManager = instanceManager;
+        this.mainHandler = new Handler(Looper.getMainLooper());
+    }
+
+    /**
+     * Sends {@code event} about {@code instance} to Dart. Events about an instance that was removed
+     * are dropped.
+     */
+    public void sendEvent(Object instance, JSONObject event) {
+        final String eventJson = event.toString();
+        runOnMainThread(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        final Long instanceId = instanceManager.getInstanceId(instance);
+                        if (instanceId != null) {
+                            onCustomEvent(instanceId, eventJson, reply -> {
+                            });
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Sends {@code event} about the instance with {@code instanceId}, which may no longer exist.
+     */
+    public void sendEventForInstanceId(final long instanceId, JSONObject event) {
+        final String eventJson = event.toString();
+        runOnMainThread(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        onCustomEvent(instanceId, eventJson, reply -> {
+                        });
+                    }
+                });
+    }
+
+    private void runOnMainThread(Runnable runnable) {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            runnable.run();
+        } else {
+            mainHandler.post(runnable);
+        }
+    }
+}
@@ -8,14 +8,10 @@ import android.graphics.Paint;
 import android.graphics.Rect;
 import android.graphics.RectF;
 import android.os.Build;
-import android.os.Bundle;
-import android.os.CancellationSignal;
 import android.os.Handler;
+import android.os.HandlerThread;
 import android.os.Looper;
-import android.os.ParcelFileDescriptor;
-import android.print.PageRange;
-import android.print.PrintAttributes;
-import android.print.PrintDocumentAdapter;
+import android.os.Message;
 import android.print.PrintJob;
 import android.print.PrintManager;
 import android.text.TextUtils;
@@ -23,11 +19,13 @@ import android.view.View;
 import android.webkit.WebSettings;
 import android.webkit.WebView;
 
+import androidx.annotation.Nullable;
+import androidx.annotation.RequiresApi;
 import androidx.webkit.WebSettingsCompat;
 import androidx.webkit.WebViewFeature;
 
-import com.android.dx.stock.ProxyBuilder;
-
+import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.io.BufferedOutputStream;
@@ -36,23 +34,116 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 public class CustomHostApiImpl implements GeneratedAndroidWebView.CustomHostApi {
 
     private final InstanceManager instanceManager;
+    @Nullable
+    private final OfflineResourceCache offlineCache;
+    @Nullable
+    private final InterceptionRuleTable ruleTable;
+    @Nullable
+    private final InterceptorHttpClient httpClient;
+    @Nullable
+    private final WebViewPool webViewPool;
+    @Nullable
+    private final WebViewAssetServer assetServer;
+    @Nullable
+    private final PageLoadTracker pageLoadTracker;
+    @Nullable
+    private final WebViewDownloader downloader;
+    @Nullable
+    private final CustomFlutterApiImpl flutterApi;
+    @Nullable
+    private final OfflinePrefetcher prefetcher;
+    // Prefetching has its own client, so it never takes the request slots of the WebViews.
+    @Nullable
+    private final InterceptorHttpClient prefetchHttpClient;
+    // Encodes the screenshots in order, one strip at a time.
+    private final Executor screenshotExecutor = Executors.newSingleThreadExecutor();
+    // Exports in progress by WebView instance id, accessed on the main thread.
+    private final Map<Long, PdfExporter> pdfExporters = new HashMap<>();
+    @Nullable
+    private HandlerThread pdfThread;
+    @Nullable
+    private Handler pdfHandler;
     private Handler handler;
 
     public CustomHostApiImpl(InstanceManager instanceManager) {
+        this(instanceManager, null, null, null, null, null, null, null, null);
+    }
+
+    public CustomHostApiImpl(
+            InstanceManager instanceManager,
+            @Nullable OfflineResourceCache offlineCache,
+            @Nullable InterceptionRuleTable ruleTable,
+            @Nullable InterceptorHttpClient httpClient,
+            @Nullable WebViewPool webViewPool,
+            @Nullable WebViewAssetServer assetServer,
+            @Nullable PageLoadTracker pageLoadTracker,
+            @Nullable WebViewDownloader downloader,
+            @Nullable CustomFlutterApiImpl flutterApi) {
         this.instanceManager = instanceManager;
+        this.offlineCache = offlineCache;
+        this.ruleTable = ruleTable;
+        this.httpClient = httpClient;
+        this.webViewPool = webViewPool;
+        this.assetServer = assetServer;
+        this.pageLoadTracker = pageLoadTracker;
+        this.downloader = downloader;
+        this.flutterApi = flutterApi;
+        this.prefetchHttpClient =
+                offlineCache != null && httpClient != null
+                        ? new InterceptorHttpClient(new InterceptorHttpClient.WebViewCookieJar())
+                        : null;
+        this.prefetcher =
+                prefetchHttpClient != null
+                        ? new OfflinePrefetcher(
+                        offlineCache,
+                        prefetchHttpClient,
+                        flutterApi,
+                        OfflinePrefetcher.DEFAULT_MAX_CONCURRENT_DOWNLOADS)
+                        : null;
     }
 
     @Override
     public void screenShot(Long instanceId, String md5, String ext, String filePath, Handler.Callback callback) {
         final WebView webView = (WebView) instanceManager.getInstance(instanceId);
+        final boolean jpeg = "jpeg".equals(ext) || "jpg".equals(ext);
+        if (!jpeg) {
+            // PNG is encoded strip by strip, without a bitmap of the whole page.
+            new TiledScreenshotCapture(
+                    webView,
+                    screenshotExecutor,
+                    new Handler(Looper.getMainLooper()),
+                    new File(filePath),
+                    ext,
+                    0,
+                    false,
+                    new TiledScreenshotCapture.Callback() {
+                        @Override
+                        public void onComplete(List<File> files) {
+                            callback.handleMessage(null);
+                        }
+
+                        @Override
+                        public void onError(Exception exception) {
+                            // The exception is sent to Dart as the error of the reply.
+                            final Message message = Message.obtain();
+                            message.obj = exception;
+                            callback.handleMessage(message);
+                        }
+                    }).start();
+            return;
+        }
         Bitmap bitmap = getViewBitmap(webView);
         //   Bitmap bitmap = scrollWebView(webView);
         handler = new Handler(Looper.myLooper());
@@ -60,7 +151,7 @@ public class CustomHostApiImpl implements GeneratedAndroidWebView.CustomHostApi
             @Override
             public void run() {
                 super.run();
-                saveBitmap(webView.getContext(), bitmap, md5, ext, filePath);
+                saveBitmap(webView.getContext(), bitmap, md5, "jpeg", filePath);
                 handler.post(new Runnable() {
                     @Override
                     public void run() {
@@ -86,57 +177,220 @@ public class CustomHostApiImpl implements GeneratedAndroidWebView.CustomHostApi
                         webView.saveWebArchive(filePath);
                         return filePath;
                     case "screenshot":
-
-
-                        break;
+                        captureScreenshot(webView, jsonObject);
+                        return "";
                     case "saveToPdf":
                         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-                            try {
-                                String pdfFilePath = jsonObject.optString("pdfFilePath");
-                                File pdfFile = new File(pdfFilePath);
-                                if(pdfFile.exists()){
-                                    pdfFile.delete();
+                            exportPdf(instanceId, webView, jsonObject);
+                        } else {
+                            sendPdfEvent(
+                                    webView,
+                                    jsonObject.optString("pdfFilePath"),
+                                    "pdfComplete",
+                                    -1,
+                                    0,
+                                    "Requires Android 5.0");
+                        }
+                        return "";
+                    case "cancelPdfExport":
+                        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+                            final PdfExporter pdfExporter = pdfExporters.get(instanceId);
+                            if (pdfExporter != null) {
+                                pdfExporter.cancel();
+                            }
+                        }
+                        break;
+                    case "configureOfflineCache":
+                        if (offlineCache != null) {
+                            if (jsonObject.has("maxSizeBytes")) {
+                                offlineCache.setMaxSizeBytes(jsonObject.getLong("maxSizeBytes"));
+                            }
+                            offlineCache.setEnabled(jsonObject.optBoolean("enabled", true));
+                        }
+                        break;
+                    case "clearOfflineCache":
+                        if (offlineCache != null) {
+                            offlineCache.clear();
+                        }
+                        break;
+                    case "getOfflineCacheStats":
+                        if (offlineCache != null) {
+                            return new JSONObject(offlineCache.getStats()).toString();
+                        }
+                        break;
+                    case "prefetch":
+                        if (prefetcher != null) {
+                            return startPrefetch(instanceId, jsonObject);
+                        }
+                        break;
+                    case "cancelPrefetch":
+                        if (prefetcher != null) {
+                            prefetcher.cancel(jsonObject.optString("jobId"));
+                        }
+                        break;
+                    case "getPrefetchStats":
+                        if (prefetcher != null) {
+                            return new JSONObject(prefetcher.getStats()).toString();
+                        }
+                        break;
+                    case "setInterceptionRules":
+                        if (ruleTable != null) {
+                            JSONArray rules = jsonObject.optJSONArray("rules");
+                            ruleTable.setRules(rules != null ? InterceptionRuleTable.parseRules(rules) : new ArrayList<>());
+                        }
+                        break;
+                    case "getInterceptionRuleStats":
+                        if (ruleTable != null) {
+                            return new JSONObject(ruleTable.getStats()).toString();
+                        }
+                        break;
+                    case "configureHttpClient":
+                        if (httpClient != null) {
+                            if (jsonObject.has("connectTimeoutMs")) {
+                                httpClient.setConnectTimeoutMs(jsonObject.getInt("connectTimeoutMs"));
+                                if (prefetchHttpClient != null) {
+                                    prefetchHttpClient.setConnectTimeoutMs(
+                                            jsonObject.getInt("connectTimeoutMs"));
                                 }
-                                pdfFile.createNewFile();
-                                ParcelFileDescriptor pfd = ParcelFileDescriptor.open(pdfFile,ParcelFileDescriptor.MODE_READ_WRITE);
-                                PrintDocumentAdapter printDocumentAdapter = webView.createPrintDocumentAdapter();
-
-                                PrintAttributes.MediaSize mediaSize = PrintAttributes.MediaSize.ISO_A4;
-                                PrintAttributes attributes = new PrintAttributes.Builder()
-                                        .setMediaSize(mediaSize)
-                                        .setResolution(new PrintAttributes.Resolution("id",Context.PRINT_SERVICE,240,240))
-                                        .setColorMode(PrintAttributes.COLOR_MODE_COLOR)
-                                        .setMinMargins(PrintAttributes.Margins.NO_MARGINS)
-                                        .build();
-                                printDocumentAdapter.onStart();
-                                int numberOfRange = (webView.getContentHeight())*240/mediaSize.getHeightMils();
-                                PageRange[] pageRanges =new PageRange[]{ new PageRange(0,numberOfRange)};
-                                printDocumentAdapter.onLayout(attributes,attributes,new CancellationSignal(),getLayoutResultCallback(new InvocationHandler() {
-                                    @Override
-                                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-                                        if(method.getName().equals("onLayoutFinished")){
-                                            PrintDocumentAdapter.WriteResultCallback writeResultCallback = getWriteResultCallback(new InvocationHandler() {
-                                                @Override
-                                                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-                                                    if(method.getName().equals("onWriteFinished")){
-
-                                                    }
-                                                    return null;
-                                                }
-                                            });
-                                            printDocumentAdapter.onWrite(pageRanges,pfd,new CancellationSignal(),writeResultCallback);
-                                        }else {
-
-                                        }
-                                        return null;
-                                    }
-                                }),new Bundle());
-                            }catch (Exception e){
-
                             }
-
-
+                            if (jsonObject.has("readTimeoutMs")) {
+                                httpClient.setReadTimeoutMs(jsonObject.getInt("readTimeoutMs"));
+                                if (prefetchHttpClient != null) {
+                                    prefetchHttpClient.setReadTimeoutMs(jsonObject.getInt("readTimeoutMs"));
+                                }
+                            }
+                            if (jsonObject.has("maxRequestsPerHost")) {
+                                httpClient.setMaxRequestsPerHost(jsonObject.getInt("maxRequestsPerHost"));
+                            }
+                            if (jsonObject.has("queueTimeoutMs")) {
+                                httpClient.setQueueTimeoutMs(jsonObject.getInt("queueTimeoutMs"));
+                            }
+                        }
+                        break;
+                    case "getHttpClientStats":
+                        if (httpClient != null) {
+                            return new JSONObject(httpClient.getStats()).toString();
                         }
+                        break;
+                    case "configureJavaScriptChannelBatching": {
+                        final Object channel = instanceManager.getInstance(jsonObject.getLong("channelInstanceId"));
+                        if (channel instanceof JavaScriptChannel) {
+                            final JavaScriptChannel javaScriptChannel = (JavaScriptChannel) channel;
+                            if (jsonObject.optBoolean("enabled", true)) {
+                                javaScriptChannel.enableBatching(
+                                        jsonObject.optLong("flushIntervalMs", 0),
+                                        jsonObject.optInt("maxBatchSize", JavaScriptMessageBatcher.DEFAULT_MAX_BATCH_SIZE),
+                                        jsonObject.optInt(
+                                                "maxBufferedMessages",
+                                                JavaScriptMessageBatcher.DEFAULT_MAX_BUFFERED_MESSAGES));
+                            } else {
+                                javaScriptChannel.disableBatching();
+                            }
+                        }
+                        break;
+                    }
+                    case "getJavaScriptChannelStats": {
+                        final Object channel = instanceManager.getInstance(jsonObject.getLong("channelInstanceId"));
+                        if (channel instanceof JavaScriptChannel) {
+                            final JavaScriptMessageBatcher batcher = ((JavaScriptChannel) channel).getBatcher();
+                            if (batcher != null) {
+                                return new JSONObject(batcher.getStats()).toString();
+                            }
+                        }
+                        break;
+                    }
+                    case "configureWebViewPool":
+                        if (webViewPool != null) {
+                            webViewPool.setMaxSize(jsonObject.optInt("size", 0));
+                        }
+                        break;
+                    case "getWebViewPoolStats":
+                        if (webViewPool != null) {
+                            return new JSONObject(webViewPool.getStats()).toString();
+                        }
+                        break;
+                    case "configureAssetServer":
+                        if (assetServer != null) {
+                            if (jsonObject.has("domain")) {
+                                assetServer.setDomain(jsonObject.getString("domain"));
+                            }
+                            if (jsonObject.has("filesDirectory")) {
+                                assetServer.setFilesDirectory(
+                                        jsonObject.isNull("filesDirectory")
+                                                ? null
+                                                : jsonObject.getString("filesDirectory"));
+                            }
+                            assetServer.setEnabled(jsonObject.optBoolean("enabled", true));
+                        }
+                        break;
+                    case "getAssetServerStats":
+                        if (assetServer != null) {
+                            return new JSONObject(assetServer.getStats()).toString();
+                        }
+                        break;
+                    case "configurePageLoadTimeline":
+                        if (pageLoadTracker != null) {
+                            pageLoadTracker.setEnabled(jsonObject.optBoolean("enabled", true));
+                        }
+                        break;
+                    case "configureDownloads":
+                        if (downloader != null) {
+                            if (jsonObject.has("directory")) {
+                                downloader.setDirectory(new File(jsonObject.getString("directory")));
+                            }
+                            if (jsonObject.has("maxSegments")) {
+                                downloader.setMaxSegments(jsonObject.getInt("maxSegments"));
+                            }
+                            if (jsonObject.has("minSegmentBytes")) {
+                                downloader.setMinSegmentBytes(jsonObject.getLong("minSegmentBytes"));
+                            }
+                            if (jsonObject.has("maxRetries")) {
+                                downloader.setMaxRetries(jsonObject.getInt("maxRetries"));
+                            }
+                            if (jsonObject.has("connectTimeoutMs")) {
+                                downloader.setConnectTimeoutMs(jsonObject.getInt("connectTimeoutMs"));
+                            }
+                            if (jsonObject.has("readTimeoutMs")) {
+                                downloader.setReadTimeoutMs(jsonObject.getInt("readTimeoutMs"));
+                            }
+                            downloader.setEnabled(jsonObject.optBoolean("enabled", true));
+                        }
+                        break;
+                    case "download":
+                        if (downloader != null) {
+                            return startDownload(webView, jsonObject);
+                        }
+                        break;
+                    case "pauseDownload":
+                        if (downloader != null) {
+                            downloader.pause(jsonObject.optString("downloadId"));
+                        }
+                        break;
+                    case "resumeDownload":
+                        if (downloader != null) {
+                            downloader.resume(jsonObject.optString("downloadId"));
+                        }
+                        break;
+                    case "cancelDownload":
+                        if (downloader != null) {
+                            downloader.cancel(jsonObject.optString("downloadId"));
+                        }
+                        break;
+                    case "getDownloadStats":
+                        if (downloader != null) {
+                            return new JSONObject(downloader.getStats()).toString();
+                        }
+                        break;
+                    case "enableWeakInstanceReferences":
+                        instanceManager.enableWeakReferences(new InstanceManager.OnCollectedListener() {
+                            @Override
+                            public void onInstanceCollected(long collectedInstanceId, String type) {
+                                sendInstanceCollectedEvent(collectedInstanceId, type);
+                            }
+                        });
+                        break;
+                    case "getInstanceStats":
+                        return new JSONObject(instanceManager.getStats()).toString();
                     case "setForceDark":
                         boolean isForceDark = jsonObject.optBoolean("forceDark");
                         if (WebViewFeature.isFeatureSupported(WebViewFeature.FORCE_DARK)) {
@@ -160,22 +414,227 @@ public class CustomHostApiImpl implements GeneratedAndroidWebView.CustomHostApi
     }
 
 
-    @Override
-    public void dispose(Long instanceId) {
+    /**
+     * Starts downloading the pages listed in {@code params} and their subresources into the offline
+     * cache, and returns the id of the job its events are sent with.
+     */
+    private String startPrefetch(Long instanceId, JSONObject params) throws JSONException {
+        final String jobId =
+                params.has("jobId") ? params.getString("jobId") : UUID.randomUUID().toString();
+        final OfflinePrefetcher.Request request =
+                new OfflinePrefetcher.Request(jobId)
+                        .setManifestUrl(params.has("manifestUrl") ? params.getString("manifestUrl") : null)
+                        .setPriority(params.optInt("priority", 0))
+                        .setSubresources(params.optBoolean("subresources", true))
+                        .setMaxAgeMs(params.optLong("maxAgeMs", 0));
+        final JSONArray urls = params.optJSONArray("urls");
+        if (urls != null) {
+            for (int i = 0; i < urls.length(); i++) {
+                request.addUrl(urls.getString(i));
+            }
+        }
+        final JSONObject headers = params.optJSONObject("headers");
+        if (headers != null) {
+            final Iterator<String> names = headers.keys();
+            while (names.hasNext()) {
+                final String name = names.next();
+                request.putHeader(name, headers.getString(name));
+            }
+        }
+        final JSONObject result = new JSONObject();
+        result.put("jobId", jobId);
+        result.put("started", prefetcher.prefetch(request, instanceId));
+        return result.toString();
+    }
 
+    /**
+     * Starts downloading the url of {@code params} natively, with the cookies and the User-Agent of
+     * {@code webView}, and returns the id of the download its events are sent with.
+     */
+    private String startDownload(WebView webView, JSONObject params) throws JSONException {
+        final String downloadId =
+                params.has("downloadId") ? params.getString("downloadId") : UUID.randomUUID().toString();
+        final WebViewDownloader.Request request =
+                new WebViewDownloader.Request(downloadId, params.getString("url"))
+                        .setUserAgent(webView.getSettings().getUserAgentString())
+                        .setFileName(params.has("fileName") ? params.getString("fileName") : null)
+                        .setMimeType(params.has("mimeType") ? params.getString("mimeType") : null);
+        final JSONObject headers = params.optJSONObject("headers");
+        if (headers != null) {
+            final Iterator<String> names = headers.keys();
+            while (names.hasNext()) {
+                final String name = names.next();
+                request.putHeader(name, headers.getString(name));
+            }
+        }
+        downloader.download(request, webView);
+        final JSONObject result = new JSONObject();
+        result.put("downloadId", downloadId);
+        return result.toString();
     }
 
+    /**
+     * Captures the whole page strip by strip and sends a {@code screenshotComplete} event with the
+     * written files, or the error.
+     */
+    private void captureScreenshot(WebView webView, JSONObject params) {
+        final String filePath = params.optString("filePath");
+        final String format = params.optString("format", "png");
+        final boolean tiles = params.optBoolean("tiles", false) || "jpeg".equals(format);
+        new TiledScreenshotCapture(
+                webView,
+                screenshotExecutor,
+                new Handler(Looper.getMainLooper()),
+                new File(filePath),
+                format,
+                params.optInt("stripHeight", 0),
+                tiles,
+                new TiledScreenshotCapture.Callback() {
+                    @Override
+                    public void onComplete(List<File> files) {
+                        final JSONArray paths = new JSONArray();
+                        for (File file : files) {
+                            paths.put(file.getAbsolutePath());
+                        }
+                        sendScreenshotEvent(webView, filePath, paths, null);
+                    }
 
-    public static PrintDocumentAdapter.LayoutResultCallback getLayoutResultCallback(InvocationHandler invocationHandler) throws  IOException{
-        return ProxyBuilder.forClass(PrintDocumentAdapter.LayoutResultCallback.class)
-                .handler(invocationHandler)
-                .build();
+                    @Override
+                    public void onError(Exception exception) {
+                        sendScreenshotEvent(webView, filePath, new JSONArray(), exception.toString());
+                    }
+                }).start();
     }
 
-    public static PrintDocumentAdapter.WriteResultCallback  getWriteResultCallback(InvocationHandler invocationHandler)throws  IOException{
-        return  ProxyBuilder.forClass(PrintDocumentAdapter.WriteResultCallback.class)
-                .handler(invocationHandler)
-                .build();
+    private void sendScreenshotEvent(
+            WebView webView, String filePath, JSONArray files, @Nullable String error) {
+        if (flutterApi == null) {
+            return;
+        }
+        try {
+            final JSONObject event = new JSONObject();
+            event.put("event", "screenshotComplete");
+            event.put("filePath", filePath);
+            event.put("files", files);
+            event.put("error", error != null ? error : JSONObject.NULL);
+            flutterApi.sendEvent(webView, event);
+        } catch (JSONException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Exports the page to {@code pdfFilePath} on the PDF thread, sending {@code pdfProgress} events
+     * and then a {@code pdfComplete} event with the file, or the error.
+     */
+    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+    private void exportPdf(final Long instanceId, final WebView webView, JSONObject params) {
+        final String filePath = params.optString("pdfFilePath");
+        if (pdfExporters.containsKey(instanceId)) {
+            sendPdfEvent(webView, filePath, "pdfComplete", -1, 0, "An export is already in progress");
+            return;
+        }
+        if (pdfHandler == null) {
+            pdfThread = new HandlerThread("WebViewPdfExport");
+            pdfThread.start();
+            pdfHandler = new Handler(pdfThread.getLooper());
+        }
+        final PdfExporter.Options options =
+                new PdfExporter.Options()
+                        .setDpi(params.optInt("dpi", PdfExporter.DEFAULT_DPI))
+                        .setLandscape(params.optBoolean("landscape", false))
+                        .setMonochrome(params.optBoolean("monochrome", false));
+        if (params.has("pageWidthMils") && params.has("pageHeightMils")) {
+            options.setPageSizeMils(params.optInt("pageWidthMils"), params.optInt("pageHeightMils"));
+        } else {
+            options.setPageSize(params.optString("pageSize", "A4"));
+        }
+        final PdfExporter pdfExporter =
+                new PdfExporter(
+                        webView,
+                        new File(filePath),
+                        options,
+                        new Handler(Looper.getMainLooper()),
+                        pdfHandler,
+                        new PdfExporter.Listener() {
+                            @Override
+                            public void onProgress(String stage, int pageCount, long bytesWritten) {
+                                sendPdfEvent(webView, filePath, "pdfProgress", pageCount, bytesWritten, null);
+                            }
+
+                            @Override
+                            public void onComplete(File file, int pageCount) {
+                                pdfExporters.remove(instanceId);
+                                quitPdfThreadIfIdle();
+                                sendPdfEvent(webView, filePath, "pdfComplete", pageCount, file.length(), null);
+                            }
+
+                            @Override
+                            public void onError(String error) {
+                                pdfExporters.remove(instanceId);
+                                quitPdfThreadIfIdle();
+                                sendPdfEvent(webView, filePath, "pdfComplete", -1, 0, error);
+                            }
+                        });
+        pdfExporters.put(instanceId, pdfExporter);
+        pdfExporter.start();
+    }
+
+    /**
+     * Stops the PDF thread once no export is in progress. The listener is called after the
+     * exporter's last task on that thread.
+     */
+    private void quitPdfThreadIfIdle() {
+        if (pdfExporters.isEmpty() && pdfThread != null) {
+            pdfThread.quitSafely();
+            pdfThread = null;
+            pdfHandler = null;
+        }
+    }
+
+    private void sendPdfEvent(
+            WebView webView,
+            String filePath,
+            String name,
+            int pageCount,
+            long bytesWritten,
+            @Nullable String error) {
+        if (flutterApi == null) {
+            return;
+        }
+        try {
+            final JSONObject event = new JSONObject();
+            event.put("event", name);
+            event.put("filePath", filePath);
+            event.put("pageCount", pageCount);
+            event.put("bytesWritten", bytesWritten);
+            if (name.equals("pdfComplete")) {
+                event.put("error", error != null ? error : JSONObject.NULL);
+            }
+            flutterApi.sendEvent(webView, event);
+        } catch (JSONException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void sendInstanceCollectedEvent(long instanceId, String type) {
+        if (flutterApi == null) {
+            return;
+        }
+        try {
+            final JSONObject event = new JSONObject();
+            event.put("event", "instanceCollected");
+            event.put("instanceId", instanceId);
+            event.put("type", type);
+            flutterApi.sendEventForInstanceId(instanceId, event);
+        } catch (JSONException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public void dispose(Long instanceId) {
+
     }
 
 
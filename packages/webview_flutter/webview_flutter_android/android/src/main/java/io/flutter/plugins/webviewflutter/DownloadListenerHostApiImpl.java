@@ -5,9 +5,11 @@
 package io.flutter.plugins.webviewflutter;
 
 import android.webkit.DownloadListener;
+import android.webkit.WebView;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import io.flutter.plugins.webviewflutter.GeneratedAndroidWebView.DownloadListenerHostApi;
+import java.util.UUID;
 
 /**
  * Host api implementation for {@link DownloadListener}.
@@ -22,10 +24,17 @@ public class DownloadListenerHostApiImpl implements DownloadListenerHostApi {
   /**
    * Implementation of {@link DownloadListener} that passes arguments of callback methods to Dart.
    *
+   * <p>While native downloads are enabled, downloads are started by the {@link WebViewDownloader}
+   * instead of being passed to Dart, so they are not downloaded twice. Dart is told of them by the
+   * {@code downloadStarted} event, with their {@code downloadId}, sent for the {@link WebView} the
+   * listener is set on.
+   *
    * <p>No messages are sent to Dart after {@link DownloadListenerImpl#release} is called.
    */
   public static class DownloadListenerImpl implements DownloadListener, Releasable {
     @Nullable private DownloadListenerFlutterApiImpl flutterApi;
+    @Nullable private final WebViewDownloader downloader;
+    @Nullable private WebView webView;
 
     /**
      * Creates a {@link DownloadListenerImpl} that passes arguments of callbacks methods to Dart.
@@ -33,7 +42,26 @@ public class DownloadListenerHostApiImpl implements DownloadListenerHostApi {
      * @param flutterApi handles sending messages to Dart
      */
     public DownloadListenerImpl(@NonNull DownloadListenerFlutterApiImpl flutterApi) {
+      this(flutterApi, null);
+    }
+
+    /**
+     * Creates a {@link DownloadListenerImpl} that starts native downloads instead while {@code
+     * downloader} is enabled.
+     *
+     * @param flutterApi handles sending messages to Dart
+     * @param downloader downloads the files natively
+     */
+    public DownloadListenerImpl(
+        @NonNull DownloadListenerFlutterApiImpl flutterApi,
+        @Nullable WebViewDownloader downloader) {
       this.flutterApi = flutterApi;
+      this.downloader = downloader;
+    }
+
+    /** Sets the {@link WebView} the events of the native downloads are sent for. */
+    void setWebView(@Nullable WebView webView) {
+      this.webView = webView;
     }
 
     @Override
@@ -43,10 +71,20 @@ public class DownloadListenerHostApiImpl implements DownloadListenerHostApi {
         String contentDisposition,
         String mimetype,
         long contentLength) {
-      if (flutterApi != null) {
-        flutterApi.onDownloadStart(
-            this, url, userAgent, contentDisposition, mimetype, contentLength, reply -> {});
+      if (flutterApi == null) {
+        return;
       }
+      if (downloader != null && downloader.isEnabled()) {
+        downloader.download(
+            new WebViewDownloader.Request(UUID.randomUUID().toString(), url)
+                .setUserAgent(userAgent)
+                .setContentDisposition(contentDisposition)
+                .setMimeType(mimetype),
+            webView != null ? webView : this);
+        return;
+      }
+      flutterApi.onDownloadStart(
+          this, url, userAgent, contentDisposition, mimetype, contentLength, reply -> {});
     }
 
     @Override
@@ -55,11 +93,29 @@ public class DownloadListenerHostApiImpl implements DownloadListenerHostApi {
         flutterApi.dispose(this, reply -> {});
       }
       flutterApi = null;
+      webView = null;
     }
   }
 
   /** Handles creating {@link DownloadListenerImpl}s for a {@link DownloadListenerHostApiImpl}. */
   public static class DownloadListenerCreator {
+    @Nullable private final WebViewDownloader downloader;
+
+    /** Creates a {@link DownloadListenerCreator} whose listeners pass the downloads to Dart. */
+    public DownloadListenerCreator() {
+      this(null);
+    }
+
+    /**
+     * Creates a {@link DownloadListenerCreator} whose listeners start native downloads instead
+     * while {@code downloader} is enabled.
+     *
+     * @param downloader downloads the files natively
+     */
+    public DownloadListenerCreator(@Nullable WebViewDownloader downloader) {
+      this.downloader = downloader;
+    }
+
     /**
      * Creates a {@link DownloadListenerImpl}.
      *
@@ -67,7 +123,7 @@ public class DownloadListenerHostApiImpl implements DownloadListenerHostApi {
      * @return the created {@link DownloadListenerImpl}
      */
     public DownloadListenerImpl createDownloadListener(DownloadListenerFlutterApiImpl flutterApi) {
-      return new DownloadListenerImpl(flutterApi);
+      return new DownloadListenerImpl(flutterApi, downloader);
     }
   }
 
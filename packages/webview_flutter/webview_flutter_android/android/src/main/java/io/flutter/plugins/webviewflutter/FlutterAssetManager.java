@@ -4,11 +4,13 @@
 
 package io.flutter.plugins.webviewflutter;
 
+import android.content.res.AssetFileDescriptor;
 import android.content.res.AssetManager;
 import androidx.annotation.NonNull;
 import io.flutter.embedding.engine.plugins.FlutterPlugin;
 import io.flutter.plugin.common.PluginRegistry;
 import java.io.IOException;
+import java.io.InputStream;
 
 /** Provides access to the assets registered as part of the App bundle. */
 abstract class FlutterAssetManager {
@@ -47,6 +49,28 @@ abstract class FlutterAssetManager {
     return assetManager.list(path);
   }
 
+  /**
+   * Opens the asset at the given path as a stream.
+   *
+   * @param path A relative path within the assets, as returned by {@link #getAssetFilePathByName}.
+   * @return InputStream A stream reading the uncompressed content of the asset.
+   * @throws IOException Throws an IOException if the asset doesn't exist.
+   */
+  public InputStream open(@NonNull String path) throws IOException {
+    return assetManager.open(path);
+  }
+
+  /**
+   * Opens the asset at the given path as a region of the App bundle, which can be memory-mapped.
+   *
+   * @param path A relative path within the assets, as returned by {@link #getAssetFilePathByName}.
+   * @return AssetFileDescriptor The descriptor of the bundle and the position of the asset in it.
+   * @throws IOException Throws an IOException if the asset doesn't exist or is compressed.
+   */
+  public AssetFileDescriptor openFd(@NonNull String path) throws IOException {
+    return assetManager.openFd(path);
+  }
+
   /**
    * Provides access to assets using the {@link PluginRegistry.Registrar} for looking up file paths
    * to Flutter assets.
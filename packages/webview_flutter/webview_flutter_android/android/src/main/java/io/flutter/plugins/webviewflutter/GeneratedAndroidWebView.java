@@ -314,6 +314,9 @@ public class GeneratedAndroidWebView {
 
         void evaluateJavascript(Long instanceId, String javascriptString, Result<String> result);
 
+        void evaluateJavascriptBatch(
+                Long instanceId, List<String> scripts, Result<List<String>> result);
+
         String getTitle(Long instanceId);
 
         void scrollTo(Long instanceId, Long x, Long y);
@@ -782,6 +785,50 @@ public class GeneratedAndroidWebView {
                     channel.setMessageHandler(null);
                 }
             }
+            {
+                BasicMessageChannel<Object> channel =
+                        new BasicMessageChannel<>(
+                                binaryMessenger,
+                                "dev.flutter.pigeon.WebViewHostApi.evaluateJavascriptBatch",
+                                getCodec());
+                if (api != null) {
+                    channel.setMessageHandler(
+                            (message, reply) -> {
+                                Map<String, Object> wrapped = new HashMap<>();
+                                try {
+                                    ArrayList<Object> args = (ArrayList<Object>) message;
+                                    Number instanceIdArg = (Number) args.get(0);
+                                    if (instanceIdArg == null) {
+                                        throw new NullPointerException("instanceIdArg unexpectedly null.");
+                                    }
+                                    List<String> scriptsArg = (List<String>) args.get(1);
+                                    if (scriptsArg == null) {
+                                        throw new NullPointerException("scriptsArg unexpectedly null.");
+                                    }
+                                    Result<List<String>> resultCallback =
+                                            new Result<List<String>>() {
+                                                public void success(List<String> result) {
+                                                    wrapped.put("result", result);
+                                                    reply.reply(wrapped);
+                                                }
+
+                                                public void error(Throwable error) {
+                                                    wrapped.put("error", wrapError(error));
+                                                    reply.reply(wrapped);
+                                                }
+                                            };
+
+                                    api.evaluateJavascriptBatch(
+                                            instanceIdArg.longValue(), scriptsArg, resultCallback);
+                                } catch (Error | RuntimeException exception) {
+                                    wrapped.put("error", wrapError(exception));
+                                    reply.reply(wrapped);
+                                }
+                            });
+                } else {
+                    channel.setMessageHandler(null);
+                }
+            }
             {
                 BasicMessageChannel<Object> channel =
                         new BasicMessageChannel<>(
@@ -1732,6 +1779,19 @@ public class GeneratedAndroidWebView {
                         callback.reply(null);
                     });
         }
+
+        public void postMessages(Long instanceIdArg, List<String> messagesArg, Reply<Void> callback) {
+            BasicMessageChannel<Object> channel =
+                    new BasicMessageChannel<>(
+                            binaryMessenger,
+                            "dev.flutter.pigeon.JavaScriptChannelFlutterApi.postMessages",
+                            getCodec());
+            channel.send(
+                    new ArrayList<Object>(Arrays.asList(instanceIdArg, messagesArg)),
+                    channelReply -> {
+                        callback.reply(null);
+                    });
+        }
     }
 
     private static class WebViewClientHostApiCodec extends StandardMessageCodec {
@@ -2050,8 +2110,12 @@ public class GeneratedAndroidWebView {
 
                                         api.screenShot(instanceIdArg.longValue(), url, ext, filePath, new Handler.Callback() {
                                             @Override
-                                            public boolean handleMessage(@NonNull Message msg) {
-                                                wrapped.put("result", filePath);
+                                            public boolean handleMessage(@Nullable Message msg) {
+                                                if (msg != null && msg.obj instanceof Throwable) {
+                                                    wrapped.put("error", wrapError((Throwable) msg.obj));
+                                                } else {
+                                                    wrapped.put("result", filePath);
+                                                }
                                                 reply.reply(wrapped);
                                                 return false;
                                             }
@@ -2099,6 +2163,43 @@ public class GeneratedAndroidWebView {
 
     }
 
+    private static class CustomFlutterApiCodec extends StandardMessageCodec {
+        public static final CustomFlutterApiCodec INSTANCE = new CustomFlutterApiCodec();
+
+        private CustomFlutterApiCodec() {
+        }
+    }
+
+    /**
+     * Generated class from Pigeon that represents Flutter messages that can be called from Java.
+     */
+    public static class CustomFlutterApi {
+        private final BinaryMessenger binaryMessenger;
+
+        public CustomFlutterApi(BinaryMessenger argBinaryMessenger) {
+            this.binaryMessenger = argBinaryMessenger;
+        }
+
+        public interface Reply<T> {
+            void reply(T reply);
+        }
+
+        static MessageCodec<Object> getCodec() {
+            return CustomFlutterApiCodec.INSTANCE;
+        }
+
+        public void onCustomEvent(Long instanceIdArg, String eventArg, Reply<Void> callback) {
+            BasicMessageChannel<Object> channel =
+                    new BasicMessageChannel<>(
+                            binaryMessenger, "dev.flutter.pigeon.CustomFlutterApi.onCustomEvent", getCodec());
+            channel.send(
+                    new ArrayList<Object>(Arrays.asList(instanceIdArg, eventArg)),
+                    channelReply -> {
+                        callback.reply(null);
+                    });
+        }
+    }
+
     private static class DownloadListenerHostApiCodec extends StandardMessageCodec {
         public static final DownloadListenerHostApiCodec INSTANCE = new DownloadListenerHostApiCodec();
 
@@ -5,17 +5,99 @@
 package io.flutter.plugins.webviewflutter;
 
 import android.util.LongSparseArray;
+import android.webkit.DownloadListener;
+import android.webkit.WebChromeClient;
+import android.webkit.WebSettings;
+import android.webkit.WebView;
+import android.webkit.WebViewClient;
+import androidx.annotation.Nullable;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Maintains instances to intercommunicate with Dart objects.
  *
  * <p>When an instance is added with an instanceId, either can be used to retrieve the other.
+ *
+ * <p>Instances are held until Dart removes them, or until their owner is removed: an instance added
+ * with an owner, such as the settings of a WebView, is removed with it, so it doesn't keep the
+ * WebView alive when Dart misses its disposal. WebViews are also removed once destroyed.
+ *
+ * <p>Once {@link #enableWeakReferences} was called, the removed instances are still weakly
+ * referenced, and the listener is notified when they are garbage collected. This mode only
+ * detects leaks: removed instances that are never collected were leaked by another object holding
+ * them. Instances kept alive on purpose once removed, such as pooled WebViews, are removed with
+ * {@link #removeRetainedInstance} and are not tracked.
  */
 public class InstanceManager {
+  /** Notified of the removed instances that were garbage collected, on the cleanup thread. */
+  public interface OnCollectedListener {
+    void onInstanceCollected(long instanceId, String type);
+  }
+
+  private static class IdentifiedWeakReference extends WeakReference<Object> {
+    final long instanceId;
+    final String type;
+
+    IdentifiedWeakReference(Object instance, long instanceId, ReferenceQueue<Object> queue) {
+      super(instance, queue);
+      this.instanceId = instanceId;
+      this.type = getType(instance);
+    }
+  }
+
   private final LongSparseArray<Object> instanceIdsToInstances = new LongSparseArray<>();
   private final Map<Object, Long> instancesToInstanceIds = new HashMap<>();
+  // The owner of each instance removed with its owner.
+  private final Map<Object, Object> instancesToOwners = new IdentityHashMap<>();
+  // The removed instances not collected yet, in weak reference mode.
+  private final Set<IdentifiedWeakReference> removedReferences = new HashSet<>();
+  private final Map<String, Long> collectedCounts = new HashMap<>();
+  @Nullable private ReferenceQueue<Object> referenceQueue;
+  @Nullable private Thread cleanupThread;
+
+  /**
+   * Keeps track of the instances removed from now on until they are garbage collected.
+   *
+   * @param listener notified of the removed instances once they are garbage collected
+   */
+  public synchronized void enableWeakReferences(final OnCollectedListener listener) {
+    if (referenceQueue != null) {
+      return;
+    }
+    final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+    referenceQueue = queue;
+    cleanupThread =
+        new Thread("InstanceManagerCleanup") {
+          @Override
+          public void run() {
+            while (!isInterrupted()) {
+              final IdentifiedWeakReference reference;
+              try {
+                reference = (IdentifiedWeakReference) queue.remove();
+              } catch (InterruptedException e) {
+                return;
+              }
+              if (onCollected(reference)) {
+                listener.onInstanceCollected(reference.instanceId, reference.type);
+              }
+            }
+          }
+        };
+    cleanupThread.setDaemon(true);
+    cleanupThread.start();
+  }
+
+  public synchronized boolean isWeakReferencesEnabled() {
+    return referenceQueue != null;
+  }
 
   /**
    * Add a new instance to the manager.
@@ -25,22 +107,33 @@ public class InstanceManager {
    * @param instance the new object to be added
    * @param instanceId unique id of the added object
    */
-  public void addInstance(Object instance, long instanceId) {
+  public synchronized void addInstance(Object instance, long instanceId) {
     instancesToInstanceIds.put(instance, instanceId);
     instanceIdsToInstances.append(instanceId, instance);
   }
 
+  /**
+   * Add a new instance to the manager, removed at the latest when {@code owner} is removed.
+   *
+   * @param instance the new object to be added
+   * @param instanceId unique id of the added object
+   * @param owner the instance whose removal also removes the added object
+   */
+  public synchronized void addInstance(Object instance, long instanceId, Object owner) {
+    addInstance(instance, instanceId);
+    instancesToOwners.put(instance, owner);
+  }
+
   /**
    * Remove the instance with instanceId from the manager.
    *
    * @param instanceId the id of the instance to be removed
    * @return the removed instance if the manager contains the instanceId, otherwise null
    */
-  public Object removeInstanceWithId(long instanceId) {
+  public synchronized Object removeInstanceWithId(long instanceId) {
     final Object instance = instanceIdsToInstances.get(instanceId);
     if (instance != null) {
-      instanceIdsToInstances.remove(instanceId);
-      instancesToInstanceIds.remove(instance);
+      removeEntry(instance, instanceId, true);
     }
     return instance;
   }
@@ -52,11 +145,26 @@ public class InstanceManager {
    * @return the instanceId of the removed instance if the manager contains the value, otherwise
    *     null
    */
-  public Long removeInstance(Object instance) {
+  public synchronized Long removeInstance(Object instance) {
+    final Long instanceId = instancesToInstanceIds.get(instance);
+    if (instanceId != null) {
+      removeEntry(instance, instanceId, true);
+    }
+    return instanceId;
+  }
+
+  /**
+   * Remove an instance kept alive on purpose, such as a WebView returned to the pool, without
+   * tracking its garbage collection in weak reference mode.
+   *
+   * @param instance the instance to be removed
+   * @return the instanceId of the removed instance if the manager contains the value, otherwise
+   *     null
+   */
+  public synchronized Long removeRetainedInstance(Object instance) {
     final Long instanceId = instancesToInstanceIds.get(instance);
     if (instanceId != null) {
-      instanceIdsToInstances.remove(instanceId);
-      instancesToInstanceIds.remove(instance);
+      removeEntry(instance, instanceId, false);
     }
     return instanceId;
   }
@@ -68,7 +176,7 @@ public class InstanceManager {
    * @return the instance stored with the instanceId if the manager contains the value, otherwise
    *     null
    */
-  public Object getInstance(long instanceId) {
+  public synchronized Object getInstance(long instanceId) {
     return instanceIdsToInstances.get(instanceId);
   }
 
@@ -78,7 +186,103 @@ public class InstanceManager {
    * @param instance the value paired with the desired instanceId
    * @return the instanceId paired with instance if the manager contains the value, otherwise null
    */
-  public Long getInstanceId(Object instance) {
+  public synchronized Long getInstanceId(Object instance) {
     return instancesToInstanceIds.get(instance);
   }
+
+  /**
+   * Returns the number of instances by type, the number of removed instances not garbage collected
+   * yet and the number of removed instances garbage collected by type.
+   */
+  public synchronized Map<String, Object> getStats() {
+    final Map<String, Long> liveCounts = new HashMap<>();
+    for (int i = 0; i < instanceIdsToInstances.size(); i++) {
+      increment(liveCounts, getType(instanceIdsToInstances.valueAt(i)));
+    }
+    long removedCount = 0;
+    for (IdentifiedWeakReference reference : removedReferences) {
+      if (reference.get() != null) {
+        removedCount++;
+      }
+    }
+    final Map<String, Object> stats = new HashMap<>();
+    stats.put("liveInstances", liveCounts);
+    stats.put("weakInstances", removedCount);
+    stats.put("collectedInstances", new HashMap<>(collectedCounts));
+    stats.put("weakReferencesEnabled", referenceQueue != null);
+    return stats;
+  }
+
+  /** Removes all instances and stops the cleanup thread of the weak reference mode. */
+  public synchronized void close() {
+    if (cleanupThread != null) {
+      cleanupThread.interrupt();
+      cleanupThread = null;
+    }
+    referenceQueue = null;
+    removedReferences.clear();
+    instanceIdsToInstances.clear();
+    instancesToInstanceIds.clear();
+    instancesToOwners.clear();
+  }
+
+  private void removeEntry(Object instance, long instanceId, boolean tracked) {
+    instanceIdsToInstances.remove(instanceId);
+    instancesToInstanceIds.remove(instance);
+    instancesToOwners.remove(instance);
+    if (tracked) {
+      trackRemovedInstance(instance, instanceId);
+    }
+    final List<Object> ownedInstances = new ArrayList<>();
+    for (Map.Entry<Object, Object> entry : instancesToOwners.entrySet()) {
+      if (entry.getValue() == instance) {
+        ownedInstances.add(entry.getKey());
+      }
+    }
+    for (Object ownedInstance : ownedInstances) {
+      final Long ownedInstanceId = instancesToInstanceIds.get(ownedInstance);
+      if (ownedInstanceId != null) {
+        removeEntry(ownedInstance, ownedInstanceId, true);
+      } else {
+        instancesToOwners.remove(ownedInstance);
+      }
+    }
+  }
+
+  private void trackRemovedInstance(Object instance, long instanceId) {
+    if (referenceQueue != null) {
+      removedReferences.add(new IdentifiedWeakReference(instance, instanceId, referenceQueue));
+    }
+  }
+
+  private synchronized boolean onCollected(IdentifiedWeakReference reference) {
+    // The reference is no longer tracked once the manager was closed.
+    if (!removedReferences.remove(reference)) {
+      return false;
+    }
+    increment(collectedCounts, reference.type);
+    return true;
+  }
+
+  private static void increment(Map<String, Long> counts, String type) {
+    final Long count = counts.get(type);
+    counts.put(type, count != null ? count + 1 : 1L);
+  }
+
+  private static String getType(Object instance) {
+    if (instance instanceof WebView) {
+      return "WebView";
+    } else if (instance instanceof WebViewClient) {
+      return "WebViewClient";
+    } else if (instance instanceof WebChromeClient) {
+      return "WebChromeClient";
+    } else if (instance instanceof WebSettings) {
+      return "WebSettings";
+    } else if (instance instanceof DownloadListener) {
+      return "DownloadListener";
+    } else if (instance instanceof JavaScriptChannel) {
+      return "JavaScriptChannel";
+    }
+    return instance.getClass().getSimpleName();
+  }
 }
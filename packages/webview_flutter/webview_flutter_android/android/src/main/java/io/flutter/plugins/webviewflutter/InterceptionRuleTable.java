@@ -0,0 +1,377 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Interception rules pushed by Dart and evaluated synchronously by {@link
+ * WebViewClientFlutterApiImpl} for every intercepted request, so the WebView doesn't wait on Dart
+ * to decide how to serve a request.
+ *
+ * <p>The first rule matching the url of a request applies. Rules are replaced as a whole and may
+ * be read concurrently from the WebView IO threads.
+ */
+public class InterceptionRuleTable {
+    /**
+     * How a request matching a rule is served when it has no local file.
+     */
+    public enum CachePolicy {
+        /**
+         * Served from the offline cache when it is enabled, otherwise from the network.
+         */
+        CACHE,
+        /**
+         * Always served from the network, bypassing the offline cache.
+         */
+        NETWORK,
+        /**
+         * Not intercepted, the WebView loads the request itself.
+         */
+        PASSTHROUGH,
+        /**
+         * Dart decides how to serve the request, reserved for rare cases as it blocks the request.
+         */
+        DART;
+
+        static CachePolicy fromString(@Nullable String policy) {
+            if (policy == null) {
+                return CACHE;
+            }
+            switch (policy) {
+                case "network":
+                    return NETWORK;
+                case "passthrough":
+                    return PASSTHROUGH;
+                case "dart":
+                    return DART;
+                default:
+                    return CACHE;
+            }
+        }
+    }
+
+    /**
+     * A rule matching urls by prefix or by a regular expression matching the whole url.
+     */
+    public static final class Rule {
+        final String id;
+        @Nullable
+        final String urlPrefix;
+        @Nullable
+        final Pattern urlPattern;
+        @Nullable
+        final String localPath;
+        @Nullable
+        final String mimeType;
+        @Nullable
+        final String encoding;
+        final CachePolicy cachePolicy;
+        final Map<String, String> requestHeaders;
+        final Map<String, String> responseHeaders;
+        final Set<String> allowedOrigins;
+        private final AtomicLong hits = new AtomicLong();
+
+        /**
+         * @param localPath       file serving the matching requests. For a prefix ending with a slash,
+         *                        the rest of the url path is resolved against it. For a pattern, it may
+         *                        reference the groups of the pattern as {@code $1}.
+         * @param requestHeaders  headers set on network requests, removed when the value is null
+         * @param responseHeaders headers added to the responses
+         * @param allowedOrigins  origins allowed to read the responses with credentials, for which
+         *                        CORS headers are added. The CORS headers of the server are kept for
+         *                        other origins.
+         */
+        public Rule(
+                String id,
+                @Nullable String urlPrefix,
+                @Nullable Pattern urlPattern,
+                @Nullable String localPath,
+                @Nullable String mimeType,
+                @Nullable String encoding,
+                CachePolicy cachePolicy,
+                Map<String, String> requestHeaders,
+                Map<String, String> responseHeaders,
+                Set<String> allowedOrigins) {
+            if ((urlPrefix == null) == (urlPattern == null)) {
+                throw new IllegalArgumentException("A rule needs either a urlPrefix or a urlPattern.");
+            }
+            this.id = id;
+            this.urlPrefix = urlPrefix;
+            this.urlPattern = urlPattern;
+            this.localPath = localPath;
+            this.mimeType = mimeType;
+            this.encoding = encoding;
+            this.cachePolicy = cachePolicy;
+            this.requestHeaders = requestHeaders;
+            this.responseHeaders = responseHeaders;
+            this.allowedOrigins = allowedOrigins;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public CachePolicy getCachePolicy() {
+            return cachePolicy;
+        }
+
+        @Nullable
+        public String getMimeType() {
+            return mimeType;
+        }
+
+        @Nullable
+        public String getEncoding() {
+            return encoding;
+        }
+
+        public Map<String, String> getRequestHeaders() {
+            return requestHeaders;
+        }
+
+        public Map<String, String> getResponseHeaders() {
+            return responseHeaders;
+        }
+
+        /**
+         * Whether responses served for {@code origin} get CORS headers allowing it.
+         */
+        public boolean allowsOrigin(String origin) {
+            return allowedOrigins.contains(origin);
+        }
+
+        public long getHits() {
+            return hits.get();
+        }
+
+        boolean matches(String url) {
+            return urlPrefix != null ? url.startsWith(urlPrefix) : urlPattern.matcher(url).matches();
+        }
+
+        /**
+         * Returns the local file serving {@code url}, or null if the rule has none or the url would
+         * resolve outside of its directory.
+         *
+         * <p>For a prefix, the rest of the url path is percent-decoded. For a pattern, the path must
+         * stay under the directory preceding the first group reference of {@code localPath}.
+         */
+        @Nullable
+        public File resolveLocalFile(String url) {
+            if (localPath == null) {
+                return null;
+            }
+            if (urlPattern != null) {
+                final Matcher matcher = urlPattern.matcher(url);
+                if (!matcher.matches()) {
+                    return null;
+                }
+                final int firstGroup = localPath.indexOf('$');
+                if (firstGroup < 0) {
+                    return new File(localPath);
+                }
+                final int directoryEnd = localPath.lastIndexOf('/', firstGroup);
+                if (directoryEnd < 0) {
+                    return null;
+                }
+                return resolveUnder(
+                        new File(localPath.substring(0, directoryEnd + 1)),
+                        new File(matcher.replaceFirst(localPath)));
+            }
+            if (!localPath.endsWith("/")) {
+                return new File(localPath);
+            }
+            String relativePath = url.substring(urlPrefix.length());
+            final int end = indexOfQueryOrFragment(relativePath);
+            if (end >= 0) {
+                relativePath = relativePath.substring(0, end);
+            }
+            relativePath = percentDecode(relativePath);
+            if (relativePath == null) {
+                return null;
+            }
+            final File directory = new File(localPath);
+            return resolveUnder(directory, new File(directory, relativePath));
+        }
+
+        /**
+         * Returns {@code file}, or null if its canonical path is not under {@code directory}.
+         */
+        @Nullable
+        private static File resolveUnder(File directory, File file) {
+            try {
+                if (!file.getCanonicalPath().startsWith(directory.getCanonicalPath() + File.separator)) {
+                    return null;
+                }
+            } catch (IOException e) {
+                return null;
+            }
+            return file;
+        }
+
+        /**
+         * Decodes the UTF-8 percent escapes of a url path, or returns null if an escape is malformed
+         * or decodes to a NUL character.
+         */
+        @Nullable
+        private static String percentDecode(String path) {
+            if (path.indexOf('%') < 0) {
+                return path;
+            }
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(path.length());
+            int i = 0;
+            while (i < path.length()) {
+                final char c = path.charAt(i);
+                if (c != '%') {
+                    final int next = i + Character.charCount(path.codePointAt(i));
+                    final byte[] encoded =
+                            path.substring(i, next).getBytes(StandardCharsets.UTF_8);
+                    bytes.write(encoded, 0, encoded.length);
+                    i = next;
+                    continue;
+                }
+                if (i + 2 >= path.length()) {
+                    return null;
+                }
+                final int high = Character.digit(path.charAt(i + 1), 16);
+                final int low = Character.digit(path.charAt(i + 2), 16);
+                if (high < 0 || low < 0 || (high == 0 && low == 0)) {
+                    return null;
+                }
+                bytes.write((high << 4) | low);
+                i += 3;
+            }
+            return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        }
+
+        private static int indexOfQueryOrFragment(String path) {
+            final int query = path.indexOf('?');
+            final int fragment = path.indexOf('#');
+            if (query < 0) {
+                return fragment;
+            }
+            return fragment < 0 ? query : Math.min(query, fragment);
+        }
+    }
+
+    private volatile List<Rule> rules = Collections.emptyList();
+    private final AtomicLong misses = new AtomicLong();
+
+    public boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    /**
+     * Replaces all rules. Hit counters start again from zero.
+     */
+    public void setRules(List<Rule> rules) {
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+        misses.set(0);
+    }
+
+    /**
+     * Returns the first rule matching {@code url} and counts a hit for it, or null if no rule
+     * matches.
+     */
+    @Nullable
+    public Rule match(String url) {
+        for (Rule rule : rules) {
+            if (rule.matches(url)) {
+                rule.hits.incrementAndGet();
+                return rule;
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public Map<String, Object> getStats() {
+        final Map<String, Object> ruleHits = new LinkedHashMap<>();
+        for (Rule rule : rules) {
+            ruleHits.put(rule.id, rule.getHits());
+        }
+        final Map<String, Object> stats = new HashMap<>();
+        stats.put("ruleHits", ruleHits);
+        stats.put("misses", misses.get());
+        return stats;
+    }
+
+    /**
+     * Parses the rules sent by Dart, a list of objects with an {@code id}, either a {@code
+     * urlPrefix} or a {@code urlPattern} and optionally a {@code localPath}, {@code mimeType},
+     * {@code encoding}, {@code cachePolicy}, {@code requestHeaders} or {@code responseHeaders}
+     * objects and an {@code allowedOrigins} list.
+     */
+    @NonNull
+    public static List<Rule> parseRules(JSONArray jsonRules) throws JSONException {
+        final List<Rule> rules = new ArrayList<>();
+        for (int i = 0; i < jsonRules.length(); i++) {
+            final JSONObject jsonRule = jsonRules.getJSONObject(i);
+            final String urlPattern = optNullableString(jsonRule, "urlPattern");
+            rules.add(
+                    new Rule(
+                            jsonRule.optString("id", String.valueOf(i)),
+                            optNullableString(jsonRule, "urlPrefix"),
+                            urlPattern != null ? Pattern.compile(urlPattern) : null,
+                            optNullableString(jsonRule, "localPath"),
+                            optNullableString(jsonRule, "mimeType"),
+                            optNullableString(jsonRule, "encoding"),
+                            CachePolicy.fromString(optNullableString(jsonRule, "cachePolicy")),
+                            parseHeaders(jsonRule.optJSONObject("requestHeaders")),
+                            parseHeaders(jsonRule.optJSONObject("responseHeaders")),
+                            parseOrigins(jsonRule.optJSONArray("allowedOrigins"))));
+        }
+        return rules;
+    }
+
+    private static Map<String, String> parseHeaders(@Nullable JSONObject jsonHeaders) {
+        final Map<String, String> headers = new HashMap<>();
+        if (jsonHeaders != null) {
+            final Iterator<String> names = jsonHeaders.keys();
+            while (names.hasNext()) {
+                final String name = names.next();
+                headers.put(name, optNullableString(jsonHeaders, name));
+            }
+        }
+        return headers;
+    }
+
+    private static Set<String> parseOrigins(@Nullable JSONArray jsonOrigins) throws JSONException {
+        final Set<String> origins = new HashSet<>();
+        if (jsonOrigins != null) {
+            for (int i = 0; i < jsonOrigins.length(); i++) {
+                origins.add(jsonOrigins.getString(i));
+            }
+        }
+        return origins;
+    }
+
+    @Nullable
+    private static String optNullableString(JSONObject jsonObject, String name) {
+        return jsonObject.isNull(name) ? null : jsonObject.optString(name);
+    }
+}
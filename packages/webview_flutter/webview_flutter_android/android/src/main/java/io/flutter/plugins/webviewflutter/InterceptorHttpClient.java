@@ -0,0 +1,381 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import android.webkit.CookieManager;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP client shared by the WebView request interceptor.
+ *
+ * <p>Connections are opened with {@link HttpURLConnection}, which keeps idle connections alive in
+ * a pool for reuse once a response body was read or closed. The client bounds the number of
+ * concurrent requests per host, applies the configured timeouts, syncs cookies with the WebView
+ * and records the latency and bytes received per host.
+ *
+ * <p>Redirects are not followed unless enabled with {@link #setFollowRedirects(boolean)}: a 3xx
+ * response is returned as is, so the WebView follows it and loads the document under its final
+ * url.
+ *
+ * <p>A request over the limit waits for a slot, up to the queue timeout, so every subresource of
+ * a page goes through the interceptor and the offline cache. It fails once the timeout elapses and
+ * the WebView loads the resource itself.
+ */
+public class InterceptorHttpClient {
+    static final int DEFAULT_CONNECT_TIMEOUT_MS = 15000;
+    static final int DEFAULT_READ_TIMEOUT_MS = 30000;
+    // The number of connections per host of Chromium.
+    static final int DEFAULT_MAX_REQUESTS_PER_HOST = 6;
+    static final int DEFAULT_QUEUE_TIMEOUT_MS = 10000;
+
+    /**
+     * Cookies sent with and received from requests.
+     */
+    public interface CookieJar {
+        @Nullable
+        String getCookie(String url);
+
+        void setCookie(String url, String cookie);
+    }
+
+    /**
+     * {@link CookieJar} sharing the cookies of the WebViews.
+     */
+    public static class WebViewCookieJar implements CookieJar {
+        @Nullable
+        @Override
+        public String getCookie(String url) {
+            return CookieManager.getInstance().getCookie(url);
+        }
+
+        @Override
+        public void setCookie(String url, String cookie) {
+            CookieManager.getInstance().setCookie(url, cookie);
+        }
+    }
+
+    private static final class HostStats {
+        long requests;
+        long failures;
+        long totalLatencyMs;
+        long maxLatencyMs;
+        long bytesReceived;
+
+        Map<String, Object> toJson() {
+            final Map<String, Object> data = new HashMap<>();
+            data.put("requests", requests);
+            data.put("failures", failures);
+            data.put("totalLatencyMs", totalLatencyMs);
+            data.put("maxLatencyMs", maxLatencyMs);
+            data.put("bytesReceived", bytesReceived);
+            return data;
+        }
+    }
+
+    /**
+     * A request whose response headers were received. The response must be consumed with {@link
+     * #getBody()} or released with {@link #close()}.
+     */
+    public final class Exchange {
+        private final HttpURLConnection connection;
+        private final String host;
+        private final Semaphore permits;
+        private final int responseCode;
+        private boolean released;
+
+        private Exchange(
+                HttpURLConnection connection, String host, Semaphore permits, int responseCode) {
+            this.connection = connection;
+            this.host = host;
+            this.permits = permits;
+            this.responseCode = responseCode;
+        }
+
+        public int getResponseCode() {
+            return responseCode;
+        }
+
+        @Nullable
+        public String getResponseMessage() {
+            try {
+                return connection.getResponseMessage();
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        @Nullable
+        public String getContentType() {
+            return connection.getContentType();
+        }
+
+        @Nullable
+        public String getHeaderField(String name) {
+            return connection.getHeaderField(name);
+        }
+
+        public Map<String, List<String>> getHeaderFields() {
+            return connection.getHeaderFields();
+        }
+
+        /**
+         * Returns the response body. Reaching its end or closing it releases the exchange.
+         */
+        public InputStream getBody() throws IOException {
+            final InputStream inputStream;
+            try {
+                inputStream = connection.getInputStream();
+            } catch (IOException e) {
+                release(false);
+                throw e;
+            }
+            return new FilterInputStream(inputStream) {
+                @Override
+                public int read() throws IOException {
+                    final int b;
+                    try {
+                        b = super.read();
+                    } catch (IOException e) {
+                        release(false);
+                        throw e;
+                    }
+                    onRead(b == -1 ? -1 : 1);
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    final int bytesRead;
+                    try {
+                        bytesRead = super.read(b, off, len);
+                    } catch (IOException e) {
+                        release(false);
+                        throw e;
+                    }
+                    onRead(bytesRead);
+                    return bytesRead;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        release(true);
+                    }
+                }
+            };
+        }
+
+        /**
+         * Releases an exchange whose body isn't needed, keeping the connection for reuse when
+         * possible.
+         */
+        public void close() {
+            try {
+                final InputStream inputStream =
+                        responseCode >= 400 ? connection.getErrorStream() : connection.getInputStream();
+                if (inputStream != null) {
+                    inputStream.close();
+                }
+                release(true);
+            } catch (IOException e) {
+                connection.disconnect();
+                release(false);
+            }
+        }
+
+        private void onRead(int bytesRead) {
+            if (bytesRead == -1) {
+                release(true);
+            } else if (bytesRead > 0) {
+                synchronized (stats) {
+                    getHostStats(host).bytesReceived += bytesRead;
+                }
+            }
+        }
+
+        private synchronized void release(boolean success) {
+            if (released) {
+                return;
+            }
+            released = true;
+            if (!success) {
+                synchronized (stats) {
+                    getHostStats(host).failures++;
+                }
+            }
+            permits.release();
+        }
+    }
+
+    private final CookieJar cookieJar;
+    private final Map<String, Semaphore> hostToPermits = new ConcurrentHashMap<>();
+    private final Map<String, HostStats> stats = new HashMap<>();
+    private volatile int connectTimeoutMs = DEFAULT_CONNECT_TIMEOUT_MS;
+    private volatile int readTimeoutMs = DEFAULT_READ_TIMEOUT_MS;
+    private volatile int maxRequestsPerHost = DEFAULT_MAX_REQUESTS_PER_HOST;
+    private volatile int queueTimeoutMs = DEFAULT_QUEUE_TIMEOUT_MS;
+    private volatile boolean followRedirects;
+
+    public InterceptorHttpClient(CookieJar cookieJar) {
+        this.cookieJar = cookieJar;
+    }
+
+    public void setConnectTimeoutMs(int connectTimeoutMs) {
+        this.connectTimeoutMs = connectTimeoutMs;
+    }
+
+    public void setReadTimeoutMs(int readTimeoutMs) {
+        this.readTimeoutMs = readTimeoutMs;
+    }
+
+    /**
+     * Sets how long a request waits for a slot when all the request slots to its host are taken.
+     */
+    public void setQueueTimeoutMs(int queueTimeoutMs) {
+        this.queueTimeoutMs = queueTimeoutMs;
+    }
+
+    /**
+     * Sets whether redirects are followed, instead of returning the 3xx response.
+     */
+    public void setFollowRedirects(boolean followRedirects) {
+        this.followRedirects = followRedirects;
+    }
+
+    /**
+     * Sets the number of concurrent requests per host, applied to the requests sent from now on.
+     */
+    public void setMaxRequestsPerHost(int maxRequestsPerHost) {
+        this.maxRequestsPerHost = maxRequestsPerHost;
+        // Exchanges in flight release the permits they were given.
+        hostToPermits.clear();
+    }
+
+    /**
+     * Sends a GET request and waits for the response headers.
+     *
+     * @throws IOException if the request failed, or all the request slots to the host stayed taken
+     *                     for the queue timeout
+     */
+    @NonNull
+    public Exchange execute(String url, Map<String, String> requestHeaders) throws IOException {
+        final URL parsedUrl = new URL(url);
+        final String host = parsedUrl.getHost();
+        final Semaphore permits = getPermits(host);
+        try {
+            if (!permits.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                recordFailure(host);
+                throw new IOException("Too many concurrent requests to " + host);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a request slot to " + host);
+        }
+
+        final long start = System.nanoTime();
+        final HttpURLConnection connection;
+        final int responseCode;
+        try {
+            connection = (HttpURLConnection) parsedUrl.openConnection();
+            connection.setRequestMethod("GET");
+            connection.setDoInput(true);
+            connection.setUseCaches(false);
+            connection.setInstanceFollowRedirects(followRedirects);
+            connection.setConnectTimeout(connectTimeoutMs);
+            connection.setReadTimeout(readTimeoutMs);
+            final String cookie = cookieJar.getCookie(url);
+            if (cookie != null) {
+                connection.setRequestProperty("Cookie", cookie);
+            }
+            for (Map.Entry<String, String> header : requestHeaders.entrySet()) {
+                connection.setRequestProperty(header.getKey(), header.getValue());
+            }
+            responseCode = connection.getResponseCode();
+        } catch (IOException | RuntimeException e) {
+            permits.release();
+            recordFailure(host);
+            throw e;
+        }
+        recordLatency(host, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        storeCookies(url, connection);
+        return new Exchange(connection, host, permits, responseCode);
+    }
+
+    public Map<String, Object> getStats() {
+        final Map<String, Object> hosts = new HashMap<>();
+        synchronized (stats) {
+            for (Map.Entry<String, HostStats> entry : stats.entrySet()) {
+                hosts.put(entry.getKey(), entry.getValue().toJson());
+            }
+        }
+        return hosts;
+    }
+
+    private void storeCookies(String url, HttpURLConnection connection) {
+        final Map<String, List<String>> headerFields = connection.getHeaderFields();
+        for (Map.Entry<String, List<String>> header : headerFields.entrySet()) {
+            if ("Set-Cookie".equalsIgnoreCase(header.getKey())) {
+                for (String cookie : header.getValue()) {
+                    cookieJar.setCookie(url, cookie);
+                }
+            }
+        }
+    }
+
+    private Semaphore getPermits(String host) {
+        Semaphore permits = hostToPermits.get(host);
+        if (permits == null) {
+            final Semaphore newPermits = new Semaphore(maxRequestsPerHost, true);
+            permits = hostToPermits.putIfAbsent(host, newPermits);
+            if (permits == null) {
+                permits = newPermits;
+            }
+        }
+        return permits;
+    }
+
+    private HostStats getHostStats(String host) {
+        HostStats hostStats = stats.get(host);
+        if (hostStats == null) {
+            hostStats = new HostStats();
+            stats.put(host, hostStats);
+        }
+        return hostStats;
+    }
+
+    private void recordLatency(String host, long latencyMs) {
+        synchronized (stats) {
+            final HostStats hostStats = getHostStats(host);
+            hostStats.requests++;
+            hostStats.totalLatencyMs += latencyMs;
+            hostStats.maxLatencyMs = Math.max(hostStats.maxLatencyMs, latencyMs);
+        }
+    }
+
+    private void recordFailure(String host) {
+        synchronized (stats) {
+            final HostStats hostStats = getHostStats(host);
+            hostStats.requests++;
+            hostStats.failures++;
+        }
+    }
+}
@@ -23,6 +23,7 @@ public class JavaScriptChannel implements Releasable {
   private final Handler platformThreadHandler;
   final String javaScriptChannelName;
   @Nullable private JavaScriptChannelFlutterApiImpl flutterApi;
+  @Nullable private volatile JavaScriptMessageBatcher batcher;
 
   /**
    * Creates a {@link JavaScriptChannel} that passes arguments of callback methods to Dart.
@@ -44,6 +45,12 @@ public class JavaScriptChannel implements Releasable {
   @SuppressWarnings("unused")
   @JavascriptInterface
   public void postMessage(final String message) {
+    final JavaScriptMessageBatcher currentBatcher = batcher;
+    if (currentBatcher != null) {
+      currentBatcher.add(message);
+      return;
+    }
+
     final Runnable postMessageRunnable =
         () -> {
           if (flutterApi != null) {
@@ -58,8 +65,55 @@ public class JavaScriptChannel implements Releasable {
     }
   }
 
+  /**
+   * Delivers the messages of this channel to Dart in batches instead of one by one.
+   *
+   * <p>Must be called on the platform thread. Replaces the previous batching settings, delivering
+   * the messages buffered with them first.
+   *
+   * @param flushIntervalMs delay before a batch is delivered, or 0 to deliver it at the next frame
+   * @param maxBatchSize number of messages delivering a batch right away
+   * @param maxBufferedMessages number of buffered messages from which new messages are dropped
+   */
+  public void enableBatching(long flushIntervalMs, int maxBatchSize, int maxBufferedMessages) {
+    disableBatching();
+    batcher =
+        new JavaScriptMessageBatcher(
+            platformThreadHandler,
+            messages -> {
+              if (flutterApi != null) {
+                flutterApi.postMessages(JavaScriptChannel.this, messages, reply -> {});
+              }
+            },
+            flushIntervalMs,
+            maxBatchSize,
+            maxBufferedMessages);
+  }
+
+  /**
+   * Delivers the messages of this channel to Dart one by one again. Must be called on the platform
+   * thread.
+   */
+  public void disableBatching() {
+    final JavaScriptMessageBatcher currentBatcher = batcher;
+    batcher = null;
+    if (currentBatcher != null) {
+      currentBatcher.flush();
+    }
+  }
+
+  /** Returns the batcher of the batching mode, or null if it isn't enabled. */
+  @Nullable
+  public JavaScriptMessageBatcher getBatcher() {
+    return batcher;
+  }
+
   @Override
   public void release() {
+    final JavaScriptMessageBatcher currentBatcher = batcher;
+    if (currentBatcher != null) {
+      currentBatcher.clear();
+    }
     if (flutterApi != null) {
       flutterApi.dispose(this, reply -> {});
     }
@@ -0,0 +1,147 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import android.os.Handler;
+import android.view.Choreographer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Buffers the messages of a {@link JavaScriptChannel} and delivers them to Dart as batches.
+ *
+ * <p>Messages are added on the JavaScript bridge thread. A batch is delivered on the platform
+ * thread at the next frame, or after a fixed interval when one is set, and as soon as the batch
+ * reaches its maximum size. Messages arriving while the buffer is full are dropped and counted.
+ */
+public class JavaScriptMessageBatcher {
+  static final int DEFAULT_MAX_BATCH_SIZE = 64;
+  static final int DEFAULT_MAX_BUFFERED_MESSAGES = 1000;
+
+  /** Receives the batches on the platform thread. */
+  public interface Sink {
+    void deliver(List<String> messages);
+  }
+
+  private final Handler platformThreadHandler;
+  private final Sink sink;
+  private final long flushIntervalMs;
+  private final int maxBatchSize;
+  private final int maxBufferedMessages;
+
+  private final Runnable flushRunnable = this::flush;
+  private final Runnable scheduleFrameFlushRunnable =
+      () -> Choreographer.getInstance().postFrameCallback(frameTimeNanos -> flush());
+
+  // Guarded by this.
+  private List<String> buffer = new ArrayList<>();
+  private boolean flushScheduled;
+  private boolean overflowing;
+  private long messagesReceived;
+  private long messagesDropped;
+  private long overflows;
+  private long sizeFlushes;
+
+  // Platform thread only.
+  private long messagesDelivered;
+  private long batchesDelivered;
+
+  /**
+   * Creates a batcher delivering batches to {@code sink}.
+   *
+   * @param platformThreadHandler handles delivering the batches on the platform thread
+   * @param sink receives the batches
+   * @param flushIntervalMs delay after the first buffered message before a batch is delivered, or 0
+   *     to deliver it at the next frame
+   * @param maxBatchSize number of messages delivering a batch right away
+   * @param maxBufferedMessages number of buffered messages from which new messages are dropped
+   */
+  public JavaScriptMessageBatcher(
+      Handler platformThreadHandler,
+      Sink sink,
+      long flushIntervalMs,
+      int maxBatchSize,
+      int maxBufferedMessages) {
+    this.platformThreadHandler = platformThreadHandler;
+    this.sink = sink;
+    this.flushIntervalMs = Math.max(0, flushIntervalMs);
+    this.maxBatchSize = maxBatchSize > 0 ? maxBatchSize : DEFAULT_MAX_BATCH_SIZE;
+    this.maxBufferedMessages =
+        Math.max(
+            this.maxBatchSize,
+            maxBufferedMessages > 0 ? maxBufferedMessages : DEFAULT_MAX_BUFFERED_MESSAGES);
+  }
+
+  /** Buffers a message. May be called from any thread. */
+  public void add(String message) {
+    synchronized (this) {
+      messagesReceived++;
+      if (buffer.size() >= maxBufferedMessages) {
+        messagesDropped++;
+        if (!overflowing) {
+          overflowing = true;
+          overflows++;
+        }
+        return;
+      }
+      overflowing = false;
+      buffer.add(message);
+      if (buffer.size() == maxBatchSize) {
+        sizeFlushes++;
+        // Delivered right away, the scheduled flush then finds an empty buffer or a new batch.
+        platformThreadHandler.post(flushRunnable);
+        flushScheduled = true;
+        return;
+      }
+      if (flushScheduled) {
+        return;
+      }
+      flushScheduled = true;
+    }
+    if (flushIntervalMs > 0) {
+      platformThreadHandler.postDelayed(flushRunnable, flushIntervalMs);
+    } else {
+      platformThreadHandler.post(scheduleFrameFlushRunnable);
+    }
+  }
+
+  /** Delivers the buffered messages. Must be called on the platform thread. */
+  public void flush() {
+    final List<String> messages;
+    synchronized (this) {
+      flushScheduled = false;
+      if (buffer.isEmpty()) {
+        return;
+      }
+      messages = buffer;
+      buffer = new ArrayList<>();
+    }
+    messagesDelivered += messages.size();
+    batchesDelivered++;
+    sink.deliver(messages);
+  }
+
+  /** Drops the buffered messages, which are no longer delivered. */
+  public synchronized void clear() {
+    buffer = new ArrayList<>();
+  }
+
+  /** Returns the message counters. Must be called on the platform thread. */
+  public Map<String, Object> getStats() {
+    final Map<String, Object> stats = new HashMap<>();
+    synchronized (this) {
+      stats.put("messagesReceived", messagesReceived);
+      stats.put("messagesDropped", messagesDropped);
+      stats.put("overflows", overflows);
+      stats.put("sizeFlushes", sizeFlushes);
+      stats.put("bufferedMessages", buffer.size());
+    }
+    stats.put("messagesDelivered", messagesDelivered);
+    stats.put("batchesDelivered", batchesDelivered);
+    return stats;
+  }
+}
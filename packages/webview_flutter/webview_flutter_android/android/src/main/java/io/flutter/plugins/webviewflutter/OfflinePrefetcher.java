@@ -0,0 +1,742 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import androidx.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Downloads pages and their subresources into the {@link OfflineResourceCache} in the background,
+ * so the interceptor can later serve them without the network.
+ *
+ * <p>Downloads run on a small pool of threads, ordered by the priority of their job and then in
+ * the order they were queued. The stylesheets, scripts, images, fonts and media referenced by a
+ * page, and the resources imported by its stylesheets, are downloaded with it. Links to other
+ * pages are not followed: the pages are given as urls, or listed by a manifest. Progress and
+ * completion are sent to Dart as {@code prefetchProgress} and {@code prefetchComplete} events.
+ *
+ * <p>Nothing is downloaded while the cache is disabled. Responses without any freshness
+ * information or validator are kept fresh for {@link #DEFAULT_MAX_AGE_MS}, as they are downloaded
+ * to be served offline. Responses with only an ETag are stored stale, so they are revalidated
+ * when online and still served offline.
+ */
+public class OfflinePrefetcher {
+    static final int DEFAULT_MAX_CONCURRENT_DOWNLOADS = 2;
+    static final long DEFAULT_MAX_AGE_MS = TimeUnit.DAYS.toMillis(1);
+    // Documents larger than this are cached without looking for their subresources.
+    private static final int MAX_PARSED_DOCUMENT_BYTES = 2 * 1024 * 1024;
+    private static final int MAX_MANIFEST_BYTES = 1024 * 1024;
+    private static final int MAX_STYLESHEET_DEPTH = 3;
+    private static final long PROGRESS_INTERVAL_MS = 250;
+
+    private static final Pattern SRC_ATTRIBUTE =
+            Pattern.compile(
+                    "<(?:script|img|source|video|audio|track|embed|iframe)\\b[^>]*?\\bsrc\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)'|([^\\s>]+))",
+                    Pattern.CASE_INSENSITIVE);
+    private static final Pattern POSTER_ATTRIBUTE =
+            Pattern.compile(
+                    "<video\\b[^>]*?\\bposter\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)'|([^\\s>]+))",
+                    Pattern.CASE_INSENSITIVE);
+    private static final Pattern SRCSET_ATTRIBUTE =
+            Pattern.compile("\\bsrcset\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)')", Pattern.CASE_INSENSITIVE);
+    private static final Pattern LINK_TAG = Pattern.compile("<link\\b[^>]*>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern REL_ATTRIBUTE =
+            Pattern.compile("\\brel\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)'|([^\\s>]+))", Pattern.CASE_INSENSITIVE);
+    private static final Pattern HREF_ATTRIBUTE =
+            Pattern.compile("\\bhref\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)'|([^\\s>]+))", Pattern.CASE_INSENSITIVE);
+    private static final Pattern BASE_TAG =
+            Pattern.compile(
+                    "<base\\b[^>]*?\\bhref\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)'|([^\\s>]+))",
+                    Pattern.CASE_INSENSITIVE);
+    private static final Pattern CSS_URL =
+            Pattern.compile("url\\(\\s*(?:\"([^\"]*)\"|'([^']*)'|([^)\\s]+))\\s*\\)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CSS_IMPORT =
+            Pattern.compile("@import\\s+(?:\"([^\"]*)\"|'([^']*)')", Pattern.CASE_INSENSITIVE);
+    private static final Set<String> PREFETCHED_LINK_RELS = new HashSet<>();
+
+    static {
+        PREFETCHED_LINK_RELS.add("stylesheet");
+        PREFETCHED_LINK_RELS.add("icon");
+        PREFETCHED_LINK_RELS.add("apple-touch-icon");
+        PREFETCHED_LINK_RELS.add("preload");
+        PREFETCHED_LINK_RELS.add("modulepreload");
+        PREFETCHED_LINK_RELS.add("manifest");
+    }
+
+    /**
+     * The options of a prefetch job.
+     */
+    public static class Request {
+        final String jobId;
+        final List<String> urls = new ArrayList<>();
+        @Nullable
+        String manifestUrl;
+        int priority;
+        boolean subresources = true;
+        long maxAgeMs;
+        final Map<String, String> headers = new HashMap<>();
+
+        public Request(String jobId) {
+            this.jobId = jobId;
+        }
+
+        public Request addUrl(String url) {
+            urls.add(url);
+            return this;
+        }
+
+        /**
+         * Sets a manifest listing more pages: a JSON array of urls, a JSON object with a {@code
+         * urls} array, or one url per line with {@code #} comments.
+         */
+        public Request setManifestUrl(@Nullable String manifestUrl) {
+            this.manifestUrl = manifestUrl;
+            return this;
+        }
+
+        /**
+         * Sets the priority of the job. Downloads of jobs with a higher priority run first.
+         */
+        public Request setPriority(int priority) {
+            this.priority = priority;
+            return this;
+        }
+
+        /**
+         * Sets whether the subresources of the pages are downloaded, true by default.
+         */
+        public Request setSubresources(boolean subresources) {
+            this.subresources = subresources;
+            return this;
+        }
+
+        /**
+         * Keeps the downloaded resources fresh for at least {@code maxAgeMs}, so they are served
+         * from the cache without revalidation whatever their caching headers.
+         */
+        public Request setMaxAgeMs(long maxAgeMs) {
+            this.maxAgeMs = maxAgeMs;
+            return this;
+        }
+
+        public Request putHeader(String name, String value) {
+            headers.put(name, value);
+            return this;
+        }
+    }
+
+    private enum Kind {
+        MANIFEST,
+        PAGE,
+        STYLESHEET,
+        RESOURCE
+    }
+
+    private enum Outcome {
+        DOWNLOADED,
+        UP_TO_DATE,
+        NOT_STORED
+    }
+
+    private final class Job {
+        final Request request;
+        final long instanceId;
+        volatile boolean cancelled;
+
+        // Guarded by this.
+        final Set<String> queuedUrls = new HashSet<>();
+        int pending;
+        int downloaded;
+        int upToDate;
+        int failed;
+        long bytes;
+        long lastProgressTime;
+
+        Job(Request request, long instanceId) {
+            this.request = request;
+            this.instanceId = instanceId;
+        }
+
+        JSONObject toEvent(String name) throws JSONException {
+            final JSONObject event = new JSONObject();
+            event.put("event", name);
+            event.put("jobId", request.jobId);
+            event.put("total", queuedUrls.size());
+            event.put("pending", pending);
+            event.put("downloaded", downloaded);
+            event.put("upToDate", upToDate);
+            event.put("failed", failed);
+            event.put("bytes", bytes);
+            event.put("cancelled", cancelled);
+            return event;
+        }
+    }
+
+    private final class Task implements Runnable, Comparable<Task> {
+        final Job job;
+        final String url;
+        final Kind kind;
+        final int depth;
+        final long sequence = sequenceCounter.getAndIncrement();
+        // The size of the downloaded body.
+        long bytes;
+
+        Task(Job job, String url, Kind kind, int depth) {
+            this.job = job;
+            this.url = url;
+            this.kind = kind;
+            this.depth = depth;
+        }
+
+        @Override
+        public void run() {
+            Outcome outcome = null;
+            boolean failed = false;
+            if (!cache.isEnabled()) {
+                // The cache was disabled while the job was running.
+                job.cancelled = true;
+            }
+            if (!job.cancelled) {
+                try {
+                    if (kind == Kind.MANIFEST) {
+                        queueManifestPages(this);
+                        outcome = Outcome.NOT_STORED;
+                    } else {
+                        outcome = prefetch(this);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    // The other downloads of the job go on.
+                    failed = !job.cancelled;
+                }
+            }
+            onTaskDone(job, outcome, failed, bytes);
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            if (job.request.priority != other.job.request.priority) {
+                return job.request.priority > other.job.request.priority ? -1 : 1;
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private final OfflineResourceCache cache;
+    private final InterceptorHttpClient httpClient;
+    @Nullable
+    private final CustomFlutterApiImpl flutterApi;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong sequenceCounter = new AtomicLong();
+    // Guarded by itself.
+    private final Map<String, Job> jobs = new HashMap<>();
+    private final AtomicLong totalDownloaded = new AtomicLong();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final AtomicLong totalFailed = new AtomicLong();
+
+    /**
+     * Creates a prefetcher storing into {@code cache}.
+     *
+     * @param cache                  the store the interceptor serves from
+     * @param httpClient             sends the requests, with the cookies of the WebViews
+     * @param flutterApi             sends the progress of the jobs to Dart
+     * @param maxConcurrentDownloads the number of downloads running at the same time
+     */
+    public OfflinePrefetcher(
+            OfflineResourceCache cache,
+            InterceptorHttpClient httpClient,
+            @Nullable CustomFlutterApiImpl flutterApi,
+            int maxConcurrentDownloads) {
+        this.cache = cache;
+        this.httpClient = httpClient;
+        this.flutterApi = flutterApi;
+        final int threads = Math.max(1, maxConcurrentDownloads);
+        final AtomicInteger threadCount = new AtomicInteger();
+        executor =
+                new ThreadPoolExecutor(
+                        threads,
+                        threads,
+                        30,
+                        TimeUnit.SECONDS,
+                        new PriorityBlockingQueue<Runnable>(),
+                        new ThreadFactory() {
+                            @Override
+                            public Thread newThread(Runnable runnable) {
+                                final Thread thread =
+                                        new Thread(runnable, "WebViewPrefetch-" + threadCount.incrementAndGet());
+                                thread.setPriority(Thread.MIN_PRIORITY);
+                                return thread;
+                            }
+                        });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Starts a job, replacing a running job with the same id.
+     *
+     * @param instanceId the instance the events of the job are sent for
+     * @return false if the job wasn't started because the cache is disabled
+     */
+    public boolean prefetch(Request request, long instanceId) {
+        if (!cache.isEnabled()) {
+            return false;
+        }
+        final Job job = new Job(request, instanceId);
+        final Job previous;
+        synchronized (jobs) {
+            previous = jobs.put(request.jobId, job);
+        }
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        synchronized (job) {
+            // Held while queueing, so the job can't complete before all its urls are queued.
+            job.pending++;
+            if (request.manifestUrl != null) {
+                queue(job, request.manifestUrl, Kind.MANIFEST, 0);
+            }
+            for (String url : request.urls) {
+                queue(job, url, Kind.PAGE, 0);
+            }
+        }
+        onTaskDone(job, null, false, 0);
+        return true;
+    }
+
+    /**
+     * Cancels a job. Its queued downloads are dropped, and the running ones stop at their next read.
+     *
+     * @return whether the job was running
+     */
+    public boolean cancel(String jobId) {
+        final Job job;
+        synchronized (jobs) {
+            job = jobs.get(jobId);
+        }
+        if (job == null) {
+            return false;
+        }
+        job.cancelled = true;
+        return true;
+    }
+
+    public Map<String, Object> getStats() {
+        final Map<String, Object> stats = new HashMap<>();
+        synchronized (jobs) {
+            stats.put("activeJobs", jobs.size());
+        }
+        stats.put("queuedDownloads", executor.getQueue().size());
+        stats.put("downloaded", totalDownloaded.get());
+        stats.put("failed", totalFailed.get());
+        stats.put("bytes", totalBytes.get());
+        return stats;
+    }
+
+    private void queue(Job job, String url, Kind kind, int depth) {
+        synchronized (job) {
+            if (job.cancelled || !job.queuedUrls.add(url)) {
+                return;
+            }
+            job.pending++;
+        }
+        executor.execute(new Task(job, url, kind, depth));
+    }
+
+    /**
+     * Downloads the resource of {@code task} into the cache unless a fresh copy is cached, and
+     * queues its subresources.
+     */
+    private Outcome prefetch(Task task) throws IOException {
+        final Job job = task.job;
+        final long now = System.currentTimeMillis();
+        final OfflineResourceCache.Entry cached = cache.peek(task.url);
+        if (cached != null && cached.isFresh(now)) {
+            queueSubresources(task, cached.getFile(), cached.getMimeType(), cached.getEncoding());
+            return Outcome.UP_TO_DATE;
+        }
+
+        final Map<String, String> headers = new HashMap<>(job.request.headers);
+        if (cached != null) {
+            if (cached.getEtag() != null) {
+                headers.put("If-None-Match", cached.getEtag());
+            }
+            if (cached.getLastModified() != null) {
+                headers.put("If-Modified-Since", cached.getLastModified());
+            }
+        }
+        final InterceptorHttpClient.Exchange exchange = httpClient.execute(task.url, headers);
+        final int responseCode = exchange.getResponseCode();
+        if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+            exchange.close();
+            cache.refresh(cached, computeExpiresAt(exchange, job, now));
+            queueSubresources(task, cached.getFile(), cached.getMimeType(), cached.getEncoding());
+            return Outcome.UP_TO_DATE;
+        }
+        if (responseCode >= HttpURLConnection.HTTP_MULT_CHOICE
+                && responseCode < HttpURLConnection.HTTP_BAD_REQUEST) {
+            // The target is not stored under the url of the redirect, the interceptor leaves
+            // redirects to the WebView.
+            exchange.close();
+            return Outcome.NOT_STORED;
+        }
+        if (responseCode != HttpURLConnection.HTTP_OK) {
+            exchange.close();
+            throw new IOException("Unexpected response " + responseCode + " for " + task.url);
+        }
+        final long expiresAt = computeExpiresAt(exchange, job, now);
+        if (expiresAt < 0) {
+            exchange.close();
+            return Outcome.NOT_STORED;
+        }
+
+        final String contentType = exchange.getContentType();
+        final String mimeType = getMimeType(contentType);
+        final String charset = getCharset(contentType);
+        final File file = cache.newBodyFile();
+        try (InputStream inputStream = exchange.getBody();
+             OutputStream outputStream = new FileOutputStream(file)) {
+            final byte[] buffer = new byte[16 * 1024];
+            int count;
+            while ((count = inputStream.read(buffer)) != -1) {
+                if (job.cancelled) {
+                    throw new IOException("Cancelled");
+                }
+                outputStream.write(buffer, 0, count);
+            }
+        } catch (IOException e) {
+            file.delete();
+            throw e;
+        }
+        final OfflineResourceCache.Entry entry =
+                cache.put(
+                        task.url,
+                        file,
+                        mimeType,
+                        charset,
+                        exchange.getHeaderField("ETag"),
+                        exchange.getHeaderField("Last-Modified"),
+                        exchange.getHeaderFields(),
+                        expiresAt);
+        if (entry == null) {
+            return Outcome.NOT_STORED;
+        }
+        task.bytes = entry.getSize();
+        queueSubresources(task, entry.getFile(), mimeType, charset);
+        return Outcome.DOWNLOADED;
+    }
+
+    private void queueManifestPages(Task task) throws IOException {
+        final InterceptorHttpClient.Exchange exchange =
+                httpClient.execute(task.url, new HashMap<>(task.job.request.headers));
+        if (exchange.getResponseCode() != HttpURLConnection.HTTP_OK) {
+            exchange.close();
+            throw new IOException("Unexpected response " + exchange.getResponseCode() + " for " + task.url);
+        }
+        final String manifest;
+        try (InputStream inputStream = exchange.getBody()) {
+            manifest = readText(inputStream, MAX_MANIFEST_BYTES, getCharset(exchange.getContentType()));
+        }
+        for (String url : parseManifest(manifest)) {
+            final String resolved = resolveUrl(task.url, url);
+            if (resolved != null) {
+                queue(task.job, resolved, Kind.PAGE, 0);
+            }
+        }
+    }
+
+    private void queueSubresources(
+            Task task, File file, @Nullable String mimeType, @Nullable String charset)
+            throws IOException {
+        if (!task.job.request.subresources || file.length() > MAX_PARSED_DOCUMENT_BYTES) {
+            return;
+        }
+        final boolean isPage = task.kind == Kind.PAGE && "text/html".equals(mimeType);
+        final boolean isStylesheet =
+                "text/css".equals(mimeType) && task.depth < MAX_STYLESHEET_DEPTH;
+        if (!isPage && !isStylesheet) {
+            return;
+        }
+        final String text;
+        try (InputStream inputStream = new FileInputStream(file)) {
+            text = readText(inputStream, MAX_PARSED_DOCUMENT_BYTES, charset);
+        }
+        final List<String> urls = isPage ? findPageSubresources(text) : findStylesheetSubresources(text);
+        final String baseUrl = isPage ? findBaseUrl(task.url, text) : task.url;
+        for (String url : urls) {
+            final String resolved = resolveUrl(baseUrl, url);
+            if (resolved != null) {
+                queue(
+                        task.job,
+                        resolved,
+                        isStylesheetUrl(resolved) ? Kind.STYLESHEET : Kind.RESOURCE,
+                        task.depth + 1);
+            }
+        }
+    }
+
+    /**
+     * Counts a finished download of {@code job}, and sends the progress of the job or its completion
+     * once nothing is pending.
+     *
+     * @param outcome the outcome of the download, or null if it failed or was cancelled
+     */
+    private void onTaskDone(Job job, @Nullable Outcome outcome, boolean failed, long bytes) {
+        final JSONObject event;
+        try {
+            synchronized (job) {
+                job.pending--;
+                if (outcome == Outcome.DOWNLOADED) {
+                    job.downloaded++;
+                    job.bytes += bytes;
+                    totalDownloaded.incrementAndGet();
+                    totalBytes.addAndGet(bytes);
+                } else if (outcome == Outcome.UP_TO_DATE) {
+                    job.upToDate++;
+                } else if (failed) {
+                    job.failed++;
+                    totalFailed.incrementAndGet();
+                }
+                if (job.pending == 0) {
+                    synchronized (jobs) {
+                        if (jobs.get(job.request.jobId) == job) {
+                            jobs.remove(job.request.jobId);
+                        }
+                    }
+                    event = job.toEvent("prefetchComplete");
+                } else {
+                    final long now = System.currentTimeMillis();
+                    if (now - job.lastProgressTime < PROGRESS_INTERVAL_MS) {
+                        return;
+                    }
+                    job.lastProgressTime = now;
+                    event = job.toEvent("prefetchProgress");
+                }
+            }
+        } catch (JSONException e) {
+            return;
+        }
+        if (flutterApi != null) {
+            flutterApi.sendEventForInstanceId(job.instanceId, event);
+        }
+    }
+
+    private static long computeExpiresAt(InterceptorHttpClient.Exchange exchange, Job job, long now) {
+        final String cacheControl = exchange.getHeaderField("Cache-Control");
+        final String expires = exchange.getHeaderField("Expires");
+        final String lastModified = exchange.getHeaderField("Last-Modified");
+        final String etag = exchange.getHeaderField("ETag");
+        final long expiresAt =
+                OfflineResourceCache.computeExpiresAt(now, cacheControl, expires, lastModified, etag);
+        if (cacheControl == null && expires == null && lastModified == null && etag == null) {
+            // Without freshness information nor validator, the cache would not store the response.
+            return now + (job.request.maxAgeMs > 0 ? job.request.maxAgeMs : DEFAULT_MAX_AGE_MS);
+        }
+        if (expiresAt < 0 || job.request.maxAgeMs <= 0) {
+            return expiresAt;
+        }
+        return Math.max(expiresAt, now + job.request.maxAgeMs);
+    }
+
+    /**
+     * Returns the urls of the resources loaded by a page: scripts, images, media, frames, and the
+     * stylesheets, icons and preloads it links, and the urls of its inline styles.
+     */
+    static List<String> findPageSubresources(String html) {
+        final List<String> urls = new ArrayList<>();
+        addMatches(SRC_ATTRIBUTE.matcher(html), urls);
+        addMatches(POSTER_ATTRIBUTE.matcher(html), urls);
+        final Matcher srcset = SRCSET_ATTRIBUTE.matcher(html);
+        while (srcset.find()) {
+            for (String candidate : firstGroup(srcset).split(",")) {
+                final String url = candidate.trim().split("\\s+")[0];
+                if (!url.isEmpty()) {
+                    urls.add(url);
+                }
+            }
+        }
+        final Matcher link = LINK_TAG.matcher(html);
+        while (link.find()) {
+            final Matcher rel = REL_ATTRIBUTE.matcher(link.group());
+            final Matcher href = HREF_ATTRIBUTE.matcher(link.group());
+            if (!rel.find() || !href.find()) {
+                continue;
+            }
+            for (String value : firstGroup(rel).toLowerCase(Locale.US).split("\\s+")) {
+                if (PREFETCHED_LINK_RELS.contains(value)) {
+                    urls.add(firstGroup(href));
+                    break;
+                }
+            }
+        }
+        urls.addAll(findStylesheetSubresources(html));
+        return urls;
+    }
+
+    /**
+     * Returns the urls of the images, fonts and stylesheets imported by a stylesheet.
+     */
+    static List<String> findStylesheetSubresources(String css) {
+        final List<String> urls = new ArrayList<>();
+        addMatches(CSS_URL.matcher(css), urls);
+        addMatches(CSS_IMPORT.matcher(css), urls);
+        return urls;
+    }
+
+    /**
+     * Returns the urls listed by a manifest.
+     */
+    static List<String> parseManifest(String manifest) {
+        final List<String> urls = new ArrayList<>();
+        final String trimmed = manifest.trim();
+        try {
+            if (trimmed.startsWith("[") || trimmed.startsWith("{")) {
+                final JSONArray array =
+                        trimmed.startsWith("[")
+                                ? new JSONArray(trimmed)
+                                : new JSONObject(trimmed).getJSONArray("urls");
+                for (int i = 0; i < array.length(); i++) {
+                    urls.add(array.getString(i));
+                }
+                return urls;
+            }
+        } catch (JSONException e) {
+            return urls;
+        }
+        for (String line : trimmed.split("\\r?\\n")) {
+            final String url = line.trim();
+            if (!url.isEmpty() && !url.startsWith("#")) {
+                urls.add(url);
+            }
+        }
+        return urls;
+    }
+
+    /**
+     * Resolves {@code url} against {@code baseUrl}, without its fragment.
+     *
+     * @return the absolute http or https url, or null for other schemes and invalid urls
+     */
+    @Nullable
+    static String resolveUrl(String baseUrl, String url) {
+        final String trimmed = url.trim().replace("&amp;", "&").replace(" ", "%20");
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+            return null;
+        }
+        try {
+            final URI resolved = new URI(baseUrl).resolve(trimmed);
+            final String scheme = resolved.getScheme();
+            if (!"http".equalsIgnoreCase(scheme) && !"https".equalsIgnoreCase(scheme)) {
+                return null;
+            }
+            final String resolvedUrl = resolved.toString();
+            final int fragment = resolvedUrl.indexOf('#');
+            return fragment >= 0 ? resolvedUrl.substring(0, fragment) : resolvedUrl;
+        } catch (IllegalArgumentException | URISyntaxException e) {
+            return null;
+        }
+    }
+
+    private static String findBaseUrl(String pageUrl, String html) {
+        final Matcher base = BASE_TAG.matcher(html);
+        if (base.find()) {
+            final String resolved = resolveUrl(pageUrl, firstGroup(base));
+            if (resolved != null) {
+                return resolved;
+            }
+        }
+        return pageUrl;
+    }
+
+    private static boolean isStylesheetUrl(String url) {
+        final int query = url.indexOf('?');
+        return (query >= 0 ? url.substring(0, query) : url).toLowerCase(Locale.US).endsWith(".css");
+    }
+
+    private static void addMatches(Matcher matcher, List<String> urls) {
+        while (matcher.find()) {
+            urls.add(firstGroup(matcher));
+        }
+    }
+
+    /**
+     * Returns the first group that matched, as the patterns have one group per quoting style.
+     */
+    private static String firstGroup(Matcher matcher) {
+        for (int i = 1; i <= matcher.groupCount(); i++) {
+            if (matcher.group(i) != null) {
+                return matcher.group(i);
+            }
+        }
+        return "";
+    }
+
+    private static String readText(InputStream inputStream, int maxBytes, @Nullable String charset)
+            throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[16 * 1024];
+        int count;
+        while ((count = inputStream.read(buffer)) != -1 && outputStream.size() < maxBytes) {
+            outputStream.write(buffer, 0, Math.min(count, maxBytes - outputStream.size()));
+        }
+        Charset decoding;
+        try {
+            decoding = charset != null ? Charset.forName(charset) : Charset.forName("UTF-8");
+        } catch (IllegalArgumentException e) {
+            decoding = Charset.forName("UTF-8");
+        }
+        return new String(outputStream.toByteArray(), decoding);
+    }
+
+    @Nullable
+    private static String getMimeType(@Nullable String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        return contentType.split(";")[0].trim().toLowerCase(Locale.US);
+    }
+
+    @Nullable
+    private static String getCharset(@Nullable String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        for (String parameter : contentType.split(";")) {
+            final String[] pair = parameter.trim().split("=", 2);
+            if (pair.length == 2 && pair[0].trim().equalsIgnoreCase("charset")) {
+                return pair[1].trim().replace("\"", "");
+            }
+        }
+        return null;
+    }
+}
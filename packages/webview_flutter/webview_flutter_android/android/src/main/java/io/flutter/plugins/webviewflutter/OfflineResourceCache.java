@@ -0,0 +1,640 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Persistent cache of web resources consulted by {@link WebViewClientFlutterApiImpl} when
+ * intercepting requests, so cached resources are served without a round trip to Dart.
+ *
+ * <p>Entries are keyed by url and keep the mime type, encoding, validators (ETag and
+ * Last-Modified) and replayable headers of the response next to its body file. The least recently
+ * used entries are evicted once the bodies exceed the maximum size. The index is persisted in the cache directory
+ * on a background thread, at most once every {@link #INDEX_WRITE_DELAY_MS}, and when the cache is
+ * closed.
+ */
+public class OfflineResourceCache {
+    static final long DEFAULT_MAX_SIZE_BYTES = 50L * 1024 * 1024;
+    static final String INDEX_FILE_NAME = "index";
+    static final long INDEX_WRITE_DELAY_MS = 2000;
+
+    private static final int INDEX_VERSION = 2;
+    // Urls are stored with DataOutputStream#writeUTF, limited to 65535 bytes.
+    private static final int MAX_URL_LENGTH = 16 * 1024;
+    private static final Pattern MAX_AGE = Pattern.compile("(?:^|[,\\s])max-age\\s*=\\s*\"?(\\d+)");
+    // Heuristic freshness of responses with a Last-Modified header only, as suggested by RFC 7234.
+    private static final double LAST_MODIFIED_FRESHNESS_FRACTION = 0.1;
+    // Headers describing the transfer or the exchange rather than the resource, or that must not be
+    // replayed, are not stored.
+    private static final Set<String> UNSTORED_HEADERS =
+            new HashSet<>(
+                    Arrays.asList(
+                            "age",
+                            "connection",
+                            "content-encoding",
+                            "content-length",
+                            "date",
+                            "keep-alive",
+                            "set-cookie",
+                            "set-cookie2",
+                            "transfer-encoding"));
+
+    /**
+     * A cached response. The body is stored in {@link #getFile()}.
+     */
+    public static final class Entry {
+        final String url;
+        final String fileName;
+        @Nullable
+        final String mimeType;
+        @Nullable
+        final String encoding;
+        @Nullable
+        final String etag;
+        @Nullable
+        final String lastModified;
+        final Map<String, String> headers;
+        final long size;
+        long expiresAt;
+        long lastAccess;
+        private File file;
+
+        Entry(
+                String url,
+                String fileName,
+                @Nullable String mimeType,
+                @Nullable String encoding,
+                @Nullable String etag,
+                @Nullable String lastModified,
+                Map<String, String> headers,
+                long size,
+                long expiresAt,
+                long lastAccess) {
+            this.url = url;
+            this.fileName = fileName;
+            this.mimeType = mimeType;
+            this.encoding = encoding;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.headers = Collections.unmodifiableMap(headers);
+            this.size = size;
+            this.expiresAt = expiresAt;
+            this.lastAccess = lastAccess;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        @Nullable
+        public String getMimeType() {
+            return mimeType;
+        }
+
+        @Nullable
+        public String getEncoding() {
+            return encoding;
+        }
+
+        @Nullable
+        public String getEtag() {
+            return etag;
+        }
+
+        @Nullable
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * Returns the response headers replayed when the entry is served.
+         */
+        public Map<String, String> getHeaders() {
+            return headers;
+        }
+
+        public boolean isFresh(long now) {
+            return now < expiresAt;
+        }
+
+        /**
+         * Whether the entry can be revalidated with a conditional request once stale.
+         */
+        public boolean hasValidators() {
+            return etag != null || lastModified != null;
+        }
+    }
+
+    private final File directory;
+    // Access ordered, the eldest entry is the least recently used.
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ScheduledExecutorService indexExecutor =
+            Executors.newSingleThreadScheduledExecutor();
+    private final AtomicBoolean indexWriteScheduled = new AtomicBoolean();
+    private boolean indexDirty;
+    private boolean indexLoaded;
+    private long totalSize;
+    private long maxSizeBytes = DEFAULT_MAX_SIZE_BYTES;
+    private volatile boolean enabled;
+
+    private long hits;
+    private long misses;
+    private long revalidations;
+    private long evictions;
+
+    /**
+     * Creates a cache storing its index and bodies in {@code directory}. The index is read lazily on
+     * first use.
+     */
+    public OfflineResourceCache(File directory) {
+        this.directory = directory;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public synchronized void setMaxSizeBytes(long maxSizeBytes) {
+        this.maxSizeBytes = maxSizeBytes;
+        loadIndexIfNeeded();
+        if (trimToSize(null)) {
+            markIndexDirty();
+        }
+    }
+
+    /**
+     * Returns the entry for {@code url} and marks it as recently used, or null if the url is not
+     * cached.
+     */
+    @Nullable
+    public synchronized Entry get(String url) {
+        loadIndexIfNeeded();
+        final Entry entry = entries.get(url);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (!entry.file.exists()) {
+            removeEntry(entry);
+            markIndexDirty();
+            misses++;
+            return null;
+        }
+        entry.lastAccess = System.currentTimeMillis();
+        hits++;
+        markIndexDirty();
+        return entry;
+    }
+
+    /**
+     * Returns the entry for {@code url} without counting a hit or a miss nor marking it as recently
+     * used, or null if the url is not cached.
+     */
+    @Nullable
+    public synchronized Entry peek(String url) {
+        loadIndexIfNeeded();
+        final Entry entry = entries.get(url);
+        return entry != null && entry.file.exists() ? entry : null;
+    }
+
+    /**
+     * Returns a new file in the cache directory to write a body into before {@link #put}.
+     */
+    public synchronized File newBodyFile() {
+        // Loading the index deletes files missing from it, so it must not happen mid write.
+        loadIndexIfNeeded();
+        directory.mkdirs();
+        return new File(directory, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Adds the response written in {@code bodyFile} without headers to replay, replacing any entry
+     * for the same url.
+     *
+     * @return the new entry, or null if the response is too large to be cached and was deleted
+     */
+    @Nullable
+    public Entry put(
+            String url,
+            File bodyFile,
+            @Nullable String mimeType,
+            @Nullable String encoding,
+            @Nullable String etag,
+            @Nullable String lastModified,
+            long expiresAt) {
+        return put(
+                url,
+                bodyFile,
+                mimeType,
+                encoding,
+                etag,
+                lastModified,
+                Collections.<String, List<String>>emptyMap(),
+                expiresAt);
+    }
+
+    /**
+     * Adds the response written in {@code bodyFile}, replacing any entry for the same url.
+     *
+     * @param headerFields the response headers, of which the ones describing the resource are
+     *                     stored and replayed when the entry is served
+     * @return the new entry, or null if the response is too large to be cached and was deleted
+     */
+    @Nullable
+    public synchronized Entry put(
+            String url,
+            File bodyFile,
+            @Nullable String mimeType,
+            @Nullable String encoding,
+            @Nullable String etag,
+            @Nullable String lastModified,
+            Map<String, List<String>> headerFields,
+            long expiresAt) {
+        loadIndexIfNeeded();
+        final Entry previous = entries.get(url);
+        if (previous != null) {
+            removeEntry(previous);
+        }
+        final long size = bodyFile.length();
+        if (size > maxSizeBytes || url.length() > MAX_URL_LENGTH) {
+            bodyFile.delete();
+            markIndexDirty();
+            return null;
+        }
+        final Entry entry =
+                new Entry(
+                        url,
+                        bodyFile.getName(),
+                        mimeType,
+                        encoding,
+                        etag,
+                        lastModified,
+                        selectStoredHeaders(headerFields),
+                        size,
+                        expiresAt,
+                        System.currentTimeMillis());
+        entry.file = bodyFile;
+        entries.put(url, entry);
+        totalSize += size;
+        trimToSize(entry);
+        markIndexDirty();
+        return entry;
+    }
+
+    /**
+     * Updates the expiry of an entry after a successful revalidation.
+     */
+    public synchronized void refresh(Entry entry, long expiresAt) {
+        entry.expiresAt = expiresAt;
+        entry.lastAccess = System.currentTimeMillis();
+        revalidations++;
+        markIndexDirty();
+    }
+
+    public synchronized void remove(String url) {
+        loadIndexIfNeeded();
+        final Entry entry = entries.get(url);
+        if (entry != null) {
+            removeEntry(entry);
+            markIndexDirty();
+        }
+    }
+
+    public synchronized void clear() {
+        loadIndexIfNeeded();
+        for (Entry entry : entries.values()) {
+            entry.file.delete();
+        }
+        entries.clear();
+        totalSize = 0;
+        markIndexDirty();
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        loadIndexIfNeeded();
+        final Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("entryCount", entries.size());
+        stats.put("sizeBytes", totalSize);
+        stats.put("maxSizeBytes", maxSizeBytes);
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("revalidations", revalidations);
+        stats.put("evictions", evictions);
+        return stats;
+    }
+
+    /**
+     * Computes when a response stops being fresh from its caching headers.
+     *
+     * <p>A response without freshness information is only stored when it has a validator, and is
+     * revalidated on every use.
+     *
+     * @return the expiry time in milliseconds, or -1 if the response must not be stored
+     */
+    static long computeExpiresAt(
+            long now,
+            @Nullable String cacheControl,
+            @Nullable String expires,
+            @Nullable String lastModified,
+            @Nullable String etag) {
+        if (cacheControl != null) {
+            final String directives = cacheControl.toLowerCase(Locale.US);
+            if (directives.contains("no-store")) {
+                return -1;
+            }
+            if (directives.contains("no-cache")) {
+                return now;
+            }
+            final Matcher maxAge = MAX_AGE.matcher(directives);
+            if (maxAge.find()) {
+                try {
+                    return now + Long.parseLong(maxAge.group(1)) * 1000;
+                } catch (NumberFormatException e) {
+                    return now;
+                }
+            }
+        }
+        if (expires != null) {
+            final long expiresTime = parseHttpDate(expires);
+            return expiresTime < 0 ? now : expiresTime;
+        }
+        if (lastModified != null) {
+            final long lastModifiedTime = parseHttpDate(lastModified);
+            if (lastModifiedTime >= 0 && lastModifiedTime < now) {
+                return now + (long) ((now - lastModifiedTime) * LAST_MODIFIED_FRESHNESS_FRACTION);
+            }
+            return now;
+        }
+        return etag != null ? now : -1;
+    }
+
+    /**
+     * Returns the headers of {@code headerFields} to replay with a cached body, with the values of
+     * repeated headers joined by commas.
+     */
+    static Map<String, String> selectStoredHeaders(Map<String, List<String>> headerFields) {
+        final Map<String, String> headers = new HashMap<>();
+        for (Map.Entry<String, List<String>> header : headerFields.entrySet()) {
+            final String name = header.getKey();
+            // HttpURLConnection reports the status line with a null name.
+            if (name == null
+                    || header.getValue() == null
+                    || UNSTORED_HEADERS.contains(name.toLowerCase(Locale.US))) {
+                continue;
+            }
+            final StringBuilder value = new StringBuilder();
+            for (String headerValue : header.getValue()) {
+                if (value.length() > 0) {
+                    value.append(',');
+                }
+                value.append(headerValue);
+            }
+            headers.put(name, value.toString());
+        }
+        return headers;
+    }
+
+    private static long parseHttpDate(String date) {
+        final SimpleDateFormat format =
+                new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        try {
+            return format.parse(date).getTime();
+        } catch (ParseException e) {
+            return -1;
+        }
+    }
+
+    private void removeEntry(Entry entry) {
+        entries.remove(entry.url);
+        totalSize -= entry.size;
+        entry.file.delete();
+    }
+
+    /**
+     * Evicts the least recently used entries, other than {@code keep}, until the cache fits.
+     */
+    private boolean trimToSize(@Nullable Entry keep) {
+        boolean trimmed = false;
+        final Iterator<Entry> iterator = entries.values().iterator();
+        while (totalSize > maxSizeBytes && iterator.hasNext()) {
+            final Entry entry = iterator.next();
+            if (entry == keep) {
+                continue;
+            }
+            iterator.remove();
+            totalSize -= entry.size;
+            entry.file.delete();
+            evictions++;
+            trimmed = true;
+        }
+        return trimmed;
+    }
+
+    private void loadIndexIfNeeded() {
+        if (indexLoaded) {
+            return;
+        }
+        indexLoaded = true;
+        final File indexFile = new File(directory, INDEX_FILE_NAME);
+        final List<Entry> loaded = new ArrayList<>();
+        if (indexFile.exists()) {
+            try (DataInputStream in =
+                         new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+                if (in.readInt() == INDEX_VERSION) {
+                    final int count = in.readInt();
+                    for (int i = 0; i < count; i++) {
+                        loaded.add(readEntry(in));
+                    }
+                }
+            } catch (IOException e) {
+                // A corrupt index loses the cache, the orphaned bodies are deleted below.
+                loaded.clear();
+            }
+        }
+        Collections.sort(loaded, (a, b) -> Long.compare(a.lastAccess, b.lastAccess));
+        final Set<String> fileNames = new HashSet<>();
+        for (Entry entry : loaded) {
+            entry.file = new File(directory, entry.fileName);
+            if (entry.file.exists()) {
+                entries.put(entry.url, entry);
+                totalSize += entry.size;
+                fileNames.add(entry.fileName);
+            }
+        }
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (!file.getName().equals(INDEX_FILE_NAME) && !fileNames.contains(file.getName())) {
+                    file.delete();
+                }
+            }
+        }
+    }
+
+    /**
+     * Schedules a write of the index, so a burst of changes is persisted once.
+     */
+    private void markIndexDirty() {
+        indexDirty = true;
+        if (indexWriteScheduled.compareAndSet(false, true)) {
+            try {
+                indexExecutor.schedule(
+                        () -> {
+                            indexWriteScheduled.set(false);
+                            writeIndexIfDirty();
+                        },
+                        INDEX_WRITE_DELAY_MS,
+                        TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // The cache was closed, and the index was written then.
+                indexWriteScheduled.set(false);
+            }
+        }
+    }
+
+    private void writeIndexIfDirty() {
+        synchronized (this) {
+            if (!indexDirty) {
+                return;
+            }
+        }
+        writeIndex();
+    }
+
+    /**
+     * Writes the pending changes of the index to disk and stops the index thread.
+     */
+    public void close() {
+        indexExecutor.shutdownNow();
+        writeIndexIfDirty();
+    }
+
+    /**
+     * Writes the index to disk. Called on the index thread, and by tests.
+     */
+    void writeIndex() {
+        final List<Entry> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(entries.values());
+            indexDirty = false;
+        }
+        directory.mkdirs();
+        final File indexFile = new File(directory, INDEX_FILE_NAME);
+        final File tempFile = new File(directory, INDEX_FILE_NAME + ".tmp");
+        try (DataOutputStream out =
+                     new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+            out.writeInt(INDEX_VERSION);
+            out.writeInt(snapshot.size());
+            for (Entry entry : snapshot) {
+                writeEntry(out, entry);
+            }
+        } catch (IOException e) {
+            tempFile.delete();
+            return;
+        }
+        if (!tempFile.renameTo(indexFile)) {
+            tempFile.delete();
+        }
+    }
+
+    private static void writeEntry(DataOutputStream out, Entry entry) throws IOException {
+        out.writeUTF(entry.url);
+        out.writeUTF(entry.fileName);
+        writeNullableString(out, entry.mimeType);
+        writeNullableString(out, entry.encoding);
+        writeNullableString(out, entry.etag);
+        writeNullableString(out, entry.lastModified);
+        out.writeInt(entry.headers.size());
+        for (Map.Entry<String, String> header : entry.headers.entrySet()) {
+            out.writeUTF(header.getKey());
+            out.writeUTF(header.getValue());
+        }
+        out.writeLong(entry.size);
+        out.writeLong(entry.expiresAt);
+        out.writeLong(entry.lastAccess);
+    }
+
+    @NonNull
+    private static Entry readEntry(DataInputStream in) throws IOException {
+        final String url = in.readUTF();
+        final String fileName = in.readUTF();
+        final String mimeType = readNullableString(in);
+        final String encoding = readNullableString(in);
+        final String etag = readNullableString(in);
+        final String lastModified = readNullableString(in);
+        final int headerCount = in.readInt();
+        final Map<String, String> headers = new HashMap<>();
+        for (int i = 0; i < headerCount; i++) {
+            headers.put(in.readUTF(), in.readUTF());
+        }
+        return new Entry(
+                url,
+                fileName,
+                mimeType,
+                encoding,
+                etag,
+                lastModified,
+                headers,
+                in.readLong(),
+                in.readLong(),
+                in.readLong());
+    }
+
+    private static void writeNullableString(DataOutputStream out, @Nullable String value)
+            throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    @Nullable
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
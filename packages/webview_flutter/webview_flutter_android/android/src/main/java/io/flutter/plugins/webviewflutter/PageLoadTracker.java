@@ -0,0 +1,223 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import android.os.SystemClock;
+import android.webkit.WebView;
+
+import androidx.annotation.Nullable;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Records a timeline of each navigation of the WebViews, and sends it to Dart as one {@code
+ * pageLoadTimeline} event once the page finished loading.
+ *
+ * <p>The timeline has the times of the main frame request, of {@code onPageStarted}, of the first
+ * progress and of {@code onPageFinished}, the Navigation Timing of the page read with JavaScript,
+ * and how the intercepted requests of the navigation were served. Times are in milliseconds since
+ * the start of the navigation.
+ */
+public class PageLoadTracker {
+    /**
+     * How an intercepted request was served.
+     */
+    public enum Source {
+        ASSETS,
+        LOCAL_FILE,
+        CACHE,
+        NETWORK,
+        DART,
+        WEBVIEW
+    }
+
+    // Evaluates to the Navigation Timing of the page, falling back to the deprecated
+    // performance.timing, and to the first contentful paint.
+    static final String NAVIGATION_TIMING_SCRIPT =
+            "(function() {"
+                    + "if (!window.performance) return null;"
+                    + "var t = performance.getEntriesByType"
+                    + " && performance.getEntriesByType('navigation')[0];"
+                    + "var r = {};"
+                    + "if (t) {"
+                    + "r.responseStart = t.responseStart;"
+                    + "r.domInteractive = t.domInteractive;"
+                    + "r.domContentLoaded = t.domContentLoadedEventEnd;"
+                    + "r.loadEventStart = t.loadEventStart;"
+                    + "r.loadEventEnd = t.loadEventEnd;"
+                    + "r.transferSize = t.transferSize;"
+                    + "} else if (performance.timing) {"
+                    + "var o = performance.timing, s = o.navigationStart;"
+                    + "r.responseStart = o.responseStart - s;"
+                    + "r.domInteractive = o.domInteractive - s;"
+                    + "r.domContentLoaded = o.domContentLoadedEventEnd - s;"
+                    + "r.loadEventStart = o.loadEventStart > 0 ? o.loadEventStart - s : 0;"
+                    + "r.loadEventEnd = o.loadEventEnd > 0 ? o.loadEventEnd - s : 0;"
+                    + "}"
+                    + "var p = performance.getEntriesByName"
+                    + " && performance.getEntriesByName('first-contentful-paint')[0];"
+                    + "if (p) r.firstContentfulPaint = p.startTime;"
+                    + "return r;"
+                    + "})()";
+
+    /**
+     * The timeline of one navigation.
+     */
+    static class Navigation {
+        final long startTime;
+        @Nullable
+        String url;
+        long pageStartedTime = -1;
+        long firstProgressTime = -1;
+        long pageFinishedTime = -1;
+        final int[] requestCounts = new int[Source.values().length];
+        long cacheBytes;
+        int errors;
+
+        Navigation(long startTime, @Nullable String url) {
+            this.startTime = startTime;
+            this.url = url;
+        }
+
+        JSONObject toJson() throws JSONException {
+            final JSONObject json = new JSONObject();
+            json.put("url", url);
+            json.put("pageStartedMs", relative(pageStartedTime));
+            json.put("firstProgressMs", relative(firstProgressTime));
+            json.put("pageFinishedMs", relative(pageFinishedTime));
+            final JSONObject requests = new JSONObject();
+            int intercepted = 0;
+            for (Source source : Source.values()) {
+                final int count = requestCounts[source.ordinal()];
+                requests.put(source.name().toLowerCase(Locale.US), count);
+                intercepted += count;
+            }
+            requests.put("intercepted", intercepted);
+            json.put("requests", requests);
+            json.put("cacheBytes", cacheBytes);
+            json.put("errors", errors);
+            return json;
+        }
+
+        private long relative(long time) {
+            return time >= 0 ? time - startTime : -1;
+        }
+    }
+
+    private final CustomFlutterApiImpl flutterApi;
+    // Accessed on the main thread, and on the threads intercepting requests.
+    private final Map<WebView, Navigation> navigations = new WeakHashMap<>();
+    private volatile boolean enabled;
+
+    public PageLoadTracker(CustomFlutterApiImpl flutterApi) {
+        this.flutterApi = flutterApi;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            navigations.clear();
+        }
+    }
+
+    /**
+     * Records a request intercepted for {@code webView}. A main frame request starts a navigation.
+     *
+     * @param cacheBytes the size of the response served from the offline cache, or 0
+     */
+    public void onRequest(WebView webView, boolean isForMainFrame, Source source, long cacheBytes) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            Navigation navigation = navigations.get(webView);
+            if (isForMainFrame && (navigation == null || navigation.pageStartedTime >= 0)) {
+                navigation = new Navigation(now(), null);
+                navigations.put(webView, navigation);
+            }
+            if (navigation == null) {
+                return;
+            }
+            navigation.requestCounts[source.ordinal()]++;
+            navigation.cacheBytes += cacheBytes;
+        }
+    }
+
+    /**
+     * Records {@code onPageStarted}, starting a navigation unless its main frame request was
+     * intercepted.
+     */
+    public synchronized void onPageStarted(WebView webView, String url) {
+        if (!enabled) {
+            return;
+        }
+        Navigation navigation = navigations.get(webView);
+        if (navigation == null || navigation.pageStartedTime >= 0) {
+            navigation = new Navigation(now(), url);
+            navigations.put(webView, navigation);
+        }
+        navigation.url = url;
+        navigation.pageStartedTime = now();
+    }
+
+    public synchronized void onProgressChanged(WebView webView, long progress) {
+        final Navigation navigation = enabled ? navigations.get(webView) : null;
+        if (navigation != null && progress > 0 && navigation.firstProgressTime < 0) {
+            navigation.firstProgressTime = now();
+        }
+    }
+
+    public synchronized void onReceivedError(WebView webView) {
+        final Navigation navigation = enabled ? navigations.get(webView) : null;
+        if (navigation != null) {
+            navigation.errors++;
+        }
+    }
+
+    /**
+     * Ends the navigation, and sends its timeline once the Navigation Timing of the page was read.
+     * Must be called on the main thread.
+     */
+    public void onPageFinished(final WebView webView, String url) {
+        final Navigation navigation;
+        synchronized (this) {
+            navigation = enabled ? navigations.remove(webView) : null;
+            if (navigation == null || navigation.pageStartedTime < 0) {
+                return;
+            }
+            navigation.pageFinishedTime = now();
+            navigation.url = url;
+        }
+        // Evaluates to "null" when JavaScript is disabled.
+        webView.evaluateJavascript(
+                NAVIGATION_TIMING_SCRIPT, result -> sendTimeline(webView, navigation, result));
+    }
+
+    private void sendTimeline(WebView webView, Navigation navigation, @Nullable String timingJson) {
+        try {
+            final JSONObject event = navigation.toJson();
+            event.put("event", "pageLoadTimeline");
+            if (timingJson != null && timingJson.startsWith("{")) {
+                event.put("navigationTiming", new JSONObject(timingJson));
+            }
+            flutterApi.sendEvent(webView, event);
+        } catch (JSONException e) {
+            // Not sent, the timeline only holds numbers and strings.
+        }
+    }
+
+    private static long now() {
+        return SystemClock.elapsedRealtime();
+    }
+}
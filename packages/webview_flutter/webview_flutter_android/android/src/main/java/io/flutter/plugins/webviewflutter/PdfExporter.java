@@ -0,0 +1,351 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.Bundle;
+import android.os.CancellationSignal;
+import android.os.Handler;
+import android.os.ParcelFileDescriptor;
+import android.print.PageRange;
+import android.print.PdfPrintCallbacks;
+import android.print.PrintAttributes;
+import android.print.PrintDocumentAdapter;
+import android.print.PrintDocumentInfo;
+import android.webkit.WebView;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.RequiresApi;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Exports the content of a WebView to a PDF file with its {@link PrintDocumentAdapter}.
+ *
+ * <p>The WebView requires its adapter to be driven from the main thread, where only the layout
+ * and write calls are made. The WebView renders the pages and writes them to the file descriptor
+ * itself, page by page, so the document is never held in memory. Opening, polling and closing the
+ * file run on the background handler.
+ */
+@RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+public class PdfExporter {
+    static final int DEFAULT_DPI = 240;
+    private static final long PROGRESS_INTERVAL_MS = 500;
+
+    /**
+     * Receives the progress and the outcome of an export on the main thread.
+     */
+    public interface Listener {
+        /**
+         * @param stage        {@code layout} once the pages were laid out, then {@code write}
+         *                     periodically while they are written
+         * @param pageCount    the number of pages, or -1 if unknown
+         * @param bytesWritten the size of the file so far
+         */
+        void onProgress(String stage, int pageCount, long bytesWritten);
+
+        void onComplete(File file, int pageCount);
+
+        void onError(String error);
+    }
+
+    /**
+     * Page options of an export.
+     */
+    public static class Options {
+        PrintAttributes.MediaSize mediaSize = PrintAttributes.MediaSize.ISO_A4;
+        int dpi = DEFAULT_DPI;
+        boolean landscape;
+        boolean monochrome;
+
+        /**
+         * Sets the page size from its name, {@code A3}, {@code A4}, {@code A5}, {@code letter} or
+         * {@code legal}. Unknown names keep A4.
+         */
+        public Options setPageSize(@Nullable String pageSize) {
+            if (pageSize == null) {
+                return this;
+            }
+            switch (pageSize.toLowerCase()) {
+                case "a3":
+                    mediaSize = PrintAttributes.MediaSize.ISO_A3;
+                    break;
+                case "a5":
+                    mediaSize = PrintAttributes.MediaSize.ISO_A5;
+                    break;
+                case "letter":
+                    mediaSize = PrintAttributes.MediaSize.NA_LETTER;
+                    break;
+                case "legal":
+                    mediaSize = PrintAttributes.MediaSize.NA_LEGAL;
+                    break;
+                default:
+                    mediaSize = PrintAttributes.MediaSize.ISO_A4;
+            }
+            return this;
+        }
+
+        /**
+         * Sets a custom page size in thousandths of an inch.
+         */
+        public Options setPageSizeMils(int widthMils, int heightMils) {
+            mediaSize = new PrintAttributes.MediaSize("custom", "custom", widthMils, heightMils);
+            return this;
+        }
+
+        public Options setDpi(int dpi) {
+            this.dpi = dpi > 0 ? dpi : DEFAULT_DPI;
+            return this;
+        }
+
+        public Options setLandscape(boolean landscape) {
+            this.landscape = landscape;
+            return this;
+        }
+
+        public Options setMonochrome(boolean monochrome) {
+            this.monochrome = monochrome;
+            return this;
+        }
+
+        PrintAttributes toPrintAttributes() {
+            return new PrintAttributes.Builder()
+                    .setMediaSize(landscape ? mediaSize.asLandscape() : mediaSize.asPortrait())
+                    .setResolution(
+                            new PrintAttributes.Resolution("pdf", Context.PRINT_SERVICE, dpi, dpi))
+                    .setColorMode(
+                            monochrome
+                                    ? PrintAttributes.COLOR_MODE_MONOCHROME
+                                    : PrintAttributes.COLOR_MODE_COLOR)
+                    .setMinMargins(PrintAttributes.Margins.NO_MARGINS)
+                    .build();
+        }
+    }
+
+    private final WebView webView;
+    private final File file;
+    private final Options options;
+    private final Handler mainHandler;
+    private final Handler backgroundHandler;
+    private final Listener listener;
+    private final CancellationSignal cancellationSignal = new CancellationSignal();
+    private final Runnable pollProgress =
+            new Runnable() {
+                @Override
+                public void run() {
+                    final ParcelFileDescriptor descriptor = fileDescriptor;
+                    if (descriptor == null) {
+                        return;
+                    }
+                    final long bytesWritten = descriptor.getStatSize();
+                    mainHandler.post(
+                            new Runnable() {
+                                @Override
+                                public void run() {
+                                    if (!finished) {
+                                        listener.onProgress("write", pageCount, bytesWritten);
+                                    }
+                                }
+                            });
+                    backgroundHandler.postDelayed(this, PROGRESS_INTERVAL_MS);
+                }
+            };
+    @Nullable
+    private volatile ParcelFileDescriptor fileDescriptor;
+    // Main thread only.
+    @Nullable
+    private PrintDocumentAdapter adapter;
+    private int pageCount = PrintDocumentInfo.PAGE_COUNT_UNKNOWN;
+    private boolean finished;
+
+    /**
+     * @param backgroundHandler handler of a background thread opening and closing the file
+     */
+    public PdfExporter(
+            WebView webView,
+            File file,
+            Options options,
+            Handler mainHandler,
+            Handler backgroundHandler,
+            Listener listener) {
+        this.webView = webView;
+        this.file = file;
+        this.options = options;
+        this.mainHandler = mainHandler;
+        this.backgroundHandler = backgroundHandler;
+        this.listener = listener;
+    }
+
+    /**
+     * Starts the export. Must be called on the main thread.
+     */
+    public void start() {
+        backgroundHandler.post(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            final File parent = file.getAbsoluteFile().getParentFile();
+                            if (parent != null) {
+                                parent.mkdirs();
+                            }
+                            fileDescriptor =
+                                    ParcelFileDescriptor.open(
+                                            file,
+                                            ParcelFileDescriptor.MODE_CREATE
+                                                    | ParcelFileDescriptor.MODE_TRUNCATE
+                                                    | ParcelFileDescriptor.MODE_WRITE_ONLY);
+                        } catch (IOException e) {
+                            postFinish("Failed to open " + file + ": " + e.getMessage());
+                            return;
+                        }
+                        mainHandler.post(
+                                new Runnable() {
+                                    @Override
+                                    public void run() {
+                                        layout();
+                                    }
+                                });
+                    }
+                });
+    }
+
+    /**
+     * Cancels the export, which then completes with an error.
+     */
+    public void cancel() {
+        cancellationSignal.cancel();
+    }
+
+    private void layout() {
+        if (finished) {
+            return;
+        }
+        if (cancellationSignal.isCanceled()) {
+            finish("Cancelled");
+            return;
+        }
+        final PrintAttributes attributes = options.toPrintAttributes();
+        try {
+            adapter = webView.createPrintDocumentAdapter(file.getName());
+            adapter.onStart();
+            adapter.onLayout(
+                    null,
+                    attributes,
+                    cancellationSignal,
+                    new PdfPrintCallbacks.LayoutCallback() {
+                        @Override
+                        public void onLayoutFinished(PrintDocumentInfo info, boolean changed) {
+                            if (info != null) {
+                                pageCount = info.getPageCount();
+                            }
+                            listener.onProgress("layout", pageCount, 0);
+                            write();
+                        }
+
+                        @Override
+                        public void onLayoutFailed(CharSequence error) {
+                            finish("Layout failed: " + error);
+                        }
+
+                        @Override
+                        public void onLayoutCancelled() {
+                            finish("Cancelled");
+                        }
+                    },
+                    new Bundle());
+        } catch (RuntimeException e) {
+            finish("Layout failed: " + e);
+        }
+    }
+
+    private void write() {
+        if (finished) {
+            return;
+        }
+        backgroundHandler.postDelayed(pollProgress, PROGRESS_INTERVAL_MS);
+        try {
+            adapter.onWrite(
+                    new PageRange[] {PageRange.ALL_PAGES},
+                    fileDescriptor,
+                    cancellationSignal,
+                    new PdfPrintCallbacks.WriteCallback() {
+                        @Override
+                        public void onWriteFinished(PageRange[] pages) {
+                            finish(null);
+                        }
+
+                        @Override
+                        public void onWriteFailed(CharSequence error) {
+                            finish("Write failed: " + error);
+                        }
+
+                        @Override
+                        public void onWriteCancelled() {
+                            finish("Cancelled");
+                        }
+                    });
+        } catch (RuntimeException e) {
+            finish("Write failed: " + e);
+        }
+    }
+
+    private void postFinish(@Nullable final String error) {
+        mainHandler.post(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        finish(error);
+                    }
+                });
+    }
+
+    private void finish(@Nullable final String error) {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        if (adapter != null) {
+            adapter.onFinish();
+            adapter = null;
+        }
+        backgroundHandler.post(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        backgroundHandler.removeCallbacks(pollProgress);
+                        String result = error;
+                        final ParcelFileDescriptor descriptor = fileDescriptor;
+                        fileDescriptor = null;
+                        if (descriptor != null) {
+                            try {
+                                descriptor.close();
+                            } catch (IOException e) {
+                                if (result == null) {
+                                    result = "Failed to close " + file + ": " + e.getMessage();
+                                }
+                            }
+                        }
+                        if (result != null) {
+                            file.delete();
+                        }
+                        final String finalResult = result;
+                        mainHandler.post(
+                                new Runnable() {
+                                    @Override
+                                    public void run() {
+                                        if (finalResult != null) {
+                                            listener.onError(finalResult);
+                                        } else {
+                                            listener.onComplete(file, pageCount);
+                                        }
+                                    }
+                                });
+                    }
+                });
+    }
+}
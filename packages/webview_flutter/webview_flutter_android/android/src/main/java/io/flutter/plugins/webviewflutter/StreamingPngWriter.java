@@ -0,0 +1,166 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes an RGBA PNG image row by row, so an image taller than what fits in memory is encoded
+ * from strips as they are rendered.
+ *
+ * <p>Rows are filtered with the Up filter of the previous row and compressed into IDAT chunks as
+ * they are written. Only two rows and one chunk are kept in memory.
+ */
+public class StreamingPngWriter implements Closeable {
+    private static final byte[] SIGNATURE = {(byte) 137, 'P', 'N', 'G', '\r', '\n', 26, '\n'};
+    private static final int MAX_CHUNK_SIZE = 64 * 1024;
+    private static final int BYTES_PER_PIXEL = 4;
+    private static final byte FILTER_UP = 2;
+    private static final Charset ASCII = Charset.forName("US-ASCII");
+
+    private final DataOutputStream output;
+    private final int width;
+    private final int height;
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private byte[] previousRow;
+    private byte[] row;
+    private final byte[] filteredRow;
+    private final byte[] chunk = new byte[MAX_CHUNK_SIZE];
+    private int chunkLength;
+    private int rowsWritten;
+    private boolean closed;
+
+    /**
+     * Writes the PNG header of an image of {@code width} by {@code height} pixels to {@code output},
+     * which is closed with this writer.
+     */
+    public StreamingPngWriter(OutputStream output, int width, int height, int compressionLevel)
+            throws IOException {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid image size " + width + "x" + height);
+        }
+        this.output = new DataOutputStream(output);
+        this.width = width;
+        this.height = height;
+        this.deflater = new Deflater(compressionLevel);
+        final int rowLength = width * BYTES_PER_PIXEL;
+        previousRow = new byte[rowLength];
+        row = new byte[rowLength];
+        filteredRow = new byte[rowLength + 1];
+        filteredRow[0] = FILTER_UP;
+
+        this.output.write(SIGNATURE);
+        final byte[] header = new byte[13];
+        writeInt(header, 0, width);
+        writeInt(header, 4, height);
+        header[8] = 8; // Bit depth.
+        header[9] = 6; // Color type, truecolor with alpha.
+        // Compression, filter and interlace methods are 0.
+        writeChunk("IHDR", header, header.length);
+    }
+
+    public int getRowsWritten() {
+        return rowsWritten;
+    }
+
+    /**
+     * Writes {@code rowCount} rows of {@code argb} pixels, as returned by {@code
+     * Bitmap#getPixels} with a stride of the image width.
+     */
+    public void writeRows(int[] argb, int rowCount) throws IOException {
+        if (rowsWritten + rowCount > height) {
+            throw new IOException("The image has only " + height + " rows.");
+        }
+        for (int y = 0; y < rowCount; y++) {
+            final int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                final int color = argb[offset + x];
+                final int i = x * BYTES_PER_PIXEL;
+                row[i] = (byte) (color >> 16);
+                row[i + 1] = (byte) (color >> 8);
+                row[i + 2] = (byte) color;
+                row[i + 3] = (byte) (color >>> 24);
+            }
+            for (int i = 0; i < row.length; i++) {
+                filteredRow[i + 1] = (byte) (row[i] - previousRow[i]);
+            }
+            deflater.setInput(filteredRow);
+            while (!deflater.needsInput()) {
+                deflate();
+            }
+            final byte[] swap = previousRow;
+            previousRow = row;
+            row = swap;
+        }
+        rowsWritten += rowCount;
+    }
+
+    /**
+     * Completes the image and closes the output.
+     *
+     * @throws IOException if writing failed or not all rows were written, in which case the image is
+     *                     invalid
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (rowsWritten != height) {
+                throw new IOException("Only " + rowsWritten + " of " + height + " rows were written.");
+            }
+            deflater.finish();
+            while (!deflater.finished()) {
+                deflate();
+            }
+            flushChunk();
+            writeChunk("IEND", chunk, 0);
+        } finally {
+            deflater.end();
+            output.close();
+        }
+    }
+
+    private void deflate() throws IOException {
+        chunkLength += deflater.deflate(chunk, chunkLength, chunk.length - chunkLength);
+        if (chunkLength == chunk.length) {
+            flushChunk();
+        }
+    }
+
+    private void flushChunk() throws IOException {
+        if (chunkLength > 0) {
+            writeChunk("IDAT", chunk, chunkLength);
+            chunkLength = 0;
+        }
+    }
+
+    private void writeChunk(String type, byte[] data, int length) throws IOException {
+        final byte[] typeBytes = type.getBytes(ASCII);
+        crc.reset();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+        output.writeInt(length);
+        output.write(typeBytes);
+        output.write(data, 0, length);
+        output.writeInt((int) crc.getValue());
+    }
+
+    private static void writeInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+}
@@ -0,0 +1,146 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import androidx.annotation.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Input stream returning the bytes of a response while copying them to a file, so an intercepted
+ * request is served as it downloads and the file is only used once complete.
+ *
+ * <p>The copy is abandoned and the file deleted when the source fails, when writing the file
+ * fails or when the stream is closed before the end of the source. Reading continues to succeed
+ * when only the copy fails.
+ */
+public class TeeInputStream extends InputStream {
+    /**
+     * Receives the outcome of the copy, on the thread reading the stream.
+     */
+    public interface Listener {
+        /**
+         * Called once the whole source was written to {@code file}.
+         */
+        void onComplete(File file);
+
+        /**
+         * Called when the copy was abandoned. The file was deleted.
+         */
+        void onAbort(File file);
+    }
+
+    private static final int OUTPUT_BUFFER_SIZE = 8192;
+
+    private final InputStream source;
+    private final File file;
+    private final Listener listener;
+    @Nullable
+    private OutputStream output;
+
+    /**
+     * Creates a stream reading {@code source} and copying it to {@code file}, which is replaced if
+     * it exists.
+     *
+     * @throws IOException if the file can't be created
+     */
+    public TeeInputStream(InputStream source, File file, Listener listener) throws IOException {
+        this.source = source;
+        this.file = file;
+        this.listener = listener;
+        final File parent = file.getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        output = new BufferedOutputStream(new FileOutputStream(file), OUTPUT_BUFFER_SIZE);
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int b;
+        try {
+            b = source.read();
+        } catch (IOException e) {
+            abort();
+            throw e;
+        }
+        if (b == -1) {
+            complete();
+        } else if (output != null) {
+            try {
+                output.write(b);
+            } catch (IOException e) {
+                abort();
+            }
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        final int bytesRead;
+        try {
+            bytesRead = source.read(b, off, len);
+        } catch (IOException e) {
+            abort();
+            throw e;
+        }
+        if (bytesRead == -1) {
+            complete();
+        } else if (output != null) {
+            try {
+                output.write(b, off, bytesRead);
+            } catch (IOException e) {
+                abort();
+            }
+        }
+        return bytesRead;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return source.available();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Closed before reaching the end of the source, the file is incomplete.
+        abort();
+        source.close();
+    }
+
+    private void complete() {
+        if (output == null) {
+            return;
+        }
+        try {
+            output.close();
+        } catch (IOException e) {
+            abort();
+            return;
+        }
+        output = null;
+        listener.onComplete(file);
+    }
+
+    private void abort() {
+        if (output == null) {
+            return;
+        }
+        try {
+            output.close();
+        } catch (IOException e) {
+            // The file is deleted anyway.
+        }
+        output = null;
+        file.delete();
+        listener.onAbort(file);
+    }
+}
@@ -0,0 +1,319 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.os.Handler;
+import android.view.View;
+import android.webkit.WebView;
+
+import androidx.annotation.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.zip.Deflater;
+
+/**
+ * Captures the whole content of a WebView strip by strip, so the memory used doesn't depend on
+ * the height of the page.
+ *
+ * <p>Strips are drawn on the main thread, one per message so the main thread keeps handling
+ * frames, into a small pool of reused bitmaps. Each strip is encoded on the encode executor, either
+ * appended to a single PNG file or written to its own tile file, then its bitmap is returned to the
+ * pool for the next strip.
+ */
+public class TiledScreenshotCapture {
+    static final int DEFAULT_STRIP_HEIGHT = 1024;
+    // One strip drawn while the previous one is encoded.
+    private static final int STRIP_BUFFER_COUNT = 2;
+
+    /**
+     * Receives the outcome of a capture on the main thread.
+     */
+    public interface Callback {
+        /**
+         * Called with the image file, or the tile files from top to bottom.
+         */
+        void onComplete(List<File> files);
+
+        void onError(Exception exception);
+    }
+
+    private final WebView webView;
+    private final Executor encodeExecutor;
+    private final Handler mainHandler;
+    private final File file;
+    private final boolean jpeg;
+    private final boolean tiled;
+    private final int requestedStripHeight;
+    private final Callback callback;
+
+    private final Queue<Bitmap> freeBitmaps = new ConcurrentLinkedQueue<>();
+    private final List<Bitmap> allBitmaps = new ArrayList<>();
+    private final List<File> files = Collections.synchronizedList(new ArrayList<File>());
+    private final Runnable drawNextStrip =
+            new Runnable() {
+                @Override
+                public void run() {
+                    drawNextStrip();
+                }
+            };
+    private int width;
+    private int height;
+    private int stripHeight;
+    private int stripCount;
+    // Main thread only.
+    private int nextStrip;
+    private boolean finished;
+    // Encode executor only.
+    private int encodedStrips;
+    @Nullable
+    private int[] pixels;
+    @Nullable
+    private StreamingPngWriter pngWriter;
+    @Nullable
+    private volatile Exception error;
+
+    /**
+     * @param encodeExecutor executor running the encoding tasks in order, one at a time
+     * @param file           the image file, or the name from which tile files are named {@code
+     *                       name_<index>.<extension>} when {@code tiled}
+     * @param format         {@code jpeg} or {@code png}. JPEG is only supported for tiles.
+     * @param stripHeight    height of the strips in pixels, or 0 for the default
+     */
+    public TiledScreenshotCapture(
+            WebView webView,
+            Executor encodeExecutor,
+            Handler mainHandler,
+            File file,
+            String format,
+            int stripHeight,
+            boolean tiled,
+            Callback callback) {
+        this.webView = webView;
+        this.encodeExecutor = encodeExecutor;
+        this.mainHandler = mainHandler;
+        this.file = file;
+        this.jpeg = "jpeg".equals(format) || "jpg".equals(format);
+        this.tiled = tiled;
+        this.requestedStripHeight = stripHeight > 0 ? stripHeight : DEFAULT_STRIP_HEIGHT;
+        this.callback = callback;
+        if (jpeg && !tiled) {
+            throw new IllegalArgumentException("JPEG screenshots are only supported as tiles.");
+        }
+    }
+
+    /**
+     * Lays out the WebView at the height of its content and starts drawing the strips. Must be
+     * called on the main thread.
+     */
+    public void start() {
+        webView.scrollTo(0, 0);
+        webView.measure(
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        webView.layout(0, 0, webView.getMeasuredWidth(), webView.getMeasuredHeight());
+        width = webView.getWidth();
+        height = webView.getMeasuredHeight();
+        if (width <= 0 || height <= 0) {
+            finish(new IOException("The WebView has no content to capture."));
+            return;
+        }
+        stripHeight = Math.min(requestedStripHeight, height);
+        stripCount = (height + stripHeight - 1) / stripHeight;
+
+        final File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        if (!tiled) {
+            try {
+                pngWriter =
+                        new StreamingPngWriter(
+                                new BufferedOutputStream(new FileOutputStream(file)),
+                                width,
+                                height,
+                                Deflater.BEST_SPEED);
+            } catch (IOException e) {
+                finish(e);
+                return;
+            }
+            files.add(file);
+        }
+        drawNextStrip();
+    }
+
+    private void drawNextStrip() {
+        if (finished || nextStrip == stripCount) {
+            return;
+        }
+        if (error != null) {
+            finish(error);
+            return;
+        }
+        Bitmap bitmap = freeBitmaps.poll();
+        if (bitmap == null) {
+            if (allBitmaps.size() == STRIP_BUFFER_COUNT) {
+                // Posted again once a strip was encoded.
+                return;
+            }
+            try {
+                bitmap = Bitmap.createBitmap(width, stripHeight, Bitmap.Config.ARGB_8888);
+            } catch (OutOfMemoryError e) {
+                finish(new IOException("Not enough memory for a strip of " + stripHeight + " rows."));
+                return;
+            }
+            allBitmaps.add(bitmap);
+        }
+
+        final int strip = nextStrip++;
+        final int top = strip * stripHeight;
+        final int rows = Math.min(stripHeight, height - top);
+        bitmap.eraseColor(Color.TRANSPARENT);
+        final Canvas canvas = new Canvas(bitmap);
+        canvas.translate(0, -top);
+        webView.draw(canvas);
+
+        final Bitmap stripBitmap = bitmap;
+        encodeExecutor.execute(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        encodeStrip(strip, stripBitmap, rows);
+                    }
+                });
+        mainHandler.post(drawNextStrip);
+    }
+
+    private void encodeStrip(int strip, Bitmap bitmap, int rows) {
+        if (error == null) {
+            try {
+                if (tiled) {
+                    writeTile(strip, bitmap, rows);
+                } else {
+                    if (pixels == null) {
+                        pixels = new int[width * stripHeight];
+                    }
+                    bitmap.getPixels(pixels, 0, width, 0, 0, width, rows);
+                    pngWriter.writeRows(pixels, rows);
+                }
+            } catch (IOException | RuntimeException e) {
+                error = e;
+            }
+        }
+        freeBitmaps.add(bitmap);
+
+        encodedStrips++;
+        if (error == null && encodedStrips == stripCount && pngWriter != null) {
+            try {
+                pngWriter.close();
+            } catch (IOException e) {
+                error = e;
+            }
+            pngWriter = null;
+        }
+        if (error != null || encodedStrips == stripCount) {
+            final Exception result = error;
+            mainHandler.post(
+                    new Runnable() {
+                        @Override
+                        public void run() {
+                            finish(result);
+                        }
+                    });
+        } else {
+            mainHandler.post(drawNextStrip);
+        }
+    }
+
+    private void writeTile(int strip, Bitmap bitmap, int rows) throws IOException {
+        final File tile = getTileFile(strip);
+        // The last strip is usually shorter than the others.
+        final Bitmap source =
+                rows < bitmap.getHeight() ? Bitmap.createBitmap(bitmap, 0, 0, width, rows) : bitmap;
+        try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(tile))) {
+            if (!source.compress(
+                    jpeg ? Bitmap.CompressFormat.JPEG : Bitmap.CompressFormat.PNG, 100, outputStream)) {
+                throw new IOException("Failed to encode " + tile);
+            }
+        } finally {
+            if (source != bitmap) {
+                source.recycle();
+            }
+        }
+        files.add(tile);
+    }
+
+    private File getTileFile(int strip) {
+        final String name = file.getName();
+        final int dot = name.lastIndexOf('.');
+        final String tileName =
+                dot > 0
+                        ? name.substring(0, dot) + "_" + strip + name.substring(dot)
+                        : name + "_" + strip;
+        return new File(file.getAbsoluteFile().getParentFile(), tileName);
+    }
+
+    private void finish(@Nullable final Exception exception) {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        mainHandler.removeCallbacks(drawNextStrip);
+        // Strips still queued for encoding see the error and skip their bitmap, which is only
+        // recycled once nothing is left to encode.
+        if (exception != null) {
+            error = exception;
+        }
+        encodeExecutor.execute(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        if (pngWriter != null) {
+                            try {
+                                pngWriter.close();
+                            } catch (IOException e) {
+                                // Deleted below.
+                            }
+                            pngWriter = null;
+                        }
+                        if (exception != null) {
+                            synchronized (files) {
+                                for (File written : files) {
+                                    written.delete();
+                                }
+                            }
+                        }
+                        mainHandler.post(
+                                new Runnable() {
+                                    @Override
+                                    public void run() {
+                                        for (Bitmap bitmap : allBitmaps) {
+                                            bitmap.recycle();
+                                        }
+                                        allBitmaps.clear();
+                                        freeBitmaps.clear();
+                                        if (exception != null) {
+                                            callback.onError(exception);
+                                        } else {
+                                            callback.onComplete(new ArrayList<>(files));
+                                        }
+                                    }
+                                });
+                    }
+                });
+    }
+}
@@ -6,6 +6,7 @@ package io.flutter.plugins.webviewflutter;
 
 import android.webkit.WebChromeClient;
 import android.webkit.WebView;
+import androidx.annotation.Nullable;
 import io.flutter.plugin.common.BinaryMessenger;
 import io.flutter.plugins.webviewflutter.GeneratedAndroidWebView.WebChromeClientFlutterApi;
 
@@ -16,6 +17,7 @@ import io.flutter.plugins.webviewflutter.GeneratedAndroidWebView.WebChromeClient
  */
 public class WebChromeClientFlutterApiImpl extends WebChromeClientFlutterApi {
   private final InstanceManager instanceManager;
+  @Nullable private final PageLoadTracker pageLoadTracker;
 
   /**
    * Creates a Flutter api that sends messages to Dart.
@@ -25,13 +27,31 @@ public class WebChromeClientFlutterApiImpl extends WebChromeClientFlutterApi {
    */
   public WebChromeClientFlutterApiImpl(
       BinaryMessenger binaryMessenger, InstanceManager instanceManager) {
+    this(binaryMessenger, instanceManager, null);
+  }
+
+  /**
+   * Creates a Flutter api that sends messages to Dart and records the progress of navigations.
+   *
+   * @param binaryMessenger handles sending messages to Dart
+   * @param instanceManager maintains instances stored to communicate with Dart objects
+   * @param pageLoadTracker records the first progress of each navigation
+   */
+  public WebChromeClientFlutterApiImpl(
+      BinaryMessenger binaryMessenger,
+      InstanceManager instanceManager,
+      @Nullable PageLoadTracker pageLoadTracker) {
     super(binaryMessenger);
     this.instanceManager = instanceManager;
+    this.pageLoadTracker = pageLoadTracker;
   }
 
   /** Passes arguments from {@link WebChromeClient#onProgressChanged} to Dart. */
   public void onProgressChanged(
       WebChromeClient webChromeClient, WebView webView, Long progress, Reply<Void> callback) {
+    if (pageLoadTracker != null) {
+      pageLoadTracker.onProgressChanged(webView, progress);
+    }
     super.onProgressChanged(
         instanceManager.getInstanceId(webChromeClient),
         instanceManager.getInstanceId(webView),
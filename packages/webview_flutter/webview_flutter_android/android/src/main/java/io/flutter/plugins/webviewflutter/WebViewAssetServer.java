@@ -0,0 +1,578 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import android.content.res.AssetFileDescriptor;
+import android.os.Build;
+import android.webkit.MimeTypeMap;
+import android.webkit.WebResourceResponse;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.RequiresApi;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Serves the Flutter assets and the files of the app to WebViews from a local https domain, in the
+ * manner of {@code androidx.webkit.WebViewAssetLoader}, without a round trip to Dart.
+ *
+ * <p>{@code https://appassets.local/assets/<name>} serves the Flutter asset registered as {@code
+ * name}, and {@code https://appassets.local/files/<path>} serves the file at {@code path} in the
+ * subdirectory of the app's files directory set with {@link #setFilesDirectory}. No files are
+ * served until it is set, so the other app files, such as the offline cache and the downloads,
+ * stay private. Single byte ranges are supported, and large files and uncompressed assets are read
+ * through memory mappings instead of being copied through a stream.
+ */
+public class WebViewAssetServer {
+    static final String DEFAULT_DOMAIN = "appassets.local";
+    static final String ASSETS_PATH = "/assets/";
+    static final String FILES_PATH = "/files/";
+    // Files and uncompressed assets from this size are read from memory mappings.
+    static final long MAPPED_READ_THRESHOLD_BYTES = 256 * 1024;
+    private static final int HTTP_PARTIAL_CONTENT = 206;
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+
+    // Types missing from, or outdated in, the MimeTypeMap of older Android versions.
+    private static final Map<String, String> MIME_TYPES = new HashMap<>();
+
+    static {
+        MIME_TYPES.put("html", "text/html");
+        MIME_TYPES.put("htm", "text/html");
+        MIME_TYPES.put("js", "text/javascript");
+        MIME_TYPES.put("mjs", "text/javascript");
+        MIME_TYPES.put("css", "text/css");
+        MIME_TYPES.put("json", "application/json");
+        MIME_TYPES.put("map", "application/json");
+        MIME_TYPES.put("wasm", "application/wasm");
+        MIME_TYPES.put("svg", "image/svg+xml");
+        MIME_TYPES.put("webp", "image/webp");
+        MIME_TYPES.put("ico", "image/x-icon");
+        MIME_TYPES.put("woff", "font/woff");
+        MIME_TYPES.put("woff2", "font/woff2");
+        MIME_TYPES.put("ttf", "font/ttf");
+        MIME_TYPES.put("otf", "font/otf");
+        MIME_TYPES.put("txt", "text/plain");
+        MIME_TYPES.put("xml", "text/xml");
+        MIME_TYPES.put("mp4", "video/mp4");
+        MIME_TYPES.put("webm", "video/webm");
+        MIME_TYPES.put("mp3", "audio/mpeg");
+    }
+
+    /**
+     * An inclusive range of bytes requested with a {@code Range} header.
+     */
+    static final class ByteRange {
+        static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+        final long start;
+        final long end;
+
+        ByteRange(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        long getLength() {
+            return end - start + 1;
+        }
+    }
+
+    private final FlutterAssetManager flutterAssetManager;
+    private final File filesDir;
+    @Nullable
+    private volatile File servedFilesDir;
+    private volatile boolean enabled;
+    private volatile String domain = DEFAULT_DOMAIN;
+
+    // Guarded by this.
+    private long requests;
+    private long rangeRequests;
+    private long mappedReads;
+    private long notFound;
+    private long bytesServed;
+
+    /**
+     * Creates a disabled server.
+     *
+     * @param flutterAssetManager looks up and opens the Flutter assets
+     * @param filesDir            the files directory of the app, containing the directory served
+     *                            under {@link #FILES_PATH}
+     */
+    public WebViewAssetServer(FlutterAssetManager flutterAssetManager, File filesDir) {
+        this.flutterAssetManager = flutterAssetManager;
+        this.filesDir = filesDir;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Sets the host the assets are served from, {@link #DEFAULT_DOMAIN} by default.
+     */
+    public void setDomain(String domain) {
+        this.domain = domain.toLowerCase(Locale.US);
+    }
+
+    /**
+     * Sets the directory served under {@link #FILES_PATH}.
+     *
+     * @param relativePath the path of a directory in the files directory of the app, or null to
+     *                     serve no files
+     * @throws IllegalArgumentException if the path leaves the files directory
+     */
+    public void setFilesDirectory(@Nullable String relativePath) throws IOException {
+        if (relativePath == null) {
+            servedFilesDir = null;
+            return;
+        }
+        final File directory = resolveFile(filesDir, relativePath);
+        if (directory == null) {
+            throw new IllegalArgumentException(
+                    "Not a directory in the files directory: " + relativePath);
+        }
+        servedFilesDir = directory;
+    }
+
+    /**
+     * Whether {@code url} is served by this server while it is enabled.
+     */
+    public boolean handles(String url) {
+        if (!enabled) {
+            return false;
+        }
+        final URI uri = parseUri(url);
+        return uri != null
+                && "https".equalsIgnoreCase(uri.getScheme())
+                && domain.equalsIgnoreCase(uri.getHost());
+    }
+
+    /**
+     * Serves a request to a url for which {@link #handles} is true.
+     *
+     * @param method         the HTTP method of the request
+     * @param url            the requested url
+     * @param requestHeaders the headers of the request, read for a {@code Range}
+     * @return the asset or file, or an error response
+     */
+    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+    public WebResourceResponse serve(
+            String method, String url, @Nullable Map<String, String> requestHeaders) {
+        synchronized (this) {
+            requests++;
+        }
+        final boolean isHead = "HEAD".equalsIgnoreCase(method);
+        if (!isHead && !"GET".equalsIgnoreCase(method)) {
+            return createErrorResponse(HttpURLConnection.HTTP_BAD_METHOD, "Method Not Allowed");
+        }
+        final URI uri = parseUri(url);
+        String path = uri != null ? uri.getPath() : null;
+        if (path == null) {
+            return createNotFoundResponse();
+        }
+        if (path.endsWith("/")) {
+            path += "index.html";
+        }
+        final String rangeHeader = getHeader(requestHeaders, "Range");
+        WebResourceResponse response = null;
+        try {
+            if (path.startsWith(ASSETS_PATH)) {
+                response = serveAsset(path.substring(ASSETS_PATH.length()), rangeHeader, isHead);
+            } else if (path.startsWith(FILES_PATH)) {
+                response = serveFile(path.substring(FILES_PATH.length()), rangeHeader, isHead);
+            }
+        } catch (IOException e) {
+            // Missing or unreadable, the page sees a 404 like from a server.
+        }
+        return response != null ? response : createNotFoundResponse();
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        final Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("domain", domain);
+        final File directory = servedFilesDir;
+        stats.put("filesDirectory", directory != null ? directory.getPath() : null);
+        stats.put("requests", requests);
+        stats.put("rangeRequests", rangeRequests);
+        stats.put("mappedReads", mappedReads);
+        stats.put("notFound", notFound);
+        stats.put("bytesServed", bytesServed);
+        return stats;
+    }
+
+    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+    @Nullable
+    private WebResourceResponse serveAsset(String name, @Nullable String rangeHeader, boolean isHead)
+            throws IOException {
+        if (name.isEmpty() || name.contains("..")) {
+            return null;
+        }
+        final String assetPath = flutterAssetManager.getAssetFilePathByName(name);
+        final String mimeType = getMimeType(name);
+        final AssetFileDescriptor descriptor;
+        try {
+            descriptor = flutterAssetManager.openFd(assetPath);
+        } catch (FileNotFoundException e) {
+            // Compressed assets can't be mapped, nor seeked cheaply, so ranges are ignored.
+            final InputStream inputStream = flutterAssetManager.open(assetPath);
+            if (isHead) {
+                inputStream.close();
+            }
+            return createResponse(
+                    mimeType, HttpURLConnection.HTTP_OK, "OK", null, -1,
+                    isHead ? emptyStream() : inputStream);
+        }
+        final long length = descriptor.getLength();
+        final ByteRange range = parseRange(rangeHeader, length);
+        if (range == ByteRange.UNSATISFIABLE || isHead) {
+            descriptor.close();
+            return range == ByteRange.UNSATISFIABLE
+                    ? createRangeNotSatisfiableResponse(length)
+                    : createResponse(mimeType, HttpURLConnection.HTTP_OK, "OK", null, length, emptyStream());
+        }
+        final FileInputStream bundleStream = descriptor.createInputStream();
+        if (range == null && length < MAPPED_READ_THRESHOLD_BYTES) {
+            // The stream of the descriptor reads only the asset's part of the bundle.
+            return createResponse(
+                    mimeType, HttpURLConnection.HTTP_OK, "OK", null, length, bundleStream);
+        }
+        final long start = range != null ? range.start : 0;
+        final long end = range != null ? range.end + 1 : length;
+        onMappedRead();
+        // The descriptor points into the bundle, so the mapping starts at the asset's offset.
+        return createResponse(
+                mimeType,
+                range != null ? HTTP_PARTIAL_CONTENT : HttpURLConnection.HTTP_OK,
+                range != null ? "Partial Content" : "OK",
+                range,
+                length,
+                new MappedFileInputStream(
+                        bundleStream.getChannel(),
+                        descriptor,
+                        descriptor.getStartOffset() + start,
+                        descriptor.getStartOffset() + end));
+    }
+
+    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+    @Nullable
+    private WebResourceResponse serveFile(String relativePath, @Nullable String rangeHeader, boolean isHead)
+            throws IOException {
+        final File directory = servedFilesDir;
+        if (directory == null) {
+            return null;
+        }
+        final File file = resolveFile(directory, relativePath);
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        final String mimeType = getMimeType(file.getName());
+        final long length = file.length();
+        final ByteRange range = parseRange(rangeHeader, length);
+        if (range == ByteRange.UNSATISFIABLE) {
+            return createRangeNotSatisfiableResponse(length);
+        }
+        final int statusCode = range != null ? HTTP_PARTIAL_CONTENT : HttpURLConnection.HTTP_OK;
+        final String reasonPhrase = range != null ? "Partial Content" : "OK";
+        if (isHead) {
+            return createResponse(mimeType, statusCode, reasonPhrase, range, length, emptyStream());
+        }
+        final FileInputStream fileStream = new FileInputStream(file);
+        if (range == null && length < MAPPED_READ_THRESHOLD_BYTES) {
+            return createResponse(mimeType, statusCode, reasonPhrase, null, length, fileStream);
+        }
+        onMappedRead();
+        return createResponse(
+                mimeType,
+                statusCode,
+                reasonPhrase,
+                range,
+                length,
+                new MappedFileInputStream(
+                        fileStream.getChannel(),
+                        fileStream,
+                        range != null ? range.start : 0,
+                        range != null ? range.end + 1 : length));
+    }
+
+    /**
+     * Creates a response with the length headers of the whole content or of {@code range}.
+     *
+     * @param totalLength the length of the whole content, or -1 if unknown
+     */
+    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+    private WebResourceResponse createResponse(
+            String mimeType,
+            int statusCode,
+            String reasonPhrase,
+            @Nullable ByteRange range,
+            long totalLength,
+            InputStream data) {
+        final Map<String, String> headers = new HashMap<>();
+        headers.put("Accept-Ranges", totalLength >= 0 ? "bytes" : "none");
+        final long contentLength = range != null ? range.getLength() : totalLength;
+        if (contentLength >= 0) {
+            headers.put("Content-Length", String.valueOf(contentLength));
+            synchronized (this) {
+                bytesServed += contentLength;
+            }
+        }
+        if (range != null) {
+            synchronized (this) {
+                rangeRequests++;
+            }
+            headers.put("Content-Range", "bytes " + range.start + "-" + range.end + "/" + totalLength);
+        }
+        return new WebResourceResponse(
+                mimeType, getEncoding(mimeType), statusCode, reasonPhrase, headers, data);
+    }
+
+    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+    private WebResourceResponse createRangeNotSatisfiableResponse(long totalLength) {
+        synchronized (this) {
+            rangeRequests++;
+        }
+        final Map<String, String> headers = new HashMap<>();
+        headers.put("Content-Range", "bytes */" + totalLength);
+        return new WebResourceResponse(
+                "text/plain", "UTF-8", HTTP_RANGE_NOT_SATISFIABLE, "Range Not Satisfiable", headers,
+                emptyStream());
+    }
+
+    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+    private WebResourceResponse createNotFoundResponse() {
+        synchronized (this) {
+            notFound++;
+        }
+        return createErrorResponse(HttpURLConnection.HTTP_NOT_FOUND, "Not Found");
+    }
+
+    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+    private static WebResourceResponse createErrorResponse(int statusCode, String reasonPhrase) {
+        return new WebResourceResponse(
+                "text/plain", "UTF-8", statusCode, reasonPhrase, null, emptyStream());
+    }
+
+    private synchronized void onMappedRead() {
+        mappedReads++;
+    }
+
+    /**
+     * Parses a {@code Range} header with a single range of bytes.
+     *
+     * @return the requested range, {@link ByteRange#UNSATISFIABLE} if it starts past the content,
+     * or null to serve the whole content, including for headers that aren't understood
+     */
+    @Nullable
+    static ByteRange parseRange(@Nullable String header, long length) {
+        if (header == null || length < 0) {
+            return null;
+        }
+        final String value = header.trim().toLowerCase(Locale.US);
+        if (!value.startsWith("bytes=") || value.indexOf(',') >= 0) {
+            return null;
+        }
+        final String spec = value.substring("bytes=".length()).trim();
+        final int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        final long start;
+        final long end;
+        try {
+            if (dash == 0) {
+                // Suffix range: the last N bytes.
+                final long suffixLength = Long.parseLong(spec.substring(1).trim());
+                if (suffixLength <= 0) {
+                    return ByteRange.UNSATISFIABLE;
+                }
+                start = Math.max(0, length - suffixLength);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash).trim());
+                final String endSpec = spec.substring(dash + 1).trim();
+                end = endSpec.isEmpty() ? length - 1 : Math.min(Long.parseLong(endSpec), length - 1);
+                if (end < start && start < length) {
+                    return null;
+                }
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (start >= length) {
+            return ByteRange.UNSATISFIABLE;
+        }
+        return new ByteRange(start, end);
+    }
+
+    /**
+     * Returns the MIME type of a file from the extension of its name.
+     */
+    static String getMimeType(String fileName) {
+        final int dot = fileName.lastIndexOf('.');
+        final String extension =
+                dot >= 0 ? fileName.substring(dot + 1).toLowerCase(Locale.US) : "";
+        String mimeType = MIME_TYPES.get(extension);
+        if (mimeType == null && !extension.isEmpty()) {
+            mimeType = MimeTypeMap.getSingleton().getMimeTypeFromExtension(extension);
+        }
+        return mimeType != null ? mimeType : "application/octet-stream";
+    }
+
+    @Nullable
+    private static String getEncoding(String mimeType) {
+        return mimeType.startsWith("text/")
+                || mimeType.equals("application/json")
+                || mimeType.equals("image/svg+xml")
+                ? "UTF-8"
+                : null;
+    }
+
+    /**
+     * Returns the file at {@code relativePath} in {@code directory}, or null if the path leaves the
+     * directory.
+     */
+    @Nullable
+    static File resolveFile(File directory, String relativePath) throws IOException {
+        if (relativePath.isEmpty()) {
+            return null;
+        }
+        final String directoryPath = directory.getCanonicalPath() + File.separator;
+        final File file = new File(directory, relativePath).getCanonicalFile();
+        return file.getPath().startsWith(directoryPath) ? file : null;
+    }
+
+    @Nullable
+    private static URI parseUri(String url) {
+        try {
+            return new URI(url);
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static String getHeader(@Nullable Map<String, String> headers, String name) {
+        if (headers == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey())) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static InputStream emptyStream() {
+        return new ByteArrayInputStream(new byte[0]);
+    }
+
+    /**
+     * Reads a region of a file through memory mappings of at most {@link #WINDOW_SIZE_BYTES}, so
+     * the content is paged in by the kernel instead of being copied by reads.
+     */
+    static class MappedFileInputStream extends InputStream {
+        static final long WINDOW_SIZE_BYTES = 8 * 1024 * 1024;
+
+        private final FileChannel channel;
+        private final Closeable owner;
+        private final long end;
+        private long position;
+        @Nullable
+        private MappedByteBuffer window;
+
+        /**
+         * @param channel the channel of the file
+         * @param owner   closed with this stream, along with the channel
+         * @param start   the position of the first byte to read
+         * @param end     the position after the last byte to read
+         */
+        MappedFileInputStream(FileChannel channel, Closeable owner, long start, long end) {
+            this.channel = channel;
+            this.owner = owner;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!nextWindow()) {
+                return -1;
+            }
+            position++;
+            return window.get() & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!nextWindow()) {
+                return -1;
+            }
+            final int count = Math.min(length, window.remaining());
+            window.get(buffer, offset, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public long skip(long count) {
+            final long skipped = Math.max(0, Math.min(count, end - position));
+            position += skipped;
+            window = null;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, end - position);
+        }
+
+        @Override
+        public void close() throws IOException {
+            window = null;
+            try {
+                channel.close();
+            } finally {
+                owner.close();
+            }
+        }
+
+        private boolean nextWindow() throws IOException {
+            if (position >= end) {
+                return false;
+            }
+            if (window == null || !window.hasRemaining()) {
+                window =
+                        channel.map(
+                                FileChannel.MapMode.READ_ONLY,
+                                position,
+                                Math.min(WINDOW_SIZE_BYTES, end - position));
+            }
+            return true;
+        }
+    }
+}
@@ -9,13 +9,13 @@ import android.os.Build;
 import android.os.Handler;
 import android.os.Looper;
 import android.text.TextUtils;
-import android.webkit.CookieManager;
 import android.webkit.WebResourceError;
 import android.webkit.WebResourceRequest;
 import android.webkit.WebResourceResponse;
 import android.webkit.WebView;
 import android.webkit.WebViewClient;
 
+import androidx.annotation.Nullable;
 import androidx.annotation.RequiresApi;
 import androidx.webkit.WebResourceErrorCompat;
 
@@ -25,15 +25,15 @@ import org.json.JSONObject;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.IOException;
 import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.URLConnection;
 import java.nio.charset.Charset;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -47,7 +47,17 @@ import io.flutter.plugins.webviewflutter.GeneratedAndroidWebView.WebViewClientFl
  * <p>Passes arguments of callbacks methods from a {@link WebViewClient} to Dart.
  */
 public class WebViewClientFlutterApiImpl extends WebViewClientFlutterApi {
+    private static final String TAG = "WebViewClientFlutterApi";
+
     private final InstanceManager instanceManager;
+    @Nullable
+    private final OfflineResourceCache offlineCache;
+    private final InterceptionRuleTable ruleTable;
+    private final InterceptorHttpClient httpClient;
+    @Nullable
+    private final WebViewAssetServer assetServer;
+    @Nullable
+    private final PageLoadTracker pageLoadTracker;
 
     @RequiresApi(api = Build.VERSION_CODES.M)
     static GeneratedAndroidWebView.WebResourceErrorData createWebResourceErrorData(
@@ -96,8 +106,52 @@ public class WebViewClientFlutterApiImpl extends WebViewClientFlutterApi {
      */
     public WebViewClientFlutterApiImpl(
             BinaryMessenger binaryMessenger, InstanceManager instanceManager) {
+        this(
+                binaryMessenger,
+                instanceManager,
+                null,
+                new InterceptionRuleTable(),
+                new InterceptorHttpClient(new InterceptorHttpClient.WebViewCookieJar()),
+                null,
+                null);
+    }
+
+    /**
+     * Creates a Flutter api that sends messages to Dart and intercepts requests natively.
+     *
+     * @param binaryMessenger handles sending messages to Dart
+     * @param instanceManager maintains instances stored to communicate with Dart objects
+     * @param offlineCache    serves and stores GET requests while it is enabled
+     * @param ruleTable       rules pushed by Dart deciding how requests are served
+     * @param httpClient      sends the intercepted requests served from the network
+     * @param assetServer     serves the Flutter assets and app files from its local domain
+     * @param pageLoadTracker records the timeline of the navigations
+     */
+    public WebViewClientFlutterApiImpl(
+            BinaryMessenger binaryMessenger,
+            InstanceManager instanceManager,
+            @Nullable OfflineResourceCache offlineCache,
+            InterceptionRuleTable ruleTable,
+            InterceptorHttpClient httpClient,
+            @Nullable WebViewAssetServer assetServer,
+            @Nullable PageLoadTracker pageLoadTracker) {
         super(binaryMessenger);
         this.instanceManager = instanceManager;
+        this.offlineCache = offlineCache;
+        this.ruleTable = ruleTable;
+        this.httpClient = httpClient;
+        this.assetServer = assetServer;
+        this.pageLoadTracker = pageLoadTracker;
+    }
+
+    /**
+     * Whether the {@link WebViewClient}s should pass their requests to {@link
+     * #shouldInterceptRequestV2}.
+     */
+    public boolean isInterceptingRequests() {
+        return (offlineCache != null && offlineCache.isEnabled())
+                || !ruleTable.isEmpty()
+                || (assetServer != null && assetServer.isEnabled());
     }
 
     /**
@@ -105,6 +159,9 @@ public class WebViewClientFlutterApiImpl extends WebViewClientFlutterApi {
      */
     public void onPageStarted(
             WebViewClient webViewClient, WebView webView, String urlArg, Reply<Void> callback) {
+        if (pageLoadTracker != null) {
+            pageLoadTracker.onPageStarted(webView, urlArg);
+        }
         onPageStarted(
                 instanceManager.getInstanceId(webViewClient),
                 instanceManager.getInstanceId(webView),
@@ -133,10 +190,14 @@ public class WebViewClientFlutterApiImpl extends WebViewClientFlutterApi {
         return result[0];
     }
 
-    private Map<String, String> convertResponseHeaders(Map<String, List<String>> headers) {
+    private static Map<String, String> convertResponseHeaders(Map<String, List<String>> headers) {
         Map<String, String> responseHeaders = new HashMap<>();
 
         for (Map.Entry<String, List<String>> item : headers.entrySet()) {
+            // HttpURLConnection reports the status line with a null name.
+            if (item.getKey() == null || item.getValue() == null) {
+                continue;
+            }
             StringBuilder sb = new StringBuilder();
             if (!item.getValue().isEmpty()) {
                 for (String headerVal : item.getValue()) {
@@ -188,12 +249,61 @@ public class WebViewClientFlutterApiImpl extends WebViewClientFlutterApi {
     }
 
 
+    /**
+     * Serves a request to the asset server domain from the assets, and other requests according to
+     * the first matching rule of the rule table, from a local file, the offline cache or the
+     * network, without waiting on Dart unless the rule asks for it.
+     *
+     * @return the response, or null to let the WebView load the request
+     */
     @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+    @Nullable
     public WebResourceResponse shouldInterceptRequestV2(WebViewClient webViewClient, WebView view, WebResourceRequest request) {
+        final String url = request.getUrl().toString();
+        if (assetServer != null && assetServer.handles(url)) {
+            onRequestServed(view, request, PageLoadTracker.Source.ASSETS, 0);
+            return assetServer.serve(request.getMethod(), url, request.getRequestHeaders());
+        }
+        final InterceptionRuleTable.Rule rule = ruleTable.match(url);
+        if (rule != null) {
+            switch (rule.getCachePolicy()) {
+                case PASSTHROUGH:
+                    onRequestServed(view, request, PageLoadTracker.Source.WEBVIEW, 0);
+                    return null;
+                case DART:
+                    final WebResourceResponse dartResponse =
+                            interceptFromDart(webViewClient, view, request, rule);
+                    onRequestServed(
+                            view,
+                            request,
+                            dartResponse != null
+                                    ? PageLoadTracker.Source.DART
+                                    : PageLoadTracker.Source.WEBVIEW,
+                            0);
+                    return dartResponse;
+                default:
+                    break;
+            }
+            final WebResourceResponse localResponse =
+                    createLocalFileResponse(rule, url, getOrigin(request));
+            if (localResponse != null) {
+                onRequestServed(view, request, PageLoadTracker.Source.LOCAL_FILE, 0);
+                return localResponse;
+            }
+        }
+        return interceptFromNetwork(webViewClient, view, request, rule);
+    }
+
+    /**
+     * Asks Dart, blocking for up to 200 ms, for the file serving the request, and downloads it
+     * otherwise.
+     */
+    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+    private WebResourceResponse interceptFromDart(WebViewClient webViewClient, WebView view, WebResourceRequest request, InterceptionRuleTable.Rule rule) {
         String url = request.getUrl().toString();
         String reply = shouldInterceptRequest(webViewClient, view, url);
         if (reply == null) return null;
-        boolean hasOrigin = (request.getRequestHeaders() != null && request.getRequestHeaders().containsKey("Origin"));
+        final String origin = getOrigin(request);
         boolean needsDownload = true;
         String fileName = null;
         try {
@@ -208,15 +318,7 @@ public class WebViewClientFlutterApiImpl extends WebViewClientFlutterApi {
                     if (file.exists()) {
                         try {
                             FileInputStream fileInputStream = new FileInputStream(file);
-                            if (hasOrigin) {
-                                Map<String, String> headers = new HashMap<>();
-                                headers.put("access-control-allow-origin", "*");
-                                headers.put("access-control-allow-credentials", "true");
-                                headers.put("access-control-allow-methods", "GET POST OPTIONS");
-                                headers.put("Access-Control-Allow-Headers", "Content-Type");
-                                return new WebResourceResponse(mimeType, encoding, 200, "ok", headers, fileInputStream);
-                            }
-                            return new WebResourceResponse(mimeType, encoding, fileInputStream);
+                            return new WebResourceResponse(mimeType, encoding, 200, "ok", createResponseHeaders(Collections.<String, String>emptyMap(), rule, origin), fileInputStream);
                         } catch (FileNotFoundException e) {
                             e.printStackTrace();
                         }
@@ -234,84 +336,45 @@ public class WebViewClientFlutterApiImpl extends WebViewClientFlutterApi {
         try {
             if ("get".equals(method) && !TextUtils.isEmpty(url)
                     && url.startsWith("http")) {
-                URL uri = new URL(url);
-                CookieManager cookieManager = CookieManager.getInstance();
-                String cookie = cookieManager.getCookie(uri.getHost());
-                HttpURLConnection conn = (HttpURLConnection) uri.openConnection();
-                conn.setRequestMethod("GET");
-                conn.setDoInput(true);
-                conn.setRequestProperty("Cookie", cookie);
                 Map<String, String> requestHeaders = request.getRequestHeaders();
-                if (requestHeaders != null && !requestHeaders.isEmpty()) {
-                    for (Map.Entry<String, String> entry : requestHeaders.entrySet()) {
-                        conn.setRequestProperty(entry.getKey(), entry.getValue());
-                    }
-                }
-                conn.setUseCaches(false);
-                int responseCode = conn.getResponseCode();
+                InterceptorHttpClient.Exchange exchange =
+                        httpClient.execute(url, createRequestHeaders(requestHeaders, null, null));
+                int responseCode = exchange.getResponseCode();
                 if (responseCode == HttpURLConnection.HTTP_OK) {
-                    String contentType = conn.getContentType();
+                    String contentType = exchange.getContentType();
                     String mimeType = getMime(contentType);
                     String charset = getCharset(contentType);
                     if (!TextUtils.isEmpty(mimeType)) {
-                        Map<String, String> responseHeaders = convertResponseHeaders(conn.getHeaderFields());
-                        if (hasOrigin) {
-                            Map<String, String> headers = new HashMap<>();
-                            headers.put("access-control-allow-origin", "*");
-                            headers.put("access-control-allow-credentials", "true");
-                            headers.put("access-control-allow-methods", "GET POST OPTIONS");
-                            headers.put("Access-Control-Allow-Headers", "Content-Type");
-                            responseHeaders.putAll(headers);
-                        }
-                        if (needsDownload) {
-                            if (fileName == null) {
-                                fileName = view.getContext().getFilesDir().getAbsolutePath() + File.separator + "offline" + File.separator + System.currentTimeMillis();
-                            }
+                        Map<String, String> responseHeaders = createResponseHeaders(convertResponseHeaders(exchange.getHeaderFields()), rule, origin);
+                        // The body is only downloaded to the path chosen by Dart, responses without
+                        // one are stored by the offline cache.
+                        if (needsDownload && !TextUtils.isEmpty(fileName)) {
+                            final String downloadFileName = fileName;
                             try {
-                                InputStream inputStream = conn.getInputStream();
-                                OutputStream os = new FileOutputStream(fileName);
-                                int bytesRead = 0;
-                                byte[] buffer = new byte[1024];
-                                while ((bytesRead = inputStream.read(buffer, 0, 1024)) != -1) {
-                                    os.write(buffer, 0, bytesRead);
-                                }
-                                os.close();
-                                inputStream.close();
-                                String finalFileName = fileName;
-                                new Handler(Looper.getMainLooper()).post(new Runnable() {
+                                TeeInputStream inputStream = new TeeInputStream(exchange.getBody(), new File(fileName), new TeeInputStream.Listener() {
                                     @Override
-                                    public void run() {
-                                        String webUrl = view.getUrl();
-                                        JSONObject jsonObject = new JSONObject();
-                                        if (requestHeaders != null) {
-                                            try {
-                                                jsonObject.put("requestHeaders", new JSONObject(requestHeaders));
-                                            } catch (JSONException e) {
-                                                e.printStackTrace();
-                                            }
-                                        }
-                                        try {
-                                            jsonObject.put("filePath", finalFileName);
-                                        } catch (JSONException e) {
-                                            e.printStackTrace();
-                                        }
-                                        sendInterceptRequest(webViewClient, view, url, mimeType, webUrl, TextUtils.isEmpty(charset) ? Charset.defaultCharset().name() : charset, jsonObject.toString());
+                                    public void onComplete(File file) {
+                                        postInterceptRequest(webViewClient, view, url, mimeType, charset, downloadFileName, requestHeaders);
                                     }
-                                });
-                                return new WebResourceResponse(mimeType, TextUtils.isEmpty(charset) ? Charset.defaultCharset().name() : charset, responseCode, conn.getResponseMessage(), responseHeaders, new FileInputStream(fileName));
-                            } catch (Exception e) {
 
+                                    @Override
+                                    public void onAbort(File file) {
+                                    }
+                                });
+                                return new WebResourceResponse(mimeType, TextUtils.isEmpty(charset) ? Charset.defaultCharset().name() : charset, responseCode, exchange.getResponseMessage(), responseHeaders, inputStream);
+                            } catch (IOException e) {
+                                Log.w(TAG, "Could not download " + url + " to " + fileName + ": " + e);
+                                exchange.close();
+                                return null;
                             }
-
-
                         }
 
-                        return new WebResourceResponse(mimeType, TextUtils.isEmpty(charset) ? Charset.defaultCharset().name() : charset, responseCode, conn.getResponseMessage(), responseHeaders, conn.getInputStream());
+                        return new WebResourceResponse(mimeType, TextUtils.isEmpty(charset) ? Charset.defaultCharset().name() : charset, responseCode, exchange.getResponseMessage(), responseHeaders, exchange.getBody());
 
                     }
 
                 }
-
+                exchange.close();
             }
 
 
@@ -321,6 +384,340 @@ public class WebViewClientFlutterApiImpl extends WebViewClientFlutterApi {
         return null;
     }
 
+    /**
+     * Serves GET requests from the network, or from the offline cache when it is enabled and the
+     * rule allows it.
+     *
+     * <p>Stale cache entries are revalidated with their ETag or Last-Modified, and served when the
+     * network is unavailable. Network responses are streamed to the WebView while they are written
+     * to the cache.
+     */
+    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+    @Nullable
+    private WebResourceResponse interceptFromNetwork(
+            WebViewClient webViewClient,
+            WebView view,
+            WebResourceRequest request,
+            @Nullable InterceptionRuleTable.Rule rule) {
+        final String url = request.getUrl().toString();
+        final Map<String, String> requestHeaders = request.getRequestHeaders();
+        if (!"GET".equalsIgnoreCase(request.getMethod())
+                || !url.startsWith("http")
+                || (requestHeaders != null && requestHeaders.containsKey("Range"))) {
+            onRequestServed(view, request, PageLoadTracker.Source.WEBVIEW, 0);
+            return null;
+        }
+        final boolean useCache =
+                offlineCache != null
+                        && offlineCache.isEnabled()
+                        && (rule == null
+                        || rule.getCachePolicy() == InterceptionRuleTable.CachePolicy.CACHE);
+        if (!useCache && rule == null) {
+            onRequestServed(view, request, PageLoadTracker.Source.WEBVIEW, 0);
+            return null;
+        }
+        final String origin = getOrigin(request);
+
+        final OfflineResourceCache.Entry entry = useCache ? offlineCache.get(url) : null;
+        if (entry != null && entry.isFresh(System.currentTimeMillis())) {
+            return serveCachedResponse(view, request, entry, rule, origin);
+        }
+
+        InterceptorHttpClient.Exchange exchange = null;
+        try {
+            exchange = httpClient.execute(url, createRequestHeaders(requestHeaders, rule, entry));
+            final int responseCode = exchange.getResponseCode();
+            if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED && entry != null) {
+                offlineCache.refresh(entry, computeExpiresAt(exchange));
+                exchange.close();
+                return serveCachedResponse(view, request, entry, rule, origin);
+            }
+            final String contentType = exchange.getContentType();
+            final String mimeType = getMime(contentType);
+            // Redirects are not followed by the client, the WebView loads them itself so the
+            // document keeps its final url.
+            if (responseCode != HttpURLConnection.HTTP_OK || TextUtils.isEmpty(mimeType)) {
+                exchange.close();
+                onRequestServed(view, request, PageLoadTracker.Source.WEBVIEW, 0);
+                return null;
+            }
+            final String charset = getCharset(contentType);
+            final long expiresAt = computeExpiresAt(exchange);
+            final Map<String, List<String>> headerFields = exchange.getHeaderFields();
+            final Map<String, String> responseHeaders =
+                    createResponseHeaders(convertResponseHeaders(headerFields), rule, origin);
+            onRequestServed(view, request, PageLoadTracker.Source.NETWORK, 0);
+            if (!useCache || expiresAt < 0) {
+                return new WebResourceResponse(
+                        mimeType,
+                        TextUtils.isEmpty(charset) ? Charset.defaultCharset().name() : charset,
+                        responseCode,
+                        exchange.getResponseMessage(),
+                        responseHeaders,
+                        exchange.getBody());
+            }
+
+            final String etag = exchange.getHeaderField("ETag");
+            final String lastModified = exchange.getHeaderField("Last-Modified");
+            final TeeInputStream inputStream =
+                    new TeeInputStream(
+                            exchange.getBody(),
+                            offlineCache.newBodyFile(),
+                            new TeeInputStream.Listener() {
+                                @Override
+                                public void onComplete(File file) {
+                                    final OfflineResourceCache.Entry stored =
+                                            offlineCache.put(
+                                                    url,
+                                                    file,
+                                                    mimeType,
+                                                    charset,
+                                                    etag,
+                                                    lastModified,
+                                                    headerFields,
+                                                    expiresAt);
+                                    if (stored != null) {
+                                        postInterceptRequest(
+                                                webViewClient,
+                                                view,
+                                                url,
+                                                mimeType,
+                                                charset,
+                                                stored.getFile().getAbsolutePath(),
+                                                requestHeaders);
+                                    }
+                                }
+
+                                @Override
+                                public void onAbort(File file) {
+                                }
+                            });
+            return new WebResourceResponse(
+                    mimeType,
+                    TextUtils.isEmpty(charset) ? Charset.defaultCharset().name() : charset,
+                    responseCode,
+                    exchange.getResponseMessage(),
+                    responseHeaders,
+                    inputStream);
+        } catch (IOException e) {
+            if (exchange != null) {
+                exchange.close();
+            }
+            if (entry != null) {
+                return serveCachedResponse(view, request, entry, rule, origin);
+            }
+            onRequestServed(view, request, PageLoadTracker.Source.WEBVIEW, 0);
+            return null;
+        }
+    }
+
+    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+    @Nullable
+    private WebResourceResponse serveCachedResponse(
+            WebView view,
+            WebResourceRequest request,
+            OfflineResourceCache.Entry entry,
+            @Nullable InterceptionRuleTable.Rule rule,
+            @Nullable String origin) {
+        final WebResourceResponse response =
+                createCachedResponse(entry, createResponseHeaders(entry.getHeaders(), rule, origin));
+        if (response != null) {
+            onRequestServed(view, request, PageLoadTracker.Source.CACHE, entry.getSize());
+        } else {
+            onRequestServed(view, request, PageLoadTracker.Source.WEBVIEW, 0);
+        }
+        return response;
+    }
+
+    /**
+     * Records how a request was served in the timeline of the navigation of {@code view}.
+     */
+    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+    private void onRequestServed(
+            WebView view, WebResourceRequest request, PageLoadTracker.Source source, long cacheBytes) {
+        if (pageLoadTracker != null) {
+            pageLoadTracker.onRequest(view, request.isForMainFrame(), source, cacheBytes);
+        }
+    }
+
+    /**
+     * Returns the headers sent to the network: the WebView headers rewritten by the rule, and the
+     * validators of the stale cache entry.
+     */
+    private static Map<String, String> createRequestHeaders(
+            @Nullable Map<String, String> requestHeaders,
+            @Nullable InterceptionRuleTable.Rule rule,
+            @Nullable OfflineResourceCache.Entry staleEntry) {
+        final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (requestHeaders != null) {
+            headers.putAll(requestHeaders);
+        }
+        // The body is stored decoded, and the conditional headers are set from the cache.
+        headers.remove("Accept-Encoding");
+        headers.remove("If-None-Match");
+        headers.remove("If-Modified-Since");
+        if (rule != null) {
+            for (Map.Entry<String, String> header : rule.getRequestHeaders().entrySet()) {
+                if (header.getValue() == null) {
+                    headers.remove(header.getKey());
+                } else {
+                    headers.put(header.getKey(), header.getValue());
+                }
+            }
+        }
+        if (staleEntry != null && staleEntry.getEtag() != null) {
+            headers.put("If-None-Match", staleEntry.getEtag());
+        }
+        if (staleEntry != null && staleEntry.getLastModified() != null) {
+            headers.put("If-Modified-Since", staleEntry.getLastModified());
+        }
+        return headers;
+    }
+
+    private static long computeExpiresAt(InterceptorHttpClient.Exchange exchange) {
+        return OfflineResourceCache.computeExpiresAt(
+                System.currentTimeMillis(),
+                exchange.getHeaderField("Cache-Control"),
+                exchange.getHeaderField("Expires"),
+                exchange.getHeaderField("Last-Modified"),
+                exchange.getHeaderField("ETag"));
+    }
+
+    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+    @Nullable
+    private static String getOrigin(WebResourceRequest request) {
+        final Map<String, String> requestHeaders = request.getRequestHeaders();
+        if (requestHeaders == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> header : requestHeaders.entrySet()) {
+            if ("Origin".equalsIgnoreCase(header.getKey())) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the headers of an intercepted response: the upstream or cached headers, overridden by
+     * the CORS headers when the rule allows the origin of the request, and then by the headers of
+     * the rule. The CORS headers of the server are kept otherwise.
+     */
+    private static Map<String, String> createResponseHeaders(
+            Map<String, String> upstreamHeaders,
+            @Nullable InterceptionRuleTable.Rule rule,
+            @Nullable String origin) {
+        final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(upstreamHeaders);
+        if (origin != null && rule != null && rule.allowsOrigin(origin)) {
+            final String vary = headers.get("Vary");
+            headers.putAll(createCorsHeaders(origin));
+            if (vary != null && !vary.contains("Origin")) {
+                headers.put("Vary", vary + ", Origin");
+            }
+        }
+        if (rule != null) {
+            headers.putAll(rule.getResponseHeaders());
+        }
+        return headers;
+    }
+
+    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+    @Nullable
+    private static WebResourceResponse createLocalFileResponse(
+            InterceptionRuleTable.Rule rule, String url, @Nullable String origin) {
+        final File file = rule.resolveLocalFile(url);
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        final FileInputStream inputStream;
+        try {
+            inputStream = new FileInputStream(file);
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+        String mimeType = rule.getMimeType();
+        if (mimeType == null) {
+            mimeType = URLConnection.guessContentTypeFromName(file.getName());
+        }
+        final String encoding = rule.getEncoding();
+        return new WebResourceResponse(
+                mimeType != null ? mimeType : "application/octet-stream",
+                encoding != null ? encoding : Charset.defaultCharset().name(),
+                HttpURLConnection.HTTP_OK,
+                "OK",
+                createResponseHeaders(Collections.<String, String>emptyMap(), rule, origin),
+                inputStream);
+    }
+
+    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+    @Nullable
+    private static WebResourceResponse createCachedResponse(
+            OfflineResourceCache.Entry entry, Map<String, String> responseHeaders) {
+        final FileInputStream inputStream;
+        try {
+            inputStream = new FileInputStream(entry.getFile());
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+        final String encoding = entry.getEncoding();
+        return new WebResourceResponse(
+                entry.getMimeType(),
+                TextUtils.isEmpty(encoding) ? Charset.defaultCharset().name() : encoding,
+                HttpURLConnection.HTTP_OK,
+                "OK",
+                responseHeaders,
+                inputStream);
+    }
+
+    /**
+     * Returns the CORS headers allowing {@code origin}, which must be allowed by the rule.
+     * Credentials are only allowed with an explicit origin, so the request origin is echoed instead
+     * of a wildcard.
+     */
+    private static Map<String, String> createCorsHeaders(String origin) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("access-control-allow-origin", origin);
+        headers.put("access-control-allow-credentials", "true");
+        headers.put("vary", "Origin");
+        headers.put("access-control-allow-methods", "GET POST OPTIONS");
+        headers.put("Access-Control-Allow-Headers", "Content-Type");
+        return headers;
+    }
+
+    /**
+     * Tells Dart on the main thread that the response to {@code url} was saved in {@code filePath}.
+     */
+    private void postInterceptRequest(
+            WebViewClient webViewClient,
+            WebView view,
+            String url,
+            String mimeType,
+            @Nullable String charset,
+            String filePath,
+            @Nullable Map<String, String> requestHeaders) {
+        new Handler(Looper.getMainLooper()).post(new Runnable() {
+            @Override
+            public void run() {
+                String webUrl = view.getUrl();
+                JSONObject jsonObject = new JSONObject();
+                if (requestHeaders != null) {
+                    try {
+                        jsonObject.put("requestHeaders", new JSONObject(requestHeaders));
+                    } catch (JSONException e) {
+                        e.printStackTrace();
+                    }
+                }
+                try {
+                    jsonObject.put("filePath", filePath);
+                } catch (JSONException e) {
+                    e.printStackTrace();
+                }
+                sendInterceptRequest(webViewClient, view, url, mimeType, webUrl, TextUtils.isEmpty(charset) ? Charset.defaultCharset().name() : charset, jsonObject.toString());
+            }
+        });
+    }
+
     public void sendInterceptRequest(WebViewClient webViewClient, WebView webView, String requestUrl, String mimeType, String webUrl, String encoding, String requestHeaders) {
         sendInterceptRequest(instanceManager.getInstanceId(webViewClient), instanceManager.getInstanceId(webView),
                 requestUrl, mimeType, webUrl, encoding, requestHeaders, new Reply<String>() {
@@ -337,6 +734,9 @@ public class WebViewClientFlutterApiImpl extends WebViewClientFlutterApi {
      */
     public void onPageFinished(
             WebViewClient webViewClient, WebView webView, String urlArg, Reply<Void> callback) {
+        if (pageLoadTracker != null) {
+            pageLoadTracker.onPageFinished(webView, urlArg);
+        }
         onPageFinished(
                 instanceManager.getInstanceId(webViewClient),
                 instanceManager.getInstanceId(webView),
@@ -355,6 +755,9 @@ public class WebViewClientFlutterApiImpl extends WebViewClientFlutterApi {
             WebResourceRequest request,
             WebResourceError error,
             Reply<Void> callback) {
+        if (pageLoadTracker != null) {
+            pageLoadTracker.onReceivedError(webView);
+        }
         onReceivedRequestError(
                 instanceManager.getInstanceId(webViewClient),
                 instanceManager.getInstanceId(webView),
@@ -374,6 +777,9 @@ public class WebViewClientFlutterApiImpl extends WebViewClientFlutterApi {
             WebResourceRequest request,
             WebResourceErrorCompat error,
             Reply<Void> callback) {
+        if (pageLoadTracker != null) {
+            pageLoadTracker.onReceivedError(webView);
+        }
         onReceivedRequestError(
                 instanceManager.getInstanceId(webViewClient),
                 instanceManager.getInstanceId(webView),
@@ -393,6 +799,9 @@ public class WebViewClientFlutterApiImpl extends WebViewClientFlutterApi {
             String descriptionArg,
             String failingUrlArg,
             Reply<Void> callback) {
+        if (pageLoadTracker != null) {
+            pageLoadTracker.onReceivedError(webView);
+        }
         onReceivedError(
                 instanceManager.getInstanceId(webViewClient),
                 instanceManager.getInstanceId(webView),
@@ -11,6 +11,7 @@ import android.os.Build;
 import android.view.KeyEvent;
 import android.webkit.WebResourceError;
 import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
 import android.webkit.WebView;
 import android.webkit.WebViewClient;
 
@@ -67,19 +68,18 @@ public class WebViewClientHostApiImpl implements GeneratedAndroidWebView.WebView
                 });
             }
         }
-//        @Nullable
-//        @Override
-//        public WebResourceResponse shouldInterceptRequest(WebView view, WebResourceRequest request) {
-//            if (flutterApi != null) {
-//                WebResourceResponse webResourceResponse = flutterApi.shouldInterceptRequestV2(this, view, request);
-//                if(webResourceResponse != null){
-//                    return  webResourceResponse;
-//                }
-//            }
-//
-//            return super.shouldInterceptRequest(view,request);
-//        }
 
+        @Nullable
+        @Override
+        public WebResourceResponse shouldInterceptRequest(WebView view, WebResourceRequest request) {
+            if (flutterApi != null && flutterApi.isInterceptingRequests()) {
+                WebResourceResponse webResourceResponse = flutterApi.shouldInterceptRequestV2(this, view, request);
+                if (webResourceResponse != null) {
+                    return webResourceResponse;
+                }
+            }
+            return super.shouldInterceptRequest(view, request);
+        }
 
         @Override
         public void onPageFinished(WebView view, String url) {
@@ -178,18 +178,18 @@ public class WebViewClientHostApiImpl implements GeneratedAndroidWebView.WebView
             }
         }
 
-//        @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
-//        @Nullable
-//        @Override
-//        public WebResourceResponse shouldInterceptRequest(WebView view, WebResourceRequest request) {
-//            if (flutterApi != null) {
-//                WebResourceResponse webResourceResponse = flutterApi.shouldInterceptRequestV2(this, view, request);
-//                if(webResourceResponse != null){
-//                    return  webResourceResponse;
-//                }
-//            }
-//            return super.shouldInterceptRequest(view,request);
-//        }
+        @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+        @Nullable
+        @Override
+        public WebResourceResponse shouldInterceptRequest(WebView view, WebResourceRequest request) {
+            if (flutterApi != null && flutterApi.isInterceptingRequests()) {
+                WebResourceResponse webResourceResponse = flutterApi.shouldInterceptRequestV2(this, view, request);
+                if (webResourceResponse != null) {
+                    return webResourceResponse;
+                }
+            }
+            return super.shouldInterceptRequest(view, request);
+        }
 
         // This method is only called when the WebViewFeature.RECEIVE_WEB_RESOURCE_ERROR feature is
         // enabled. The deprecated method is called when a device doesn't support this.
@@ -0,0 +1,940 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import android.webkit.URLUtil;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Downloads files natively, for the {@code onDownloadStart} callbacks of the WebViews and the
+ * {@code download} custom action, with the cookies and the User-Agent of the WebViews.
+ *
+ * <p>Responses are streamed to a {@code .part} file next to their destination, which is renamed
+ * once complete. When the server supports range requests, large files are downloaded as several
+ * segments over parallel connections, each written at its offset, and a segment whose connection
+ * failed or that was paused resumes from its last written byte with an {@code If-Range} request,
+ * so no byte is downloaded twice while the file is unchanged. Progress and completion are sent to
+ * Dart as {@code downloadStarted}, {@code downloadProgress} and {@code downloadComplete} events.
+ */
+public class WebViewDownloader {
+    static final int DEFAULT_MAX_SEGMENTS = 4;
+    static final long DEFAULT_MIN_SEGMENT_BYTES = 2 * 1024 * 1024;
+    static final int DEFAULT_MAX_RETRIES = 3;
+    // Bounds the connections of all the downloads.
+    private static final int MAX_CONNECTIONS = 8;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long PROGRESS_INTERVAL_MS = 250;
+    private static final long RETRY_DELAY_MS = 1000;
+
+    private static final Pattern CONTENT_RANGE =
+            Pattern.compile("bytes\\s+(\\d+)-(\\d+)/(\\d+|\\*)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern EXTENDED_FILENAME =
+            Pattern.compile("filename\\*\\s*=\\s*([^']*)'[^']*'([^;]+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern FILENAME =
+            Pattern.compile("filename\\s*=\\s*(?:\"([^\"]*)\"|([^;]+))", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * The options of a download.
+     */
+    public static class Request {
+        final String downloadId;
+        final String url;
+        @Nullable
+        String userAgent;
+        @Nullable
+        String contentDisposition;
+        @Nullable
+        String mimeType;
+        @Nullable
+        String fileName;
+        final Map<String, String> headers = new HashMap<>();
+
+        public Request(String downloadId, String url) {
+            this.downloadId = downloadId;
+            this.url = url;
+        }
+
+        public Request setUserAgent(@Nullable String userAgent) {
+            this.userAgent = userAgent;
+            return this;
+        }
+
+        /**
+         * Sets the {@code Content-Disposition} given by the WebView, used to name the file unless
+         * the response has its own.
+         */
+        public Request setContentDisposition(@Nullable String contentDisposition) {
+            this.contentDisposition = contentDisposition;
+            return this;
+        }
+
+        public Request setMimeType(@Nullable String mimeType) {
+            this.mimeType = mimeType;
+            return this;
+        }
+
+        /**
+         * Sets the name of the file in the download directory, instead of the one given by the
+         * response. A number is added to the name if the file exists.
+         */
+        public Request setFileName(@Nullable String fileName) {
+            this.fileName = fileName;
+            return this;
+        }
+
+        public Request putHeader(String name, String value) {
+            headers.put(name, value);
+            return this;
+        }
+    }
+
+    /**
+     * A byte range of the file, downloaded over one connection.
+     */
+    static final class Segment {
+        final long start;
+        // Inclusive, or -1 until the end of the response.
+        final long end;
+        // The next byte to write, written by the thread downloading the segment.
+        volatile long position;
+        // Whether the segment was downloaded to its end.
+        volatile boolean finished;
+
+        Segment(long start, long end) {
+            this.start = start;
+            this.end = end;
+            this.position = start;
+        }
+
+        boolean isComplete() {
+            return end >= 0 && position > end;
+        }
+    }
+
+    private enum State {
+        RUNNING,
+        PAUSED,
+        COMPLETED,
+        FAILED,
+        CANCELLED
+    }
+
+    private final class Download {
+        final Request request;
+        final Object owner;
+        volatile boolean cancelled;
+        volatile boolean paused;
+        final AtomicLong received = new AtomicLong();
+
+        // Guarded by this.
+        State state = State.RUNNING;
+        @Nullable
+        File file;
+        @Nullable
+        File partFile;
+        @Nullable
+        String mimeType;
+        long total = -1;
+        // Sent with If-Range when resuming, null if the response can't be resumed.
+        @Nullable
+        String validator;
+        boolean rangesSupported;
+        @Nullable
+        List<Segment> segments;
+        int runningSegments;
+        @Nullable
+        String error;
+        long runStartTime;
+        long runStartReceived;
+        long lastProgressTime;
+
+        Download(Request request, Object owner) {
+            this.request = request;
+            this.owner = owner;
+            this.mimeType = request.mimeType;
+        }
+
+        JSONObject toEvent(String name) throws JSONException {
+            final JSONObject event = new JSONObject();
+            event.put("event", name);
+            event.put("downloadId", request.downloadId);
+            event.put("url", request.url);
+            event.put("state", state.name().toLowerCase(Locale.US));
+            event.put("received", received.get());
+            event.put("total", total);
+            event.put("segments", segments != null ? segments.size() : 0);
+            final long elapsedMs = System.currentTimeMillis() - runStartTime;
+            event.put(
+                    "bytesPerSecond",
+                    elapsedMs > 0 ? (received.get() - runStartReceived) * 1000 / elapsedMs : 0);
+            if (file != null) {
+                event.put("filePath", file.getAbsolutePath());
+            }
+            event.put("mimeType", mimeType);
+            if (error != null) {
+                event.put("error", error);
+            }
+            return event;
+        }
+    }
+
+    private final InterceptorHttpClient httpClient;
+    @Nullable
+    private final CustomFlutterApiImpl flutterApi;
+    private final Executor executor;
+    // Guarded by itself.
+    private final Map<String, Download> downloads = new HashMap<>();
+    private final AtomicLong totalCompleted = new AtomicLong();
+    private final AtomicLong totalFailed = new AtomicLong();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private volatile boolean enabled;
+    private volatile File directory;
+    private volatile int maxSegments = DEFAULT_MAX_SEGMENTS;
+    private volatile long minSegmentBytes = DEFAULT_MIN_SEGMENT_BYTES;
+    private volatile int maxRetries = DEFAULT_MAX_RETRIES;
+
+    /**
+     * Creates a downloader writing into {@code directory}.
+     *
+     * @param cookieJar  the cookies sent with and received from the downloads
+     * @param directory  the directory the files are downloaded to
+     * @param flutterApi sends the progress of the downloads to Dart
+     */
+    public WebViewDownloader(
+            InterceptorHttpClient.CookieJar cookieJar,
+            File directory,
+            @Nullable CustomFlutterApiImpl flutterApi) {
+        this(new InterceptorHttpClient(cookieJar), createExecutor(), directory, flutterApi);
+    }
+
+    @VisibleForTesting
+    WebViewDownloader(
+            InterceptorHttpClient httpClient,
+            Executor executor,
+            File directory,
+            @Nullable CustomFlutterApiImpl flutterApi) {
+        this.httpClient = httpClient;
+        httpClient.setMaxRequestsPerHost(MAX_CONNECTIONS);
+        // Download links commonly redirect to the server hosting the file.
+        httpClient.setFollowRedirects(true);
+        this.executor = executor;
+        this.directory = directory;
+        this.flutterApi = flutterApi;
+    }
+
+    private static Executor createExecutor() {
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(
+                        MAX_CONNECTIONS,
+                        MAX_CONNECTIONS,
+                        30,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<Runnable>(),
+                        new ThreadFactory() {
+                            @Override
+                            public Thread newThread(Runnable runnable) {
+                                return new Thread(runnable, "WebViewDownload-" + threadCount.incrementAndGet());
+                            }
+                        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Returns whether the downloads started by the WebViews are also downloaded natively. They are
+     * passed to Dart either way.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void setDirectory(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Sets the number of parallel connections of a download, 1 to download files over a single
+     * connection.
+     */
+    public void setMaxSegments(int maxSegments) {
+        this.maxSegments = Math.max(1, Math.min(MAX_CONNECTIONS, maxSegments));
+    }
+
+    /**
+     * Sets the smallest segment a file is split into, so small files use a single connection.
+     */
+    public void setMinSegmentBytes(long minSegmentBytes) {
+        this.minSegmentBytes = Math.max(1, minSegmentBytes);
+    }
+
+    /**
+     * Sets how many times a failed connection is resumed before the download fails.
+     */
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = Math.max(0, maxRetries);
+    }
+
+    public void setConnectTimeoutMs(int connectTimeoutMs) {
+        httpClient.setConnectTimeoutMs(connectTimeoutMs);
+    }
+
+    public void setReadTimeoutMs(int readTimeoutMs) {
+        httpClient.setReadTimeoutMs(readTimeoutMs);
+    }
+
+    /**
+     * Starts a download, replacing a download with the same id.
+     *
+     * @param owner the instance the events of the download are sent for
+     */
+    public void download(Request request, Object owner) {
+        final Download download = new Download(request, owner);
+        final Download previous;
+        synchronized (downloads) {
+            previous = downloads.put(request.downloadId, download);
+        }
+        if (previous != null) {
+            cancel(previous);
+        }
+        synchronized (download) {
+            download.runningSegments = 1;
+            download.runStartTime = System.currentTimeMillis();
+        }
+        sendEvent(download, "downloadStarted");
+        executor.execute(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        start(download);
+                    }
+                });
+    }
+
+    /**
+     * Pauses a download. Its connections stop at their next read, and the downloaded bytes are kept.
+     *
+     * @return whether the download was running
+     */
+    public boolean pause(String downloadId) {
+        final Download download = getDownload(downloadId);
+        if (download == null) {
+            return false;
+        }
+        synchronized (download) {
+            if (download.state != State.RUNNING) {
+                return false;
+            }
+            download.paused = true;
+        }
+        return true;
+    }
+
+    /**
+     * Resumes a paused download from its downloaded bytes, or from the start if the server doesn't
+     * support range requests.
+     *
+     * @return whether the download was paused
+     */
+    public boolean resume(String downloadId) {
+        final Download download = getDownload(downloadId);
+        if (download == null) {
+            return false;
+        }
+        final List<Segment> segments;
+        synchronized (download) {
+            if (!download.paused || download.runningSegments > 0 || download.state != State.PAUSED) {
+                return false;
+            }
+            download.paused = false;
+            download.state = State.RUNNING;
+            download.runStartTime = System.currentTimeMillis();
+            download.runStartReceived = download.received.get();
+            segments = download.segments;
+            if (segments == null || !download.rangesSupported) {
+                // Started again from a new first request.
+                download.segments = null;
+                download.received.set(0);
+                download.runStartReceived = 0;
+                download.runningSegments = 1;
+            } else {
+                for (Segment segment : segments) {
+                    if (!segment.finished) {
+                        download.runningSegments++;
+                    }
+                }
+            }
+        }
+        if (segments == null || !download.rangesSupported) {
+            executor.execute(
+                    new Runnable() {
+                        @Override
+                        public void run() {
+                            start(download);
+                        }
+                    });
+        } else {
+            for (Segment segment : segments) {
+                if (!segment.finished) {
+                    executeSegment(download, segment);
+                }
+            }
+        }
+        sendEvent(download, "downloadProgress");
+        return true;
+    }
+
+    /**
+     * Cancels a download and deletes its partial file.
+     *
+     * @return whether the download was running or paused
+     */
+    public boolean cancel(String downloadId) {
+        final Download download = getDownload(downloadId);
+        if (download == null) {
+            return false;
+        }
+        cancel(download);
+        return true;
+    }
+
+    public Map<String, Object> getStats() {
+        final Map<String, Object> stats = new HashMap<>();
+        synchronized (downloads) {
+            stats.put("activeDownloads", downloads.size());
+        }
+        stats.put("completed", totalCompleted.get());
+        stats.put("failed", totalFailed.get());
+        stats.put("bytes", totalBytes.get());
+        stats.put("hosts", httpClient.getStats());
+        return stats;
+    }
+
+    @Nullable
+    private Download getDownload(String downloadId) {
+        synchronized (downloads) {
+            return downloads.get(downloadId);
+        }
+    }
+
+    private void cancel(Download download) {
+        final boolean idle;
+        synchronized (download) {
+            if (download.state != State.RUNNING && download.state != State.PAUSED) {
+                return;
+            }
+            download.cancelled = true;
+            idle = download.runningSegments == 0;
+        }
+        if (idle) {
+            finish(download);
+        }
+    }
+
+    /**
+     * Sends the first request of a download, names its file and starts its segments. The first
+     * segment goes on over the connection of the first request.
+     */
+    private void start(Download download) {
+        final Request request = download.request;
+        InterceptorHttpClient.Exchange exchange = null;
+        try {
+            final Map<String, String> headers = createHeaders(request);
+            headers.put("Range", "bytes=0-");
+            exchange = httpClient.execute(request.url, headers);
+            final int responseCode = exchange.getResponseCode();
+            final long[] contentRange =
+                    responseCode == HttpURLConnection.HTTP_PARTIAL
+                            ? parseContentRange(exchange.getHeaderField("Content-Range"))
+                            : null;
+            if (responseCode != HttpURLConnection.HTTP_OK
+                    && (contentRange == null || contentRange[0] != 0)) {
+                throw new IOException("Unexpected response " + responseCode + " for " + request.url);
+            }
+
+            final long total = contentRange != null ? contentRange[2] : parseLength(exchange);
+            final boolean rangesSupported =
+                    contentRange != null
+                            || "bytes".equalsIgnoreCase(exchange.getHeaderField("Accept-Ranges"));
+            final String contentDisposition = exchange.getHeaderField("Content-Disposition");
+            final String mimeType = getMimeType(exchange.getContentType());
+            final List<Segment> segments =
+                    splitSegments(
+                            total, contentRange != null ? maxSegments : 1, minSegmentBytes);
+            final Segment first = segments.get(0);
+            synchronized (download) {
+                download.total = total;
+                download.rangesSupported = rangesSupported;
+                download.validator = rangesSupported ? getValidator(exchange) : null;
+                if (mimeType != null) {
+                    download.mimeType = mimeType;
+                }
+                if (download.file == null) {
+                    download.file =
+                            reserveFile(
+                                    directory,
+                                    getFileName(
+                                            request,
+                                            contentDisposition != null
+                                                    ? contentDisposition
+                                                    : request.contentDisposition,
+                                            download.mimeType));
+                    download.partFile = new File(download.file.getPath() + ".part");
+                }
+                download.segments = segments;
+            }
+            try (RandomAccessFile file = new RandomAccessFile(download.partFile, "rw")) {
+                file.setLength(total > 0 ? total : 0);
+            }
+            synchronized (download) {
+                download.runningSegments += segments.size() - 1;
+            }
+            for (int i = 1; i < segments.size(); i++) {
+                executeSegment(download, segments.get(i));
+            }
+            final InterceptorHttpClient.Exchange firstExchange = exchange;
+            exchange = null;
+            runSegment(download, first, firstExchange);
+        } catch (IOException | RuntimeException e) {
+            if (exchange != null) {
+                exchange.close();
+            }
+            onSegmentDone(download, download.cancelled || download.paused ? null : e);
+        }
+    }
+
+    private void executeSegment(final Download download, final Segment segment) {
+        executor.execute(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        runSegment(download, segment, null);
+                    }
+                });
+    }
+
+    /**
+     * Downloads a segment, resuming it after a failed connection while retries are left.
+     *
+     * @param exchange the response the segment starts with, or null to send a range request
+     */
+    private void runSegment(
+            Download download, Segment segment, @Nullable InterceptorHttpClient.Exchange exchange) {
+        Exception error = null;
+        int retries = 0;
+        while (true) {
+            try {
+                if (exchange == null) {
+                    exchange = requestSegment(download, segment);
+                }
+                writeSegment(download, segment, exchange);
+                segment.finished = true;
+                error = null;
+                break;
+            } catch (IOException | RuntimeException e) {
+                error = e;
+                exchange = null;
+                if (download.cancelled || download.paused) {
+                    error = null;
+                    break;
+                }
+                if (!download.rangesSupported
+                        || retries++ >= maxRetries
+                        || !(e instanceof IOException)
+                        || e instanceof FileChangedException) {
+                    break;
+                }
+                try {
+                    Thread.sleep(RETRY_DELAY_MS * retries);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        onSegmentDone(download, error);
+    }
+
+    private InterceptorHttpClient.Exchange requestSegment(Download download, Segment segment)
+            throws IOException {
+        final Map<String, String> headers = createHeaders(download.request);
+        headers.put("Range", "bytes=" + segment.position + "-" + (segment.end >= 0 ? segment.end : ""));
+        final String validator;
+        synchronized (download) {
+            validator = download.validator;
+        }
+        if (validator != null) {
+            headers.put("If-Range", validator);
+        }
+        final InterceptorHttpClient.Exchange exchange =
+                httpClient.execute(download.request.url, headers);
+        final long[] contentRange =
+                exchange.getResponseCode() == HttpURLConnection.HTTP_PARTIAL
+                        ? parseContentRange(exchange.getHeaderField("Content-Range"))
+                        : null;
+        if (contentRange == null || contentRange[0] != segment.position) {
+            exchange.close();
+            final String message =
+                    "Unexpected response " + exchange.getResponseCode() + " resuming " + download.request.url;
+            // With If-Range, a full response means the file changed since the download started.
+            throw exchange.getResponseCode() == HttpURLConnection.HTTP_OK
+                    ? new FileChangedException(message)
+                    : new IOException(message);
+        }
+        return exchange;
+    }
+
+    /**
+     * Writes the body of {@code exchange} at the position of the segment, until the end of the
+     * segment.
+     */
+    private void writeSegment(
+            Download download, Segment segment, InterceptorHttpClient.Exchange exchange)
+            throws IOException {
+        try (InputStream inputStream = exchange.getBody();
+             RandomAccessFile file = new RandomAccessFile(download.partFile, "rw")) {
+            final FileChannel channel = file.getChannel();
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            while (!segment.isComplete()) {
+                if (download.cancelled || download.paused) {
+                    throw new IOException("Stopped");
+                }
+                int length = buffer.length;
+                if (segment.end >= 0) {
+                    length = (int) Math.min(length, segment.end - segment.position + 1);
+                }
+                final int count = inputStream.read(buffer, 0, length);
+                if (count == -1) {
+                    if (segment.end >= 0) {
+                        throw new IOException("Response ended before the end of the segment");
+                    }
+                    return;
+                }
+                final ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, count);
+                long position = segment.position;
+                while (byteBuffer.hasRemaining()) {
+                    position += channel.write(byteBuffer, position);
+                }
+                segment.position = position;
+                download.received.addAndGet(count);
+                onProgress(download);
+            }
+        }
+    }
+
+    private void onProgress(Download download) {
+        final long now = System.currentTimeMillis();
+        synchronized (download) {
+            if (now - download.lastProgressTime < PROGRESS_INTERVAL_MS) {
+                return;
+            }
+            download.lastProgressTime = now;
+        }
+        sendEvent(download, "downloadProgress");
+    }
+
+    /**
+     * Counts a stopped segment, and ends the download once no segment is running.
+     *
+     * @param error the error that stopped the segment, or null if it completed or was stopped
+     */
+    private void onSegmentDone(Download download, @Nullable Exception error) {
+        synchronized (download) {
+            download.runningSegments--;
+            if (error != null && download.error == null) {
+                download.error = error.toString();
+                // The other segments stop at their next read.
+                download.cancelled = true;
+            }
+            if (download.runningSegments > 0) {
+                return;
+            }
+        }
+        finish(download);
+    }
+
+    private void finish(Download download) {
+        final String event;
+        synchronized (download) {
+            if (download.error != null) {
+                download.state = State.FAILED;
+            } else if (download.cancelled) {
+                download.state = State.CANCELLED;
+            } else if (download.paused && !isFinished(download.segments)) {
+                download.state = State.PAUSED;
+            } else if (download.total >= 0 && download.received.get() != download.total) {
+                download.state = State.FAILED;
+                download.error = "Received " + download.received.get() + " of " + download.total + " bytes";
+            } else if (download.partFile != null && download.file != null) {
+                if (!download.partFile.renameTo(download.file)) {
+                    download.state = State.FAILED;
+                    download.error = "Could not rename " + download.partFile;
+                } else {
+                    download.state = State.COMPLETED;
+                }
+            } else {
+                download.state = State.FAILED;
+            }
+
+            if (download.state == State.PAUSED) {
+                event = "downloadProgress";
+            } else {
+                event = "downloadComplete";
+                if (download.state != State.COMPLETED && download.partFile != null) {
+                    download.partFile.delete();
+                }
+                synchronized (downloads) {
+                    if (downloads.get(download.request.downloadId) == download) {
+                        downloads.remove(download.request.downloadId);
+                    }
+                }
+                if (download.state == State.COMPLETED) {
+                    totalCompleted.incrementAndGet();
+                    totalBytes.addAndGet(download.received.get());
+                } else if (download.state == State.FAILED) {
+                    totalFailed.incrementAndGet();
+                }
+            }
+        }
+        sendEvent(download, event);
+    }
+
+    private static boolean isFinished(@Nullable List<Segment> segments) {
+        if (segments == null) {
+            return false;
+        }
+        for (Segment segment : segments) {
+            if (!segment.finished) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void sendEvent(Download download, String name) {
+        if (flutterApi == null) {
+            return;
+        }
+        try {
+            final JSONObject event;
+            synchronized (download) {
+                event = download.toEvent(name);
+            }
+            flutterApi.sendEvent(download.owner, event);
+        } catch (JSONException e) {
+            // Not sent, the event only holds numbers and strings.
+        }
+    }
+
+    private static Map<String, String> createHeaders(Request request) {
+        final Map<String, String> headers = new HashMap<>(request.headers);
+        if (request.userAgent != null) {
+            headers.put("User-Agent", request.userAgent);
+        }
+        // Byte ranges must be of the file itself, not of a compressed body.
+        headers.put("Accept-Encoding", "identity");
+        return headers;
+    }
+
+    private static long parseLength(InterceptorHttpClient.Exchange exchange) {
+        final String contentLength = exchange.getHeaderField("Content-Length");
+        if (contentLength == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(contentLength.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the strong ETag of the response, or its Last-Modified date, or null if the response
+     * has no validator a range request can be made conditional on.
+     */
+    @Nullable
+    private static String getValidator(InterceptorHttpClient.Exchange exchange) {
+        final String etag = exchange.getHeaderField("ETag");
+        if (etag != null && !etag.startsWith("W/")) {
+            return etag;
+        }
+        return exchange.getHeaderField("Last-Modified");
+    }
+
+    @Nullable
+    private static String getMimeType(@Nullable String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        final int separator = contentType.indexOf(';');
+        final String mimeType =
+                (separator >= 0 ? contentType.substring(0, separator) : contentType).trim();
+        return mimeType.isEmpty() ? null : mimeType.toLowerCase(Locale.US);
+    }
+
+    private static String getFileName(
+            Request request, @Nullable String contentDisposition, @Nullable String mimeType) {
+        String fileName = request.fileName;
+        if (fileName == null) {
+            fileName = parseContentDispositionFileName(contentDisposition);
+        }
+        if (fileName == null) {
+            fileName = URLUtil.guessFileName(request.url, null, mimeType);
+        }
+        return sanitizeFileName(fileName);
+    }
+
+    /**
+     * Creates an empty file named {@code fileName} in {@code directory}, adding a number to the
+     * name while a file or a partial download with that name exists.
+     */
+    private static synchronized File reserveFile(File directory, String fileName)
+            throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create " + directory);
+        }
+        final int extension = fileName.lastIndexOf('.');
+        final String name = extension > 0 ? fileName.substring(0, extension) : fileName;
+        final String suffix = extension > 0 ? fileName.substring(extension) : "";
+        for (int i = 0; ; i++) {
+            final File file = new File(directory, i == 0 ? fileName : name + " (" + i + ")" + suffix);
+            if (!file.exists() && new File(file.getPath() + ".part").createNewFile()) {
+                return file;
+            }
+        }
+    }
+
+    /**
+     * Returns the first byte, the last byte and the total size of a {@code Content-Range} header,
+     * with -1 as the size if it is unknown, or null if the header isn't a byte range.
+     */
+    @Nullable
+    static long[] parseContentRange(@Nullable String contentRange) {
+        if (contentRange == null) {
+            return null;
+        }
+        final Matcher matcher = CONTENT_RANGE.matcher(contentRange.trim());
+        if (!matcher.matches()) {
+            return null;
+        }
+        try {
+            final long start = Long.parseLong(matcher.group(1));
+            final long end = Long.parseLong(matcher.group(2));
+            final long total = "*".equals(matcher.group(3)) ? -1 : Long.parseLong(matcher.group(3));
+            if (end < start || (total >= 0 && end >= total)) {
+                return null;
+            }
+            return new long[]{start, end, total};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Splits a file of {@code total} bytes into at most {@code maxSegments} segments of at least
+     * {@code minSegmentBytes}. A file of unknown size is a single segment until the end of the
+     * response.
+     */
+    static List<Segment> splitSegments(long total, int maxSegments, long minSegmentBytes) {
+        final List<Segment> segments = new ArrayList<>();
+        if (total < 0) {
+            segments.add(new Segment(0, -1));
+            return segments;
+        }
+        final int count = (int) Math.max(1, Math.min(maxSegments, total / minSegmentBytes));
+        final long size = total / count;
+        for (int i = 0; i < count; i++) {
+            final long start = i * size;
+            segments.add(new Segment(start, i == count - 1 ? total - 1 : start + size - 1));
+        }
+        return segments;
+    }
+
+    /**
+     * Returns the file name of a {@code Content-Disposition} header, preferring its RFC 5987 {@code
+     * filename*} parameter, or null if it has none.
+     */
+    @Nullable
+    static String parseContentDispositionFileName(@Nullable String contentDisposition) {
+        if (contentDisposition == null) {
+            return null;
+        }
+        final Matcher extended = EXTENDED_FILENAME.matcher(contentDisposition);
+        if (extended.find()) {
+            final String charset = extended.group(1).trim();
+            try {
+                return URLDecoder.decode(
+                        extended.group(2).trim().replace("+", "%2B"),
+                        charset.isEmpty() ? "UTF-8" : charset);
+            } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+                // Falls back to the filename parameter.
+            }
+        }
+        final Matcher matcher = FILENAME.matcher(contentDisposition);
+        if (matcher.find()) {
+            final String fileName = matcher.group(1) != null ? matcher.group(1) : matcher.group(2).trim();
+            return fileName.isEmpty() ? null : fileName;
+        }
+        return null;
+    }
+
+    /**
+     * Returns {@code fileName} without its directories and the characters not allowed in file
+     * names.
+     */
+    static String sanitizeFileName(@Nullable String fileName) {
+        if (fileName == null) {
+            return "download";
+        }
+        String name = fileName.substring(Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\')) + 1);
+        name = name.replaceAll("[\\x00-\\x1f\"*:<>?|]", "_").trim();
+        while (name.startsWith(".")) {
+            name = name.substring(1);
+        }
+        return name.isEmpty() ? "download" : name;
+    }
+
+    /**
+     * Thrown when a range request isn't answered with the requested range.
+     */
+    private static final class FileChangedException extends IOException {
+        FileChangedException(String message) {
+            super(message);
+        }
+    }
+}
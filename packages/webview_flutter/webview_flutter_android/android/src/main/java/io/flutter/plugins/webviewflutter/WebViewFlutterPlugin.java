@@ -6,12 +6,15 @@ package io.flutter.plugins.webviewflutter;
 
 import android.content.Context;
 import android.os.Build;
+import android.os.Environment;
 import android.os.Handler;
 import android.view.View;
 import android.webkit.WebView;
 
 import androidx.annotation.NonNull;
 
+import java.io.File;
+
 import io.flutter.embedding.engine.plugins.FlutterPlugin;
 import io.flutter.embedding.engine.plugins.activity.ActivityAware;
 import io.flutter.embedding.engine.plugins.activity.ActivityPluginBinding;
@@ -38,6 +41,9 @@ public class WebViewFlutterPlugin implements FlutterPlugin, ActivityAware {
     private FlutterPluginBinding pluginBinding;
     private WebViewHostApiImpl webViewHostApi;
     private JavaScriptChannelHostApiImpl javaScriptChannelHostApi;
+    private InstanceManager instanceManager;
+    private OfflineResourceCache offlineCache;
+    private WebViewPool webViewPool;
 
     /**
      * Add an instance of this to {@link io.flutter.embedding.engine.plugins.PluginRegistry} to
@@ -80,7 +86,27 @@ public class WebViewFlutterPlugin implements FlutterPlugin, ActivityAware {
             View containerView,
             FlutterAssetManager flutterAssetManager) {
 
-        InstanceManager instanceManager = new InstanceManager();
+        instanceManager = new InstanceManager();
+        offlineCache =
+                new OfflineResourceCache(new File(context.getFilesDir(), "webview_offline_cache"));
+        InterceptionRuleTable interceptionRuleTable = new InterceptionRuleTable();
+        InterceptorHttpClient interceptorHttpClient =
+                new InterceptorHttpClient(new InterceptorHttpClient.WebViewCookieJar());
+        WebViewAssetServer assetServer =
+                new WebViewAssetServer(flutterAssetManager, context.getFilesDir());
+        CustomFlutterApiImpl customFlutterApi =
+                new CustomFlutterApiImpl(binaryMessenger, instanceManager);
+        PageLoadTracker pageLoadTracker = new PageLoadTracker(customFlutterApi);
+        File downloadDirectory = context.getExternalFilesDir(Environment.DIRECTORY_DOWNLOADS);
+        WebViewDownloader downloader =
+                new WebViewDownloader(
+                        new InterceptorHttpClient.WebViewCookieJar(),
+                        downloadDirectory != null
+                                ? downloadDirectory
+                                : new File(context.getFilesDir(), "downloads"),
+                        customFlutterApi);
+        webViewPool = new WebViewPool(context);
+        webViewPool.warmUp();
 //        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
 //            WebView.enableSlowWholeDocumentDraw();
 //        }
@@ -91,6 +117,7 @@ public class WebViewFlutterPlugin implements FlutterPlugin, ActivityAware {
         webViewHostApi =
                 new WebViewHostApiImpl(
                         instanceManager, new WebViewHostApiImpl.WebViewProxy(), context, containerView);
+        webViewHostApi.setWebViewPool(webViewPool);
         javaScriptChannelHostApi =
                 new JavaScriptChannelHostApiImpl(
                         instanceManager,
@@ -105,18 +132,26 @@ public class WebViewFlutterPlugin implements FlutterPlugin, ActivityAware {
                 new WebViewClientHostApiImpl(
                         instanceManager,
                         new WebViewClientHostApiImpl.WebViewClientCreator(),
-                        new WebViewClientFlutterApiImpl(binaryMessenger, instanceManager)));
+                        new WebViewClientFlutterApiImpl(
+                                binaryMessenger,
+                                instanceManager,
+                                offlineCache,
+                                interceptionRuleTable,
+                                interceptorHttpClient,
+                                assetServer,
+                                pageLoadTracker)));
         WebChromeClientHostApi.setup(
                 binaryMessenger,
                 new WebChromeClientHostApiImpl(
                         instanceManager,
                         new WebChromeClientHostApiImpl.WebChromeClientCreator(),
-                        new WebChromeClientFlutterApiImpl(binaryMessenger, instanceManager)));
+                        new WebChromeClientFlutterApiImpl(
+                                binaryMessenger, instanceManager, pageLoadTracker)));
         DownloadListenerHostApi.setup(
                 binaryMessenger,
                 new DownloadListenerHostApiImpl(
                         instanceManager,
-                        new DownloadListenerHostApiImpl.DownloadListenerCreator(),
+                        new DownloadListenerHostApiImpl.DownloadListenerCreator(downloader),
                         new DownloadListenerFlutterApiImpl(binaryMessenger, instanceManager)));
         WebSettingsHostApi.setup(
                 binaryMessenger,
@@ -125,7 +160,18 @@ public class WebViewFlutterPlugin implements FlutterPlugin, ActivityAware {
         FlutterAssetManagerHostApi.setup(
                 binaryMessenger, new FlutterAssetManagerHostApiImpl(flutterAssetManager));
         CookieManagerHostApi.setup(binaryMessenger, new CookieManagerHostApiImpl());
-        CustomHostApi.setup(binaryMessenger, new CustomHostApiImpl(instanceManager));
+        CustomHostApi.setup(
+                binaryMessenger,
+                new CustomHostApiImpl(
+                        instanceManager,
+                        offlineCache,
+                        interceptionRuleTable,
+                        interceptorHttpClient,
+                        webViewPool,
+                        assetServer,
+                        pageLoadTracker,
+                        downloader,
+                        customFlutterApi));
     }
 
     @Override
@@ -142,6 +188,18 @@ public class WebViewFlutterPlugin implements FlutterPlugin, ActivityAware {
 
     @Override
     public void onDetachedFromEngine(@NonNull FlutterPluginBinding binding) {
+        if (instanceManager != null) {
+            instanceManager.close();
+            instanceManager = null;
+        }
+        if (offlineCache != null) {
+            offlineCache.close();
+            offlineCache = null;
+        }
+        if (webViewPool != null) {
+            webViewPool.destroy();
+            webViewPool = null;
+        }
     }
 
     @Override
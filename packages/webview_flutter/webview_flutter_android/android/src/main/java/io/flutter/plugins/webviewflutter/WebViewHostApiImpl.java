@@ -6,6 +6,7 @@ package io.flutter.plugins.webviewflutter;
 
 import android.annotation.SuppressLint;
 import android.content.Context;
+import android.graphics.Color;
 import android.hardware.display.DisplayManager;
 import android.os.Build;
 import android.view.View;
@@ -20,7 +21,14 @@ import androidx.annotation.Nullable;
 import androidx.webkit.WebSettingsCompat;
 import androidx.webkit.WebViewFeature;
 
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import io.flutter.plugin.platform.PlatformView;
@@ -47,6 +55,8 @@ public class WebViewHostApiImpl implements WebViewHostApi {
     private final View containerView;
 
     private Context context;
+    @Nullable
+    private WebViewPool webViewPool;
 
     /**
      * Handles creating and calling static methods for {@link WebView}s.
@@ -125,6 +135,12 @@ public class WebViewHostApiImpl implements WebViewHostApi {
                 new ReleasableValue<>();
         private final Map<String, ReleasableValue<JavaScriptChannel>> javaScriptInterfaces =
                 new HashMap<>();
+        @Nullable
+        private WebViewPool pool;
+        @Nullable
+        private Runnable onDestroyed;
+        private boolean released;
+        private boolean inPlatformView;
 
         /**
          * Creates a {@link WebViewPlatformView}.
@@ -137,12 +153,65 @@ public class WebViewHostApiImpl implements WebViewHostApi {
 
         @Override
         public View getView() {
+            inPlatformView = true;
             return this;
         }
 
         @Override
         public void dispose() {
-            destroy();
+            if (pool == null) {
+                destroy();
+                if (onDestroyed != null) {
+                    onDestroyed.run();
+                }
+                return;
+            }
+            inPlatformView = false;
+            recycleIfUnused();
+        }
+
+        /**
+         * Sets the callback run once the platform view destroyed this WebView.
+         */
+        void setOnDestroyed(@Nullable Runnable onDestroyed) {
+            this.onDestroyed = onDestroyed;
+        }
+
+        /**
+         * Whether this WebView is taken back by a pool once it is no longer used.
+         */
+        boolean isPooled() {
+            return pool != null;
+        }
+
+        /**
+         * Sets the pool taking back this WebView once it is no longer used, instead of destroying it.
+         */
+        void setPool(@Nullable WebViewPool pool) {
+            this.pool = pool;
+            released = false;
+            inPlatformView = false;
+        }
+
+        /**
+         * Clears the page, history and callbacks of this WebView before it is reused.
+         */
+        void resetForReuse() {
+            stopLoading();
+            super.setWebViewClient(new WebViewClient());
+            super.setWebChromeClient(null);
+            super.setDownloadListener(null);
+            loadUrl("about:blank");
+            clearHistory();
+            scrollTo(0, 0);
+            setBackgroundColor(Color.WHITE);
+            released = false;
+        }
+
+        private void recycleIfUnused() {
+            if (pool != null && released && !inPlatformView) {
+                pool.recycle(this);
+            }
         }
 
         @Override
@@ -159,6 +228,9 @@ public class WebViewHostApiImpl implements WebViewHostApi {
         @Override
         public void setDownloadListener(DownloadListener listener) {
             super.setDownloadListener(listener);
+            if (listener != null) {
+                ((DownloadListenerImpl) listener).setWebView(this);
+            }
             currentDownloadListener.set((DownloadListenerImpl) listener);
         }
 
@@ -194,10 +266,17 @@ public class WebViewHostApiImpl implements WebViewHostApi {
             currentWebViewClient.release();
             currentDownloadListener.release();
             currentWebChromeClient.release();
-            for (ReleasableValue<JavaScriptChannel> channel : javaScriptInterfaces.values()) {
-                channel.release();
+            for (Map.Entry<String, ReleasableValue<JavaScriptChannel>> channel :
+                    javaScriptInterfaces.entrySet()) {
+                channel.getValue().release();
+                if (pool != null) {
+                    // A reused WebView must not expose the channels of its previous page.
+                    super.removeJavascriptInterface(channel.getKey());
+                }
             }
             javaScriptInterfaces.clear();
+            released = true;
+            recycleIfUnused();
         }
 
         @Override
@@ -226,6 +305,8 @@ public class WebViewHostApiImpl implements WebViewHostApi {
                 new ReleasableValue<>();
         private final Map<String, ReleasableValue<JavaScriptChannel>> javaScriptInterfaces =
                 new HashMap<>();
+        @Nullable
+        private Runnable onDestroyed;
 
         /**
          * Creates a {@link InputAwareWebViewPlatformView}.
@@ -255,6 +336,16 @@ public class WebViewHostApiImpl implements WebViewHostApi {
         public void dispose() {
             super.dispose();
             destroy();
+            if (onDestroyed != null) {
+                onDestroyed.run();
+            }
+        }
+
+        /**
+         * Sets the callback run once the platform view destroyed this WebView.
+         */
+        void setOnDestroyed(@Nullable Runnable onDestroyed) {
+            this.onDestroyed = onDestroyed;
         }
 
         @Override
@@ -281,6 +372,9 @@ public class WebViewHostApiImpl implements WebViewHostApi {
         @Override
         public void setDownloadListener(DownloadListener listener) {
             super.setDownloadListener(listener);
+            if (listener != null) {
+                ((DownloadListenerImpl) listener).setWebView(this);
+            }
             currentDownloadListener.set((DownloadListenerImpl) listener);
         }
 
@@ -342,6 +436,14 @@ public class WebViewHostApiImpl implements WebViewHostApi {
         this.containerView = containerView;
     }
 
+    /**
+     * Sets the pool providing the WebViews using hybrid composition, or null to create a new WebView
+     * each time.
+     */
+    public void setWebViewPool(@Nullable WebViewPool webViewPool) {
+        this.webViewPool = webViewPool;
+    }
+
     /**
      * Sets the context to construct {@link WebView}s.
      *
@@ -358,10 +460,15 @@ public class WebViewHostApiImpl implements WebViewHostApi {
                 (DisplayManager) context.getSystemService(Context.DISPLAY_SERVICE);
         displayListenerProxy.onPreWebViewInitialization(displayManager);
 
-        final WebView webView =
-                useHybridComposition
-                        ? webViewProxy.createWebView(context)
-                        : webViewProxy.createInputAwareWebView(context, containerView);
+        final WebView webView;
+        if (useHybridComposition && webViewPool != null && webViewPool.getMaxSize() > 0) {
+            webView = webViewPool.obtain(context);
+        } else {
+            webView =
+                    useHybridComposition
+                            ? webViewProxy.createWebView(context)
+                            : webViewProxy.createInputAwareWebView(context, containerView);
+        }
 
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
             webView.getSettings().setMixedContentMode(WebSettings.MIXED_CONTENT_ALWAYS_ALLOW);
@@ -372,6 +479,19 @@ public class WebViewHostApiImpl implements WebViewHostApi {
 
         displayListenerProxy.onPostWebViewInitialization(displayManager);
         instanceManager.addInstance(webView, instanceId);
+
+        // A WebView destroyed with its platform view is removed even if Dart misses its disposal.
+        final Runnable onDestroyed =
+                () -> {
+                    if (instanceManager.getInstance(instanceId) == webView) {
+                        dispose(instanceId);
+                    }
+                };
+        if (webView instanceof WebViewPlatformView) {
+            ((WebViewPlatformView) webView).setOnDestroyed(onDestroyed);
+        } else if (webView instanceof InputAwareWebViewPlatformView) {
+            ((InputAwareWebViewPlatformView) webView).setOnDestroyed(onDestroyed);
+        }
     }
 
     @Override
@@ -379,7 +499,12 @@ public class WebViewHostApiImpl implements WebViewHostApi {
         final WebView instance = (WebView) instanceManager.getInstance(instanceId);
         if (instance != null) {
             ((Releasable) instance).release();
-            instanceManager.removeInstance(instance);
+            if (instance instanceof WebViewPlatformView && ((WebViewPlatformView) instance).isPooled()) {
+                // Pooled WebViews are kept for reuse, they are not leaked.
+                instanceManager.removeRetainedInstance(instance);
+            } else {
+                instanceManager.removeInstance(instance);
+            }
         }
     }
 
@@ -469,6 +594,96 @@ public class WebViewHostApiImpl implements WebViewHostApi {
         webView.evaluateJavascript(javascriptString, result::success);
     }
 
+    @Override
+    public void evaluateJavascriptBatch(
+            Long instanceId, List<String> scripts, GeneratedAndroidWebView.Result<List<String>> result) {
+        final WebView webView = (WebView) instanceManager.getInstance(instanceId);
+        if (scripts.isEmpty()) {
+            result.success(Collections.emptyList());
+            return;
+        }
+        webView.evaluateJavascript(
+                createBatchScript(scripts),
+                value -> {
+                    final List<String> results = parseBatchResults(value, scripts.size());
+                    if (results != null) {
+                        result.success(results);
+                    } else {
+                        evaluateSequentially(webView, scripts, new ArrayList<>(), result);
+                    }
+                });
+    }
+
+    /**
+     * Returns one expression evaluating each script with an indirect eval, so each runs in the global
+     * scope like {@link WebView#evaluateJavascript}, and evaluating to the array of the JSON of their
+     * results. A script that throws gives "null" without stopping the others. The expression
+     * evaluates to null when eval is blocked by the Content Security Policy of the page.
+     *
+     * <p>Top-level {@code var} and function declarations still become globals, but top-level {@code
+     * let}, {@code const} and {@code class} declarations are scoped to their own script, where
+     * separate {@link WebView#evaluateJavascript} calls would keep them for the scripts that follow.
+     */
+    static String createBatchScript(List<String> scripts) {
+        final StringBuilder builder =
+                new StringBuilder("(function() {")
+                        .append("try { (0, eval)('0'); } catch (e) { return null; }")
+                        .append("var s = [");
+        for (int i = 0; i < scripts.size(); i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(JSONObject.quote(scripts.get(i)));
+        }
+        return builder
+                .append("];var r = [];for (var i = 0; i < s.length; i++) {try {")
+                .append("var j = JSON.stringify((0, eval)(s[i]));")
+                .append("r.push(j === undefined ? 'null' : j);")
+                .append("} catch (e) { r.push('null'); }}return r;})()")
+                .toString();
+    }
+
+    /**
+     * Returns the results of the scripts from the value of the batch expression, or null if the
+     * batch didn't run.
+     */
+    @Nullable
+    static List<String> parseBatchResults(@Nullable String value, int count) {
+        if (value == null || !value.startsWith("[")) {
+            return null;
+        }
+        try {
+            final JSONArray array = new JSONArray(value);
+            if (array.length() != count) {
+                return null;
+            }
+            final List<String> results = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                results.add(array.getString(i));
+            }
+            return results;
+        } catch (JSONException e) {
+            return null;
+        }
+    }
+
+    private static void evaluateSequentially(
+            WebView webView,
+            List<String> scripts,
+            List<String> results,
+            GeneratedAndroidWebView.Result<List<String>> result) {
+        if (results.size() == scripts.size()) {
+            result.success(results);
+            return;
+        }
+        webView.evaluateJavascript(
+                scripts.get(results.size()),
+                value -> {
+                    results.add(value);
+                    evaluateSequentially(webView, scripts, results, result);
+                });
+    }
+
     @Override
     public String getTitle(Long instanceId) {
         final WebView webView = (WebView) instanceManager.getInstance(instanceId);
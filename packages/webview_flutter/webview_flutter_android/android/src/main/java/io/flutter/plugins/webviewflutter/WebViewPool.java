@@ -0,0 +1,210 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import android.content.Context;
+import android.content.MutableContextWrapper;
+import android.hardware.display.DisplayManager;
+import android.os.Build;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.webkit.WebSettings;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.webkit.WebSettingsCompat;
+import androidx.webkit.WebViewFeature;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.flutter.plugins.webviewflutter.WebViewHostApiImpl.WebViewPlatformView;
+import io.flutter.plugins.webviewflutter.WebViewHostApiImpl.WebViewProxy;
+
+/**
+ * Pool of pre-created {@link WebViewPlatformView}s, so opening a WebView doesn't pay for the
+ * initialization of the WebView provider and of a new WebView.
+ *
+ * <p>WebViews are created while the main thread is idle, with a {@link MutableContextWrapper} so
+ * they can be handed to the current Activity and given back to the application context once
+ * returned. A pooled WebView is returned once Dart disposed it and its platform view was disposed,
+ * after its state was cleared. All methods must be called on the main thread.
+ */
+public class WebViewPool {
+    private final Context applicationContext;
+    private final WebViewProxy webViewProxy;
+    private final ArrayDeque<WebViewPlatformView> idleWebViews = new ArrayDeque<>();
+    private int maxSize;
+    private boolean refillScheduled;
+    private long created;
+    private long hits;
+    private long misses;
+    private long recycled;
+    private long destroyed;
+
+    public WebViewPool(Context context) {
+        this(context, new WebViewProxy());
+    }
+
+    @VisibleForTesting
+    WebViewPool(Context context, WebViewProxy webViewProxy) {
+        this.applicationContext = context.getApplicationContext();
+        this.webViewProxy = webViewProxy;
+    }
+
+    /**
+     * Loads the WebView provider the next time the main thread is idle, which takes most of the
+     * time of the first WebView creation in a process.
+     */
+    public void warmUp() {
+        Looper.myQueue()
+                .addIdleHandler(
+                        new MessageQueue.IdleHandler() {
+                            @Override
+                            public boolean queueIdle() {
+                                WebSettings.getDefaultUserAgent(applicationContext);
+                                return false;
+                            }
+                        });
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the number of WebViews kept ready, destroying the extra idle WebViews or creating the
+     * missing ones when the main thread is idle.
+     */
+    public void setMaxSize(int maxSize) {
+        this.maxSize = Math.max(0, maxSize);
+        while (idleWebViews.size() > this.maxSize) {
+            destroyWebView(idleWebViews.poll());
+        }
+        scheduleRefill();
+    }
+
+    /**
+     * Destroys the idle WebViews, and the WebViews in use once they are returned.
+     */
+    public void destroy() {
+        setMaxSize(0);
+    }
+
+    /**
+     * Returns an idle WebView attached to {@code context}, or a new one if none is idle.
+     */
+    public WebViewPlatformView obtain(Context context) {
+        WebViewPlatformView webView = idleWebViews.poll();
+        if (webView != null) {
+            hits++;
+            ((MutableContextWrapper) webView.getContext()).setBaseContext(context);
+            webView.clearHistory();
+        } else {
+            misses++;
+            webView = create(context);
+        }
+        scheduleRefill();
+        return webView;
+    }
+
+    /**
+     * Takes back a WebView released by Dart and by its platform view, or destroys it if the pool is
+     * full.
+     */
+    void recycle(WebViewPlatformView webView) {
+        if (idleWebViews.size() >= maxSize) {
+            destroyWebView(webView);
+            return;
+        }
+        webView.resetForReuse();
+        resetSettings(webView.getSettings(), applicationContext);
+        ((MutableContextWrapper) webView.getContext()).setBaseContext(applicationContext);
+        idleWebViews.add(webView);
+        recycled++;
+    }
+
+    public Map<String, Object> getStats() {
+        final Map<String, Object> stats = new HashMap<>();
+        stats.put("maxSize", maxSize);
+        stats.put("idle", idleWebViews.size());
+        stats.put("created", created);
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("recycled", recycled);
+        stats.put("destroyed", destroyed);
+        return stats;
+    }
+
+    private void scheduleRefill() {
+        if (refillScheduled || idleWebViews.size() >= maxSize) {
+            return;
+        }
+        refillScheduled = true;
+        Looper.myQueue()
+                .addIdleHandler(
+                        new MessageQueue.IdleHandler() {
+                            @Override
+                            public boolean queueIdle() {
+                                if (idleWebViews.size() < maxSize) {
+                                    idleWebViews.add(create(applicationContext));
+                                }
+                                // One WebView per idle pass so frames aren't delayed.
+                                refillScheduled = idleWebViews.size() < maxSize;
+                                return refillScheduled;
+                            }
+                        });
+    }
+
+    private WebViewPlatformView create(Context context) {
+        final DisplayListenerProxy displayListenerProxy = new DisplayListenerProxy();
+        final DisplayManager displayManager =
+                (DisplayManager) applicationContext.getSystemService(Context.DISPLAY_SERVICE);
+        displayListenerProxy.onPreWebViewInitialization(displayManager);
+        final WebViewPlatformView webView =
+                webViewProxy.createWebView(new MutableContextWrapper(context));
+        displayListenerProxy.onPostWebViewInitialization(displayManager);
+        webView.setPool(this);
+        created++;
+        return webView;
+    }
+
+    private void destroyWebView(@Nullable WebViewPlatformView webView) {
+        if (webView != null) {
+            webView.setPool(null);
+            webView.destroy();
+            destroyed++;
+        }
+    }
+
+    /**
+     * Restores the settings that Dart or the custom actions can change to their default values.
+     */
+    private static void resetSettings(WebSettings settings, Context context) {
+        settings.setDomStorageEnabled(false);
+        settings.setJavaScriptCanOpenWindowsAutomatically(false);
+        settings.setSupportMultipleWindows(false);
+        settings.setJavaScriptEnabled(false);
+        settings.setUserAgentString(null);
+        settings.setMediaPlaybackRequiresUserGesture(true);
+        settings.setSupportZoom(true);
+        settings.setLoadWithOverviewMode(false);
+        settings.setUseWideViewPort(false);
+        settings.setDisplayZoomControls(true);
+        settings.setBuiltInZoomControls(false);
+        settings.setTextZoom(100);
+        settings.setCacheMode(WebSettings.LOAD_DEFAULT);
+        // File access is only off by default for apps targeting Android 11.
+        settings.setAllowFileAccess(
+                context.getApplicationInfo().targetSdkVersion < Build.VERSION_CODES.R);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            settings.setMixedContentMode(WebSettings.MIXED_CONTENT_NEVER_ALLOW);
+        }
+        if (WebViewFeature.isFeatureSupported(WebViewFeature.FORCE_DARK)) {
+            WebSettingsCompat.setForceDark(settings, WebSettingsCompat.FORCE_DARK_AUTO);
+        }
+    }
+}
@@ -4,6 +4,7 @@
 
 package android.util;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 
 // Creates an implementation of LongSparseArray that can be used with unittests and the JVM.
@@ -26,4 +27,16 @@ public class LongSparseArray<E> {
   public void remove(long key) {
     mHashMap.remove(key);
   }
+
+  public int size() {
+    return mHashMap.size();
+  }
+
+  public E valueAt(int index) {
+    return new ArrayList<>(mHashMap.values()).get(index);
+  }
+
+  public void clear() {
+    mHashMap.clear();
+  }
 }
@@ -4,18 +4,23 @@
 
 package io.flutter.plugins.webviewflutter;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import android.webkit.DownloadListener;
+import android.webkit.WebView;
 import io.flutter.plugins.webviewflutter.DownloadListenerHostApiImpl.DownloadListenerCreator;
 import io.flutter.plugins.webviewflutter.DownloadListenerHostApiImpl.DownloadListenerImpl;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
@@ -25,6 +30,10 @@ public class DownloadListenerTest {
 
   @Mock public DownloadListenerFlutterApiImpl mockFlutterApi;
 
+  @Mock public WebViewDownloader mockDownloader;
+
+  @Mock public WebView mockWebView;
+
   InstanceManager instanceManager;
   DownloadListenerHostApiImpl hostApiImpl;
   DownloadListenerImpl downloadListener;
@@ -68,4 +77,51 @@ public class DownloadListenerTest {
     verify(mockFlutterApi, never())
         .onDownloadStart((DownloadListener) any(), any(), any(), any(), any(), eq(23), any());
   }
+
+  @Test
+  public void onDownloadStartStartsNativeDownloadWhenEnabled() {
+    final DownloadListenerImpl nativeDownloadListener =
+        new DownloadListenerImpl(mockFlutterApi, mockDownloader);
+    nativeDownloadListener.setWebView(mockWebView);
+    when(mockDownloader.isEnabled()).thenReturn(true);
+
+    nativeDownloadListener.onDownloadStart(
+        "https://www.google.com", "userAgent", "contentDisposition", "mimetype", 54);
+    final ArgumentCaptor<WebViewDownloader.Request> requestCaptor =
+        ArgumentCaptor.forClass(WebViewDownloader.Request.class);
+    verify(mockDownloader).download(requestCaptor.capture(), eq(mockWebView));
+    assertEquals("https://www.google.com", requestCaptor.getValue().url);
+    assertEquals("userAgent", requestCaptor.getValue().userAgent);
+    // Dart is told by the downloadStarted event instead, so it doesn't download the file again.
+    verify(mockFlutterApi, never())
+        .onDownloadStart(any(), any(), any(), any(), any(), any(long.class), any());
+  }
+
+  @Test
+  public void onDownloadStartOnlyPassesTheDownloadToDartWhenDisabled() {
+    final DownloadListenerImpl nativeDownloadListener =
+        new DownloadListenerImpl(mockFlutterApi, mockDownloader);
+    when(mockDownloader.isEnabled()).thenReturn(true, false);
+
+    nativeDownloadListener.onDownloadStart("https://a.com/1", "", "", "", 1);
+    nativeDownloadListener.onDownloadStart("https://a.com/2", "", "", "", 2);
+
+    verify(mockDownloader, times(1)).download(any(), eq(nativeDownloadListener));
+    verify(mockFlutterApi, never())
+        .onDownloadStart(any(), eq("https://a.com/1"), any(), any(), any(), eq(1L), any());
+    verify(mockFlutterApi)
+        .onDownloadStart(any(), eq("https://a.com/2"), any(), any(), any(), eq(2L), any());
+  }
+
+  @Test
+  public void releasedListenerStartsNoNativeDownload() {
+    final DownloadListenerImpl nativeDownloadListener =
+        new DownloadListenerImpl(mockFlutterApi, mockDownloader);
+    when(mockDownloader.isEnabled()).thenReturn(true);
+
+    nativeDownloadListener.release();
+    nativeDownloadListener.onDownloadStart("https://www.google.com", "", "", "", 54);
+
+    verify(mockDownloader, never()).download(any(), any());
+  }
 }
@@ -0,0 +1,154 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import io.flutter.plugins.webviewflutter.utils.TestUtils;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class InstanceManagerTest {
+  InstanceManager instanceManager;
+
+  @Before
+  public void setUp() {
+    instanceManager = new InstanceManager();
+  }
+
+  @After
+  public void tearDown() {
+    instanceManager.close();
+  }
+
+  @Test
+  public void addAndRemoveInstance() {
+    final Object instance = new Object();
+
+    instanceManager.addInstance(instance, 0L);
+
+    assertSame(instance, instanceManager.getInstance(0L));
+    assertEquals((Long) 0L, instanceManager.getInstanceId(instance));
+    assertEquals((Long) 0L, instanceManager.removeInstance(instance));
+    assertNull(instanceManager.getInstance(0L));
+    assertNull(instanceManager.getInstanceId(instance));
+  }
+
+  @Test
+  public void keepsInstancesUntilRemovedInWeakReferenceMode() {
+    instanceManager.enableWeakReferences((instanceId, type) -> {});
+    instanceManager.addInstance(new Object(), 0L);
+
+    collectGarbage();
+
+    assertNotNull(instanceManager.getInstance(0L));
+    assertEquals(
+        Collections.singletonMap("Object", 1L), instanceManager.getStats().get("liveInstances"));
+  }
+
+  @Test
+  public void tracksRemovedInstancesUntilCollected() {
+    instanceManager.enableWeakReferences((instanceId, type) -> {});
+    final Object instance = new Object();
+    instanceManager.addInstance(instance, 0L);
+
+    assertSame(instance, instanceManager.removeInstanceWithId(0L));
+
+    // Still referenced here, so not collected.
+    final Map<String, Object> stats = instanceManager.getStats();
+    assertNull(instanceManager.getInstance(0L));
+    assertEquals(Collections.emptyMap(), stats.get("liveInstances"));
+    assertEquals(1L, stats.get("weakInstances"));
+    assertEquals(true, stats.get("weakReferencesEnabled"));
+    assertNotNull(instance);
+  }
+
+  @Test
+  public void notifiesRemovedInstancesOnceCollected() throws InterruptedException {
+    final CountDownLatch collected = new CountDownLatch(1);
+    final AtomicLong collectedInstanceId = new AtomicLong(-1);
+    final AtomicReference<String> collectedType = new AtomicReference<>();
+    instanceManager.enableWeakReferences(
+        (instanceId, type) -> {
+          collectedInstanceId.set(instanceId);
+          collectedType.set(type);
+          collected.countDown();
+        });
+    instanceManager.addInstance(new Object(), 7L);
+    instanceManager.removeInstanceWithId(7L);
+
+    for (int i = 0; i < 50 && collected.getCount() > 0; i++) {
+      collectGarbage();
+      collected.await(100, TimeUnit.MILLISECONDS);
+    }
+
+    assertEquals(0, collected.getCount());
+    assertEquals(7L, collectedInstanceId.get());
+    assertEquals("Object", collectedType.get());
+    final Map<String, Object> stats = instanceManager.getStats();
+    assertEquals(0L, stats.get("weakInstances"));
+    assertEquals(Collections.singletonMap("Object", 1L), stats.get("collectedInstances"));
+  }
+
+  @Test
+  public void removesOwnedInstancesWithTheirOwner() {
+    final Object owner = new Object();
+    final Object ownedInstance = new Object();
+    instanceManager.addInstance(owner, 0L);
+    instanceManager.addInstance(ownedInstance, 1L, owner);
+
+    assertSame(ownedInstance, instanceManager.getInstance(1L));
+
+    instanceManager.removeInstance(owner);
+
+    assertNull(instanceManager.getInstance(1L));
+    assertNull(instanceManager.getInstanceId(ownedInstance));
+  }
+
+  @Test
+  public void doesNotTrackRetainedInstances() {
+    instanceManager.enableWeakReferences((instanceId, type) -> {});
+    final Object instance = new Object();
+    instanceManager.addInstance(instance, 0L);
+
+    assertEquals((Long) 0L, instanceManager.removeRetainedInstance(instance));
+
+    assertNull(instanceManager.getInstance(0L));
+    assertEquals(0L, instanceManager.getStats().get("weakInstances"));
+  }
+
+  @Test
+  public void closeStopsTheCleanupThread() throws InterruptedException {
+    instanceManager.enableWeakReferences((instanceId, type) -> {});
+    instanceManager.addInstance(new Object(), 0L);
+    final Thread cleanupThread =
+        (Thread) TestUtils.getPrivateField(instanceManager, "cleanupThread");
+    assertTrue(cleanupThread.isAlive());
+
+    instanceManager.close();
+    cleanupThread.join(1000);
+
+    assertFalse(cleanupThread.isAlive());
+    assertFalse(instanceManager.isWeakReferencesEnabled());
+    assertNull(instanceManager.getInstance(0L));
+  }
+
+  private static void collectGarbage() {
+    System.gc();
+    System.runFinalization();
+  }
+}
@@ -0,0 +1,149 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import io.flutter.plugins.webviewflutter.InterceptionRuleTable.CachePolicy;
+import io.flutter.plugins.webviewflutter.InterceptionRuleTable.Rule;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.junit.Test;
+
+public class InterceptionRuleTableTest {
+  private static Rule prefixRule(String id, String urlPrefix, String localPath) {
+    return new Rule(
+        id,
+        urlPrefix,
+        null,
+        localPath,
+        null,
+        null,
+        CachePolicy.CACHE,
+        Collections.emptyMap(),
+        Collections.emptyMap(),
+        Collections.emptySet());
+  }
+
+  @Test
+  public void matchReturnsTheFirstMatchingRule() {
+    final InterceptionRuleTable table = new InterceptionRuleTable();
+    final Rule images = prefixRule("images", "https://flutter.dev/images/", null);
+    final Rule site = prefixRule("site", "https://flutter.dev/", null);
+    table.setRules(Arrays.asList(images, site));
+
+    assertSame(images, table.match("https://flutter.dev/images/logo.png"));
+    assertSame(site, table.match("https://flutter.dev/index.html"));
+    assertNull(table.match("https://pub.dev/"));
+  }
+
+  @Test
+  public void matchCountsHitsPerRule() {
+    final InterceptionRuleTable table = new InterceptionRuleTable();
+    table.setRules(Collections.singletonList(prefixRule("site", "https://flutter.dev/", null)));
+
+    table.match("https://flutter.dev/a");
+    table.match("https://flutter.dev/b");
+    table.match("https://pub.dev/");
+
+    final Map<?, ?> ruleHits = (Map<?, ?>) table.getStats().get("ruleHits");
+    assertEquals(2L, ruleHits.get("site"));
+    assertEquals(1L, table.getStats().get("misses"));
+  }
+
+  @Test
+  public void resolveLocalFileAppendsThePathToPrefixDirectories() {
+    final Rule rule = prefixRule("site", "https://flutter.dev/", "/data/site/");
+
+    assertEquals(
+        new File("/data/site/css/main.css"),
+        rule.resolveLocalFile("https://flutter.dev/css/main.css?v=2#top"));
+  }
+
+  @Test
+  public void resolveLocalFileRejectsPathsOutsideTheDirectory() {
+    final Rule rule = prefixRule("site", "https://flutter.dev/", "/data/site/");
+
+    assertNull(rule.resolveLocalFile("https://flutter.dev/../secret"));
+  }
+
+  @Test
+  public void resolveLocalFilePercentDecodesThePath() {
+    final Rule rule = prefixRule("site", "https://flutter.dev/", "/data/site/");
+
+    assertEquals(
+        new File("/data/site/my file.css"),
+        rule.resolveLocalFile("https://flutter.dev/my%20file.css"));
+    assertNull(rule.resolveLocalFile("https://flutter.dev/%2e%2e/secret"));
+    assertNull(rule.resolveLocalFile("https://flutter.dev/bad%2"));
+  }
+
+  @Test
+  public void resolveLocalFileSubstitutesPatternGroups() {
+    final Rule rule =
+        new Rule(
+            "fonts",
+            null,
+            Pattern.compile("https://fonts\\.example\\.com/(\\w+)\\.woff2"),
+            "/data/fonts/$1.woff2",
+            "font/woff2",
+            null,
+            CachePolicy.CACHE,
+            Collections.emptyMap(),
+            Collections.emptyMap(),
+            Collections.emptySet());
+
+    assertEquals(
+        new File("/data/fonts/roboto.woff2"),
+        rule.resolveLocalFile("https://fonts.example.com/roboto.woff2"));
+  }
+
+  @Test
+  public void resolveLocalFileRejectsPatternPathsOutsideTheDirectory() {
+    final Rule rule =
+        new Rule(
+            "fonts",
+            null,
+            Pattern.compile("https://fonts\\.example\\.com/(.+)"),
+            "/data/fonts/$1",
+            "font/woff2",
+            null,
+            CachePolicy.CACHE,
+            Collections.emptyMap(),
+            Collections.emptyMap(),
+            Collections.emptySet());
+
+    assertNull(rule.resolveLocalFile("https://fonts.example.com/../secret"));
+  }
+
+  @Test
+  public void parseRulesReadsAllowedOrigins() throws JSONException {
+    final List<Rule> rules =
+        InterceptionRuleTable.parseRules(
+            new JSONArray(
+                "[{\"urlPrefix\": \"https://api.flutter.dev/\","
+                    + " \"allowedOrigins\": [\"https://flutter.dev\"]},"
+                    + " {\"urlPrefix\": \"https://flutter.dev/\"}]"));
+
+    assertTrue(rules.get(0).allowsOrigin("https://flutter.dev"));
+    assertFalse(rules.get(0).allowsOrigin("https://evil.example"));
+    assertFalse(rules.get(1).allowsOrigin("https://flutter.dev"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void ruleRequiresAPrefixOrAPattern() {
+    prefixRule("empty", null, null);
+  }
+}
@@ -0,0 +1,159 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class InterceptorHttpClientTest {
+  private static class FakeCookieJar implements InterceptorHttpClient.CookieJar {
+    final Map<String, String> cookies = new HashMap<>();
+
+    @Override
+    public String getCookie(String url) {
+      return cookies.get(url);
+    }
+
+    @Override
+    public void setCookie(String url, String cookie) {
+      cookies.put(url, cookie);
+    }
+  }
+
+  HttpServer server;
+  String url;
+  String receivedCookie;
+  FakeCookieJar cookieJar;
+  InterceptorHttpClient testClient;
+
+  @Before
+  public void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(
+        "/",
+        exchange -> {
+          receivedCookie = exchange.getRequestHeaders().getFirst("Cookie");
+          exchange.getResponseHeaders().add("Set-Cookie", "session=2");
+          final byte[] body = new byte[1000];
+          exchange.sendResponseHeaders(200, body.length);
+          try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+          }
+        });
+    server.createContext(
+        "/redirect",
+        exchange -> {
+          exchange.getResponseHeaders().add("Location", "/index.html");
+          exchange.sendResponseHeaders(302, -1);
+          exchange.close();
+        });
+    server.start();
+    url = "http://127.0.0.1:" + server.getAddress().getPort() + "/index.html";
+    cookieJar = new FakeCookieJar();
+    testClient = new InterceptorHttpClient(cookieJar);
+  }
+
+  @After
+  public void tearDown() {
+    server.stop(0);
+  }
+
+  private static void readFully(InputStream inputStream) throws IOException {
+    final byte[] buffer = new byte[256];
+    while (inputStream.read(buffer) != -1) {}
+    inputStream.close();
+  }
+
+  @Test
+  public void executeSyncsCookies() throws IOException {
+    cookieJar.setCookie(url, "session=1");
+
+    testClient.execute(url, Collections.emptyMap()).close();
+
+    assertEquals("session=1", receivedCookie);
+    assertEquals("session=2", cookieJar.getCookie(url));
+  }
+
+  @Test
+  public void getStatsRecordsRequestsAndBytesPerHost() throws IOException {
+    final InterceptorHttpClient.Exchange exchange =
+        testClient.execute(url, Collections.emptyMap());
+    assertEquals(200, exchange.getResponseCode());
+    readFully(exchange.getBody());
+
+    final Map<?, ?> hostStats = (Map<?, ?>) testClient.getStats().get("127.0.0.1");
+    assertEquals(1L, hostStats.get("requests"));
+    assertEquals(0L, hostStats.get("failures"));
+    assertEquals(1000L, hostStats.get("bytesReceived"));
+  }
+
+  @Test
+  public void executeReturnsRedirectsUnlessFollowed() throws IOException {
+    final String redirectUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/redirect";
+
+    final InterceptorHttpClient.Exchange exchange =
+        testClient.execute(redirectUrl, Collections.emptyMap());
+    assertEquals(302, exchange.getResponseCode());
+    exchange.close();
+
+    testClient.setFollowRedirects(true);
+    final InterceptorHttpClient.Exchange followedExchange =
+        testClient.execute(redirectUrl, Collections.emptyMap());
+    assertEquals(200, followedExchange.getResponseCode());
+    followedExchange.close();
+  }
+
+  @Test
+  public void executeLimitsConcurrentRequestsPerHost() throws IOException {
+    testClient.setMaxRequestsPerHost(1);
+    testClient.setQueueTimeoutMs(10);
+    final InterceptorHttpClient.Exchange exchange =
+        testClient.execute(url, Collections.emptyMap());
+
+    try {
+      testClient.execute(url, Collections.emptyMap());
+      fail();
+    } catch (IOException e) {
+      // Expected, the only request slot stayed taken.
+    }
+
+    exchange.close();
+    testClient.execute(url, Collections.emptyMap()).close();
+  }
+
+  @Test
+  public void executeWaitsForARequestSlot() throws Exception {
+    testClient.setMaxRequestsPerHost(1);
+    final InterceptorHttpClient.Exchange exchange =
+        testClient.execute(url, Collections.emptyMap());
+
+    final Thread closer =
+        new Thread(
+            () -> {
+              try {
+                Thread.sleep(50);
+              } catch (InterruptedException e) {
+                // Closes the exchange early.
+              }
+              exchange.close();
+            });
+    closer.start();
+
+    testClient.execute(url, Collections.emptyMap()).close();
+    closer.join();
+  }
+}
@@ -4,7 +4,9 @@
 
 package io.flutter.plugins.webviewflutter;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
@@ -12,9 +14,12 @@ import static org.mockito.Mockito.verify;
 
 import android.os.Handler;
 import io.flutter.plugins.webviewflutter.JavaScriptChannelHostApiImpl.JavaScriptChannelCreator;
+import java.util.Arrays;
+import java.util.Map;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
@@ -24,6 +29,8 @@ public class JavaScriptChannelTest {
 
   @Mock public JavaScriptChannelFlutterApiImpl mockFlutterApi;
 
+  @Mock public Handler mockHandler;
+
   InstanceManager instanceManager;
   JavaScriptChannelHostApiImpl hostApiImpl;
   JavaScriptChannel javaScriptChannel;
@@ -62,4 +69,66 @@ public class JavaScriptChannelTest {
     javaScriptChannel.postMessage("a message");
     verify(mockFlutterApi, never()).postMessage((JavaScriptChannel) any(), any(), any());
   }
+
+  @Test
+  public void postMessageDeliversBatchAfterInterval() {
+    final JavaScriptChannel batchedChannel =
+        new JavaScriptChannel(mockFlutterApi, "aChannelName", mockHandler);
+    batchedChannel.enableBatching(100, 10, 100);
+
+    batchedChannel.postMessage("a");
+    batchedChannel.postMessage("b");
+    verify(mockFlutterApi, never()).postMessage((JavaScriptChannel) any(), any(), any());
+
+    final ArgumentCaptor<Runnable> flushCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(mockHandler).postDelayed(flushCaptor.capture(), eq(100L));
+    flushCaptor.getValue().run();
+    verify(mockFlutterApi).postMessages(eq(batchedChannel), eq(Arrays.asList("a", "b")), any());
+  }
+
+  @Test
+  public void postMessageDeliversFullBatchRightAway() {
+    final JavaScriptChannel batchedChannel =
+        new JavaScriptChannel(mockFlutterApi, "aChannelName", mockHandler);
+    batchedChannel.enableBatching(100, 2, 100);
+
+    batchedChannel.postMessage("a");
+    batchedChannel.postMessage("b");
+
+    final ArgumentCaptor<Runnable> flushCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(mockHandler).post(flushCaptor.capture());
+    flushCaptor.getValue().run();
+    verify(mockFlutterApi).postMessages(eq(batchedChannel), eq(Arrays.asList("a", "b")), any());
+    assertEquals(1L, batchedChannel.getBatcher().getStats().get("sizeFlushes"));
+  }
+
+  @Test
+  public void postMessageDropsMessagesWhenBufferIsFull() {
+    final JavaScriptChannel batchedChannel =
+        new JavaScriptChannel(mockFlutterApi, "aChannelName", mockHandler);
+    batchedChannel.enableBatching(100, 2, 3);
+
+    for (int i = 0; i < 5; i++) {
+      batchedChannel.postMessage("message" + i);
+    }
+
+    final Map<String, Object> stats = batchedChannel.getBatcher().getStats();
+    assertEquals(5L, stats.get("messagesReceived"));
+    assertEquals(2L, stats.get("messagesDropped"));
+    assertEquals(1L, stats.get("overflows"));
+    assertEquals(3, stats.get("bufferedMessages"));
+  }
+
+  @Test
+  public void disableBatchingDeliversBufferedMessages() {
+    final JavaScriptChannel batchedChannel =
+        new JavaScriptChannel(mockFlutterApi, "aChannelName", mockHandler);
+    batchedChannel.enableBatching(100, 10, 100);
+    batchedChannel.postMessage("a");
+
+    batchedChannel.disableBatching();
+
+    verify(mockFlutterApi).postMessages(eq(batchedChannel), eq(Arrays.asList("a")), any());
+    verify(mockHandler).postDelayed(any(), anyLong());
+  }
 }
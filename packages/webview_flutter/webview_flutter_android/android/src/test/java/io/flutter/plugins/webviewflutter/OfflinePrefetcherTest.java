@@ -0,0 +1,189 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class OfflinePrefetcherTest {
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  OfflineResourceCache cache;
+  InterceptorHttpClient mockHttpClient;
+  OfflinePrefetcher prefetcher;
+
+  @Before
+  public void setUp() throws IOException {
+    cache = new OfflineResourceCache(temporaryFolder.newFolder("cache"));
+    cache.setEnabled(true);
+    mockHttpClient = mock(InterceptorHttpClient.class);
+    prefetcher = new OfflinePrefetcher(cache, mockHttpClient, null, 1);
+  }
+
+  @After
+  public void tearDown() {
+    cache.close();
+  }
+
+  private void mockResponse(
+      String url, String contentType, byte[] body, Map<String, String> headers)
+      throws IOException {
+    final InterceptorHttpClient.Exchange mockExchange = mock(InterceptorHttpClient.Exchange.class);
+    when(mockExchange.getResponseCode()).thenReturn(200);
+    when(mockExchange.getContentType()).thenReturn(contentType);
+    when(mockExchange.getBody()).thenReturn(new ByteArrayInputStream(body));
+    for (Map.Entry<String, String> header : headers.entrySet()) {
+      when(mockExchange.getHeaderField(header.getKey())).thenReturn(header.getValue());
+    }
+    when(mockHttpClient.execute(eq(url), anyMap())).thenReturn(mockExchange);
+  }
+
+  private void waitForJobs() throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + 5000;
+    while (!prefetcher.getStats().get("activeJobs").equals(0)
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(0, prefetcher.getStats().get("activeJobs"));
+  }
+
+  @Test
+  public void fetchesPagesAndTheirSubresourcesIntoTheCache()
+      throws IOException, InterruptedException {
+    final byte[] image = new byte[] {1, 2, 3, 4};
+    mockResponse(
+        "https://example.com/",
+        "text/html; charset=utf-8",
+        "<img src=\"a.png\">".getBytes(Charset.forName("UTF-8")),
+        Collections.<String, String>emptyMap());
+    mockResponse(
+        "https://example.com/a.png", "image/png", image, Collections.<String, String>emptyMap());
+
+    assertTrue(
+        prefetcher.prefetch(
+            new OfflinePrefetcher.Request("job").addUrl("https://example.com/"), 0L));
+    waitForJobs();
+
+    final long now = System.currentTimeMillis();
+    final OfflineResourceCache.Entry page = cache.peek("https://example.com/");
+    assertNotNull(page);
+    assertEquals("text/html", page.getMimeType());
+    assertEquals("utf-8", page.getEncoding());
+    // Kept fresh without freshness headers.
+    assertTrue(page.isFresh(now));
+    final OfflineResourceCache.Entry imageEntry = cache.peek("https://example.com/a.png");
+    assertNotNull(imageEntry);
+    assertTrue(imageEntry.isFresh(now));
+    assertArrayEquals(image, Files.readAllBytes(imageEntry.getFile().toPath()));
+    assertEquals(2L, prefetcher.getStats().get("downloaded"));
+    assertEquals(0L, prefetcher.getStats().get("failed"));
+  }
+
+  @Test
+  public void doesNotStoreNoStoreResponses() throws IOException, InterruptedException {
+    mockResponse(
+        "https://example.com/",
+        "text/html",
+        new byte[] {1},
+        Collections.singletonMap("Cache-Control", "no-store"));
+
+    prefetcher.prefetch(new OfflinePrefetcher.Request("job").addUrl("https://example.com/"), 0L);
+    waitForJobs();
+
+    assertNull(cache.peek("https://example.com/"));
+    assertEquals(0L, prefetcher.getStats().get("downloaded"));
+  }
+
+  @Test
+  public void doesNotPrefetchWhileTheCacheIsDisabled() {
+    cache.setEnabled(false);
+
+    assertFalse(
+        prefetcher.prefetch(
+            new OfflinePrefetcher.Request("job").addUrl("https://example.com/"), 0L));
+
+    verifyNoInteractions(mockHttpClient);
+    assertEquals(0, prefetcher.getStats().get("activeJobs"));
+  }
+  @Test
+  public void findPageSubresources() {
+    final String html =
+        "<link rel=\"stylesheet\" href=\"css/site.css\">"
+            + "<link rel='canonical' href='/canonical'>"
+            + "<link href=\"/favicon.ico\" rel=\"shortcut icon\">"
+            + "<script src=main.js></script>"
+            + "<style>body { background: url('img/bg.png'); }</style>"
+            + "<img src=\"a.png\" srcset=\"a-1x.png 1x, a-2x.png 2x\">"
+            + "<a href=\"other.html\">Other</a>";
+
+    assertEquals(
+        Arrays.asList(
+            "main.js",
+            "a.png",
+            "a-1x.png",
+            "a-2x.png",
+            "css/site.css",
+            "/favicon.ico",
+            "img/bg.png"),
+        OfflinePrefetcher.findPageSubresources(html));
+  }
+
+  @Test
+  public void findStylesheetSubresources() {
+    final String css =
+        "@import 'theme.css';"
+            + "@font-face { src: url(\"font.woff2\") format('woff2'); }"
+            + ".logo { background-image: url(logo.svg); }";
+
+    assertEquals(
+        Arrays.asList("font.woff2", "logo.svg", "theme.css"),
+        OfflinePrefetcher.findStylesheetSubresources(css));
+  }
+
+  @Test
+  public void resolveUrl() {
+    assertEquals(
+        "https://example.com/css/site.css",
+        OfflinePrefetcher.resolveUrl("https://example.com/articles/1.html", "../css/site.css#top"));
+    assertEquals(
+        "https://cdn.example.com/a.png",
+        OfflinePrefetcher.resolveUrl("https://example.com/", "//cdn.example.com/a.png"));
+    assertEquals(
+        "https://example.com/my%20image.png",
+        OfflinePrefetcher.resolveUrl("https://example.com/", "my image.png"));
+    assertNull(OfflinePrefetcher.resolveUrl("https://example.com/", "data:image/png;base64,AA"));
+    assertNull(OfflinePrefetcher.resolveUrl("https://example.com/", "javascript:void(0)"));
+    assertNull(OfflinePrefetcher.resolveUrl("https://example.com/", "#section"));
+  }
+
+  @Test
+  public void parseTextManifest() {
+    assertEquals(
+        Arrays.asList("https://example.com/1.html", "/2.html"),
+        OfflinePrefetcher.parseManifest("# Articles\nhttps://example.com/1.html\n\n/2.html\n"));
+  }
+}
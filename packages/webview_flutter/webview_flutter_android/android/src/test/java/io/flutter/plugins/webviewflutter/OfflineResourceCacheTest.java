@@ -0,0 +1,177 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class OfflineResourceCacheTest {
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  File cacheDirectory;
+  OfflineResourceCache testCache;
+
+  @Before
+  public void setUp() throws IOException {
+    cacheDirectory = temporaryFolder.newFolder("cache");
+    testCache = new OfflineResourceCache(cacheDirectory);
+  }
+
+  private File writeBody(int size) throws IOException {
+    final File file = testCache.newBodyFile();
+    try (FileOutputStream outputStream = new FileOutputStream(file)) {
+      outputStream.write(new byte[size]);
+    }
+    return file;
+  }
+
+  @Test
+  public void putStoresMimeTypeEncodingAndValidators() throws IOException {
+    testCache.put(
+        "https://flutter.dev", writeBody(10), "text/html", "utf-8", "\"v1\"", null, Long.MAX_VALUE);
+
+    final OfflineResourceCache.Entry entry = testCache.get("https://flutter.dev");
+    assertNotNull(entry);
+    assertEquals("text/html", entry.getMimeType());
+    assertEquals("utf-8", entry.getEncoding());
+    assertEquals("\"v1\"", entry.getEtag());
+    assertTrue(entry.hasValidators());
+    assertTrue(entry.isFresh(System.currentTimeMillis()));
+  }
+
+  @Test
+  public void putReplacesPreviousBody() throws IOException {
+    final File previousBody = writeBody(10);
+    testCache.put("https://flutter.dev", previousBody, "text/html", null, null, null, 0);
+    testCache.put("https://flutter.dev", writeBody(20), "text/html", null, null, null, 0);
+
+    assertFalse(previousBody.exists());
+    assertEquals(20L, testCache.getStats().get("sizeBytes"));
+  }
+
+  @Test
+  public void putEvictsLeastRecentlyUsedEntries() throws IOException {
+    testCache.setMaxSizeBytes(25);
+    testCache.put("https://a", writeBody(10), "text/html", null, null, null, 0);
+    testCache.put("https://b", writeBody(10), "text/html", null, null, null, 0);
+    testCache.get("https://a");
+
+    testCache.put("https://c", writeBody(10), "text/html", null, null, null, 0);
+
+    assertNotNull(testCache.get("https://a"));
+    assertNull(testCache.get("https://b"));
+    assertNotNull(testCache.get("https://c"));
+    assertEquals(1L, testCache.getStats().get("evictions"));
+  }
+
+  @Test
+  public void putRejectsBodiesLargerThanTheCache() throws IOException {
+    testCache.setMaxSizeBytes(5);
+    final File body = writeBody(10);
+
+    assertNull(testCache.put("https://a", body, "text/html", null, null, null, 0));
+    assertFalse(body.exists());
+  }
+
+  @Test
+  public void getDropsEntriesWhoseBodyWasDeleted() throws IOException {
+    final File body = writeBody(10);
+    testCache.put("https://a", body, "text/html", null, null, null, 0);
+    body.delete();
+
+    assertNull(testCache.get("https://a"));
+    assertEquals(0, testCache.getStats().get("entryCount"));
+  }
+
+  @Test
+  public void indexIsReloadedAndOrphanedBodiesDeleted() throws IOException {
+    testCache.put("https://a", writeBody(10), "image/png", null, null, "lastModified", 42);
+    final File orphan = writeBody(10);
+    testCache.writeIndex();
+
+    final OfflineResourceCache reloadedCache = new OfflineResourceCache(cacheDirectory);
+    final OfflineResourceCache.Entry entry = reloadedCache.get("https://a");
+
+    assertNotNull(entry);
+    assertEquals("image/png", entry.getMimeType());
+    assertEquals("lastModified", entry.getLastModified());
+    assertEquals(42, entry.expiresAt);
+    assertFalse(orphan.exists());
+  }
+
+  @Test
+  public void storedHeadersAreFilteredAndReloaded() throws IOException {
+    final Map<String, List<String>> headerFields = new HashMap<>();
+    headerFields.put(null, Collections.singletonList("HTTP/1.1 200 OK"));
+    headerFields.put("Content-Security-Policy", Collections.singletonList("default-src 'self'"));
+    headerFields.put("Vary", Arrays.asList("Origin", "Accept"));
+    headerFields.put("Set-Cookie", Collections.singletonList("session=1"));
+    headerFields.put("Content-Length", Collections.singletonList("10"));
+    testCache.put(
+        "https://a", writeBody(10), "text/html", null, null, null, headerFields, Long.MAX_VALUE);
+    testCache.writeIndex();
+
+    final OfflineResourceCache.Entry entry =
+        new OfflineResourceCache(cacheDirectory).get("https://a");
+
+    assertNotNull(entry);
+    final Map<String, String> expectedHeaders = new HashMap<>();
+    expectedHeaders.put("Content-Security-Policy", "default-src 'self'");
+    expectedHeaders.put("Vary", "Origin,Accept");
+    assertEquals(expectedHeaders, entry.getHeaders());
+  }
+
+  @Test
+  public void computeExpiresAtUsesCacheControl() {
+    assertEquals(
+        61000, OfflineResourceCache.computeExpiresAt(1000, "public, max-age=60", null, null, null));
+    assertEquals(1000, OfflineResourceCache.computeExpiresAt(1000, "no-cache", null, null, null));
+    assertEquals(-1, OfflineResourceCache.computeExpiresAt(1000, "no-store", null, null, null));
+  }
+
+  @Test
+  public void computeExpiresAtUsesExpiresAndLastModified() {
+    assertEquals(
+        784111777000L,
+        OfflineResourceCache.computeExpiresAt(
+            0, null, "Sun, 06 Nov 1994 08:49:37 GMT", null, null));
+    final long lastModified = 784111777000L;
+    assertEquals(
+        lastModified + 1100,
+        OfflineResourceCache.computeExpiresAt(
+            lastModified + 1000, null, null, "Sun, 06 Nov 1994 08:49:37 GMT", null));
+  }
+
+  @Test
+  public void computeExpiresAtWithoutFreshnessInformation() {
+    assertEquals(-1, OfflineResourceCache.computeExpiresAt(1000, null, null, null, null));
+    assertEquals(1000, OfflineResourceCache.computeExpiresAt(1000, null, null, null, "\"v1\""));
+  }
+
+  @Test
+  public void closeWritesPendingIndexChanges() throws IOException {
+    testCache.put("https://a", writeBody(10), "image/png", null, null, null, 42);
+    testCache.close();
+
+    final OfflineResourceCache reloadedCache = new OfflineResourceCache(cacheDirectory);
+    assertNotNull(reloadedCache.get("https://a"));
+  }
+}
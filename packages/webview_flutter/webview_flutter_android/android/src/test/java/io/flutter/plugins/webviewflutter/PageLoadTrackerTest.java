@@ -0,0 +1,70 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import android.webkit.ValueCallback;
+import android.webkit.WebView;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class PageLoadTrackerTest {
+  private CustomFlutterApiImpl mockFlutterApi;
+  private WebView mockWebView;
+  private PageLoadTracker pageLoadTracker;
+
+  @Before
+  public void setUp() {
+    mockFlutterApi = mock(CustomFlutterApiImpl.class);
+    mockWebView = mock(WebView.class);
+    pageLoadTracker = new PageLoadTracker(mockFlutterApi);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void sendsTimelineAfterPageFinished() {
+    pageLoadTracker.setEnabled(true);
+
+    pageLoadTracker.onRequest(mockWebView, true, PageLoadTracker.Source.CACHE, 1024);
+    pageLoadTracker.onPageStarted(mockWebView, "https://example.com");
+    pageLoadTracker.onProgressChanged(mockWebView, 10L);
+    pageLoadTracker.onPageFinished(mockWebView, "https://example.com");
+
+    final ArgumentCaptor<ValueCallback<String>> callbackCaptor =
+        ArgumentCaptor.forClass(ValueCallback.class);
+    verify(mockWebView)
+        .evaluateJavascript(eq(PageLoadTracker.NAVIGATION_TIMING_SCRIPT), callbackCaptor.capture());
+    verify(mockFlutterApi, never()).sendEvent(any(), any());
+
+    callbackCaptor.getValue().onReceiveValue("{\"domContentLoaded\":120}");
+    verify(mockFlutterApi).sendEvent(eq(mockWebView), any());
+  }
+
+  @Test
+  public void sendsOneTimelinePerNavigation() {
+    pageLoadTracker.setEnabled(true);
+
+    pageLoadTracker.onPageStarted(mockWebView, "https://example.com");
+    pageLoadTracker.onPageFinished(mockWebView, "https://example.com");
+    pageLoadTracker.onPageFinished(mockWebView, "https://example.com");
+
+    verify(mockWebView).evaluateJavascript(anyString(), any());
+  }
+
+  @Test
+  public void recordsNothingWhileDisabled() {
+    pageLoadTracker.onPageStarted(mockWebView, "https://example.com");
+    pageLoadTracker.onPageFinished(mockWebView, "https://example.com");
+
+    verify(mockWebView, never()).evaluateJavascript(anyString(), any());
+  }
+}
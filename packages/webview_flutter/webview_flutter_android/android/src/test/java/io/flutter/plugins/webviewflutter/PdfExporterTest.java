@@ -0,0 +1,152 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.os.Handler;
+import android.os.ParcelFileDescriptor;
+import android.print.PrintAttributes;
+import android.print.PrintDocumentAdapter;
+import android.print.PrintDocumentInfo;
+import android.webkit.WebView;
+import java.io.File;
+import java.io.IOException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.MockedStatic;
+
+public class PdfExporterTest {
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  MockedStatic<ParcelFileDescriptor> mockedParcelFileDescriptor;
+  ParcelFileDescriptor mockDescriptor;
+  PrintDocumentAdapter mockAdapter;
+  WebView mockWebView;
+  Handler mockHandler;
+  PdfExporter.Options mockOptions;
+  PdfExporter.Listener mockListener;
+  File file;
+
+  @Before
+  public void setUp() throws IOException {
+    file = new File(temporaryFolder.getRoot(), "page.pdf");
+
+    mockDescriptor = mock(ParcelFileDescriptor.class);
+    mockedParcelFileDescriptor = mockStatic(ParcelFileDescriptor.class);
+    mockedParcelFileDescriptor
+        .when(() -> ParcelFileDescriptor.open(eq(file), anyInt()))
+        .thenReturn(mockDescriptor);
+
+    mockAdapter = mock(PrintDocumentAdapter.class);
+    mockWebView = mock(WebView.class);
+    when(mockWebView.createPrintDocumentAdapter(anyString())).thenReturn(mockAdapter);
+
+    // Runs the posted messages immediately. The delayed progress polling never runs.
+    mockHandler = mock(Handler.class);
+    when(mockHandler.post(any(Runnable.class)))
+        .thenAnswer(
+            invocation -> {
+              invocation.<Runnable>getArgument(0).run();
+              return true;
+            });
+
+    mockOptions = mock(PdfExporter.Options.class);
+    when(mockOptions.toPrintAttributes()).thenReturn(mock(PrintAttributes.class));
+    mockListener = mock(PdfExporter.Listener.class);
+  }
+
+  @After
+  public void tearDown() {
+    mockedParcelFileDescriptor.close();
+  }
+
+  private PdfExporter createExporter() {
+    return new PdfExporter(mockWebView, file, mockOptions, mockHandler, mockHandler, mockListener);
+  }
+
+  @Test
+  public void layoutsAndWritesAllPages() throws IOException {
+    final PrintDocumentInfo mockInfo = mock(PrintDocumentInfo.class);
+    when(mockInfo.getPageCount()).thenReturn(3);
+    doAnswer(
+            invocation -> {
+              invocation
+                  .<PrintDocumentAdapter.LayoutResultCallback>getArgument(3)
+                  .onLayoutFinished(mockInfo, true);
+              return null;
+            })
+        .when(mockAdapter)
+        .onLayout(any(), any(), any(), any(), any());
+    doAnswer(
+            invocation -> {
+              invocation
+                  .<PrintDocumentAdapter.WriteResultCallback>getArgument(3)
+                  .onWriteFinished(invocation.getArgument(0));
+              return null;
+            })
+        .when(mockAdapter)
+        .onWrite(any(), any(), any(), any());
+
+    createExporter().start();
+
+    verify(mockAdapter).onWrite(any(), eq(mockDescriptor), any(), any());
+    verify(mockListener).onProgress("layout", 3, 0);
+    verify(mockListener).onComplete(file, 3);
+    verify(mockListener, never()).onError(anyString());
+    verify(mockAdapter).onFinish();
+    verify(mockDescriptor).close();
+    verify(mockHandler).removeCallbacks(any(Runnable.class));
+  }
+
+  @Test
+  public void reportsLayoutFailuresAndDeletesTheFile() throws IOException {
+    file.createNewFile();
+    doAnswer(
+            invocation -> {
+              invocation
+                  .<PrintDocumentAdapter.LayoutResultCallback>getArgument(3)
+                  .onLayoutFailed("no pages");
+              return null;
+            })
+        .when(mockAdapter)
+        .onLayout(any(), any(), any(), any(), any());
+
+    createExporter().start();
+
+    verify(mockListener).onError("Layout failed: no pages");
+    verify(mockListener, never()).onComplete(any(File.class), anyInt());
+    verify(mockAdapter, never()).onWrite(any(), any(), any(), any());
+    verify(mockHandler, never()).postDelayed(any(Runnable.class), anyLong());
+    verify(mockDescriptor).close();
+    assertFalse(file.exists());
+  }
+
+  @Test
+  public void reportsFilesThatCannotBeOpened() {
+    mockedParcelFileDescriptor
+        .when(() -> ParcelFileDescriptor.open(eq(file), anyInt()))
+        .thenThrow(new IOException("read-only"));
+
+    createExporter().start();
+
+    verify(mockListener).onError("Failed to open " + file + ": read-only");
+    verify(mockWebView, never()).createPrintDocumentAdapter(anyString());
+  }
+}
@@ -0,0 +1,81 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.Deflater;
+import javax.imageio.ImageIO;
+import org.junit.Test;
+
+public class StreamingPngWriterTest {
+  private static int[] createPixels(int width, int height, int firstRow) {
+    final int[] pixels = new int[width * height];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        pixels[y * width + x] = 0xFF000000 | ((y + firstRow) * 7 % 256) << 8 | (x * 13 % 256);
+      }
+    }
+    return pixels;
+  }
+
+  @Test
+  public void writesRowsWrittenInStrips() throws IOException {
+    final int width = 300;
+    final int height = 1000;
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    final StreamingPngWriter writer =
+        new StreamingPngWriter(output, width, height, Deflater.BEST_SPEED);
+
+    for (int top = 0; top < height; top += 256) {
+      final int rows = Math.min(256, height - top);
+      writer.writeRows(createPixels(width, rows, top), rows);
+    }
+    writer.close();
+
+    final BufferedImage image = ImageIO.read(new ByteArrayInputStream(output.toByteArray()));
+    assertEquals(width, image.getWidth());
+    assertEquals(height, image.getHeight());
+    final int[] expected = createPixels(width, height, 0);
+    for (int y = 0; y < height; y += 17) {
+      for (int x = 0; x < width; x += 11) {
+        assertEquals(expected[y * width + x], image.getRGB(x, y));
+      }
+    }
+  }
+
+  @Test
+  public void keepsTransparency() throws IOException {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    final StreamingPngWriter writer =
+        new StreamingPngWriter(output, 2, 1, Deflater.DEFAULT_COMPRESSION);
+
+    writer.writeRows(new int[] {0x00000000, 0x80FF0000}, 1);
+    writer.close();
+
+    final BufferedImage image = ImageIO.read(new ByteArrayInputStream(output.toByteArray()));
+    assertEquals(0x00000000, image.getRGB(0, 0));
+    assertEquals(0x80FF0000, image.getRGB(1, 0));
+  }
+
+  @Test
+  public void closeFailsWhenRowsAreMissing() throws IOException {
+    final StreamingPngWriter writer =
+        new StreamingPngWriter(new ByteArrayOutputStream(), 2, 2, Deflater.BEST_SPEED);
+    writer.writeRows(new int[2], 1);
+
+    try {
+      writer.close();
+      fail();
+    } catch (IOException e) {
+      // Expected.
+    }
+  }
+}
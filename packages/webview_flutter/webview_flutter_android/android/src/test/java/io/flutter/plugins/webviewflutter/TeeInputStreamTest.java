@@ -0,0 +1,97 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class TeeInputStreamTest {
+  @Rule public MockitoRule mockitoRule = MockitoJUnit.rule();
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Mock TeeInputStream.Listener mockListener;
+
+  final byte[] body = new byte[20000];
+  File file;
+
+  @Before
+  public void setUp() {
+    for (int i = 0; i < body.length; i++) {
+      body[i] = (byte) i;
+    }
+    file = new File(temporaryFolder.getRoot(), "body");
+  }
+
+  @Test
+  public void readCopiesTheSourceToTheFile() throws IOException {
+    final TeeInputStream inputStream =
+        new TeeInputStream(new ByteArrayInputStream(body), file, mockListener);
+
+    final ByteArrayOutputStream read = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[4096];
+    int bytesRead;
+    while ((bytesRead = inputStream.read(buffer)) != -1) {
+      read.write(buffer, 0, bytesRead);
+    }
+    inputStream.close();
+
+    assertArrayEquals(body, read.toByteArray());
+    assertArrayEquals(body, Files.readAllBytes(file.toPath()));
+    verify(mockListener).onComplete(file);
+    verify(mockListener, never()).onAbort(any());
+  }
+
+  @Test
+  public void closeBeforeTheEndDeletesTheFile() throws IOException {
+    final TeeInputStream inputStream =
+        new TeeInputStream(new ByteArrayInputStream(body), file, mockListener);
+
+    assertEquals(0, inputStream.read());
+    inputStream.close();
+
+    assertFalse(file.exists());
+    verify(mockListener).onAbort(file);
+    verify(mockListener, never()).onComplete(any());
+  }
+
+  @Test
+  public void sourceFailureDeletesTheFile() throws IOException {
+    final InputStream failingSource =
+        new InputStream() {
+          @Override
+          public int read() throws IOException {
+            throw new IOException();
+          }
+        };
+    final TeeInputStream inputStream = new TeeInputStream(failingSource, file, mockListener);
+
+    try {
+      inputStream.read(new byte[16], 0, 16);
+    } catch (IOException e) {
+      // Expected.
+    }
+
+    assertFalse(file.exists());
+    verify(mockListener).onAbort(file);
+  }
+}
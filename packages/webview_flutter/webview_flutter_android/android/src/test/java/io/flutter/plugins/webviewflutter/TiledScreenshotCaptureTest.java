@@ -0,0 +1,197 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Handler;
+import android.webkit.WebView;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.MockedStatic;
+
+public class TiledScreenshotCaptureTest {
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private static class RecordingCallback implements TiledScreenshotCapture.Callback {
+    List<File> files;
+    Exception exception;
+
+    @Override
+    public void onComplete(List<File> files) {
+      this.files = files;
+    }
+
+    @Override
+    public void onError(Exception exception) {
+      this.exception = exception;
+    }
+  }
+
+  MockedStatic<Bitmap> mockedBitmap;
+  Bitmap mockBitmap;
+  WebView mockWebView;
+  Handler mockMainHandler;
+  final Queue<Runnable> mainQueue = new ArrayDeque<>();
+  final Queue<Runnable> encodeQueue = new ArrayDeque<>();
+  RecordingCallback callback;
+
+  @Before
+  public void setUp() {
+    mockBitmap = mock(Bitmap.class);
+    mockedBitmap = mockStatic(Bitmap.class);
+    mockedBitmap
+        .when(() -> Bitmap.createBitmap(anyInt(), anyInt(), any(Bitmap.Config.class)))
+        .thenReturn(mockBitmap);
+
+    mockWebView = mock(WebView.class);
+    when(mockWebView.getWidth()).thenReturn(4);
+    when(mockWebView.getMeasuredWidth()).thenReturn(4);
+    when(mockWebView.getMeasuredHeight()).thenReturn(25);
+
+    mockMainHandler = mock(Handler.class);
+    when(mockMainHandler.post(any(Runnable.class)))
+        .thenAnswer(
+            invocation -> {
+              mainQueue.add(invocation.getArgument(0));
+              return true;
+            });
+    doAnswer(
+            invocation -> {
+              mainQueue.remove(invocation.<Runnable>getArgument(0));
+              return null;
+            })
+        .when(mockMainHandler)
+        .removeCallbacks(any(Runnable.class));
+
+    callback = new RecordingCallback();
+  }
+
+  @After
+  public void tearDown() {
+    mockedBitmap.close();
+  }
+
+  private TiledScreenshotCapture createCapture(File file, String format, boolean tiled) {
+    return new TiledScreenshotCapture(
+        mockWebView, encodeQueue::add, mockMainHandler, file, format, 10, tiled, callback);
+  }
+
+  /** Runs the main thread messages, and the encoding tasks while the main thread is idle. */
+  private void runLoops() {
+    Runnable runnable;
+    while ((runnable = mainQueue.isEmpty() ? encodeQueue.poll() : mainQueue.poll()) != null) {
+      runnable.run();
+    }
+  }
+
+  @Test
+  public void capturesThePageStripByStripIntoOnePng() throws IOException {
+    final File file = new File(temporaryFolder.getRoot(), "page.png");
+
+    createCapture(file, "png", false).start();
+    runLoops();
+
+    assertNull(callback.exception);
+    assertNotNull(callback.files);
+    assertEquals(1, callback.files.size());
+    assertEquals(file, callback.files.get(0));
+    assertTrue(file.length() > 0);
+    // 25 rows drawn as strips of 10, 10 and 5 rows.
+    verify(mockWebView, times(3)).draw(any(Canvas.class));
+    verify(mockBitmap, times(3))
+        .getPixels(any(int[].class), anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt());
+    verify(mockBitmap)
+        .getPixels(any(int[].class), anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), eq(5));
+    verify(mockBitmap, times(2)).recycle();
+  }
+
+  @Test
+  public void reusesAtMostTwoBitmaps() {
+    createCapture(new File(temporaryFolder.getRoot(), "page.png"), "png", false).start();
+    runLoops();
+
+    mockedBitmap.verify(
+        () -> Bitmap.createBitmap(anyInt(), anyInt(), any(Bitmap.Config.class)), times(2));
+  }
+
+  @Test
+  public void reportsAnEmptyWebViewAsAnError() {
+    when(mockWebView.getMeasuredHeight()).thenReturn(0);
+
+    createCapture(new File(temporaryFolder.getRoot(), "page.png"), "png", false).start();
+    runLoops();
+
+    assertNull(callback.files);
+    assertNotNull(callback.exception);
+  }
+
+  @Test
+  public void deletesThePartialFileWhenEncodingFails() {
+    final File file = new File(temporaryFolder.getRoot(), "page.png");
+    doThrow(new IllegalStateException("recycled"))
+        .when(mockBitmap)
+        .getPixels(any(int[].class), anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt());
+
+    createCapture(file, "png", false).start();
+    runLoops();
+
+    assertNull(callback.files);
+    assertTrue(callback.exception instanceof IllegalStateException);
+    assertFalse(file.exists());
+  }
+
+  @Test
+  public void writesOneTileFilePerStrip() {
+    final Bitmap mockLastTile = mock(Bitmap.class);
+    mockedBitmap
+        .when(() -> Bitmap.createBitmap(mockBitmap, 0, 0, 4, 5))
+        .thenReturn(mockLastTile);
+    when(mockBitmap.getHeight()).thenReturn(10);
+    when(mockBitmap.compress(any(), anyInt(), any())).thenReturn(true);
+    when(mockLastTile.compress(any(), anyInt(), any())).thenReturn(true);
+
+    createCapture(new File(temporaryFolder.getRoot(), "page.jpg"), "jpg", true).start();
+    runLoops();
+
+    assertNull(callback.exception);
+    assertEquals(3, callback.files.size());
+    assertEquals("page_0.jpg", callback.files.get(0).getName());
+    assertEquals("page_2.jpg", callback.files.get(2).getName());
+    verify(mockBitmap, times(2)).compress(eq(Bitmap.CompressFormat.JPEG), anyInt(), any());
+    verify(mockLastTile).compress(eq(Bitmap.CompressFormat.JPEG), anyInt(), any());
+    // The shorter last tile is a copy, released once written.
+    verify(mockLastTile).recycle();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsSingleJpegFiles() {
+    createCapture(new File(temporaryFolder.getRoot(), "page.jpg"), "jpeg", false);
+  }
+}
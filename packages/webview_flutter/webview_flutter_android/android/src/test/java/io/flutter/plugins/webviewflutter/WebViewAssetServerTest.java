@@ -0,0 +1,199 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import android.content.res.AssetFileDescriptor;
+import io.flutter.plugins.webviewflutter.WebViewAssetServer.ByteRange;
+import io.flutter.plugins.webviewflutter.WebViewAssetServer.MappedFileInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class WebViewAssetServerTest {
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void parseRange() {
+    ByteRange range = WebViewAssetServer.parseRange("bytes=10-19", 100);
+    assertEquals(10, range.start);
+    assertEquals(19, range.end);
+    assertEquals(10, range.getLength());
+
+    range = WebViewAssetServer.parseRange("bytes=90-", 100);
+    assertEquals(90, range.start);
+    assertEquals(99, range.end);
+
+    range = WebViewAssetServer.parseRange("bytes=-30", 100);
+    assertEquals(70, range.start);
+    assertEquals(99, range.end);
+
+    range = WebViewAssetServer.parseRange("bytes=50-500", 100);
+    assertEquals(50, range.start);
+    assertEquals(99, range.end);
+  }
+
+  @Test
+  public void parseRangeServesWholeContentForUnsupportedHeaders() {
+    assertNull(WebViewAssetServer.parseRange(null, 100));
+    assertNull(WebViewAssetServer.parseRange("bytes=0-9,20-29", 100));
+    assertNull(WebViewAssetServer.parseRange("items=0-9", 100));
+    assertNull(WebViewAssetServer.parseRange("bytes=abc", 100));
+    assertNull(WebViewAssetServer.parseRange("bytes=20-10", 100));
+  }
+
+  @Test
+  public void parseRangeStartingPastContentIsUnsatisfiable() {
+    assertSame(ByteRange.UNSATISFIABLE, WebViewAssetServer.parseRange("bytes=100-", 100));
+    assertSame(ByteRange.UNSATISFIABLE, WebViewAssetServer.parseRange("bytes=-0", 100));
+  }
+
+  @Test
+  public void getMimeType() {
+    assertEquals("text/javascript", WebViewAssetServer.getMimeType("main.dart.js"));
+    assertEquals("application/wasm", WebViewAssetServer.getMimeType("canvaskit.WASM"));
+    assertEquals("text/html", WebViewAssetServer.getMimeType("index.html"));
+    assertEquals("application/octet-stream", WebViewAssetServer.getMimeType("LICENSE"));
+  }
+
+  @Test
+  public void resolveFileStaysInDirectory() throws IOException {
+    final File directory = temporaryFolder.newFolder("files");
+
+    assertEquals(
+        new File(directory, "web/index.html").getCanonicalFile(),
+        WebViewAssetServer.resolveFile(directory, "web/index.html"));
+    assertNull(WebViewAssetServer.resolveFile(directory, "../secret.txt"));
+    assertNull(WebViewAssetServer.resolveFile(directory, "web/../../secret.txt"));
+    assertNull(WebViewAssetServer.resolveFile(directory, ""));
+  }
+
+  @Test
+  public void mappedFileInputStreamReadsRegion() throws IOException {
+    final byte[] content = new byte[1000];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) i;
+    }
+    final File file = temporaryFolder.newFile("content.bin");
+    try (FileOutputStream outputStream = new FileOutputStream(file)) {
+      outputStream.write(content);
+    }
+
+    final FileInputStream fileStream = new FileInputStream(file);
+    final InputStream inputStream =
+        new MappedFileInputStream(fileStream.getChannel(), fileStream, 100, 600);
+    assertEquals(500, inputStream.available());
+    assertEquals(100, inputStream.read());
+
+    final ByteArrayOutputStream read = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[64];
+    int count;
+    while ((count = inputStream.read(buffer, 0, buffer.length)) != -1) {
+      read.write(buffer, 0, count);
+    }
+    inputStream.close();
+
+    assertArrayEquals(Arrays.copyOfRange(content, 101, 600), read.toByteArray());
+    assertFalse(fileStream.getChannel().isOpen());
+  }
+
+  @Test
+  public void handlesOnlyItsDomainWhileEnabled() {
+    final WebViewAssetServer assetServer =
+        new WebViewAssetServer(mock(FlutterAssetManager.class), new File("files"));
+    assertFalse(assetServer.handles("https://appassets.local/assets/index.html"));
+
+    assetServer.setEnabled(true);
+    assertTrue(assetServer.handles("https://appassets.local/assets/index.html"));
+    assertFalse(assetServer.handles("http://appassets.local/assets/index.html"));
+    assertFalse(assetServer.handles("https://example.com/assets/index.html"));
+
+    assetServer.setDomain("app.example");
+    assertTrue(assetServer.handles("https://app.example/files/page.html"));
+  }
+
+  @Test
+  public void servesFilesOnlyFromTheConfiguredDirectory() throws IOException {
+    final File filesDir = temporaryFolder.newFolder("files");
+    final File publicDir = new File(filesDir, "public");
+    publicDir.mkdirs();
+    try (FileOutputStream outputStream = new FileOutputStream(new File(publicDir, "page.html"))) {
+      outputStream.write(new byte[] {1, 2, 3});
+    }
+    new File(filesDir, "secret.txt").createNewFile();
+    final WebViewAssetServer assetServer =
+        new WebViewAssetServer(mock(FlutterAssetManager.class), filesDir);
+    assetServer.setEnabled(true);
+
+    assetServer.serve("GET", "https://appassets.local/files/public/page.html", null);
+    assertEquals(1L, assetServer.getStats().get("notFound"));
+
+    assetServer.setFilesDirectory("public");
+    assetServer.serve("GET", "https://appassets.local/files/page.html", null);
+    assertEquals(1L, assetServer.getStats().get("notFound"));
+    assertEquals(3L, assetServer.getStats().get("bytesServed"));
+
+    assetServer.serve("GET", "https://appassets.local/files/../secret.txt", null);
+    assertEquals(2L, assetServer.getStats().get("notFound"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void setFilesDirectoryRejectsDirectoriesOutsideTheFilesDirectory() throws IOException {
+    final WebViewAssetServer assetServer =
+        new WebViewAssetServer(
+            mock(FlutterAssetManager.class), temporaryFolder.newFolder("files"));
+
+    assetServer.setFilesDirectory("../other");
+  }
+
+  @Test
+  public void streamsSmallAssetsAndMapsLargeOnes() throws IOException {
+    final FlutterAssetManager mockFlutterAssetManager = mock(FlutterAssetManager.class);
+    final AssetFileDescriptor mockSmallDescriptor = mock(AssetFileDescriptor.class);
+    when(mockSmallDescriptor.getLength()).thenReturn(100L);
+    when(mockSmallDescriptor.createInputStream()).thenReturn(mock(FileInputStream.class));
+    final AssetFileDescriptor mockLargeDescriptor = mock(AssetFileDescriptor.class);
+    when(mockLargeDescriptor.getLength())
+        .thenReturn(WebViewAssetServer.MAPPED_READ_THRESHOLD_BYTES);
+    when(mockLargeDescriptor.createInputStream()).thenReturn(mock(FileInputStream.class));
+    when(mockFlutterAssetManager.getAssetFilePathByName("small.html")).thenReturn("a/small.html");
+    when(mockFlutterAssetManager.getAssetFilePathByName("large.html")).thenReturn("a/large.html");
+    when(mockFlutterAssetManager.openFd("a/small.html")).thenReturn(mockSmallDescriptor);
+    when(mockFlutterAssetManager.openFd("a/large.html")).thenReturn(mockLargeDescriptor);
+    final WebViewAssetServer assetServer =
+        new WebViewAssetServer(mockFlutterAssetManager, temporaryFolder.newFolder("files"));
+    assetServer.setEnabled(true);
+
+    assetServer.serve("GET", "https://appassets.local/assets/small.html", null);
+    assertEquals(0L, assetServer.getStats().get("mappedReads"));
+
+    assetServer.serve("GET", "https://appassets.local/assets/large.html", null);
+    assertEquals(1L, assetServer.getStats().get("mappedReads"));
+
+    // Ranges of small assets are still read from mappings.
+    assetServer.serve(
+        "GET",
+        "https://appassets.local/assets/small.html",
+        Collections.singletonMap("Range", "bytes=0-9"));
+    assertEquals(2L, assetServer.getStats().get("mappedReads"));
+    assertEquals(0L, assetServer.getStats().get("notFound"));
+  }
+}
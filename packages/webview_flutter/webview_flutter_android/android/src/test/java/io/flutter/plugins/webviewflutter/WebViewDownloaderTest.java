@@ -0,0 +1,257 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.AdditionalMatchers.and;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatcher;
+
+public class WebViewDownloaderTest {
+  private static final String URL = "https://example.com/file";
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  InterceptorHttpClient mockHttpClient;
+  CustomFlutterApiImpl mockFlutterApi;
+  final Queue<Runnable> tasks = new ArrayDeque<>();
+  final Object owner = new Object();
+  File directory;
+  WebViewDownloader downloader;
+
+  @Before
+  public void setUp() throws IOException {
+    mockHttpClient = mock(InterceptorHttpClient.class);
+    mockFlutterApi = mock(CustomFlutterApiImpl.class);
+    directory = temporaryFolder.newFolder("downloads");
+    downloader = new WebViewDownloader(mockHttpClient, tasks::add, directory, mockFlutterApi);
+  }
+
+  private void runTasks() {
+    Runnable runnable;
+    while ((runnable = tasks.poll()) != null) {
+      runnable.run();
+    }
+  }
+
+  private InterceptorHttpClient.Exchange mockExchange(
+      int responseCode, String contentRange, InputStream body) throws IOException {
+    final InterceptorHttpClient.Exchange mockExchange = mock(InterceptorHttpClient.Exchange.class);
+    when(mockExchange.getResponseCode()).thenReturn(responseCode);
+    when(mockExchange.getHeaderField("Content-Range")).thenReturn(contentRange);
+    when(mockExchange.getHeaderField("ETag")).thenReturn("\"v1\"");
+    when(mockExchange.getContentType()).thenReturn("application/octet-stream");
+    when(mockExchange.getBody()).thenReturn(body);
+    return mockExchange;
+  }
+
+  private void mockRange(String range, InterceptorHttpClient.Exchange exchange)
+      throws IOException {
+    when(mockHttpClient.execute(eq(URL), argThat(hasHeader("Range", range)))).thenReturn(exchange);
+  }
+
+  private static ArgumentMatcher<Map<String, String>> hasHeader(String name, String value) {
+    return headers -> headers != null && value.equals(headers.get(name));
+  }
+
+  private JSONObject getLastEvent() {
+    final ArgumentCaptor<JSONObject> eventCaptor = ArgumentCaptor.forClass(JSONObject.class);
+    verify(mockFlutterApi, atLeastOnce()).sendEvent(eq(owner), eventCaptor.capture());
+    final List<JSONObject> events = eventCaptor.getAllValues();
+    return events.get(events.size() - 1);
+  }
+
+  private void startDownload() {
+    downloader.download(new WebViewDownloader.Request("d1", URL).setFileName("file.bin"), owner);
+  }
+
+  @Test
+  public void downloadsSegmentsOverParallelRangeRequests() throws IOException, JSONException {
+    final byte[] content = "0123456789ab".getBytes(UTF_8);
+    downloader.setMaxSegments(3);
+    downloader.setMinSegmentBytes(4);
+    mockRange("bytes=0-", mockExchange(206, "bytes 0-11/12", new ByteArrayInputStream(content)));
+    mockRange(
+        "bytes=4-7",
+        mockExchange(206, "bytes 4-7/12", new ByteArrayInputStream("4567".getBytes(UTF_8))));
+    mockRange(
+        "bytes=8-11",
+        mockExchange(206, "bytes 8-11/12", new ByteArrayInputStream("89ab".getBytes(UTF_8))));
+
+    startDownload();
+    runTasks();
+
+    final File file = new File(directory, "file.bin");
+    assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+    assertFalse(new File(directory, "file.bin.part").exists());
+    verify(mockHttpClient)
+        .execute(
+            eq(URL),
+            and(
+                argThat(hasHeader("Range", "bytes=8-11")),
+                argThat(hasHeader("If-Range", "\"v1\""))));
+    final JSONObject event = getLastEvent();
+    assertEquals("downloadComplete", event.getString("event"));
+    assertEquals("completed", event.getString("state"));
+    assertEquals(12, event.getLong("received"));
+    assertEquals(3, event.getInt("segments"));
+    assertEquals(file.getAbsolutePath(), event.getString("filePath"));
+  }
+
+  @Test
+  public void resumesAPausedDownloadFromItsLastWrittenByte() throws IOException, JSONException {
+    final byte[] content = "0123456789".getBytes(UTF_8);
+    // Pauses the download during its first read, which returns the first 4 bytes.
+    final InputStream pausingBody =
+        new ByteArrayInputStream(content) {
+          @Override
+          public synchronized int read(byte[] buffer, int offset, int length) {
+            downloader.pause("d1");
+            return super.read(buffer, offset, Math.min(length, 4));
+          }
+        };
+    mockRange("bytes=0-", mockExchange(206, "bytes 0-9/10", pausingBody));
+    mockRange(
+        "bytes=4-9",
+        mockExchange(206, "bytes 4-9/10", new ByteArrayInputStream("456789".getBytes(UTF_8))));
+
+    startDownload();
+    runTasks();
+    assertEquals("paused", getLastEvent().getString("state"));
+    assertEquals(4, getLastEvent().getLong("received"));
+
+    assertTrue(downloader.resume("d1"));
+    runTasks();
+
+    assertArrayEquals(content, Files.readAllBytes(new File(directory, "file.bin").toPath()));
+    assertEquals("completed", getLastEvent().getString("state"));
+    verify(mockHttpClient, times(1))
+        .execute(eq(URL), argThat(hasHeader("Range", "bytes=0-")));
+    verify(mockHttpClient)
+        .execute(
+            eq(URL),
+            and(
+                argThat(hasHeader("Range", "bytes=4-9")),
+                argThat(hasHeader("If-Range", "\"v1\""))));
+  }
+
+  @Test
+  public void failsAResumedDownloadWhenTheFileChanged() throws IOException, JSONException {
+    final byte[] content = "0123456789".getBytes(UTF_8);
+    final InputStream pausingBody =
+        new ByteArrayInputStream(content) {
+          @Override
+          public synchronized int read(byte[] buffer, int offset, int length) {
+            downloader.pause("d1");
+            return super.read(buffer, offset, Math.min(length, 4));
+          }
+        };
+    mockRange("bytes=0-", mockExchange(206, "bytes 0-9/10", pausingBody));
+    // The If-Range validator no longer matches, so the whole file is sent.
+    mockRange("bytes=4-9", mockExchange(200, null, new ByteArrayInputStream(content)));
+
+    startDownload();
+    runTasks();
+    assertTrue(downloader.resume("d1"));
+    runTasks();
+
+    assertEquals("failed", getLastEvent().getString("state"));
+    assertFalse(new File(directory, "file.bin").exists());
+    assertFalse(new File(directory, "file.bin.part").exists());
+  }
+
+  @Test
+  public void isDisabledUntilEnabled() {
+    assertFalse(downloader.isEnabled());
+    downloader.setEnabled(true);
+    assertTrue(downloader.isEnabled());
+    downloader.setEnabled(false);
+    assertFalse(downloader.isEnabled());
+  }
+
+  @Test
+  public void parseContentRange() {
+    assertArrayEquals(
+        new long[] {0, 1023, 4096}, WebViewDownloader.parseContentRange("bytes 0-1023/4096"));
+    assertArrayEquals(
+        new long[] {100, 199, -1}, WebViewDownloader.parseContentRange("bytes 100-199/*"));
+    assertNull(WebViewDownloader.parseContentRange("bytes */4096"));
+    assertNull(WebViewDownloader.parseContentRange("bytes 10-5/4096"));
+    assertNull(WebViewDownloader.parseContentRange(null));
+  }
+
+  @Test
+  public void splitSegments() {
+    final List<WebViewDownloader.Segment> segments =
+        WebViewDownloader.splitSegments(10 * 1024 * 1024 + 1, 4, 2 * 1024 * 1024);
+    assertEquals(4, segments.size());
+    assertEquals(0, segments.get(0).start);
+    for (int i = 1; i < segments.size(); i++) {
+      assertEquals(segments.get(i - 1).end + 1, segments.get(i).start);
+    }
+    assertEquals(10 * 1024 * 1024, segments.get(3).end);
+
+    assertEquals(1, WebViewDownloader.splitSegments(3 * 1024 * 1024, 4, 2 * 1024 * 1024).size());
+    assertEquals(1, WebViewDownloader.splitSegments(0, 4, 1024).size());
+
+    final List<WebViewDownloader.Segment> unknownSize =
+        WebViewDownloader.splitSegments(-1, 4, 1024);
+    assertEquals(1, unknownSize.size());
+    assertEquals(-1, unknownSize.get(0).end);
+  }
+
+  @Test
+  public void parseContentDispositionFileName() {
+    assertEquals(
+        "report.pdf",
+        WebViewDownloader.parseContentDispositionFileName("attachment; filename=\"report.pdf\""));
+    assertEquals(
+        "report.pdf",
+        WebViewDownloader.parseContentDispositionFileName("attachment; filename=report.pdf; size=3"));
+    assertEquals(
+        "résumé 1+1.pdf",
+        WebViewDownloader.parseContentDispositionFileName(
+            "attachment; filename=\"resume.pdf\"; filename*=UTF-8''r%C3%A9sum%C3%A9%201+1.pdf"));
+    assertNull(WebViewDownloader.parseContentDispositionFileName("inline"));
+  }
+
+  @Test
+  public void sanitizeFileName() {
+    assertEquals("passwd", WebViewDownloader.sanitizeFileName("../../etc/passwd"));
+    assertEquals("a_b_.txt", WebViewDownloader.sanitizeFileName("a:b?.txt"));
+    assertEquals("hidden", WebViewDownloader.sanitizeFileName("..hidden"));
+    assertEquals("download", WebViewDownloader.sanitizeFileName(".."));
+    assertEquals("download", WebViewDownloader.sanitizeFileName(null));
+  }
+}
@@ -0,0 +1,188 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.content.Context;
+import android.content.MutableContextWrapper;
+import android.content.pm.ApplicationInfo;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.webkit.WebSettings;
+import androidx.webkit.WebSettingsCompat;
+import androidx.webkit.WebViewFeature;
+import io.flutter.plugins.webviewflutter.WebViewHostApiImpl.WebViewPlatformView;
+import io.flutter.plugins.webviewflutter.WebViewHostApiImpl.WebViewProxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+
+public class WebViewPoolTest {
+  MockedStatic<Looper> mockedLooper;
+  MockedStatic<WebViewFeature> mockedWebViewFeature;
+  MockedStatic<WebSettingsCompat> mockedWebSettingsCompat;
+  final List<MessageQueue.IdleHandler> idleHandlers = new ArrayList<>();
+  Context mockApplicationContext;
+  Context mockActivityContext;
+  WebViewProxy mockWebViewProxy;
+  WebViewPool pool;
+
+  @Before
+  public void setUp() {
+    final MessageQueue mockMessageQueue = mock(MessageQueue.class);
+    doAnswer(invocation -> idleHandlers.add(invocation.getArgument(0)))
+        .when(mockMessageQueue)
+        .addIdleHandler(any());
+    mockedLooper = mockStatic(Looper.class);
+    mockedLooper.when(Looper::myQueue).thenReturn(mockMessageQueue);
+
+    mockedWebViewFeature = mockStatic(WebViewFeature.class);
+    mockedWebViewFeature
+        .when(() -> WebViewFeature.isFeatureSupported(anyString()))
+        .thenReturn(true);
+    mockedWebSettingsCompat = mockStatic(WebSettingsCompat.class);
+
+    final ApplicationInfo applicationInfo = new ApplicationInfo();
+    applicationInfo.targetSdkVersion = 30;
+    mockApplicationContext = mock(Context.class);
+    when(mockApplicationContext.getApplicationInfo()).thenReturn(applicationInfo);
+    mockActivityContext = mock(Context.class);
+    when(mockActivityContext.getApplicationContext()).thenReturn(mockApplicationContext);
+
+    mockWebViewProxy = mock(WebViewProxy.class);
+    when(mockWebViewProxy.createWebView(any(Context.class)))
+        .thenAnswer(
+            invocation -> {
+              final WebViewPlatformView mockWebView = mock(WebViewPlatformView.class);
+              final MutableContextWrapper mockContextWrapper = mock(MutableContextWrapper.class);
+              when(mockWebView.getContext()).thenReturn(mockContextWrapper);
+              when(mockWebView.getSettings()).thenReturn(mock(WebSettings.class));
+              return mockWebView;
+            });
+
+    pool = new WebViewPool(mockActivityContext, mockWebViewProxy);
+  }
+
+  @After
+  public void tearDown() {
+    mockedLooper.close();
+    mockedWebViewFeature.close();
+    mockedWebSettingsCompat.close();
+  }
+
+  /** Runs the idle handlers until none of them asks to be run again. */
+  private void runIdleHandlers() {
+    while (!idleHandlers.isEmpty()) {
+      final List<MessageQueue.IdleHandler> handlers = new ArrayList<>(idleHandlers);
+      idleHandlers.clear();
+      for (MessageQueue.IdleHandler handler : handlers) {
+        if (handler.queueIdle()) {
+          idleHandlers.add(handler);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void obtainCreatesAWebViewWhenNoneIsIdle() {
+    final WebViewPlatformView webView = pool.obtain(mockActivityContext);
+
+    verify(mockWebViewProxy).createWebView(any(MutableContextWrapper.class));
+    verify(webView).setPool(pool);
+    final Map<String, Object> stats = pool.getStats();
+    assertEquals(1L, stats.get("misses"));
+    assertEquals(1L, stats.get("created"));
+  }
+
+  @Test
+  public void refillsIdleWebViewsWhileTheMainThreadIsIdle() {
+    pool.setMaxSize(2);
+    runIdleHandlers();
+    assertEquals(2, pool.getStats().get("idle"));
+
+    final WebViewPlatformView webView = pool.obtain(mockActivityContext);
+
+    verify((MutableContextWrapper) webView.getContext()).setBaseContext(mockActivityContext);
+    verify(webView).clearHistory();
+    assertEquals(1L, pool.getStats().get("hits"));
+    assertEquals(1, pool.getStats().get("idle"));
+
+    runIdleHandlers();
+
+    assertEquals(2, pool.getStats().get("idle"));
+    assertEquals(3L, pool.getStats().get("created"));
+  }
+
+  @Test
+  public void recycleResetsTheWebViewAndItsSettings() {
+    pool.setMaxSize(1);
+    final WebViewPlatformView webView = pool.obtain(mockActivityContext);
+    final WebSettings settings = webView.getSettings();
+
+    pool.recycle(webView);
+
+    verify(webView).resetForReuse();
+    verify(settings).setJavaScriptEnabled(false);
+    verify(settings).setDomStorageEnabled(false);
+    verify(settings).setUserAgentString(null);
+    verify(settings).setSupportZoom(true);
+    verify(settings).setBuiltInZoomControls(false);
+    verify(settings).setTextZoom(100);
+    verify(settings).setCacheMode(WebSettings.LOAD_DEFAULT);
+    verify(settings).setAllowFileAccess(false);
+    mockedWebSettingsCompat.verify(
+        () -> WebSettingsCompat.setForceDark(settings, WebSettingsCompat.FORCE_DARK_AUTO));
+    verify((MutableContextWrapper) webView.getContext()).setBaseContext(mockApplicationContext);
+    verify(webView, never()).destroy();
+    assertEquals(1L, pool.getStats().get("recycled"));
+    assertSame(webView, pool.obtain(mockActivityContext));
+  }
+
+  @Test
+  public void recycleDestroysTheWebViewWhenThePoolIsFull() {
+    final WebViewPlatformView webView = pool.obtain(mockActivityContext);
+
+    pool.recycle(webView);
+
+    verify(webView).setPool(null);
+    verify(webView).destroy();
+    verify(webView, never()).resetForReuse();
+    assertEquals(1L, pool.getStats().get("destroyed"));
+    assertNotSame(webView, pool.obtain(mockActivityContext));
+  }
+
+  @Test
+  public void destroyDestroysIdleAndReturnedWebViews() {
+    pool.setMaxSize(2);
+    runIdleHandlers();
+    final WebViewPlatformView usedWebView = pool.obtain(mockActivityContext);
+
+    pool.destroy();
+    pool.recycle(usedWebView);
+
+    verify(usedWebView).destroy();
+    final Map<String, Object> stats = pool.getStats();
+    assertEquals(0, stats.get("maxSize"));
+    assertEquals(0, stats.get("idle"));
+    assertEquals(2L, stats.get("destroyed"));
+    runIdleHandlers();
+    assertEquals(0, pool.getStats().get("idle"));
+  }
+}
@@ -5,8 +5,12 @@
 package io.flutter.plugins.webviewflutter;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -20,7 +24,9 @@ import io.flutter.plugins.webviewflutter.WebChromeClientHostApiImpl.WebChromeCli
 import io.flutter.plugins.webviewflutter.WebViewClientHostApiImpl.WebViewClientImpl;
 import io.flutter.plugins.webviewflutter.WebViewHostApiImpl.InputAwareWebViewPlatformView;
 import io.flutter.plugins.webviewflutter.WebViewHostApiImpl.WebViewPlatformView;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -72,6 +78,20 @@ public class WebViewTest {
     verify(mockJavaScriptChannel).release();
   }
 
+  @Test
+  public void recyclePooledWebViewOnceReleasedAndDisposed() {
+    final WebViewPlatformView webView = new WebViewPlatformView(mockContext);
+    final WebViewPool mockWebViewPool = mock(WebViewPool.class);
+    webView.setPool(mockWebViewPool);
+    webView.getView();
+
+    webView.release();
+    verify(mockWebViewPool, never()).recycle(webView);
+
+    webView.dispose();
+    verify(mockWebViewPool).recycle(webView);
+  }
+
   @Test
   public void releaseWebViewDependents() {
     final WebViewPlatformView webView = new WebViewPlatformView(mockContext);
@@ -102,6 +122,16 @@ public class WebViewTest {
     verify(mockJavaScriptChannel2).release();
   }
 
+  @Test
+  public void setDownloadListenerSendsDownloadEventsForTheWebView() {
+    final WebViewPlatformView webView = new WebViewPlatformView(mockContext);
+    final DownloadListenerImpl mockDownloadListener = mock(DownloadListenerImpl.class);
+
+    webView.setDownloadListener(mockDownloadListener);
+
+    verify(mockDownloadListener).setWebView(webView);
+  }
+
   @Test
   public void releaseInputAwareWebView() {
     final InputAwareWebViewPlatformView webView =
@@ -281,6 +311,90 @@ public class WebViewTest {
     assertEquals(successValue[0], "da result");
   }
 
+  @Test
+  public void evaluateJavaScriptBatch() {
+    final List<String> scripts = Arrays.asList("1 + 1", "throw 'error'", "'a'");
+    @SuppressWarnings("unchecked")
+    final List<String>[] successValue = new List[1];
+    testHostApiImpl.evaluateJavascriptBatch(
+        0L,
+        scripts,
+        new GeneratedAndroidWebView.Result<List<String>>() {
+          @Override
+          public void success(List<String> result) {
+            successValue[0] = result;
+          }
+
+          @Override
+          public void error(Throwable error) {}
+        });
+
+    @SuppressWarnings("unchecked")
+    final ArgumentCaptor<ValueCallback<String>> callbackCaptor =
+        ArgumentCaptor.forClass(ValueCallback.class);
+    verify(mockWebView).evaluateJavascript(anyString(), callbackCaptor.capture());
+    // The script that throws gives "null" and the others still run.
+    callbackCaptor.getValue().onReceiveValue("[\"2\",\"null\",\"\\\"a\\\"\"]");
+
+    assertEquals(successValue[0], Arrays.asList("2", "null", "\"a\""));
+  }
+
+  @Test
+  public void createBatchScriptEvaluatesEachQuotedScriptInItsOwnTry() {
+    final String script =
+        WebViewHostApiImpl.createBatchScript(Arrays.asList("document.title", "say(\"hi\")"));
+
+    assertTrue(script.contains("var s = [\"document.title\",\"say(\\\"hi\\\")\"];"));
+    assertTrue(
+        script.contains(
+            "for (var i = 0; i < s.length; i++) {try {var j = JSON.stringify((0, eval)(s[i]));"));
+    assertTrue(script.contains("} catch (e) { r.push('null'); }}"));
+  }
+
+  @Test
+  public void parseBatchResultsRejectsUnexpectedValues() {
+    assertEquals(
+        WebViewHostApiImpl.parseBatchResults("[\"1\",\"null\"]", 2), Arrays.asList("1", "null"));
+    assertNull(WebViewHostApiImpl.parseBatchResults("null", 2));
+    assertNull(WebViewHostApiImpl.parseBatchResults("[\"1\"]", 2));
+    assertNull(WebViewHostApiImpl.parseBatchResults("[\"1\"", 1));
+  }
+
+  @Test
+  public void evaluateJavaScriptBatchFallsBackToSequentialEvaluation() {
+    final List<String> scripts = Arrays.asList("1 + 1", "2 + 2");
+    @SuppressWarnings("unchecked")
+    final List<String>[] successValue = new List[1];
+    testHostApiImpl.evaluateJavascriptBatch(
+        0L,
+        scripts,
+        new GeneratedAndroidWebView.Result<List<String>>() {
+          @Override
+          public void success(List<String> result) {
+            successValue[0] = result;
+          }
+
+          @Override
+          public void error(Throwable error) {}
+        });
+
+    @SuppressWarnings("unchecked")
+    final ArgumentCaptor<ValueCallback<String>> callbackCaptor =
+        ArgumentCaptor.forClass(ValueCallback.class);
+    verify(mockWebView)
+        .evaluateJavascript(
+            eq(WebViewHostApiImpl.createBatchScript(scripts)), callbackCaptor.capture());
+    // The batch evaluates to null when eval is blocked.
+    callbackCaptor.getValue().onReceiveValue("null");
+
+    verify(mockWebView).evaluateJavascript(eq("1 + 1"), callbackCaptor.capture());
+    callbackCaptor.getValue().onReceiveValue("2");
+    verify(mockWebView).evaluateJavascript(eq("2 + 2"), callbackCaptor.capture());
+    callbackCaptor.getValue().onReceiveValue("4");
+
+    assertEquals(successValue[0], Arrays.asList("2", "4"));
+  }
+
   @Test
   public void getTitle() {
     when(mockWebView.getTitle()).thenReturn("My title");
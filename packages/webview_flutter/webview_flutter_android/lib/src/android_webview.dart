@@ -246,6 +246,19 @@ class WebView {
     return result;
   }
 
+  /// Evaluates several scripts in the context of the currently displayed page.
+  ///
+  /// The scripts are run in order with one call to the platform, and the
+  /// result of each script is returned as [evaluateJavascript] would return
+  /// it. A script that throws evaluates to 'null' without stopping the others.
+  ///
+  /// Top-level `let`, `const` and `class` declarations are scoped to their own
+  /// script, so unlike with separate [evaluateJavascript] calls they can't be
+  /// used by the scripts that follow. Use `var` or assign to `window` instead.
+  Future<List<String?>> evaluateJavascriptBatch(List<String> scripts) {
+    return api.evaluateJavascriptBatchFromInstance(this, scripts);
+  }
+
   // TODO(bparrishMines): Update documentation when WebViewClient.onReceivedTitle is added.
   /// Gets the title for the current page.
   ///
@@ -294,6 +307,19 @@ class WebView {
 
   /// customAction
   Future<String> customAction(String params)=>api.customActionFromInstace(this,params);
+
+  /// Events sent by the custom actions run on this [WebView], and by the native
+  /// downloads started from its [DownloadListener].
+  ///
+  /// Events of background work, like offline prefetch jobs, are sent with the
+  /// id of their job instead, see [CustomFlutterApiImpl.events].
+  Stream<CustomEvent> get customEvents {
+    AndroidWebViewFlutterApis.instance.ensureSetUp();
+    return AndroidWebViewFlutterApis.instance.customFlutterApi.events.where(
+      (CustomEvent event) =>
+          event.instanceId == api.instanceManager.getInstanceId(this),
+    );
+  }
   /// Sets the [WebViewClient] that will receive various notifications and requests.
   ///
   /// This will replace the current handler.
@@ -772,6 +798,11 @@ abstract class DownloadListener {
   static DownloadListenerHostApiImpl api = DownloadListenerHostApiImpl();
 
   /// Notify the host application that a file should be downloaded.
+  ///
+  /// Not called while native downloads are enabled with the
+  /// `configureDownloads` custom action: the file is downloaded natively, and a
+  /// `downloadStarted` event with its `downloadId` is sent on
+  /// [WebView.customEvents] instead.
   void onDownloadStart(
     String url,
     String userAgent,
@@ -846,6 +877,27 @@ class WebResourceError {
   final String description;
 }
 
+/// An event sent by a custom action, like the progress of a download.
+///
+/// See [WebView.customEvents].
+class CustomEvent {
+  /// Constructs a [CustomEvent].
+  CustomEvent({
+    required this.instanceId,
+    required this.name,
+    required this.data,
+  });
+
+  /// The id of the instance the event is about.
+  final int instanceId;
+
+  /// The name of the event, for example "downloadProgress".
+  final String name;
+
+  /// All the fields of the event, including its name.
+  final Map<String, Object?> data;
+}
+
 /// Manages Flutter assets that are part of Android's app bundle.
 class FlutterAssetManager {
   /// Constructs the [FlutterAssetManager].
@@ -516,6 +516,33 @@ class WebViewHostApi {
     }
   }
 
+  Future<List<String?>> evaluateJavascriptBatch(
+      int arg_instanceId, List<String?> arg_scripts) async {
+    final BasicMessageChannel<Object?> channel = BasicMessageChannel<Object?>(
+        'dev.flutter.pigeon.WebViewHostApi.evaluateJavascriptBatch', codec,
+        binaryMessenger: _binaryMessenger);
+    final Map<Object?, Object?>? replyMap =
+        await channel.send(<Object>[arg_instanceId, arg_scripts])
+            as Map<Object?, Object?>?;
+    if (replyMap == null) {
+      throw PlatformException(
+        code: 'channel-error',
+        message: 'Unable to establish connection on channel.',
+        details: null,
+      );
+    } else if (replyMap['error'] != null) {
+      final Map<Object?, Object?> error =
+          (replyMap['error'] as Map<Object?, Object?>?)!;
+      throw PlatformException(
+        code: (error['code'] as String?)!,
+        message: error['message'] as String?,
+        details: error['details'],
+      );
+    } else {
+      return (replyMap['result'] as List<Object?>?)!.cast<String?>();
+    }
+  }
+
   Future<String> getTitle(int arg_instanceId) async {
     final BasicMessageChannel<Object?> channel = BasicMessageChannel<Object?>(
         'dev.flutter.pigeon.WebViewHostApi.getTitle', codec,
@@ -1313,6 +1340,8 @@ abstract class JavaScriptChannelFlutterApi {
 
   void postMessage(int instanceId, String message);
 
+  void postMessages(int instanceId, List<String?> messages);
+
   static void setup(JavaScriptChannelFlutterApi? api,
       {BinaryMessenger? binaryMessenger}) {
     {
@@ -1356,6 +1385,29 @@ abstract class JavaScriptChannelFlutterApi {
         });
       }
     }
+    {
+      final BasicMessageChannel<Object?> channel = BasicMessageChannel<Object?>(
+          'dev.flutter.pigeon.JavaScriptChannelFlutterApi.postMessages', codec,
+          binaryMessenger: binaryMessenger);
+      if (api == null) {
+        channel.setMessageHandler(null);
+      } else {
+        channel.setMessageHandler((Object? message) async {
+          assert(message != null,
+              'Argument for dev.flutter.pigeon.JavaScriptChannelFlutterApi.postMessages was null.');
+          final List<Object?> args = (message as List<Object?>?)!;
+          final int? arg_instanceId = (args[0] as int?);
+          assert(arg_instanceId != null,
+              'Argument for dev.flutter.pigeon.JavaScriptChannelFlutterApi.postMessages was null, expected non-null int.');
+          final List<String?>? arg_messages =
+              (args[1] as List<Object?>?)?.cast<String?>();
+          assert(arg_messages != null,
+              'Argument for dev.flutter.pigeon.JavaScriptChannelFlutterApi.postMessages was null, expected non-null List<String?>.');
+          api.postMessages(arg_instanceId!, arg_messages!);
+          return;
+        });
+      }
+    }
   }
 }
 
@@ -1995,3 +2047,38 @@ abstract class WebChromeClientFlutterApi {
     }
   }
 }
+
+class _CustomFlutterApiCodec extends StandardMessageCodec {
+  const _CustomFlutterApiCodec();
+}
+
+abstract class CustomFlutterApi {
+  static const MessageCodec<Object?> codec = _CustomFlutterApiCodec();
+
+  void onCustomEvent(int instanceId, String event);
+
+  static void setup(CustomFlutterApi? api, {BinaryMessenger? binaryMessenger}) {
+    {
+      final BasicMessageChannel<Object?> channel = BasicMessageChannel<Object?>(
+          'dev.flutter.pigeon.CustomFlutterApi.onCustomEvent', codec,
+          binaryMessenger: binaryMessenger);
+      if (api == null) {
+        channel.setMessageHandler(null);
+      } else {
+        channel.setMessageHandler((Object? message) async {
+          assert(message != null,
+              'Argument for dev.flutter.pigeon.CustomFlutterApi.onCustomEvent was null.');
+          final List<Object?> args = (message as List<Object?>?)!;
+          final int? arg_instanceId = (args[0] as int?);
+          assert(arg_instanceId != null,
+              'Argument for dev.flutter.pigeon.CustomFlutterApi.onCustomEvent was null, expected non-null int.');
+          final String? arg_event = (args[1] as String?);
+          assert(arg_event != null,
+              'Argument for dev.flutter.pigeon.CustomFlutterApi.onCustomEvent was null, expected non-null String.');
+          api.onCustomEvent(arg_instanceId!, arg_event!);
+          return;
+        });
+      }
+    }
+  }
+}
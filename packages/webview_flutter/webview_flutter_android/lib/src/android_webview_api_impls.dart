@@ -2,6 +2,8 @@
 // Use of this source code is governed by a BSD-style license that can be
 // found in the LICENSE file.
 
+import 'dart:async';
+import 'dart:convert';
 import 'dart:typed_data';
 
 import 'package:flutter/services.dart';
@@ -39,6 +41,7 @@ class AndroidWebViewFlutterApis {
     WebViewClientFlutterApiImpl? webViewClientFlutterApi,
     WebChromeClientFlutterApiImpl? webChromeClientFlutterApi,
     JavaScriptChannelFlutterApiImpl? javaScriptChannelFlutterApi,
+    CustomFlutterApiImpl? customFlutterApi,
   }) {
     this.downloadListenerFlutterApi =
         downloadListenerFlutterApi ?? DownloadListenerFlutterApiImpl();
@@ -48,6 +51,7 @@ class AndroidWebViewFlutterApis {
         webChromeClientFlutterApi ?? WebChromeClientFlutterApiImpl();
     this.javaScriptChannelFlutterApi =
         javaScriptChannelFlutterApi ?? JavaScriptChannelFlutterApiImpl();
+    this.customFlutterApi = customFlutterApi ?? CustomFlutterApiImpl();
   }
 
   static bool _haveBeenSetUp = false;
@@ -69,6 +73,9 @@ class AndroidWebViewFlutterApis {
   /// Flutter Api for [JavaScriptChannel].
   late final JavaScriptChannelFlutterApiImpl javaScriptChannelFlutterApi;
 
+  /// Flutter Api for the events of the custom actions.
+  late final CustomFlutterApiImpl customFlutterApi;
+
   /// Ensures all the Flutter APIs have been setup to receive calls from native code.
   void ensureSetUp() {
     if (!_haveBeenSetUp) {
@@ -76,6 +83,7 @@ class AndroidWebViewFlutterApis {
       WebViewClientFlutterApi.setup(webViewClientFlutterApi);
       WebChromeClientFlutterApi.setup(webChromeClientFlutterApi);
       JavaScriptChannelFlutterApi.setup(javaScriptChannelFlutterApi);
+      CustomFlutterApi.setup(customFlutterApi);
       _haveBeenSetUp = true;
     }
   }
@@ -210,6 +218,15 @@ class WebViewHostApiImpl extends WebViewHostApi {
         instanceManager.getInstanceId(instance)!, javascriptString);
   }
 
+  /// Helper method to convert instances ids to objects.
+  Future<List<String?>> evaluateJavascriptBatchFromInstance(
+    WebView instance,
+    List<String> scripts,
+  ) {
+    return evaluateJavascriptBatch(
+        instanceManager.getInstanceId(instance)!, scripts);
+  }
+
   /// Helper method to convert instances ids to objects.
   Future<String> getTitleFromInstance(WebView instance) {
     return getTitle(instanceManager.getInstanceId(instance)!);
@@ -503,6 +520,19 @@ class JavaScriptChannelFlutterApiImpl extends JavaScriptChannelFlutterApi {
     );
     instance!.postMessage(message);
   }
+
+  @override
+  void postMessages(int instanceId, List<String?> messages) {
+    final JavaScriptChannel? instance =
+        instanceManager.getInstance(instanceId) as JavaScriptChannel?;
+    assert(
+      instance != null,
+      'InstanceManager does not contain an JavaScriptChannel with instanceId: $instanceId',
+    );
+    for (final String? message in messages) {
+      instance!.postMessage(message!);
+    }
+  }
 }
 
 /// Host api implementation for [WebViewClient].
@@ -830,3 +860,23 @@ class WebChromeClientFlutterApiImpl extends WebChromeClientFlutterApi {
     instance!.onProgressChanged(webViewInstance!, progress);
   }
 }
+
+/// Flutter api implementation for the events of the custom actions.
+class CustomFlutterApiImpl extends CustomFlutterApi {
+  final StreamController<CustomEvent> _eventsController =
+      StreamController<CustomEvent>.broadcast();
+
+  /// Events of all the instances, decoded from the JSON sent by native code.
+  Stream<CustomEvent> get events => _eventsController.stream;
+
+  @override
+  void onCustomEvent(int instanceId, String event) {
+    final Map<String, Object?> data =
+        (jsonDecode(event) as Map<Object?, Object?>).cast<String, Object?>();
+    _eventsController.add(CustomEvent(
+      instanceId: instanceId,
+      name: data['event'] as String? ?? '',
+      data: data,
+    ));
+  }
+}
@@ -349,6 +349,10 @@ class WebViewAndroidPlatformController extends WebViewPlatformController {
   Future<String> customAction(String params) =>
       webView.customAction(params);
 
+  /// Events sent by the custom actions run on the [WebView].
+  Stream<android_webview.CustomEvent> get customEvents =>
+      webView.customEvents;
+
   Future<void> _dispose() => webView.release();
 
   void _setCreationParams(CreationParams creationParams) {
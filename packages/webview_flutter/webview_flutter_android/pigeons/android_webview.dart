@@ -80,6 +80,12 @@ abstract class WebViewHostApi {
     String javascriptString,
   );
 
+  @async
+  List<String> evaluateJavascriptBatch(
+    int instanceId,
+    List<String> scripts,
+  );
+
   String getTitle(int instanceId);
 
   void scrollTo(int instanceId, int x, int y);
@@ -146,6 +152,8 @@ abstract class JavaScriptChannelFlutterApi {
   void dispose(int instanceId);
 
   void postMessage(int instanceId, String message);
+
+  void postMessages(int instanceId, List<String> messages);
 }
 
 @HostApi(dartHostTestHandler: 'TestWebViewClientHostApi')
@@ -222,3 +230,9 @@ abstract class WebChromeClientFlutterApi {
 
   void onProgressChanged(int instanceId, int webViewInstanceId, int progress);
 }
+
+@FlutterApi()
+abstract class CustomFlutterApi {
+  /// Receives an [event] encoded as a JSON object with an `event` name.
+  void onCustomEvent(int instanceId, String event);
+}
@@ -36,6 +36,8 @@ abstract class TestWebViewHostApi {
   void reload(int instanceId);
   void clearCache(int instanceId, bool includeDiskFiles);
   Future<String> evaluateJavascript(int instanceId, String javascriptString);
+  Future<List<String?>> evaluateJavascriptBatch(
+      int instanceId, List<String?> scripts);
   String getTitle(int instanceId);
   void scrollTo(int instanceId, int x, int y);
   void scrollBy(int instanceId, int x, int y);
@@ -365,6 +367,30 @@ abstract class TestWebViewHostApi {
         });
       }
     }
+    {
+      final BasicMessageChannel<Object?> channel = BasicMessageChannel<Object?>(
+          'dev.flutter.pigeon.WebViewHostApi.evaluateJavascriptBatch', codec,
+          binaryMessenger: binaryMessenger);
+      if (api == null) {
+        channel.setMockMessageHandler(null);
+      } else {
+        channel.setMockMessageHandler((Object? message) async {
+          assert(message != null,
+              'Argument for dev.flutter.pigeon.WebViewHostApi.evaluateJavascriptBatch was null.');
+          final List<Object?> args = (message as List<Object?>?)!;
+          final int? arg_instanceId = (args[0] as int?);
+          assert(arg_instanceId != null,
+              'Argument for dev.flutter.pigeon.WebViewHostApi.evaluateJavascriptBatch was null, expected non-null int.');
+          final List<String?>? arg_scripts =
+              (args[1] as List<Object?>?)?.cast<String?>();
+          assert(arg_scripts != null,
+              'Argument for dev.flutter.pigeon.WebViewHostApi.evaluateJavascriptBatch was null, expected non-null List<String?>.');
+          final List<String?> output =
+              await api.evaluateJavascriptBatch(arg_instanceId!, arg_scripts!);
+          return <Object?, Object?>{'result': output};
+        });
+      }
+    }
     {
       final BasicMessageChannel<Object?> channel = BasicMessageChannel<Object?>(
           'dev.flutter.pigeon.WebViewHostApi.getTitle', codec,
@@ -172,6 +172,18 @@ void main() {
         );
       });
 
+      test('evaluateJavascriptBatch', () {
+        when(
+          mockPlatformHostApi.evaluateJavascriptBatch(
+              webViewInstanceId, <String>['first', 'second']),
+        ).thenAnswer(
+            (_) => Future<List<String?>>.value(<String?>['1', 'null']));
+        expect(
+          webView.evaluateJavascriptBatch(<String>['first', 'second']),
+          completion(<String?>['1', 'null']),
+        );
+      });
+
       test('getTitle', () {
         when(mockPlatformHostApi.getTitle(webViewInstanceId))
             .thenReturn('aTitle');
@@ -471,6 +483,17 @@ void main() {
         );
         verify(mockJavaScriptChannel.postMessage('Hello, World!'));
       });
+
+      test('postMessages', () {
+        flutterApi.postMessages(
+          mockJavaScriptChannelInstanceId,
+          <String>['Hello', 'World'],
+        );
+        expect(
+          verify(mockJavaScriptChannel.postMessage(captureAny)).captured,
+          <String>['Hello', 'World'],
+        );
+      });
     });
 
     group('WebViewClient', () {
@@ -660,6 +683,48 @@ void main() {
         verify(mockWebChromeClient.onProgressChanged(mockWebView, 76));
       });
     });
+
+    group('CustomFlutterApi', () {
+      late CustomFlutterApiImpl flutterApi;
+
+      setUp(() {
+        flutterApi = CustomFlutterApiImpl();
+      });
+
+      test('onCustomEvent', () async {
+        final Future<CustomEvent> event = flutterApi.events.first;
+        flutterApi.onCustomEvent(
+          3,
+          '{"event": "downloadProgress", "receivedBytes": 10}',
+        );
+
+        final CustomEvent received = await event;
+        expect(received.instanceId, 3);
+        expect(received.name, 'downloadProgress');
+        expect(received.data['receivedBytes'], 10);
+      });
+
+      test('customEvents only has the events of the WebView', () async {
+        final InstanceManager instanceManager = InstanceManager();
+        WebView.api = WebViewHostApiImpl(instanceManager: instanceManager);
+        TestWebViewHostApi.setup(MockTestWebViewHostApi());
+        final AndroidWebViewFlutterApis previousFlutterApis =
+            AndroidWebViewFlutterApis.instance;
+        addTearDown(
+          () => AndroidWebViewFlutterApis.instance = previousFlutterApis,
+        );
+        AndroidWebViewFlutterApis.instance =
+            AndroidWebViewFlutterApis(customFlutterApi: flutterApi);
+        final WebView webView = WebView();
+        final int webViewInstanceId = instanceManager.getInstanceId(webView)!;
+
+        final Future<CustomEvent> event = webView.customEvents.first;
+        flutterApi.onCustomEvent(webViewInstanceId + 1, '{"event": "other"}');
+        flutterApi.onCustomEvent(webViewInstanceId, '{"event": "mine"}');
+
+        expect((await event).name, 'mine');
+      });
+    });
   });
 
   group('CookieManager', () {
@@ -294,6 +294,13 @@ class MockTestWebViewHostApi extends _i1.Mock
               #evaluateJavascript, [instanceId, javascriptString]),
           returnValue: Future<String>.value('')) as _i4.Future<String>);
   @override
+  _i4.Future<List<String?>> evaluateJavascriptBatch(
+          int? instanceId, List<String?>? scripts) =>
+      (super.noSuchMethod(
+              Invocation.method(#evaluateJavascriptBatch, [instanceId, scripts]),
+              returnValue: Future<List<String?>>.value(<String?>[]))
+          as _i4.Future<List<String?>>);
+  @override
   String getTitle(int? instanceId) =>
       (super.noSuchMethod(Invocation.method(#getTitle, [instanceId]),
           returnValue: '') as String);
@@ -476,6 +483,11 @@ class MockWebView extends _i1.Mock implements _i2.WebView {
       .noSuchMethod(Invocation.method(#evaluateJavascript, [javascriptString]),
           returnValue: Future<String?>.value()) as _i4.Future<String?>);
   @override
+  _i4.Future<List<String?>> evaluateJavascriptBatch(List<String>? scripts) =>
+      (super.noSuchMethod(Invocation.method(#evaluateJavascriptBatch, [scripts]),
+              returnValue: Future<List<String?>>.value(<String?>[]))
+          as _i4.Future<List<String?>>);
+  @override
   _i4.Future<String?> getTitle() =>
       (super.noSuchMethod(Invocation.method(#getTitle, []),
           returnValue: Future<String?>.value()) as _i4.Future<String?>);
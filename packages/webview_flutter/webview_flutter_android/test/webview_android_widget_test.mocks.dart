@@ -209,6 +209,11 @@ class MockWebView extends _i1.Mock implements _i2.WebView {
       .noSuchMethod(Invocation.method(#evaluateJavascript, [javascriptString]),
           returnValue: Future<String?>.value()) as _i4.Future<String?>);
   @override
+  _i4.Future<List<String?>> evaluateJavascriptBatch(List<String>? scripts) =>
+      (super.noSuchMethod(Invocation.method(#evaluateJavascriptBatch, [scripts]),
+              returnValue: Future<List<String?>>.value(<String?>[]))
+          as _i4.Future<List<String?>>);
+  @override
   _i4.Future<String?> getTitle() =>
       (super.noSuchMethod(Invocation.method(#getTitle, []),
           returnValue: Future<String?>.value()) as _i4.Future<String?>);